@@ -0,0 +1,216 @@
+package ru.averkiev.bankservice.grpc;
+
+import io.grpc.Status;
+import io.grpc.stub.StreamObserver;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import ru.averkiev.bankservice.exceptions.*;
+import ru.averkiev.bankservice.grpc.proto.*;
+import ru.averkiev.bankservice.models.AccountCreateDTO;
+import ru.averkiev.bankservice.models.AccountDTO;
+import ru.averkiev.bankservice.models.AccountInfoDTO;
+import ru.averkiev.bankservice.models.AccountTransactionDTO;
+import ru.averkiev.bankservice.models.Money;
+import ru.averkiev.bankservice.services.AccountService;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * gRPC-сервис операций со счетами для внутренних клиентов.
+ * Все операции выполняются сервисом {@link AccountService}, поэтому проверки и режимы учета балансов совпадают
+ * с REST API. Ошибки сервиса преобразуются в статусы gRPC так же, как в HTTP-статусы в GlobalExceptionHandler.
+ * @author mrGreenNV
+ */
+@Component
+@Profile("grpc")
+@Slf4j
+@RequiredArgsConstructor
+public class AccountOperationsGrpcService extends AccountOperationsGrpc.AccountOperationsImplBase {
+
+    /** Сервис для взаимодействия со счетами */
+    private final AccountService accountService;
+
+    /** Валидатор данных для создания счета */
+    private final Validator validator;
+
+    /**
+     * Создает новый банковский счет.
+     * @param request Данные для создания счета.
+     * @param responseObserver Получатель информации о созданном счете.
+     */
+    @Override
+    public void createAccount(CreateAccountRequest request, StreamObserver<AccountInfo> responseObserver) {
+        AccountCreateDTO accountCreateDTO = new AccountCreateDTO();
+        accountCreateDTO.setAccountName(request.getAccountName());
+        accountCreateDTO.setPin(request.getPin());
+
+        Set<ConstraintViolation<AccountCreateDTO>> violations = validator.validate(accountCreateDTO);
+        if (!violations.isEmpty()) {
+            responseObserver.onError(Status.INVALID_ARGUMENT
+                    .withDescription(violations.stream()
+                            .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                            .collect(Collectors.joining("; ")))
+                    .asRuntimeException());
+            return;
+        }
+
+        try {
+            responseObserver.onNext(toAccountInfo(accountService.createAccount(accountCreateDTO)));
+            responseObserver.onCompleted();
+        } catch (RuntimeException ex) {
+            responseObserver.onError(toStatus(ex).asRuntimeException());
+        }
+    }
+
+    /**
+     * Получает информацию о счете по его идентификатору.
+     * @param request Идентификатор счета.
+     * @param responseObserver Получатель информации о счете.
+     */
+    @Override
+    public void getAccount(GetAccountRequest request, StreamObserver<Account> responseObserver) {
+        try {
+            AccountDTO accountDTO = accountService.getInfoAccount(request.getAccountId(), request.getConsistent());
+            responseObserver.onNext(Account.newBuilder()
+                    .setId(accountDTO.getId())
+                    .setAccountName(accountDTO.getAccountName())
+                    .setBalanceMinor(accountDTO.getBalance().getMinorUnits())
+                    .build());
+            responseObserver.onCompleted();
+        } catch (RuntimeException ex) {
+            responseObserver.onError(toStatus(ex).asRuntimeException());
+        }
+    }
+
+    /**
+     * Выполняет пополнение счета.
+     * @param request Идентификатор счета и сумма пополнения.
+     * @param responseObserver Получатель информации о счете.
+     */
+    @Override
+    public void deposit(AmountRequest request, StreamObserver<AccountInfo> responseObserver) {
+        try {
+            responseObserver.onNext(toAccountInfo(accountService.deposit(request.getAccountId(), toTransaction(request))));
+            responseObserver.onCompleted();
+        } catch (RuntimeException ex) {
+            responseObserver.onError(toStatus(ex).asRuntimeException());
+        }
+    }
+
+    /**
+     * Выполняет списание средств со счета.
+     * @param request Идентификатор счета, пин-код и сумма списания.
+     * @param responseObserver Получатель информации о счете.
+     */
+    @Override
+    public void withdraw(AmountRequest request, StreamObserver<AccountInfo> responseObserver) {
+        try {
+            responseObserver.onNext(toAccountInfo(accountService.withdraw(request.getAccountId(), toTransaction(request))));
+            responseObserver.onCompleted();
+        } catch (RuntimeException ex) {
+            responseObserver.onError(toStatus(ex).asRuntimeException());
+        }
+    }
+
+    /**
+     * Выполняет перевод средств между счетами.
+     * @param request Данные для перевода средств.
+     * @param responseObserver Получатель информации о счете списания.
+     */
+    @Override
+    public void transfer(TransferRequest request, StreamObserver<AccountInfo> responseObserver) {
+        try {
+            responseObserver.onNext(toAccountInfo(accountService.transfer(request.getAccountId(), toTransaction(request))));
+            responseObserver.onCompleted();
+        } catch (RuntimeException ex) {
+            responseObserver.onError(toStatus(ex).asRuntimeException());
+        }
+    }
+
+    /**
+     * Выполняет переводы из потока запросов.
+     * Запросы одного потока выполняются по порядку: следующий запрос читается только после выполнения предыдущего,
+     * поэтому клиент, отправляющий запросы быстрее их выполнения, сдерживается механизмом управления потоком HTTP/2.
+     * @param responseObserver Получатель результатов переводов.
+     * @return Получатель запросов на перевод.
+     */
+    @Override
+    public StreamObserver<TransferRequest> streamTransfers(StreamObserver<TransferResult> responseObserver) {
+        return new StreamObserver<>() {
+
+            @Override
+            public void onNext(TransferRequest request) {
+                TransferResult.Builder result = TransferResult.newBuilder().setRequestId(request.getRequestId());
+                try {
+                    result.setAccount(toAccountInfo(accountService.transfer(request.getAccountId(), toTransaction(request))));
+                } catch (RuntimeException ex) {
+                    Status status = toStatus(ex);
+                    result.setError(TransferError.newBuilder()
+                            .setCode(status.getCode().name())
+                            .setMessage(status.getDescription() == null ? "" : status.getDescription()));
+                }
+                responseObserver.onNext(result.build());
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                log.warn("IN streamTransfers - поток переводов прерван клиентом: {}", Status.fromThrowable(throwable));
+            }
+
+            @Override
+            public void onCompleted() {
+                responseObserver.onCompleted();
+            }
+        };
+    }
+
+    /**
+     * Преобразует ошибку сервиса в статус gRPC.
+     * @param ex Ошибка сервиса.
+     * @return Статус gRPC с сообщением об ошибке.
+     */
+    static Status toStatus(RuntimeException ex) {
+        Status status;
+        if (ex instanceof AccountNotFoundException) {
+            status = Status.NOT_FOUND;
+        } else if (ex instanceof AccountAccessException) {
+            status = Status.PERMISSION_DENIED;
+        } else if (ex instanceof OperationRejectedException) {
+            status = Status.RESOURCE_EXHAUSTED;
+        } else if (ex instanceof AccountWithdrawException || ex instanceof AccountCreatedException
+                || ex instanceof AccountWithNameAlreadyExistsException) {
+            status = Status.FAILED_PRECONDITION;
+        } else {
+            log.error("IN toStatus - операция завершилась ошибкой", ex);
+            status = Status.INVALID_ARGUMENT;
+        }
+        return status.withDescription(ex.getMessage());
+    }
+
+    private static AccountTransactionDTO toTransaction(AmountRequest request) {
+        AccountTransactionDTO accountTransactionDTO = new AccountTransactionDTO();
+        accountTransactionDTO.setPin(request.getPin());
+        accountTransactionDTO.setTransferAmount(Money.ofMinorUnits(request.getAmountMinor()));
+        return accountTransactionDTO;
+    }
+
+    private static AccountTransactionDTO toTransaction(TransferRequest request) {
+        AccountTransactionDTO accountTransactionDTO = new AccountTransactionDTO();
+        accountTransactionDTO.setPin(request.getPin());
+        accountTransactionDTO.setTransferAmount(Money.ofMinorUnits(request.getAmountMinor()));
+        accountTransactionDTO.setSourceAccountName(request.getDestinationAccountName());
+        return accountTransactionDTO;
+    }
+
+    private static AccountInfo toAccountInfo(AccountInfoDTO accountInfoDTO) {
+        return AccountInfo.newBuilder()
+                .setAccountName(accountInfoDTO.getAccountName())
+                .setBalanceMinor(accountInfoDTO.getAccountBalance().getMinorUnits())
+                .build();
+    }
+}
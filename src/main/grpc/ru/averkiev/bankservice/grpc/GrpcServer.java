@@ -0,0 +1,84 @@
+package ru.averkiev.bankservice.grpc;
+
+import io.grpc.Server;
+import io.grpc.netty.shaded.io.grpc.netty.NettyServerBuilder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * gRPC-сервер операций со счетами.
+ * Работает на отдельном порту поверх HTTP/2: запросы клиента мультиплексируются в одном соединении.
+ * Вызовы выполняются пулом потоков фиксированного размера, так как каждая операция занимает соединение с базой данных.
+ * @author mrGreenNV
+ */
+@Component
+@Profile("grpc")
+@Slf4j
+public class GrpcServer {
+
+    /** Максимальное время ожидания завершения выполняющихся вызовов при остановке приложения в секундах */
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 30;
+
+    /** gRPC-сервер */
+    private final Server server;
+
+    /** Пул потоков выполнения вызовов */
+    private final ExecutorService executor;
+
+    /**
+     * Создает gRPC-сервер.
+     * @param accountOperationsGrpcService gRPC-сервис операций со счетами.
+     * @param port Порт сервера.
+     * @param threads Количество потоков выполнения вызовов.
+     * @param maxConcurrentCallsPerConnection Максимальное количество одновременных вызовов в одном соединении.
+     */
+    public GrpcServer(AccountOperationsGrpcService accountOperationsGrpcService,
+                      @Value("${bank.grpc.port:9090}") int port,
+                      @Value("${bank.grpc.threads:16}") int threads,
+                      @Value("${bank.grpc.max-concurrent-calls-per-connection:1000}") int maxConcurrentCallsPerConnection) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "grpc-worker-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.server = NettyServerBuilder.forPort(port)
+                .executor(executor)
+                .maxConcurrentCallsPerConnection(maxConcurrentCallsPerConnection)
+                .addService(accountOperationsGrpcService)
+                .build();
+    }
+
+    /**
+     * Запускает gRPC-сервер.
+     * @throws IOException Выбрасывает, если порт сервера занят.
+     */
+    @PostConstruct
+    public void start() throws IOException {
+        server.start();
+        log.info("IN start - gRPC-сервер запущен на порту: {}", server.getPort());
+    }
+
+    /**
+     * Прекращает прием вызовов и ожидает завершения выполняющихся вызовов.
+     * @throws InterruptedException Выбрасывает при прерывании ожидания.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        server.shutdown();
+        if (!server.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+            server.shutdownNow();
+        }
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,87 @@
+package ru.averkiev.bankservice.configs;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import ru.averkiev.bankservice.routing.ReplicaRoutingDataSource;
+
+import javax.sql.DataSource;
+
+/**
+ * Конфигурация чтения из реплики базы данных.
+ * Основная база данных настраивается свойствами spring.datasource, реплика - свойствами bank.replica.datasource.
+ * Все компоненты приложения получают источник данных, направляющий транзакции только для чтения на реплику.
+ * @author mrGreenNV
+ */
+@Configuration
+@Profile("replica-routing")
+public class ReplicaRoutingConfig {
+
+    /**
+     * Создает Bean настроек основной базы данных.
+     * @return настройки основной базы данных.
+     */
+    @Bean
+    @Primary
+    @ConfigurationProperties("spring.datasource")
+    public DataSourceProperties dataSourceProperties() {
+        return new DataSourceProperties();
+    }
+
+    /**
+     * Создает Bean настроек реплики базы данных.
+     * @return настройки реплики базы данных.
+     */
+    @Bean
+    @ConfigurationProperties("bank.replica.datasource")
+    public DataSourceProperties replicaDataSourceProperties() {
+        return new DataSourceProperties();
+    }
+
+    /**
+     * Создает Bean пула соединений основной базы данных.
+     * @param dataSourceProperties настройки основной базы данных.
+     * @return пул соединений основной базы данных.
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    /**
+     * Создает Bean пула соединений реплики базы данных.
+     * @param replicaDataSourceProperties настройки реплики базы данных.
+     * @return пул соединений реплики базы данных.
+     */
+    @Bean
+    @ConfigurationProperties("bank.replica.datasource.hikari")
+    public HikariDataSource replicaDataSource(
+            @Qualifier("replicaDataSourceProperties") DataSourceProperties replicaDataSourceProperties) {
+        HikariDataSource dataSource = replicaDataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    /**
+     * Создает Bean источника данных приложения с маршрутизацией между основной базой данных и репликой.
+     * @param primaryDataSource пул соединений основной базы данных.
+     * @param replicaDataSource пул соединений реплики базы данных.
+     * @return источник данных приложения.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                 @Qualifier("replicaDataSource") DataSource replicaDataSource) {
+        return new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(primaryDataSource, replicaDataSource));
+    }
+}
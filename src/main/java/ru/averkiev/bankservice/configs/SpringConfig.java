@@ -3,12 +3,14 @@ package ru.averkiev.bankservice.configs;
 import org.modelmapper.ModelMapper;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
 /**
  * @author mrGreenNV
  */
 @Configuration
+@EnableScheduling
 public class SpringConfig {
 
     /**
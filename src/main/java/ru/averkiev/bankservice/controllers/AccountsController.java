@@ -2,14 +2,30 @@ package ru.averkiev.bankservice.controllers;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.averkiev.bankservice.models.*;
+import ru.averkiev.bankservice.services.AccountArchiveService;
+import ru.averkiev.bankservice.services.AccountChangeService;
+import ru.averkiev.bankservice.services.AccountSearchService;
+import ru.averkiev.bankservice.services.AccountStatsService;
+import ru.averkiev.bankservice.services.BalanceEventService;
+import ru.averkiev.bankservice.services.BalanceHistoryService;
+import ru.averkiev.bankservice.services.OperationService;
+import ru.averkiev.bankservice.services.StatementService;
 import ru.averkiev.bankservice.services.impl.AccountServiceImpl;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 /**
  * REST-контроллер для взаимодействия со счетами.
@@ -18,6 +34,7 @@ import java.util.List;
  * @author mrGreenNV
  */
 @RestController
+@Profile("!reactive")
 @RequiredArgsConstructor
 @RequestMapping("/api/accounts")
 public class AccountsController {
@@ -25,6 +42,30 @@ public class AccountsController {
     /** Сервис для взаимодействия со счетами */
     private final AccountServiceImpl accountService;
 
+    /** Сервис асинхронного выполнения операций со счетами */
+    private final OperationService operationService;
+
+    /** Сервис формирования выписок по счетам */
+    private final StatementService statementService;
+
+    /** Сервис получения исторических балансов счетов */
+    private final BalanceHistoryService balanceHistoryService;
+
+    /** Сервис рассылки событий об изменении балансов счетов */
+    private final BalanceEventService balanceEventService;
+
+    /** Сервис синхронизации изменений счетов */
+    private final AccountChangeService accountChangeService;
+
+    /** Сервис архивации счетов */
+    private final AccountArchiveService accountArchiveService;
+
+    /** Сервис поиска счетов по части названия */
+    private final AccountSearchService accountSearchService;
+
+    /** Сервис сводной статистики по счетам */
+    private final AccountStatsService accountStatsService;
+
     /**
      * API-endpoint для создания нового банковского счета.
      * @param accountCreateDTO Данные для создания счета.
@@ -49,26 +90,208 @@ public class AccountsController {
     /**
      * API-endpoint для получения информации о счете по его идентификатору.
      * @param accountId Идентификатор счета.
+     * Если ETag из заголовка If-None-Match совпадает с текущим, возвращается 304 без загрузки счета.
+     * @param consistent Признак получения баланса с учетом операций, еще не учтенных в таблице accounts.
+     * @param webRequest Текущий запрос.
      * @return Информация о запрашиваемом счете.
      */
     @GetMapping("/{accountId}")
-    public ResponseEntity<AccountDTO> showAccount(@PathVariable Long accountId) {
-        return ResponseEntity.status(HttpStatus.OK).body(accountService.getInfoAccount(accountId));
+    public ResponseEntity<AccountDTO> showAccount(
+            @PathVariable Long accountId,
+            @RequestParam(value = "consistent", required = false, defaultValue = "false") boolean consistent,
+            WebRequest webRequest
+    ) {
+        // ETag вычисляется до загрузки счета: при изменении счета между запросами клиент получит новые данные
+        // со старым ETag, и следующий условный запрос вернет их повторно, а не 304.
+        if (webRequest.checkNotModified(weakETag(accountService.getAccountETag(accountId, consistent)))) {
+            return null;
+        }
+        return ResponseEntity.status(HttpStatus.OK).body(accountService.getInfoAccount(accountId, consistent));
+    }
+
+    /**
+     * API-endpoint для получения выбранных полей информации о счете по его идентификатору.
+     * Из базы данных читаются только столбцы выбранных полей.
+     * @param accountId Идентификатор счета.
+     * @param fields Названия полей через запятую, например: accountName,balance.
+     * @param consistent Признак получения баланса с учетом операций, еще не учтенных в таблице accounts.
+     * @param webRequest Текущий запрос.
+     * @return Значения выбранных полей.
+     */
+    @GetMapping(value = "/{accountId}", params = "fields")
+    public ResponseEntity<Map<String, Object>> showAccountFields(
+            @PathVariable Long accountId,
+            @RequestParam(value = "fields") List<String> fields,
+            @RequestParam(value = "consistent", required = false, defaultValue = "false") boolean consistent,
+            WebRequest webRequest
+    ) {
+        if (webRequest.checkNotModified(weakETag(accountService.getAccountETag(accountId, consistent)))) {
+            return null;
+        }
+        return ResponseEntity.status(HttpStatus.OK).body(accountService.getInfoAccount(accountId, consistent, fields));
+    }
+
+    /**
+     * API-endpoint для получения информации о нескольких счетах по их идентификаторам.
+     * @param ids Идентификаторы счетов через запятую.
+     * @return Найденные счета в порядке идентификаторов и идентификаторы ненайденных счетов.
+     */
+    @GetMapping("/batch")
+    public ResponseEntity<AccountsBatchDTO> showAccounts(@RequestParam(value = "ids") List<Long> ids) {
+        return ResponseEntity.status(HttpStatus.OK).body(accountService.getInfoAccounts(ids));
+    }
+
+    /**
+     * API-endpoint для получения информации о нескольких счетах по их идентификаторам.
+     * Используется для списков идентификаторов, не помещающихся в строку запроса.
+     * @param ids Идентификаторы счетов.
+     * @return Найденные счета в порядке идентификаторов и идентификаторы ненайденных счетов.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<AccountsBatchDTO> showAccountsByBody(@RequestBody List<Long> ids) {
+        return ResponseEntity.status(HttpStatus.OK).body(accountService.getInfoAccounts(ids));
+    }
+
+    /**
+     * API-endpoint для получения архивного счета по его идентификатору.
+     * Помеченные на удаление счета после архивации недоступны по GET /api/accounts/{accountId}.
+     * @param accountId Идентификатор счета.
+     * @return Информация об архивном счете.
+     */
+    @GetMapping("/archive/{accountId}")
+    public ResponseEntity<ArchivedAccountDTO> showArchivedAccount(@PathVariable Long accountId) {
+        return ResponseEntity.status(HttpStatus.OK).body(accountArchiveService.getArchivedAccount(accountId));
+    }
+
+    /**
+     * API-endpoint для получения выписки по счету в порядке времени операций.
+     * Выписка записывается в ответ по частям, без загрузки всех операций в память.
+     * @param accountId Идентификатор счета.
+     * @param from Время начала периода в формате ISO, включительно.
+     * @param to Время окончания периода в формате ISO, не включительно.
+     * @return JSON-массив операций по счету.
+     */
+    @GetMapping(value = "/{accountId}/statement", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> showStatement(
+            @PathVariable Long accountId,
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to
+    ) {
+        return ResponseEntity.status(HttpStatus.OK).body(statementService.getStatement(accountId, from, to));
+    }
+
+    /**
+     * API-endpoint для получения баланса счета на момент времени.
+     * @param accountId Идентификатор счета.
+     * @param at Момент времени в формате ISO.
+     * @return Баланс счета на момент времени.
+     */
+    @GetMapping("/{accountId}/balance")
+    public ResponseEntity<BalanceAtDTO> showBalanceAt(
+            @PathVariable Long accountId,
+            @RequestParam(value = "at") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at
+    ) {
+        return ResponseEntity.status(HttpStatus.OK).body(balanceHistoryService.getBalanceAt(accountId, at));
+    }
+
+    /**
+     * API-endpoint для подписки на изменения баланса счета в формате Server-Sent Events.
+     * @param accountId Идентификатор счета.
+     * @return Поток событий об изменении баланса, первое событие содержит текущий баланс.
+     */
+    @GetMapping(value = "/{accountId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeBalanceEvents(@PathVariable Long accountId) {
+        return balanceEventService.subscribe(accountId, accountService.getInfoAccount(accountId, true).getBalance());
     }
 
     /**
      * API-endpoint для получения списка всех банковских счетов.
+     * Если ETag из заголовка If-None-Match совпадает с текущим, возвращается 304 без загрузки счетов.
+     * @param webRequest Текущий запрос.
      * @return Список счетов содержащий информацию о названии и балансе.
      */
     @GetMapping()
     public ResponseEntity<List<AccountInfoDTO>> showAllAccounts(
             @RequestParam(value = "page", required = false) Integer page,
-            @RequestParam(value = "pageSize", required = false) Integer pageSize
+            @RequestParam(value = "pageSize", required = false) Integer pageSize,
+            WebRequest webRequest
     ) {
         if (page == null || pageSize == null) {
+            if (webRequest.checkNotModified(weakETag(accountService.getAccountsETag()))) {
+                return null;
+            }
             return ResponseEntity.status(HttpStatus.OK).body(accountService.getAllAccounts());
         }
-        return ResponseEntity.status(HttpStatus.OK).body(accountService.getAllAccounts(PageRequest.of(page, pageSize)));
+        PageRequest pageRequest = PageRequest.of(page, pageSize);
+        if (webRequest.checkNotModified(weakETag(accountService.getAccountsETag(pageRequest)))) {
+            return null;
+        }
+        return ResponseEntity.status(HttpStatus.OK).body(accountService.getAllAccounts(pageRequest));
+    }
+
+    /**
+     * API-endpoint для получения выбранных полей информации о всех банковских счетах.
+     * Из базы данных читаются только столбцы выбранных полей.
+     * @param fields Названия полей через запятую, например: accountName,accountBalance.
+     * @param webRequest Текущий запрос.
+     * @return Список значений выбранных полей счетов.
+     */
+    @GetMapping(params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> showAllAccountsFields(
+            @RequestParam(value = "page", required = false) Integer page,
+            @RequestParam(value = "pageSize", required = false) Integer pageSize,
+            @RequestParam(value = "fields") List<String> fields,
+            WebRequest webRequest
+    ) {
+        if (page == null || pageSize == null) {
+            if (webRequest.checkNotModified(weakETag(accountService.getAccountsETag()))) {
+                return null;
+            }
+            return ResponseEntity.status(HttpStatus.OK).body(accountService.getAllAccounts(fields));
+        }
+        PageRequest pageRequest = PageRequest.of(page, pageSize);
+        if (webRequest.checkNotModified(weakETag(accountService.getAccountsETag(pageRequest)))) {
+            return null;
+        }
+        return ResponseEntity.status(HttpStatus.OK).body(accountService.getAllAccounts(fields, pageRequest));
+    }
+
+    /**
+     * API-endpoint для получения счетов, измененных после переданного токена.
+     * @param since Токен из предыдущего ответа; без токена возвращаются все счета.
+     * @param limit Максимальное количество счетов в ответе.
+     * @return Измененные счета и токен для получения следующих изменений.
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<AccountChangesDTO> showAccountChanges(
+            @RequestParam(value = "since", required = false) String since,
+            @RequestParam(value = "limit", required = false) Integer limit
+    ) {
+        return ResponseEntity.status(HttpStatus.OK).body(accountChangeService.getChanges(since, limit));
+    }
+
+    /**
+     * API-endpoint для поиска счетов по началу или части названия без учета регистра.
+     * @param query Часть названия счета; запросы короче трех символов ищутся по началу названия.
+     * @param limit Максимальное количество счетов в ответе.
+     * @return Найденные счета в порядке убывания релевантности.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<List<AccountSearchDTO>> searchAccounts(
+            @RequestParam(value = "q") String query,
+            @RequestParam(value = "limit", required = false) Integer limit
+    ) {
+        return ResponseEntity.status(HttpStatus.OK).body(accountSearchService.search(query, limit));
+    }
+
+    /**
+     * API-endpoint для получения сводной статистики по счетам: суммарного баланса, количества счетов по статусам
+     * и распределения счетов по диапазонам баланса. Статистика отдается из памяти без запросов к базе данных.
+     * @return Статистика по счетам.
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<AccountStatsDTO> showAccountStats() {
+        return ResponseEntity.status(HttpStatus.OK).body(accountStatsService.getStats());
     }
 
     /**
@@ -93,6 +316,36 @@ public class AccountsController {
         return ResponseEntity.status(HttpStatus.OK).build();
     }
 
+    /**
+     * API-endpoint для удаления банковских счетов по списку идентификаторов и (или) условиям.
+     * @param accountBulkRequestDTO Условия выбора счетов.
+     * @return Количество удаленных счетов.
+     */
+    @PostMapping("/bulk/delete")
+    public ResponseEntity<AccountBulkResultDTO> closeAccounts(@RequestBody AccountBulkRequestDTO accountBulkRequestDTO) {
+        return ResponseEntity.status(HttpStatus.OK).body(accountService.deleteAccounts(accountBulkRequestDTO));
+    }
+
+    /**
+     * API-endpoint для деактивации банковских счетов по списку идентификаторов и (или) условиям.
+     * @param accountBulkRequestDTO Условия выбора счетов.
+     * @return Количество деактивированных счетов.
+     */
+    @PostMapping("/bulk/soft")
+    public ResponseEntity<AccountBulkResultDTO> deactivateAccounts(@RequestBody AccountBulkRequestDTO accountBulkRequestDTO) {
+        return ResponseEntity.status(HttpStatus.OK).body(accountService.softDeleteAccounts(accountBulkRequestDTO));
+    }
+
+    /**
+     * API-endpoint для изменения статуса банковских счетов по списку идентификаторов и (или) условиям.
+     * @param accountBulkRequestDTO Условия выбора счетов и новый статус.
+     * @return Количество счетов, статус которых изменен.
+     */
+    @PostMapping("/bulk/status")
+    public ResponseEntity<AccountBulkResultDTO> changeAccountsStatus(@RequestBody AccountBulkRequestDTO accountBulkRequestDTO) {
+        return ResponseEntity.status(HttpStatus.OK).body(accountService.changeAccountsStatus(accountBulkRequestDTO));
+    }
+
     /**
      * API-endpoint для пополнения банковского счета.
      * @param accountId Идентификатор пополняемого счета.
@@ -126,4 +379,25 @@ public class AccountsController {
         return ResponseEntity.status(HttpStatus.OK).body(accountService.transfer(accountId, accountTransactionDTO));
     }
 
-}
\ No newline at end of file
+    /**
+     * API-endpoint для асинхронного перевода средств между банковскими счетами.
+     * Перевод ставится в очередь, состояние операции доступно по адресу /api/operations/{operationId}.
+     * @param accountId Идентификатор счета, с которого происходит списание.
+     * @param accountTransactionDTO Данные для перевода средств между счетами.
+     * @return Информация о принятой операции.
+     */
+    @PostMapping("/{accountId}/transfer/async")
+    public ResponseEntity<OperationDTO> transferAsync(@PathVariable Long accountId, @RequestBody AccountTransactionDTO accountTransactionDTO) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(operationService.submitTransfer(accountId, accountTransactionDTO));
+    }
+
+    /**
+     * Формирует слабый ETag по версии данных. Данные одной версии передаются в разных форматах (JSON, CBOR, Smile)
+     * и при необходимости сжимаются, поэтому побайтовое совпадение ответов ETag не гарантирует.
+     * @param version Версия данных.
+     * @return Слабый ETag.
+     */
+    private static String weakETag(String version) {
+        return "W/\"" + version + "\"";
+    }
+}
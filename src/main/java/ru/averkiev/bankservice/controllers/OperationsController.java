@@ -0,0 +1,33 @@
+package ru.averkiev.bankservice.controllers;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import ru.averkiev.bankservice.models.OperationDTO;
+import ru.averkiev.bankservice.services.OperationService;
+
+/**
+ * REST-контроллер для получения состояния асинхронных операций со счетами.
+ * @author mrGreenNV
+ */
+@RestController
+@Profile("!reactive")
+@RequiredArgsConstructor
+@RequestMapping("/api/operations")
+public class OperationsController {
+
+    /** Сервис асинхронного выполнения операций со счетами */
+    private final OperationService operationService;
+
+    /**
+     * API-endpoint для получения состояния асинхронной операции.
+     * @param operationId Идентификатор операции.
+     * @return Информация об операции.
+     */
+    @GetMapping("/{operationId}")
+    public ResponseEntity<OperationDTO> showOperation(@PathVariable String operationId) {
+        return ResponseEntity.status(HttpStatus.OK).body(operationService.getOperation(operationId));
+    }
+}
@@ -0,0 +1,41 @@
+package ru.averkiev.bankservice.engine;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Команда, передаваемая потоку записи движка учета балансов.
+ * @author mrGreenNV
+ */
+final class LedgerCommand {
+
+    /** Тип команды */
+    final LedgerEventType type;
+
+    /** Идентификатор счета */
+    final long accountId;
+
+    /** Идентификатор счета зачисления при переводе или 0 */
+    final long counterpartyId;
+
+    /** Сумма в минимальных денежных единицах */
+    final long amount;
+
+    /** Баланс счета после выполнения команды */
+    final CompletableFuture<Long> result = new CompletableFuture<>();
+
+    /** Баланс счета после применения команды, заполняется потоком записи */
+    long balance;
+
+    /** Баланс счета зачисления после перевода, заполняется потоком записи */
+    long counterpartyBalance;
+
+    /** Ошибка применения команды, заполняется потоком записи */
+    RuntimeException error;
+
+    LedgerCommand(LedgerEventType type, long accountId, long counterpartyId, long amount) {
+        this.type = type;
+        this.accountId = accountId;
+        this.counterpartyId = counterpartyId;
+        this.amount = amount;
+    }
+}
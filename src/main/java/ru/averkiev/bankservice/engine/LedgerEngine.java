@@ -0,0 +1,604 @@
+package ru.averkiev.bankservice.engine;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import ru.averkiev.bankservice.exceptions.AccountNotFoundException;
+import ru.averkiev.bankservice.exceptions.AccountWithdrawException;
+import ru.averkiev.bankservice.exceptions.OperationRejectedException;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Движок учета балансов в памяти.
+ * Балансы всех счетов хранятся в {@link LongLongHashMap} в минимальных денежных единицах. Изменения поступают
+ * в ограниченный кольцевой буфер и применяются единственным потоком записи без блокировок. Каждая пачка событий
+ * записывается в журнал и фиксируется на диске до ответа вызывающим потокам. Таблица accounts обновляется
+ * асинхронно отдельным потоком вместе с контрольной точкой журнала.
+ * При запуске состояние восстанавливается из таблицы accounts и событий журнала после контрольной точки.
+ * @author mrGreenNV
+ */
+@Component
+@Profile("ledger-engine")
+@Slf4j
+public class LedgerEngine {
+
+    /** Максимальное время ожидания завершения потоков при остановке приложения в секундах */
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 30;
+
+    /** Максимальное время ожидания команды или снимка, после которого потоки проверяют признак остановки */
+    private static final long POLL_TIMEOUT_MILLIS = 100;
+
+    /** Хранилище снимка балансов в базе данных */
+    private final LedgerSnapshotStore snapshotStore;
+
+    /** Кольцевой буфер команд */
+    private final BlockingQueue<LedgerCommand> ring;
+
+    /** Очередь снимков, ожидающих сохранения в базе данных */
+    private final BlockingQueue<FlushBatch> flushQueue = new ArrayBlockingQueue<>(1);
+
+    /** Балансы счетов, принадлежат потоку записи */
+    private final LongLongHashMap balances;
+
+    /** Балансы, измененные после последнего снимка, принадлежат потоку записи */
+    private final LongLongHashMap dirty;
+
+    /** Путь к файлу журнала */
+    private final Path journalPath;
+
+    /** Признак принудительной синхронизации журнала с диском */
+    private final boolean fsync;
+
+    /** Максимальное количество команд в одной пачке */
+    private final int batchSize;
+
+    /** Интервал сохранения снимков в базе данных в миллисекундах */
+    private final long flushIntervalMillis;
+
+    /** Журнал событий */
+    private LedgerJournal journal;
+
+    /** Номер последнего записанного события, принадлежит потоку записи */
+    private long sequence;
+
+    /** Время последней передачи снимка на сохранение */
+    private long lastFlushNanos;
+
+    /** Поток записи */
+    private Thread writer;
+
+    /** Поток сохранения снимков */
+    private Thread flusher;
+
+    /** Признак приема новых команд */
+    private volatile boolean running;
+
+    /** Признак остановки движка из-за ошибки журнала */
+    private volatile boolean failed;
+
+    /** Номер последнего события, зафиксированного в журнале */
+    private volatile long committedSequence;
+
+    /** Номер последнего события, отраженного в переданном на сохранение снимке, принадлежит потоку записи */
+    private long handedOffSequence;
+
+    /** Номер последнего события, сохраненного потоком сохранения в базе данных */
+    private volatile long checkpointSequence;
+
+    /** Номер последнего события перед текущим сегментом журнала, принадлежит потоку записи */
+    private long segmentSequence;
+
+    /**
+     * Создает движок учета балансов.
+     * @param snapshotStore Хранилище снимка балансов в базе данных.
+     * @param journalPath Путь к файлу журнала.
+     * @param fsync Признак принудительной синхронизации журнала с диском.
+     * @param ringSize Емкость кольцевого буфера команд.
+     * @param batchSize Максимальное количество команд в одной пачке.
+     * @param flushIntervalMillis Интервал сохранения снимков в базе данных в миллисекундах.
+     * @param expectedAccounts Ожидаемое количество счетов.
+     */
+    public LedgerEngine(LedgerSnapshotStore snapshotStore,
+                        @Value("${bank.ledger-engine.journal-path:data/ledger.journal}") Path journalPath,
+                        @Value("${bank.ledger-engine.fsync:true}") boolean fsync,
+                        @Value("${bank.ledger-engine.ring-size:65536}") int ringSize,
+                        @Value("${bank.ledger-engine.batch-size:4096}") int batchSize,
+                        @Value("${bank.ledger-engine.flush-interval-ms:200}") long flushIntervalMillis,
+                        @Value("${bank.ledger-engine.expected-accounts:100000}") int expectedAccounts) {
+        this.snapshotStore = snapshotStore;
+        this.journalPath = journalPath;
+        this.fsync = fsync;
+        this.ring = new ArrayBlockingQueue<>(ringSize);
+        this.batchSize = batchSize;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.balances = new LongLongHashMap(expectedAccounts);
+        this.dirty = new LongLongHashMap(Math.min(expectedAccounts, batchSize * 4));
+    }
+
+    /**
+     * Восстанавливает состояние и запускает потоки записи и сохранения снимков.
+     * @throws IOException Выбрасывает при ошибке чтения журнала.
+     */
+    @PostConstruct
+    public void start() throws IOException {
+        recover();
+        running = true;
+        lastFlushNanos = System.nanoTime();
+        writer = new Thread(this::write, "ledger-writer");
+        flusher = new Thread(this::flush, "ledger-flusher");
+        flusher.setDaemon(true);
+        writer.start();
+        flusher.start();
+    }
+
+    /**
+     * Прекращает прием команд, применяет команды из буфера, сохраняет итоговые балансы и очищает журнал.
+     * @throws InterruptedException Выбрасывает при прерывании ожидания.
+     * @throws IOException Выбрасывает при ошибке очистки журнала.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException, IOException {
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(SHUTDOWN_TIMEOUT_SECONDS));
+        flusher.join(TimeUnit.SECONDS.toMillis(SHUTDOWN_TIMEOUT_SECONDS));
+        if (!failed && !writer.isAlive() && !flusher.isAlive() && flushQueue.isEmpty()) {
+            save(snapshot(balances));
+            startJournal();
+            log.info("IN stop - балансы сохранены, журнал очищен на событии: {}", sequence);
+        }
+        journal.close();
+    }
+
+    /**
+     * Регистрирует новый счет.
+     * @param accountId Идентификатор счета.
+     * @param balance Начальный баланс в минимальных денежных единицах.
+     */
+    public void open(long accountId, long balance) {
+        submit(new LedgerCommand(LedgerEventType.OPEN, accountId, 0, balance));
+    }
+
+    /**
+     * Удаляет счет. Удаление отсутствующего счета не считается ошибкой.
+     * @param accountId Идентификатор счета.
+     * @return Баланс счета перед удалением или 0, если счет не найден.
+     */
+    public long close(long accountId) {
+        return submit(new LedgerCommand(LedgerEventType.CLOSE, accountId, 0, 0));
+    }
+
+    /**
+     * Пополняет счет.
+     * @param accountId Идентификатор счета.
+     * @param amount Сумма в минимальных денежных единицах.
+     * @return Баланс счета после пополнения.
+     */
+    public long deposit(long accountId, long amount) {
+        return submit(new LedgerCommand(LedgerEventType.DEPOSIT, accountId, 0, amount));
+    }
+
+    /**
+     * Списывает средства со счета.
+     * @param accountId Идентификатор счета.
+     * @param amount Сумма в минимальных денежных единицах.
+     * @return Баланс счета после списания.
+     */
+    public long withdraw(long accountId, long amount) {
+        return submit(new LedgerCommand(LedgerEventType.WITHDRAW, accountId, 0, amount));
+    }
+
+    /**
+     * Переводит средства между счетами.
+     * @param accountId Идентификатор счета списания.
+     * @param destinationAccountId Идентификатор счета зачисления.
+     * @param amount Сумма в минимальных денежных единицах.
+     * @return Балансы счетов списания и зачисления после перевода.
+     */
+    public TransferResult transfer(long accountId, long destinationAccountId, long amount) {
+        LedgerCommand command = new LedgerCommand(LedgerEventType.TRANSFER, accountId, destinationAccountId, amount);
+        long balance = submit(command);
+        return new TransferResult(balance, command.counterpartyBalance);
+    }
+
+    /**
+     * Получает текущий баланс счета с учетом всех ранее принятых команд.
+     * @param accountId Идентификатор счета.
+     * @return Баланс счета в минимальных денежных единицах.
+     */
+    public long balance(long accountId) {
+        return submit(new LedgerCommand(LedgerEventType.BALANCE, accountId, 0, 0));
+    }
+
+    /**
+     * Ожидает сохранения в таблице accounts всех событий, зафиксированных в журнале на момент вызова.
+     * Используется, когда балансы нужно прочитать из базы данных, например при сверке статистики.
+     * @param timeoutMillis Максимальное время ожидания в миллисекундах.
+     * @return true, если события сохранены, иначе - false.
+     * @throws InterruptedException Выбрасывает при прерывании ожидания.
+     */
+    public boolean awaitCheckpoint(long timeoutMillis) throws InterruptedException {
+        long target = committedSequence;
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        while (checkpointSequence < target) {
+            if (failed || System.nanoTime() > deadline) {
+                return false;
+            }
+            TimeUnit.MILLISECONDS.sleep(Math.min(flushIntervalMillis, POLL_TIMEOUT_MILLIS));
+        }
+        return true;
+    }
+
+    /**
+     * Передает команду потоку записи и ожидает ее применения и фиксации в журнале.
+     * @param command Команда.
+     * @return Баланс счета после выполнения команды.
+     */
+    private long submit(LedgerCommand command) {
+        if (!running || !ring.offer(command)) {
+            log.error("IN submit - команда {} для счета с идентификатором: {} не принята", command.type, command.accountId);
+            throw new OperationRejectedException("Очередь операций переполнена, повторите запрос позже");
+        }
+        // Движок мог остановиться между проверкой признака и добавлением команды: поток записи уже не заберет ее
+        // из буфера. Если команда все еще в буфере, она отклоняется; иначе ее уже забрал поток записи.
+        if (!running && ring.remove(command)) {
+            log.error("IN submit - команда {} для счета с идентификатором: {} не принята, движок остановлен",
+                    command.type, command.accountId);
+            throw new OperationRejectedException("Движок учета балансов остановлен, повторите запрос позже");
+        }
+        try {
+            return command.result.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    /**
+     * Цикл потока записи: забирает из буфера пачку команд, применяет их, фиксирует журнал и отвечает
+     * вызывающим потокам. После фиксации при необходимости передает снимок измененных балансов на сохранение
+     * и начинает новый сегмент журнала после сохраненной контрольной точки.
+     */
+    private void write() {
+        List<LedgerCommand> batch = new ArrayList<>(batchSize);
+        try {
+            while (running || !ring.isEmpty()) {
+                LedgerCommand first = ring.poll(Math.min(flushIntervalMillis, POLL_TIMEOUT_MILLIS), TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    ring.drainTo(batch, batchSize - 1);
+                    process(batch);
+                    batch.clear();
+                }
+                handOffSnapshot();
+                rotateJournal();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException | RuntimeException ex) {
+            log.error("IN write - ошибка записи журнала, движок остановлен", ex);
+            failed = true;
+            running = false;
+            IllegalStateException error = new IllegalStateException("Движок учета балансов остановлен из-за ошибки журнала");
+            batch.forEach(command -> command.result.completeExceptionally(error));
+            LedgerCommand command;
+            while ((command = ring.poll()) != null) {
+                command.result.completeExceptionally(error);
+            }
+        }
+    }
+
+    /**
+     * Применяет пачку команд и фиксирует журнал одним сбросом на диск.
+     * @param batch Пачка команд.
+     * @throws IOException Выбрасывает при ошибке записи журнала.
+     */
+    private void process(List<LedgerCommand> batch) throws IOException {
+        boolean appended = false;
+        for (LedgerCommand command : batch) {
+            if (apply(command) && command.type != LedgerEventType.BALANCE) {
+                journal.append(++sequence, command.type, command.accountId, command.counterpartyId, command.amount);
+                appended = true;
+            }
+        }
+        if (appended) {
+            journal.commit();
+            committedSequence = sequence;
+        }
+        for (LedgerCommand command : batch) {
+            if (command.error == null) {
+                command.result.complete(command.balance);
+            } else {
+                command.result.completeExceptionally(command.error);
+            }
+        }
+    }
+
+    /**
+     * Проверяет и применяет команду к балансам.
+     * @param command Команда.
+     * @return true, если команда применена, иначе - false.
+     */
+    private boolean apply(LedgerCommand command) {
+        long accountId = command.accountId;
+        switch (command.type) {
+            case OPEN -> {
+                setBalance(accountId, command.amount);
+                command.balance = command.amount;
+                return true;
+            }
+            case CLOSE -> {
+                command.balance = balances.get(accountId, 0);
+                balances.remove(accountId);
+                dirty.remove(accountId);
+                return true;
+            }
+            default -> {
+                if (!balances.containsKey(accountId)) {
+                    command.error = new AccountNotFoundException("Счет с идентификатором: " + accountId + " не найден");
+                    return false;
+                }
+            }
+        }
+
+        long balance = balances.get(accountId, 0);
+        switch (command.type) {
+            case BALANCE -> {
+                // Чтение баланса не отмечает счет как измененный и не приводит к записи в таблицу accounts.
+                command.balance = balance;
+                return true;
+            }
+            case DEPOSIT -> balance = Math.addExact(balance, command.amount);
+            case WITHDRAW -> {
+                if (balance < command.amount) {
+                    command.error = new AccountWithdrawException("Сумма списания должна быть не больше текущего баланса");
+                    return false;
+                }
+                balance -= command.amount;
+            }
+            case TRANSFER -> {
+                long destinationId = command.counterpartyId;
+                if (!balances.containsKey(destinationId)) {
+                    command.error = new AccountNotFoundException("Счет с идентификатором: " + destinationId + " не найден");
+                    return false;
+                }
+                if (balance < command.amount) {
+                    command.error = new AccountWithdrawException("Сумма перевода должна быть не больше текущего баланса");
+                    return false;
+                }
+                setBalance(accountId, balance - command.amount);
+                setBalance(destinationId, Math.addExact(balances.get(destinationId, 0), command.amount));
+                command.balance = balances.get(accountId, 0);
+                command.counterpartyBalance = balances.get(destinationId, 0);
+                return true;
+            }
+            default -> {
+            }
+        }
+        setBalance(accountId, balance);
+        command.balance = balance;
+        return true;
+    }
+
+    /**
+     * Сохраняет баланс счета и отмечает его как измененный.
+     * @param accountId Идентификатор счета.
+     * @param balance Баланс в минимальных денежных единицах.
+     */
+    private void setBalance(long accountId, long balance) {
+        balances.put(accountId, balance);
+        dirty.put(accountId, balance);
+    }
+
+    /**
+     * Передает снимок измененных балансов потоку сохранения, если подошло время и предыдущий снимок уже сохранен.
+     * Снимок передается и без измененных балансов, если после предыдущего снимка были записаны события удаления
+     * счетов: иначе контрольная точка не продвинется до них.
+     */
+    private void handOffSnapshot() {
+        if (sequence == handedOffSequence || System.nanoTime() - lastFlushNanos < TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis)) {
+            return;
+        }
+        if (flushQueue.offer(snapshot(dirty))) {
+            dirty.clear();
+            handedOffSequence = sequence;
+            lastFlushNanos = System.nanoTime();
+        }
+    }
+
+    /**
+     * Начинает новый сегмент журнала, если текущий сегмент содержит события, уже сохраненные в базе данных.
+     * Сегмент удаляется потоком сохранения, когда сохранены все его события, поэтому размер журнала и время
+     * восстановления не растут между перезапусками приложения, а поток записи не переписывает журнал.
+     * @throws IOException Выбрасывает при ошибке записи журнала.
+     */
+    private void rotateJournal() throws IOException {
+        if (checkpointSequence > segmentSequence) {
+            journal.rotate(sequence);
+            segmentSequence = sequence;
+        }
+    }
+
+    /**
+     * Копирует балансы в снимок, соответствующий последнему записанному событию.
+     * @param source Балансы.
+     * @return Снимок балансов.
+     */
+    private FlushBatch snapshot(LongLongHashMap source) {
+        long[] accountIds = new long[source.size()];
+        long[] values = new long[source.size()];
+        int[] index = {0};
+        source.forEach((accountId, balance) -> {
+            accountIds[index[0]] = accountId;
+            values[index[0]++] = balance;
+        });
+        return new FlushBatch(accountIds, values, sequence);
+    }
+
+    /**
+     * Цикл потока сохранения: записывает снимки в таблицу accounts вместе с контрольной точкой и сообщает
+     * потоку записи номер сохраненного события. При ошибке базы данных снимок сохраняется повторно;
+     * журнал при этом продолжает обеспечивать сохранность данных.
+     */
+    private void flush() {
+        try {
+            while (running || writer.isAlive() || !flushQueue.isEmpty()) {
+                FlushBatch batch = flushQueue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                while (batch != null) {
+                    try {
+                        save(batch);
+                        checkpointSequence = batch.sequence();
+                        batch = null;
+                    } catch (RuntimeException ex) {
+                        log.error("IN flush - снимок балансов на событии: {} не сохранен, повтор", batch.sequence(), ex);
+                        TimeUnit.MILLISECONDS.sleep(flushIntervalMillis);
+                    }
+                }
+                deleteSegments();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Удаляет сегменты журнала, все события которых сохранены в базе данных. Ошибка удаления не останавливает
+     * движок: сегменты будут удалены после следующей контрольной точки.
+     */
+    private void deleteSegments() {
+        try {
+            journal.deleteSegments(checkpointSequence);
+        } catch (IOException ex) {
+            log.warn("IN deleteSegments - сегменты журнала до события: {} не удалены", checkpointSequence, ex);
+        }
+    }
+
+    /**
+     * Восстанавливает балансы из таблицы accounts и событий журнала после контрольной точки,
+     * сохраняет восстановленное состояние в базе данных и начинает новый журнал.
+     * @throws IOException Выбрасывает при ошибке чтения журнала.
+     */
+    private void recover() throws IOException {
+        LedgerSnapshotStore.Checkpoint checkpoint = snapshotStore.loadCheckpoint();
+        snapshotStore.loadBalances(balances);
+        journal = new LedgerJournal(journalPath, fsync, batchSize);
+        sequence = checkpoint.sequence();
+
+        // Журнал без заголовка текущей контрольной точки допустим, только если в нем нет событий:
+        // это возможно при сбое между записью заголовка нового журнала и сохранением его идентификатора.
+        boolean[] matches = {false};
+        long[] replayedEvents = {0};
+        long replayed = journal.replay((eventSequence, type, accountId, counterpartyId, amount) -> {
+            if (type == LedgerEventType.HEADER) {
+                matches[0] = accountId == checkpoint.journalId();
+                return;
+            }
+            if (!matches[0]) {
+                throw new IllegalStateException("Журнал " + journalPath + " не соответствует базе данных. "
+                        + "Удалите файлы журнала, если база данных была пересоздана");
+            }
+            if (eventSequence > sequence + 1) {
+                throw new IllegalStateException("В журнале " + journalPath + " отсутствуют события с номера: "
+                        + (sequence + 1));
+            }
+            if (eventSequence > sequence) {
+                replay(type, accountId, counterpartyId, amount);
+                sequence = eventSequence;
+                replayedEvents[0]++;
+            }
+        });
+
+        if (replayedEvents[0] > 0) {
+            save(snapshot(balances));
+        }
+        startJournal();
+        segmentSequence = sequence;
+        checkpointSequence = sequence;
+        handedOffSequence = sequence;
+        committedSequence = sequence;
+        log.info("IN recover - восстановлено счетов: {}, записей журнала: {}, последнее событие: {}",
+                balances.size(), replayed, sequence);
+    }
+
+    /**
+     * Применяет событие журнала без проверок: событие уже было принято до сбоя.
+     * События для счетов, отсутствующих в базе данных, пропускаются.
+     * @param type Тип события.
+     * @param accountId Идентификатор счета.
+     * @param counterpartyId Идентификатор второго счета операции или 0.
+     * @param amount Сумма в минимальных денежных единицах.
+     */
+    private void replay(LedgerEventType type, long accountId, long counterpartyId, long amount) {
+        switch (type) {
+            case OPEN -> {
+                if (balances.containsKey(accountId)) {
+                    balances.put(accountId, amount);
+                }
+            }
+            case CLOSE -> balances.remove(accountId);
+            case DEPOSIT -> addIfPresent(accountId, amount);
+            case WITHDRAW -> addIfPresent(accountId, -amount);
+            case TRANSFER -> {
+                addIfPresent(accountId, -amount);
+                addIfPresent(counterpartyId, amount);
+            }
+            default -> {
+            }
+        }
+    }
+
+    private void addIfPresent(long accountId, long amount) {
+        if (balances.containsKey(accountId)) {
+            balances.put(accountId, balances.get(accountId, 0) + amount);
+        }
+    }
+
+    /**
+     * Удаляет сегменты журнала и начинает новый журнал с заголовком, связывающим его с контрольной точкой
+     * в базе данных. Вызывается только после сохранения всех балансов в базе данных.
+     * @throws IOException Выбрасывает при ошибке записи журнала.
+     */
+    private void startJournal() throws IOException {
+        long journalId = ThreadLocalRandom.current().nextLong(1, Long.MAX_VALUE);
+        journal.start(sequence, journalId);
+        snapshotStore.saveJournalId(journalId);
+    }
+
+    /**
+     * Сохраняет снимок балансов в базе данных вместе с контрольной точкой.
+     * @param batch Снимок балансов.
+     */
+    private void save(FlushBatch batch) {
+        snapshotStore.save(batch.accountIds(), batch.balances(), batch.sequence());
+    }
+
+    /**
+     * Снимок балансов, ожидающий сохранения в базе данных.
+     * @param accountIds Идентификаторы счетов.
+     * @param balances Балансы в минимальных денежных единицах.
+     * @param sequence Номер последнего отраженного в снимке события журнала.
+     */
+    record FlushBatch(long[] accountIds, long[] balances, long sequence) {
+    }
+
+    /**
+     * Балансы счетов после перевода.
+     * @param balance Баланс счета списания в минимальных денежных единицах.
+     * @param destinationBalance Баланс счета зачисления в минимальных денежных единицах.
+     */
+    public record TransferResult(long balance, long destinationBalance) {
+    }
+}
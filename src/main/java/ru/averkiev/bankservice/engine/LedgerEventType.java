@@ -0,0 +1,64 @@
+package ru.averkiev.bankservice.engine;
+
+/**
+ * Тип события движка учета балансов.
+ * @author mrGreenNV
+ */
+public enum LedgerEventType {
+
+    /** Регистрация счета с начальным балансом */
+    OPEN(1),
+
+    /** Удаление счета */
+    CLOSE(2),
+
+    /** Пополнение счета */
+    DEPOSIT(3),
+
+    /** Списание средств со счета */
+    WITHDRAW(4),
+
+    /** Перевод средств между счетами */
+    TRANSFER(5),
+
+    /** Чтение баланса, в журнал не записывается */
+    BALANCE(6),
+
+    /** Заголовок журнала, связывающий его с контрольной точкой в базе данных */
+    HEADER(7);
+
+    /** Типы событий по коду */
+    private static final LedgerEventType[] BY_CODE = new LedgerEventType[8];
+
+    static {
+        for (LedgerEventType type : values()) {
+            BY_CODE[type.code] = type;
+        }
+    }
+
+    /** Код типа события в журнале */
+    private final byte code;
+
+    LedgerEventType(int code) {
+        this.code = (byte) code;
+    }
+
+    /**
+     * @return Код типа события в журнале.
+     */
+    public byte code() {
+        return code;
+    }
+
+    /**
+     * Определяет тип события по его коду в журнале.
+     * @param code Код типа события.
+     * @return Тип события.
+     */
+    public static LedgerEventType of(byte code) {
+        if (code <= 0 || code >= BY_CODE.length) {
+            throw new IllegalArgumentException("Неизвестный тип события журнала: " + code);
+        }
+        return BY_CODE[code];
+    }
+}
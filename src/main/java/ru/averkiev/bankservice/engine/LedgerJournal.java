@@ -0,0 +1,299 @@
+package ru.averkiev.bankservice.engine;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.zip.CRC32;
+
+/**
+ * Журнал событий движка учета балансов.
+ * Каждая запись имеет фиксированный размер и содержит номер события, тип, идентификаторы счетов, сумму
+ * и контрольную сумму. Записи накапливаются в буфере и сбрасываются на диск одним вызовом {@link #commit()}
+ * для всей пачки событий (групповая фиксация).
+ * Журнал состоит из сегментов - файлов рядом с путем журнала, имя которых дополнено номером последнего события
+ * перед сегментом. Каждый сегмент начинается с заголовка, связывающего журнал с контрольной точкой в базе данных.
+ * Новый сегмент начинается после контрольной точки ({@link #rotate(long)}), а сегменты, все события которых уже
+ * сохранены в базе данных, удаляются целиком ({@link #deleteSegments(long)}), поэтому журнал не переписывается.
+ * @author mrGreenNV
+ */
+public class LedgerJournal implements Closeable {
+
+    /** Размер записи в байтах: номер, тип, два идентификатора, сумма и контрольная сумма */
+    static final int RECORD_SIZE = Long.BYTES + Byte.BYTES + Long.BYTES * 3 + Integer.BYTES;
+
+    /** Путь к журналу, от которого образуются имена сегментов */
+    private final Path path;
+
+    /** Каталог сегментов журнала */
+    private final Path directory;
+
+    /** Признак принудительной синхронизации файла с диском при фиксации */
+    private final boolean fsync;
+
+    /** Буфер записей, ожидающих фиксации */
+    private final ByteBuffer buffer;
+
+    /** Сегменты журнала по номеру последнего события перед сегментом; последний сегмент - текущий */
+    private final ConcurrentNavigableMap<Long, Path> segments = new ConcurrentSkipListMap<>();
+
+    /** Идентификатор журнала, записываемый в заголовки сегментов */
+    private long journalId;
+
+    /** Канал текущего сегмента или null, если журнал еще не начат */
+    private FileChannel channel;
+
+    /**
+     * Создает журнал. Запись возможна после {@link #start(long, long)}.
+     * @param path Путь к журналу, от которого образуются имена сегментов.
+     * @param fsync Признак принудительной синхронизации файла с диском при фиксации.
+     * @param batchSize Максимальное количество записей в одной пачке.
+     * @throws IOException Выбрасывает при ошибке создания каталога.
+     */
+    public LedgerJournal(Path path, boolean fsync, int batchSize) throws IOException {
+        this.path = path.toAbsolutePath();
+        this.directory = this.path.getParent();
+        this.fsync = fsync;
+        this.buffer = ByteBuffer.allocateDirect(RECORD_SIZE * batchSize);
+        Files.createDirectories(directory);
+    }
+
+    /**
+     * Удаляет все сегменты и начинает журнал с новым идентификатором.
+     * Вызывается только после сохранения всех балансов в базе данных.
+     * @param sequence Номер последнего события, отраженного в базе данных.
+     * @param journalId Идентификатор журнала.
+     * @throws IOException Выбрасывает при ошибке записи в файл.
+     */
+    public void start(long sequence, long journalId) throws IOException {
+        closeChannel();
+        buffer.clear();
+        for (Path segment : listSegments()) {
+            Files.deleteIfExists(segment);
+        }
+        segments.clear();
+        this.journalId = journalId;
+        openSegment(sequence);
+    }
+
+    /**
+     * Фиксирует текущий сегмент и начинает новый. Предыдущие сегменты не изменяются и удаляются целиком
+     * после сохранения их событий в базе данных.
+     * @param sequence Номер последнего записанного события.
+     * @throws IOException Выбрасывает при ошибке записи в файл.
+     */
+    public void rotate(long sequence) throws IOException {
+        commit();
+        closeChannel();
+        openSegment(sequence);
+    }
+
+    /**
+     * Удаляет сегменты, все события которых отражены в базе данных. Текущий сегмент не удаляется.
+     * Может вызываться параллельно с записью в журнал.
+     * @param sequence Номер последнего события, отраженного в базе данных.
+     * @return Количество удаленных сегментов.
+     * @throws IOException Выбрасывает при ошибке удаления файла.
+     */
+    public int deleteSegments(long sequence) throws IOException {
+        int deleted = 0;
+        for (Map.Entry<Long, Path> segment : segments.entrySet()) {
+            // События сегмента заканчиваются перед началом следующего сегмента.
+            Long next = segments.higherKey(segment.getKey());
+            if (next == null || next > sequence) {
+                break;
+            }
+            Files.deleteIfExists(segment.getValue());
+            segments.remove(segment.getKey());
+            deleted++;
+        }
+        if (deleted > 0) {
+            syncDirectory();
+        }
+        return deleted;
+    }
+
+    /**
+     * Добавляет событие в буфер журнала.
+     * @param sequence Номер события.
+     * @param type Тип события.
+     * @param accountId Идентификатор счета.
+     * @param counterpartyId Идентификатор второго счета операции или 0.
+     * @param amount Сумма в минимальных денежных единицах.
+     * @throws IOException Выбрасывает при ошибке записи в файл.
+     */
+    public void append(long sequence, LedgerEventType type, long accountId, long counterpartyId, long amount)
+            throws IOException {
+        if (buffer.remaining() < RECORD_SIZE) {
+            write();
+        }
+        int start = buffer.position();
+        buffer.putLong(sequence)
+                .put(type.code())
+                .putLong(accountId)
+                .putLong(counterpartyId)
+                .putLong(amount);
+        CRC32 crc = new CRC32();
+        crc.update(buffer.duplicate().position(start).limit(buffer.position()));
+        buffer.putInt((int) crc.getValue());
+    }
+
+    /**
+     * Записывает накопленные события в файл и, если включено, синхронизирует файл с диском.
+     * @throws IOException Выбрасывает при ошибке записи в файл.
+     */
+    public void commit() throws IOException {
+        write();
+        if (fsync) {
+            channel.force(false);
+        }
+    }
+
+    /**
+     * Читает все целые записи всех сегментов журнала по порядку. Чтение сегмента останавливается на первой
+     * неполной или поврежденной записи, которая могла остаться после аварийного завершения во время записи;
+     * хвост сегмента после нее отбрасывается. Поврежденным может быть только последний сегмент: предыдущие
+     * сегменты были зафиксированы до начала следующих.
+     * @param consumer Обработчик записей.
+     * @return Количество прочитанных записей.
+     * @throws IOException Выбрасывает при ошибке чтения файла.
+     * @throws IllegalStateException Выбрасывает, если поврежден сегмент, за которым следуют другие сегменты.
+     */
+    public long replay(Record consumer) throws IOException {
+        long count = 0;
+        List<Path> files = listSegments();
+        for (int i = 0; i < files.size(); i++) {
+            try (FileChannel segment = FileChannel.open(files.get(i), StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                long position = 0;
+                long size = segment.size();
+                ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+                while (position + RECORD_SIZE <= size) {
+                    record.clear();
+                    while (record.hasRemaining()) {
+                        segment.read(record, position + record.position());
+                    }
+                    record.flip();
+                    CRC32 crc = new CRC32();
+                    crc.update(record.duplicate().limit(RECORD_SIZE - Integer.BYTES));
+                    if ((int) crc.getValue() != record.getInt(RECORD_SIZE - Integer.BYTES)) {
+                        break;
+                    }
+                    consumer.accept(record.getLong(), LedgerEventType.of(record.get()), record.getLong(), record.getLong(), record.getLong());
+                    position += RECORD_SIZE;
+                    count++;
+                }
+                if (position < size) {
+                    if (i < files.size() - 1) {
+                        throw new IllegalStateException("Сегмент журнала " + files.get(i) + " поврежден");
+                    }
+                    segment.truncate(position);
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return Пути к сегментам журнала на диске в порядке записи.
+     * @throws IOException Выбрасывает при ошибке чтения каталога.
+     */
+    public List<Path> listSegments() throws IOException {
+        String prefix = path.getFileName() + ".";
+        List<Path> files = new ArrayList<>();
+        // Журнал из одного файла, записанный предыдущими версиями, читается как первый сегмент.
+        if (Files.exists(path)) {
+            files.add(path);
+        }
+        List<Path> numbered = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, prefix + "*")) {
+            for (Path file : stream) {
+                String suffix = file.getFileName().toString().substring(prefix.length());
+                if (!suffix.isEmpty() && suffix.chars().allMatch(Character::isDigit)) {
+                    numbered.add(file);
+                }
+            }
+        }
+        // Номер в имени дополнен нулями до постоянной длины, поэтому порядок имен совпадает с порядком сегментов.
+        numbered.sort(null);
+        files.addAll(numbered);
+        return files;
+    }
+
+    @Override
+    public void close() throws IOException {
+        closeChannel();
+    }
+
+    /**
+     * Создает сегмент, записывает в него заголовок и фиксирует его вместе с записью в каталоге.
+     * @param sequence Номер последнего события перед сегментом.
+     * @throws IOException Выбрасывает при ошибке записи в файл.
+     */
+    private void openSegment(long sequence) throws IOException {
+        Path segment = path.resolveSibling(path.getFileName() + "." + String.format("%020d", sequence));
+        channel = FileChannel.open(segment, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segments.put(sequence, segment);
+        append(sequence, LedgerEventType.HEADER, journalId, 0, 0);
+        commit();
+        syncDirectory();
+    }
+
+    private void closeChannel() throws IOException {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    /**
+     * Синхронизирует каталог журнала с диском, чтобы созданные и удаленные сегменты сохранились после сбоя питания.
+     * @throws IOException Выбрасывает при ошибке синхронизации.
+     */
+    private void syncDirectory() throws IOException {
+        if (!fsync) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (AccessDeniedException ex) {
+            // Windows не позволяет открыть каталог как файл; NTFS сама журналирует изменения каталога.
+        }
+    }
+
+    private void write() throws IOException {
+        buffer.flip();
+        long position = channel.size();
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Обработчик записи журнала.
+     */
+    @FunctionalInterface
+    public interface Record {
+
+        /**
+         * Обрабатывает запись журнала.
+         * @param sequence Номер события.
+         * @param type Тип события.
+         * @param accountId Идентификатор счета.
+         * @param counterpartyId Идентификатор второго счета операции или 0.
+         * @param amount Сумма в минимальных денежных единицах.
+         */
+        void accept(long sequence, LedgerEventType type, long accountId, long counterpartyId, long amount);
+    }
+}
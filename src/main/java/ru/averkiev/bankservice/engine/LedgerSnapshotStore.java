@@ -0,0 +1,100 @@
+package ru.averkiev.bankservice.engine;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Хранилище снимка балансов движка в базе данных.
+ * Балансы счетов и номер последнего отраженного в них события журнала сохраняются в одной транзакции,
+ * поэтому таблица accounts всегда соответствует состоянию движка на момент контрольной точки.
+ * @author mrGreenNV
+ */
+@Component
+@Profile("ledger-engine")
+public class LedgerSnapshotStore {
+
+    /** Количество строк в одном пакетном запросе */
+    private static final int BATCH_SIZE = 500;
+
+    /** Позволяет выполнять SQL запросы */
+    private final JdbcTemplate jdbcTemplate;
+
+    /** Позволяет выполнять запросы в транзакции */
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Создает хранилище снимка балансов.
+     * @param jdbcTemplate Позволяет выполнять SQL запросы.
+     * @param transactionManager Менеджер транзакций.
+     */
+    public LedgerSnapshotStore(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Загружает контрольную точку.
+     * @return Контрольная точка.
+     */
+    public Checkpoint loadCheckpoint() {
+        return jdbcTemplate.queryForObject(
+                "SELECT journal_id, journal_sequence FROM ledger_checkpoint WHERE id = 1",
+                (rs, rowNum) -> new Checkpoint(rs.getLong("journal_id"), rs.getLong("journal_sequence")));
+    }
+
+    /**
+     * Сохраняет идентификатор журнала, связанного с базой данных.
+     * @param journalId Идентификатор журнала.
+     */
+    public void saveJournalId(long journalId) {
+        jdbcTemplate.update("UPDATE ledger_checkpoint SET journal_id = ? WHERE id = 1", journalId);
+    }
+
+    /**
+     * Загружает балансы всех счетов.
+     * @param balances Таблица, в которую загружаются балансы в минимальных денежных единицах.
+     */
+    public void loadBalances(LongLongHashMap balances) {
+        jdbcTemplate.query("SELECT id, balance FROM accounts", rs -> {
+            balances.put(rs.getLong("id"), rs.getLong("balance"));
+        });
+    }
+
+    /**
+     * Сохраняет балансы счетов и номер последнего отраженного в них события в одной транзакции.
+     * Строки удаленных счетов пропускаются.
+     * @param accountIds Идентификаторы счетов.
+     * @param balances Балансы счетов в минимальных денежных единицах.
+     * @param sequence Номер последнего отраженного события журнала.
+     */
+    public void save(long[] accountIds, long[] balances, long sequence) {
+        int count = accountIds.length;
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Object[]> rows = new ArrayList<>(Math.min(count, BATCH_SIZE));
+            for (int i = 0; i < count; i++) {
+                rows.add(new Object[] {balances[i], now, accountIds[i]});
+                if (rows.size() == BATCH_SIZE || i == count - 1) {
+                    jdbcTemplate.batchUpdate("UPDATE accounts SET balance = ?, updated_at = ?, version = version + 1 WHERE id = ?", rows);
+                    rows.clear();
+                }
+            }
+            jdbcTemplate.update("UPDATE ledger_checkpoint SET journal_sequence = ? WHERE id = 1", sequence);
+        });
+    }
+
+    /**
+     * Контрольная точка движка.
+     * @param journalId Идентификатор журнала, связанного с базой данных, или 0.
+     * @param sequence Номер последнего события журнала, отраженного в таблице accounts.
+     */
+    public record Checkpoint(long journalId, long sequence) {
+    }
+}
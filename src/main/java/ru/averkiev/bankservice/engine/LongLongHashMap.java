@@ -0,0 +1,189 @@
+package ru.averkiev.bankservice.engine;
+
+import java.util.Arrays;
+
+/**
+ * Хеш-таблица с открытой адресацией, отображающая идентификатор счета на баланс в минимальных денежных единицах.
+ * Ключи и значения хранятся в массивах примитивов, поэтому операции не создают объектов-оберток.
+ * Класс не потокобезопасен и предназначен для использования одним потоком.
+ * @author mrGreenNV
+ */
+public final class LongLongHashMap {
+
+    /** Значение ключа для свободной ячейки; идентификаторы счетов всегда положительные */
+    private static final long EMPTY = 0L;
+
+    /** Максимальная доля заполненных ячеек */
+    private static final double LOAD_FACTOR = 0.5;
+
+    /** Ключи таблицы */
+    private long[] keys;
+
+    /** Значения таблицы */
+    private long[] values;
+
+    /** Маска для вычисления индекса ячейки */
+    private int mask;
+
+    /** Количество элементов */
+    private int size;
+
+    /**
+     * Создает таблицу с заданной начальной емкостью.
+     * @param expectedSize Ожидаемое количество элементов.
+     */
+    public LongLongHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(16, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        keys = new long[capacity];
+        values = new long[capacity];
+        mask = capacity - 1;
+    }
+
+    /**
+     * Проверяет наличие ключа в таблице.
+     * @param key Ключ.
+     * @return true, если ключ присутствует, иначе - false.
+     */
+    public boolean containsKey(long key) {
+        return keys[indexOf(key)] == key;
+    }
+
+    /**
+     * Получает значение по ключу.
+     * @param key Ключ.
+     * @param defaultValue Значение, возвращаемое при отсутствии ключа.
+     * @return Значение или defaultValue.
+     */
+    public long get(long key, long defaultValue) {
+        int index = indexOf(key);
+        return keys[index] == key ? values[index] : defaultValue;
+    }
+
+    /**
+     * Сохраняет значение по ключу.
+     * @param key Ключ, должен быть положительным.
+     * @param value Значение.
+     */
+    public void put(long key, long value) {
+        if (key == EMPTY) {
+            throw new IllegalArgumentException("Ключ не может быть равен " + EMPTY);
+        }
+        int index = indexOf(key);
+        if (keys[index] != key) {
+            keys[index] = key;
+            if (++size > keys.length * LOAD_FACTOR) {
+                values[index] = value;
+                resize();
+                return;
+            }
+        }
+        values[index] = value;
+    }
+
+    /**
+     * Удаляет значение по ключу.
+     * @param key Ключ.
+     * @return true, если ключ присутствовал, иначе - false.
+     */
+    public boolean remove(long key) {
+        int index = indexOf(key);
+        if (keys[index] != key) {
+            return false;
+        }
+        keys[index] = EMPTY;
+        size--;
+        // Сдвигаем следующие элементы цепочки, чтобы не оставлять разрывов при поиске.
+        int next = (index + 1) & mask;
+        while (keys[next] != EMPTY) {
+            long movedKey = keys[next];
+            long movedValue = values[next];
+            keys[next] = EMPTY;
+            keys[indexOf(movedKey)] = movedKey;
+            values[indexOf(movedKey)] = movedValue;
+            next = (next + 1) & mask;
+        }
+        return true;
+    }
+
+    /**
+     * @return Количество элементов.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Удаляет все элементы, сохраняя емкость таблицы.
+     */
+    public void clear() {
+        Arrays.fill(keys, EMPTY);
+        size = 0;
+    }
+
+    /**
+     * Передает все пары ключ-значение в обработчик.
+     * @param consumer Обработчик пар.
+     */
+    public void forEach(Entry consumer) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY) {
+                consumer.accept(keys[i], values[i]);
+            }
+        }
+    }
+
+    /**
+     * Находит ячейку с ключом или первую свободную ячейку цепочки.
+     * @param key Ключ.
+     * @return Индекс ячейки.
+     */
+    private int indexOf(long key) {
+        int index = (int) mix(key) & mask;
+        while (keys[index] != EMPTY && keys[index] != key) {
+            index = (index + 1) & mask;
+        }
+        return index;
+    }
+
+    /**
+     * Увеличивает емкость таблицы вдвое.
+     */
+    private void resize() {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        keys = new long[oldKeys.length << 1];
+        values = new long[oldValues.length << 1];
+        mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int index = indexOf(oldKeys[i]);
+                keys[index] = oldKeys[i];
+                values[index] = oldValues[i];
+            }
+        }
+    }
+
+    /**
+     * Перемешивает биты ключа, чтобы последовательные идентификаторы равномерно распределялись по таблице.
+     * @param key Ключ.
+     * @return Хеш ключа.
+     */
+    private static long mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 32);
+    }
+
+    /**
+     * Обработчик пары ключ-значение.
+     */
+    @FunctionalInterface
+    public interface Entry {
+
+        /**
+         * Обрабатывает пару ключ-значение.
+         * @param key Ключ.
+         * @param value Значение.
+         */
+        void accept(long key, long value);
+    }
+}
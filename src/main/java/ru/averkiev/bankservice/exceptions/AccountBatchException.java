@@ -0,0 +1,16 @@
+package ru.averkiev.bankservice.exceptions;
+
+/**
+ * Класс представляет собой исключение, сообщающее о некорректном списке идентификаторов или условиях выбора счетов.
+ * @author mrGreenNV
+ */
+public class AccountBatchException extends RuntimeException {
+
+    /**
+     * Создаёт новый экземпляр исключения с указанным сообщением об ошибке.
+     * @param message - сообщение об ошибке.
+     */
+    public AccountBatchException(String message) {
+        super(message);
+    }
+}
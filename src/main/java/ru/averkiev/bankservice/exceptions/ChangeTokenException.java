@@ -0,0 +1,16 @@
+package ru.averkiev.bankservice.exceptions;
+
+/**
+ * Класс представляет собой исключение, сообщающее о некорректном токене синхронизации изменений счетов.
+ * @author mrGreenNV
+ */
+public class ChangeTokenException extends RuntimeException {
+
+    /**
+     * Создаёт новый экземпляр исключения с указанным сообщением об ошибке.
+     * @param message - сообщение об ошибке.
+     */
+    public ChangeTokenException(String message) {
+        super(message);
+    }
+}
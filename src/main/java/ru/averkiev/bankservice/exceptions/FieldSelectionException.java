@@ -0,0 +1,16 @@
+package ru.averkiev.bankservice.exceptions;
+
+/**
+ * Класс представляет собой исключение, сообщающее о некорректном списке запрошенных полей.
+ * @author mrGreenNV
+ */
+public class FieldSelectionException extends RuntimeException {
+
+    /**
+     * Создаёт новый экземпляр исключения с указанным сообщением об ошибке.
+     * @param message - сообщение об ошибке.
+     */
+    public FieldSelectionException(String message) {
+        super(message);
+    }
+}
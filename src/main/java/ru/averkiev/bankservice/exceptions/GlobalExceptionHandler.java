@@ -1,6 +1,8 @@
 package ru.averkiev.bankservice.exceptions;
 
 import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
@@ -18,6 +20,7 @@ import java.util.stream.Collectors;
  * @author mrGreenNV
  */
 @ControllerAdvice
+@Profile("!reactive")
 public class GlobalExceptionHandler {
 
     /**
@@ -129,6 +132,74 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(response.getStatus()).body(response);
     }
 
+    /**
+     * Позволяет обработать ошибки связанные с поиском асинхронной операции.
+     * @param onfEx Ошибка при поиске асинхронной операции.
+     * @param request HTTP запрос.
+     * @return ResponseEntity, содержащий информацию об ошибке.
+     */
+    @ExceptionHandler(OperationNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleOperationNotFoundException(OperationNotFoundException onfEx, HttpServletRequest request) {
+
+        ErrorResponse response = new ErrorResponse(
+                HttpStatus.NOT_FOUND,
+                onfEx.getMessage(),
+                request.getRequestURI()
+        );
+        return ResponseEntity.status(response.getStatus()).body(response);
+    }
+
+    /**
+     * Позволяет обработать ошибки связанные с переполнением очереди асинхронных операций.
+     * @param orEx Ошибка при приеме асинхронной операции.
+     * @param request HTTP запрос.
+     * @return ResponseEntity, содержащий информацию об ошибке.
+     */
+    @ExceptionHandler(OperationRejectedException.class)
+    public ResponseEntity<ErrorResponse> handleOperationRejectedException(OperationRejectedException orEx, HttpServletRequest request) {
+
+        ErrorResponse response = new ErrorResponse(
+                HttpStatus.TOO_MANY_REQUESTS,
+                orEx.getMessage(),
+                request.getRequestURI()
+        );
+        return ResponseEntity.status(response.getStatus()).body(response);
+    }
+
+    /**
+     * Позволяет обработать запросы истории операций по счету в режиме учета балансов, в котором она не ведется.
+     * @param lhuEx Ошибка при получении истории операций по счету.
+     * @param request HTTP запрос.
+     * @return ResponseEntity, содержащий информацию об ошибке.
+     */
+    @ExceptionHandler(LedgerHistoryUnavailableException.class)
+    public ResponseEntity<ErrorResponse> handleLedgerHistoryUnavailableException(LedgerHistoryUnavailableException lhuEx, HttpServletRequest request) {
+
+        ErrorResponse response = new ErrorResponse(
+                HttpStatus.NOT_IMPLEMENTED,
+                lhuEx.getMessage(),
+                request.getRequestURI()
+        );
+        return ResponseEntity.status(response.getStatus()).body(response);
+    }
+
+    /**
+     * Позволяет обработать ошибки сохранения счета, измененного другой операцией после его загрузки.
+     * @param olfEx Ошибка при сохранении устаревшей версии счета.
+     * @param request HTTP запрос.
+     * @return ResponseEntity, содержащий информацию об ошибке.
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponse> handleOptimisticLockingFailureException(OptimisticLockingFailureException olfEx, HttpServletRequest request) {
+
+        ErrorResponse response = new ErrorResponse(
+                HttpStatus.CONFLICT,
+                "Счет изменен другой операцией, повторите запрос",
+                request.getRequestURI()
+        );
+        return ResponseEntity.status(response.getStatus()).body(response);
+    }
+
     /**
      * Позволяет обработать прочие ошибки при взаимодействии с банковским счетом.
      * @param ex Прочие ошибки при взаимодействии с банковским счетом.
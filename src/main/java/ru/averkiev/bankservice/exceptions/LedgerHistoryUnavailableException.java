@@ -0,0 +1,17 @@
+package ru.averkiev.bankservice.exceptions;
+
+/**
+ * Класс представляет собой исключение, сообщающее о недоступности истории операций по счету в текущем режиме учета
+ * балансов: движок учета балансов не записывает проводки, по которым строится история.
+ * @author mrGreenNV
+ */
+public class LedgerHistoryUnavailableException extends RuntimeException {
+
+    /**
+     * Создаёт новый экземпляр исключения с указанным сообщением об ошибке.
+     * @param message - сообщение об ошибке.
+     */
+    public LedgerHistoryUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,16 @@
+package ru.averkiev.bankservice.exceptions;
+
+/**
+ * Класс представляет собой исключение, сообщающее об ошибке при поиске асинхронной операции.
+ * @author mrGreenNV
+ */
+public class OperationNotFoundException extends RuntimeException {
+
+    /**
+     * Создаёт новый экземпляр исключения с указанным сообщением об ошибке.
+     * @param message - сообщение об ошибке.
+     */
+    public OperationNotFoundException(String message) {
+        super(message);
+    }
+}
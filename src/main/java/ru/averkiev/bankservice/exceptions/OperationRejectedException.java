@@ -0,0 +1,16 @@
+package ru.averkiev.bankservice.exceptions;
+
+/**
+ * Класс представляет собой исключение, сообщающее об отказе в приеме асинхронной операции из-за переполнения очереди.
+ * @author mrGreenNV
+ */
+public class OperationRejectedException extends RuntimeException {
+
+    /**
+     * Создаёт новый экземпляр исключения с указанным сообщением об ошибке.
+     * @param message - сообщение об ошибке.
+     */
+    public OperationRejectedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,61 @@
+package ru.averkiev.bankservice.logging;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.filter.Filter;
+import ch.qos.logback.core.spi.FilterReply;
+
+/**
+ * Фильтр выборочного логирования сообщений с парами ключ-значение.
+ * Такие сообщения создаются через fluent API SLF4J (log.atInfo().addKeyValue(...)), а logback передает их
+ * аппендерам без вызова {@link SamplingTurboFilter}. Фильтр подключается к асинхронному аппендеру и применяет
+ * к ним те же частоты по категориям до постановки в очередь. Остальные сообщения уже прошли выборку
+ * в {@link SamplingTurboFilter} и пропускаются без изменений.
+ * @author mrGreenNV
+ */
+public class KeyValueSamplingFilter extends Filter<ILoggingEvent> {
+
+    /** Фильтр, принимающий решение по шаблону сообщения. */
+    private final SamplingTurboFilter sampler = new SamplingTurboFilter();
+
+    /**
+     * Задает частоты сохранения сообщений по категориям.
+     * @param rates Строка вида "getAccount=100,deposit=10".
+     */
+    public void setRates(String rates) {
+        sampler.setRates(rates);
+    }
+
+    /**
+     * Задает частоту сохранения сообщений, категория которых не указана в настройках.
+     * @param defaultRate Сохраняется одно сообщение из defaultRate.
+     */
+    public void setDefaultRate(int defaultRate) {
+        sampler.setDefaultRate(defaultRate);
+    }
+
+    @Override
+    public void start() {
+        sampler.start();
+        super.start();
+    }
+
+    @Override
+    public void stop() {
+        sampler.stop();
+        super.stop();
+    }
+
+    /**
+     * Принимает решение о сохранении сообщения.
+     * @param event Событие логирования.
+     * @return DENY, если сообщение с парами ключ-значение не попало в выборку, иначе - NEUTRAL.
+     */
+    @Override
+    public FilterReply decide(ILoggingEvent event) {
+        if (!isStarted() || event.getKeyValuePairs() == null || event.getKeyValuePairs().isEmpty()
+                || event.getThrowableProxy() != null) {
+            return FilterReply.NEUTRAL;
+        }
+        return sampler.decide(null, null, event.getLevel(), event.getMessage(), null, null);
+    }
+}
@@ -0,0 +1,27 @@
+package ru.averkiev.bankservice.logging;
+
+import ch.qos.logback.classic.pattern.ClassicConverter;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+/**
+ * Конвертер шаблона логирования, выводящий название операции из префикса "IN имяМетода" сообщения.
+ * Используется для структурированного вывода в формате ключ=значение.
+ * @author mrGreenNV
+ */
+public class OperationConverter extends ClassicConverter {
+
+    /**
+     * Извлекает название операции из сообщения.
+     * @param event Событие логирования.
+     * @return Название операции или "-", если сообщение не содержит префикса.
+     */
+    @Override
+    public String convert(ILoggingEvent event) {
+        String message = event.getMessage();
+        if (message == null) {
+            return "-";
+        }
+        String operation = SamplingTurboFilter.categoryOf(message);
+        return operation.isEmpty() ? "-" : operation;
+    }
+}
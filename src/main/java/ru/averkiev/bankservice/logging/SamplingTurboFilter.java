@@ -0,0 +1,120 @@
+package ru.averkiev.bankservice.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Фильтр выборочного логирования успешных операций.
+ * Категория сообщения определяется по префиксу "IN имяМетода", принятому в сервисах проекта.
+ * Для каждой категории задается частота: сохраняется одно сообщение из N. Сообщения уровня WARN и выше
+ * пропускаются всегда. Решение принимается до создания события, поэтому отброшенные сообщения
+ * не форматируются и не попадают в очередь асинхронного аппендера.
+ * @author mrGreenNV
+ */
+public class SamplingTurboFilter extends TurboFilter {
+
+    /** Префикс сообщений, после которого следует название категории. */
+    private static final String CATEGORY_PREFIX = "IN ";
+
+    /** Максимальное количество шаблонов сообщений, для которых кэшируется частота. */
+    private static final int MAX_CACHED_FORMATS = 1024;
+
+    /** Частота сохранения сообщений по категориям. */
+    private final Map<String, Integer> rateByCategory = new ConcurrentHashMap<>();
+
+    /** Кэш частоты сохранения по шаблону сообщения. */
+    private final Map<String, Integer> rateByFormat = new ConcurrentHashMap<>();
+
+    /** Частота сохранения сообщений, категория которых не указана в настройках. */
+    private int defaultRate = 1;
+
+    /**
+     * Задает частоты сохранения сообщений по категориям.
+     * @param rates Строка вида "getAccount=100,deposit=10".
+     */
+    public void setRates(String rates) {
+        rateByCategory.clear();
+        rateByFormat.clear();
+        if (rates == null || rates.isBlank()) {
+            return;
+        }
+        for (String rate : rates.split(",")) {
+            String[] pair = rate.trim().split("=");
+            if (pair.length != 2) {
+                addWarn("Некорректная настройка частоты логирования: " + rate);
+                continue;
+            }
+            rateByCategory.put(pair[0].trim(), Integer.parseInt(pair[1].trim()));
+        }
+    }
+
+    /**
+     * Задает частоту сохранения сообщений, категория которых не указана в настройках.
+     * @param defaultRate Сохраняется одно сообщение из defaultRate.
+     */
+    public void setDefaultRate(int defaultRate) {
+        this.defaultRate = defaultRate;
+        rateByFormat.clear();
+    }
+
+    /**
+     * Принимает решение о сохранении сообщения.
+     * @param marker Маркер сообщения.
+     * @param logger Логгер.
+     * @param level Уровень сообщения.
+     * @param format Шаблон сообщения.
+     * @param params Параметры сообщения.
+     * @param t Исключение.
+     * @return DENY, если сообщение не попало в выборку, иначе - NEUTRAL.
+     */
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (!isStarted() || format == null || level == null || level.isGreaterOrEqual(Level.WARN) || t != null) {
+            return FilterReply.NEUTRAL;
+        }
+
+        int rate = rateOf(format);
+        if (rate <= 1 || ThreadLocalRandom.current().nextInt(rate) == 0) {
+            return FilterReply.NEUTRAL;
+        }
+        return FilterReply.DENY;
+    }
+
+    /**
+     * Определяет частоту сохранения сообщения по его шаблону.
+     * @param format Шаблон сообщения.
+     * @return Частота сохранения.
+     */
+    private int rateOf(String format) {
+        Integer rate = rateByFormat.get(format);
+        if (rate != null) {
+            return rate;
+        }
+
+        rate = rateByCategory.getOrDefault(categoryOf(format), defaultRate);
+        if (rateByFormat.size() < MAX_CACHED_FORMATS) {
+            rateByFormat.put(format, rate);
+        }
+        return rate;
+    }
+
+    /**
+     * Извлекает категорию из шаблона сообщения.
+     * @param format Шаблон сообщения.
+     * @return Название категории или пустая строка, если префикс отсутствует.
+     */
+    static String categoryOf(String format) {
+        if (!format.startsWith(CATEGORY_PREFIX)) {
+            return "";
+        }
+        int end = format.indexOf(' ', CATEGORY_PREFIX.length());
+        return end < 0 ? format.substring(CATEGORY_PREFIX.length()) : format.substring(CATEGORY_PREFIX.length(), end);
+    }
+}
@@ -5,17 +5,27 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.Table;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Where;
 
 /**
  * Класс представляет собой модель банковского счета.
+ * Запросы сущности не возвращают помеченные на удаление счета: условие {@link #NOT_DELETED} добавляется ко всем
+ * запросам Hibernate, в том числе к поиску по идентификатору.
  * @author mrGreenNV
  */
 @Entity
 @Table(name = "accounts")
+@Where(clause = Account.NOT_DELETED)
 @Getter
 @Setter
 public class Account extends BaseEntity {
 
+    /**
+     * Условие отбора не помеченных на удаление счетов. Статусы перечислены явно, а не через "<> 'DELETED'",
+     * чтобы условие использовало индекс idx_accounts_status_id.
+     */
+    public static final String NOT_DELETED = "status IN ('ACTIVE', 'NOT_ACTIVE')";
+
     /** Постоянная часть счета для конкретного отделения банка */
     private static final String CODE_BANK = "4070281050000";
 
@@ -24,7 +34,7 @@ public class Account extends BaseEntity {
 
     /** Номер счета */
     @Column(name = "number")
-    private String accountNumber = CODE_BANK + String.format("%06d", number++);
+    private String accountNumber = nextAccountNumber();
 
     /** Название счета */
     @Column(name = "name")
@@ -32,10 +42,17 @@ public class Account extends BaseEntity {
 
     /** Баланс счета */
     @Column(name = "balance")
-    private Double accountBalance = 0.;
+    private Money accountBalance = Money.ZERO;
 
     /** Пин-код для доступа к счету */
     @Column(name = "pin_code")
     private String pin;
 
+    /**
+     * Формирует номер для нового счета.
+     * @return Номер счета.
+     */
+    public static String nextAccountNumber() {
+        return CODE_BANK + String.format("%06d", number++);
+    }
 }
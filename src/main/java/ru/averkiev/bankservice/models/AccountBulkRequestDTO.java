@@ -0,0 +1,29 @@
+package ru.averkiev.bankservice.models;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Класс, представляющий объект для выбора счетов массовой операции.
+ * Счета выбираются по списку идентификаторов и (или) по условиям; заданные условия применяются вместе.
+ * @author mrGreenNV
+ */
+@Getter
+@Setter
+public class AccountBulkRequestDTO {
+
+    /** Идентификаторы счетов */
+    private List<Long> ids;
+
+    /** Текущий статус счетов */
+    private EntityStatus status;
+
+    /** Момент, до которого счета должны быть созданы, в формате ISO */
+    private LocalDateTime createdBefore;
+
+    /** Новый статус счетов, используется при изменении статуса */
+    private EntityStatus targetStatus;
+}
@@ -0,0 +1,20 @@
+package ru.averkiev.bankservice.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Класс, представляющий объект для отображения результата массовой операции со счетами.
+ * @author mrGreenNV
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountBulkResultDTO {
+
+    /** Количество измененных или удаленных счетов */
+    private long affected;
+}
@@ -0,0 +1,36 @@
+package ru.averkiev.bankservice.models;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.Date;
+
+/**
+ * Класс, представляющий объект для отображения измененного счета при синхронизации изменений.
+ * @author mrGreenNV
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountChangeDTO {
+
+    /** Идентификатор счета */
+    private Long id;
+
+    /** Название счета */
+    private String accountName;
+
+    /** Баланс счета */
+    private Money balance;
+
+    /** Статус счета в системе */
+    private EntityStatus status;
+
+    /** Время изменения счета */
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd HH:mm:ss.SSS")
+    private Date updatedAt;
+}
@@ -0,0 +1,28 @@
+package ru.averkiev.bankservice.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Класс, представляющий объект для отображения страницы изменений счетов.
+ * @author mrGreenNV
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountChangesDTO {
+
+    /** Счета, измененные после переданного токена, в порядке изменения */
+    private List<AccountChangeDTO> accounts;
+
+    /** Токен для получения следующих изменений */
+    private String nextToken;
+
+    /** Признак наличия следующей страницы изменений */
+    private boolean hasMore;
+}
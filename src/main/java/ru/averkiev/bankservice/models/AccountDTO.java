@@ -18,5 +18,5 @@ public class AccountDTO {
     private String accountName;
 
     /** Баланс счета */
-    private Double balance;
+    private Money balance;
 }
@@ -15,5 +15,5 @@ public class AccountInfoDTO {
     private String accountName;
 
     /** Баланс счета */
-    private Double accountBalance = 0.;
+    private Money accountBalance = Money.ZERO;
 }
\ No newline at end of file
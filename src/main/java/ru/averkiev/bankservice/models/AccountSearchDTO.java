@@ -0,0 +1,23 @@
+package ru.averkiev.bankservice.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Класс, представляющий объект для отображения счета, найденного по части названия.
+ * @author mrGreenNV
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountSearchDTO {
+
+    /** Идентификатор счета */
+    private Long id;
+
+    /** Название счета */
+    private String accountName;
+}
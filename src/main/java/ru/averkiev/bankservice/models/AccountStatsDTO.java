@@ -0,0 +1,36 @@
+package ru.averkiev.bankservice.models;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Класс, представляющий объект для отображения сводной статистики по счетам.
+ * Баланс и распределение балансов учитывают только не помеченные на удаление счета.
+ * @author mrGreenNV
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountStatsDTO {
+
+    /** Суммарный баланс счетов */
+    private Money totalBalance;
+
+    /** Количество счетов по статусам */
+    private Map<EntityStatus, Long> accountsByStatus;
+
+    /** Количество счетов по диапазонам баланса */
+    private List<BalanceBucketDTO> balanceDistribution;
+
+    /** Время последней сверки статистики с базой данных */
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd HH:mm:ss")
+    private Date reconciledAt;
+}
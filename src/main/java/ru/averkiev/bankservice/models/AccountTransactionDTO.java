@@ -15,7 +15,7 @@ public class AccountTransactionDTO {
     private String sourceAccountName;
 
     /** Сумма операции */
-    private Double transferAmount;
+    private Money transferAmount;
 
     /** Пин-код для доступа к счету с которого производится операция */
     private String pin;
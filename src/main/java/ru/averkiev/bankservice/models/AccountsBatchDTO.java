@@ -0,0 +1,25 @@
+package ru.averkiev.bankservice.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Класс, представляющий объект для отображения счетов, запрошенных по списку идентификаторов.
+ * @author mrGreenNV
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountsBatchDTO {
+
+    /** Найденные счета в порядке запрошенных идентификаторов */
+    private List<AccountDTO> accounts;
+
+    /** Запрошенные идентификаторы, для которых счета не найдены */
+    private List<Long> missingIds;
+}
@@ -0,0 +1,58 @@
+package ru.averkiev.bankservice.models;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.Date;
+
+/**
+ * Класс представляет собой архивный счет, перенесенный из таблицы accounts.
+ * Архивные счета только читаются: записи создаются заданием архивации запросом INSERT ... SELECT.
+ * @author mrGreenNV
+ */
+@Entity
+@Table(name = "accounts_archive")
+@Getter
+@Setter
+public class ArchivedAccount {
+
+    /** Идентификатор счета, сохраненный при архивации */
+    @Id
+    @Column(name = "id")
+    private Long id;
+
+    /** Номер счета */
+    @Column(name = "number")
+    private String accountNumber;
+
+    /** Название счета */
+    @Column(name = "name")
+    private String accountName;
+
+    /** Баланс счета на момент архивации */
+    @Column(name = "balance")
+    private Money accountBalance;
+
+    /** Время создания счета */
+    @Column(name = "created_at")
+    private Date createdAt;
+
+    /** Время последнего изменения счета до архивации */
+    @Column(name = "updated_at")
+    private Date updatedAt;
+
+    /** Статус счета на момент архивации */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status")
+    private EntityStatus entityStatus;
+
+    /** Время архивации счета */
+    @Column(name = "archived_at")
+    private Date archivedAt;
+}
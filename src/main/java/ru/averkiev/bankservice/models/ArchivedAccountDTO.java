@@ -0,0 +1,39 @@
+package ru.averkiev.bankservice.models;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.Date;
+
+/**
+ * Класс, представляющий объект для отображения архивного счета.
+ * @author mrGreenNV
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedAccountDTO {
+
+    /** Идентификатор счета */
+    private Long id;
+
+    /** Номер счета */
+    private String accountNumber;
+
+    /** Название счета */
+    private String accountName;
+
+    /** Баланс счета на момент архивации */
+    private Money balance;
+
+    /** Статус счета на момент архивации */
+    private EntityStatus status;
+
+    /** Время архивации счета */
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd HH:mm:ss")
+    private Date archivedAt;
+}
@@ -0,0 +1,30 @@
+package ru.averkiev.bankservice.models;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Класс, представляющий объект для отображения баланса счета на момент времени.
+ * @author mrGreenNV
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BalanceAtDTO {
+
+    /** Идентификатор счета */
+    private Long accountId;
+
+    /** Баланс счета */
+    private Money balance;
+
+    /** Момент времени, на который вычислен баланс */
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime at;
+}
@@ -0,0 +1,26 @@
+package ru.averkiev.bankservice.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Класс, представляющий объект для отображения количества счетов с балансом в диапазоне.
+ * @author mrGreenNV
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BalanceBucketDTO {
+
+    /** Нижняя граница диапазона баланса, включительно, или null для диапазона без нижней границы */
+    private Money from;
+
+    /** Верхняя граница диапазона баланса, не включительно, или null для диапазона без верхней границы */
+    private Money to;
+
+    /** Количество счетов с балансом в диапазоне */
+    private long accounts;
+}
@@ -0,0 +1,30 @@
+package ru.averkiev.bankservice.models;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Класс, представляющий объект события об изменении баланса счета, передаваемого подписчикам.
+ * @author mrGreenNV
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BalanceEventDTO {
+
+    /** Идентификатор счета */
+    private Long accountId;
+
+    /** Баланс счета после изменения */
+    private Money balance;
+
+    /** Время изменения баланса */
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd HH:mm:ss.SSS")
+    private LocalDateTime changedAt;
+}
@@ -0,0 +1,37 @@
+package ru.averkiev.bankservice.models;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.Date;
+
+/**
+ * Класс представляет собой снимок баланса счета на момент времени.
+ * Баланс снимка равен сумме всех проводок счета, созданных не позже момента снимка.
+ * @author mrGreenNV
+ */
+@Entity
+@Table(name = "balance_snapshots")
+@Getter
+@Setter
+public class BalanceSnapshot {
+
+    /** Идентификатор снимка */
+    @Id
+    @Column(name = "id")
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /** Идентификатор счета */
+    @Column(name = "account_id")
+    private Long accountId;
+
+    /** Баланс счета на момент снимка */
+    @Column(name = "balance")
+    private Money balance;
+
+    /** Момент, на который сделан снимок */
+    @Column(name = "snapshot_at")
+    private Date snapshotAt;
+}
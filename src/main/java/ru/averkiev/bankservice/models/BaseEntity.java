@@ -38,6 +38,16 @@ public abstract class BaseEntity {
     @JsonIgnore
     private Date updatedAt;
 
+    /**
+     * Версия сущности, увеличивается при каждом изменении записи. Hibernate сравнивает версию при сохранении,
+     * поэтому сохранение устаревшей копии отклоняется, а не перезаписывает более новую запись с той же версией.
+     */
+    @Version
+    @Column(name = "version")
+    @Schema(description = "Версия")
+    @JsonIgnore
+    private Long version = 0L;
+
     /** Статус сущности в системе. */
     @Enumerated(EnumType.STRING)
     @Column(name = "status")
@@ -0,0 +1,54 @@
+package ru.averkiev.bankservice.models;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.util.Date;
+
+/**
+ * Класс представляет собой проводку по счету.
+ * Каждая операция записывается двумя проводками с противоположными суммами: по счету списания и по счету зачисления.
+ * Для пополнения и списания средств второй стороной операции является внешний счет, для него идентификатор счета
+ * не указывается. Проводки только добавляются и никогда не изменяются, кроме признака учета в балансе счета.
+ * @author mrGreenNV
+ */
+@Entity
+@Table(name = "ledger_entries")
+@Getter
+@Setter
+public class LedgerEntry {
+
+    /** Идентификатор проводки */
+    @Id
+    @Column(name = "id")
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /** Идентификатор операции, общий для всех ее проводок */
+    @Column(name = "operation_id")
+    private String operationId;
+
+    /** Идентификатор счета или null для внешнего счета */
+    @Column(name = "account_id")
+    private Long accountId;
+
+    /** Сумма проводки: положительная при зачислении, отрицательная при списании */
+    @Column(name = "amount")
+    private Money amount;
+
+    /** Тип операции */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entry_type")
+    private LedgerEntryType entryType;
+
+    /** Признак учета проводки в балансе счета */
+    @Column(name = "materialized")
+    private boolean materialized;
+
+    /** Время создания проводки */
+    @Column(name = "created_at")
+    @CreationTimestamp
+    private Date createdAt;
+}
@@ -0,0 +1,17 @@
+package ru.averkiev.bankservice.models;
+
+/**
+ * Тип операции, к которой относится проводка.
+ * @author mrGreenNV
+ */
+public enum LedgerEntryType {
+
+    /** Пополнение счета. */
+    DEPOSIT,
+
+    /** Списание средств со счета. */
+    WITHDRAW,
+
+    /** Перевод средств между счетами. */
+    TRANSFER
+}
@@ -0,0 +1,149 @@
+package ru.averkiev.bankservice.models;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import ru.averkiev.bankservice.utils.MoneyJsonDeserializer;
+import ru.averkiev.bankservice.utils.MoneyJsonSerializer;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Класс представляет собой неизменяемую денежную сумму, хранящуюся в минимальных денежных единицах (копейках).
+ * Арифметика выполняется над примитивным long без округления; переполнение приводит к {@link ArithmeticException}.
+ * В базе данных сумма хранится столбцом BIGINT, в JSON - десятичным числом с двумя знаками после запятой.
+ * @author mrGreenNV
+ */
+@JsonSerialize(using = MoneyJsonSerializer.class)
+@JsonDeserialize(using = MoneyJsonDeserializer.class)
+public final class Money implements Comparable<Money> {
+
+    /** Количество знаков после запятой */
+    public static final int SCALE = 2;
+
+    /** Нулевая сумма */
+    public static final Money ZERO = new Money(0);
+
+    /** Сумма в минимальных денежных единицах */
+    private final long minorUnits;
+
+    private Money(long minorUnits) {
+        this.minorUnits = minorUnits;
+    }
+
+    /**
+     * Создает сумму из минимальных денежных единиц.
+     * @param minorUnits Сумма в минимальных денежных единицах.
+     * @return Денежная сумма.
+     */
+    public static Money ofMinorUnits(long minorUnits) {
+        return minorUnits == 0 ? ZERO : new Money(minorUnits);
+    }
+
+    /**
+     * Создает сумму из десятичного числа.
+     * @param amount Сумма.
+     * @return Денежная сумма.
+     * @throws ArithmeticException Выбрасывает, если у суммы больше двух знаков после запятой или она не помещается в long.
+     */
+    public static Money of(BigDecimal amount) {
+        return ofMinorUnits(amount.setScale(SCALE, RoundingMode.UNNECESSARY).unscaledValue().longValueExact());
+    }
+
+    /**
+     * Создает сумму из строки с десятичным числом.
+     * @param amount Сумма.
+     * @return Денежная сумма.
+     * @throws NumberFormatException Выбрасывает, если строка не является числом.
+     * @throws ArithmeticException Выбрасывает, если у суммы больше двух знаков после запятой или она не помещается в long.
+     */
+    public static Money parse(String amount) {
+        return of(new BigDecimal(amount));
+    }
+
+    /**
+     * Получает сумму в минимальных денежных единицах.
+     * @return Сумма в минимальных денежных единицах.
+     */
+    public long getMinorUnits() {
+        return minorUnits;
+    }
+
+    /**
+     * Складывает суммы.
+     * @param other Слагаемое.
+     * @return Сумма.
+     */
+    public Money plus(Money other) {
+        return ofMinorUnits(Math.addExact(minorUnits, other.minorUnits));
+    }
+
+    /**
+     * Вычитает сумму.
+     * @param other Вычитаемое.
+     * @return Разность.
+     */
+    public Money minus(Money other) {
+        return ofMinorUnits(Math.subtractExact(minorUnits, other.minorUnits));
+    }
+
+    /**
+     * Меняет знак суммы.
+     * @return Сумма с противоположным знаком.
+     */
+    public Money negate() {
+        return ofMinorUnits(Math.negateExact(minorUnits));
+    }
+
+    /**
+     * Проверяет, что сумма больше нуля.
+     * @return true, если сумма больше нуля, иначе - false.
+     */
+    public boolean isPositive() {
+        return minorUnits > 0;
+    }
+
+    /**
+     * Проверяет, что сумма меньше переданной.
+     * @param other Сравниваемая сумма.
+     * @return true, если сумма меньше переданной, иначе - false.
+     */
+    public boolean isLessThan(Money other) {
+        return minorUnits < other.minorUnits;
+    }
+
+    /**
+     * Преобразует сумму в десятичное число с двумя знаками после запятой.
+     * @return Десятичное число.
+     */
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || o instanceof Money other && minorUnits == other.minorUnits;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(minorUnits);
+    }
+
+    /**
+     * Форматирует сумму десятичным числом с двумя знаками после запятой, например -12.05.
+     * @return Строковое представление суммы.
+     */
+    @Override
+    public String toString() {
+        long units = minorUnits / 100;
+        int cents = (int) Math.abs(minorUnits % 100);
+        String sign = minorUnits < 0 && units == 0 ? "-" : "";
+        return sign + units + (cents < 10 ? ".0" : ".") + cents;
+    }
+}
@@ -0,0 +1,39 @@
+package ru.averkiev.bankservice.models;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Класс, представляющий объект для отображения состояния асинхронной операции.
+ * @author mrGreenNV
+ */
+@Getter
+@Setter
+public class OperationDTO {
+
+    /** Идентификатор операции */
+    private String id;
+
+    /** Идентификатор счета, с которого производится операция */
+    private Long accountId;
+
+    /** Статус операции */
+    private OperationStatus status;
+
+    /** Информация о счете после успешного выполнения операции */
+    private AccountInfoDTO result;
+
+    /** Сообщение об ошибке, если операция завершилась ошибкой */
+    private String errorMessage;
+
+    /** Время приема операции */
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime createdAt;
+
+    /** Время завершения операции */
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime completedAt;
+}
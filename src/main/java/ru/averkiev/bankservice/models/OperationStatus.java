@@ -0,0 +1,20 @@
+package ru.averkiev.bankservice.models;
+
+/**
+ * Статус асинхронной операции.
+ * @author mrGreenNV
+ */
+public enum OperationStatus {
+
+    /** Операция принята и ожидает выполнения в очереди. */
+    PENDING,
+
+    /** Операция выполняется. */
+    PROCESSING,
+
+    /** Операция успешно выполнена. */
+    COMPLETED,
+
+    /** Операция завершилась ошибкой. */
+    FAILED
+}
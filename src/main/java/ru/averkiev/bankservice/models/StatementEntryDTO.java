@@ -0,0 +1,36 @@
+package ru.averkiev.bankservice.models;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.Date;
+
+/**
+ * Класс, представляющий объект для отображения строки выписки по счету.
+ * @author mrGreenNV
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class StatementEntryDTO {
+
+    /** Идентификатор проводки */
+    private Long id;
+
+    /** Идентификатор операции */
+    private String operationId;
+
+    /** Тип операции */
+    private LedgerEntryType entryType;
+
+    /** Сумма: положительная при зачислении, отрицательная при списании */
+    private Money amount;
+
+    /** Время операции */
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd HH:mm:ss.SSS")
+    private Date createdAt;
+}
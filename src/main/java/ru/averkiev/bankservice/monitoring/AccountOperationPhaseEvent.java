@@ -0,0 +1,121 @@
+package ru.averkiev.bankservice.monitoring;
+
+import jdk.jfr.*;
+import ru.averkiev.bankservice.models.Money;
+
+/**
+ * Событие Java Flight Recorder, описывающее отдельную фазу операции над банковским счетом.
+ * Позволяет в production-окружении определить, какая из фаз перевода или списания средств
+ * формирует задержку, без подключения профилировщика.
+ * @author mrGreenNV
+ */
+@Name(AccountOperationPhaseEvent.NAME)
+@Label("Account Operation Phase")
+@Category({"Bank Service", "Accounts"})
+@Description("Фаза операции над банковским счетом")
+@StackTrace(false)
+public class AccountOperationPhaseEvent extends Event {
+
+    /** Имя события, используемое в профиле настроек JFR. */
+    public static final String NAME = "ru.averkiev.bankservice.AccountOperationPhase";
+
+    /** Операция перевода средств между счетами. */
+    public static final String OPERATION_TRANSFER = "transfer";
+
+    /** Операция списания средств со счета. */
+    public static final String OPERATION_WITHDRAW = "withdraw";
+
+    /** Фаза поиска счета, с которого производится операция. */
+    public static final String PHASE_SOURCE_LOOKUP = "source lookup";
+
+    /** Фаза проверки пин-кода. */
+    public static final String PHASE_PIN_VERIFY = "pin verify";
+
+    /** Фаза поиска счета, на который производится перевод, по его названию. */
+    public static final String PHASE_DESTINATION_LOOKUP = "destination lookup";
+
+    /** Фаза сохранения счета, с которого списываются средства. */
+    public static final String PHASE_DEBIT_SAVE = "debit save";
+
+    /** Фаза сохранения счета, на который зачисляются средства. */
+    public static final String PHASE_CREDIT_SAVE = "credit save";
+
+    /** Фаза преобразования модели счета в DTO. */
+    public static final String PHASE_DTO_MAPPING = "dto mapping";
+
+    /** Название операции. */
+    @Label("Operation")
+    private String operation;
+
+    /** Название фазы операции. */
+    @Label("Phase")
+    private String phase;
+
+    /** Идентификатор счета, с которого производится операция. */
+    @Label("Account Id")
+    private long accountId;
+
+    /** Название счета, на который производится перевод. */
+    @Label("Destination Account Name")
+    private String destinationAccountName;
+
+    /** Идентификатор счета, на который производится перевод, известный после его поиска. */
+    @Label("Destination Account Id")
+    private long destinationAccountId;
+
+    /** Сумма операции в минимальных денежных единицах. */
+    @Label("Amount Minor Units")
+    private long amount;
+
+    /** Признак фазы, завершившейся ошибкой. */
+    @Label("Failed")
+    private boolean failed;
+
+    /**
+     * Начинает замер фазы операции.
+     * @param operation Название операции.
+     * @param phase Название фазы.
+     * @param accountId Идентификатор счета, с которого производится операция.
+     * @param amount Сумма операции.
+     * @return Событие с зафиксированным временем начала фазы.
+     */
+    public static AccountOperationPhaseEvent begin(String operation, String phase, Long accountId, Money amount) {
+        AccountOperationPhaseEvent event = new AccountOperationPhaseEvent();
+        if (event.isEnabled()) {
+            event.operation = operation;
+            event.phase = phase;
+            event.accountId = accountId == null ? 0L : accountId;
+            event.amount = amount == null ? 0L : amount.getMinorUnits();
+            event.begin();
+        }
+        return event;
+    }
+
+    /**
+     * Задает название счета, на который производится перевод.
+     * @param destinationAccountName Название счета.
+     * @return Текущее событие.
+     */
+    public AccountOperationPhaseEvent destination(String destinationAccountName) {
+        this.destinationAccountName = destinationAccountName;
+        return this;
+    }
+
+    /**
+     * Задает идентификатор счета, на который производится перевод.
+     * @param destinationAccountId Идентификатор счета.
+     * @return Текущее событие.
+     */
+    public AccountOperationPhaseEvent destinationAccountId(Long destinationAccountId) {
+        this.destinationAccountId = destinationAccountId == null ? 0L : destinationAccountId;
+        return this;
+    }
+
+    /**
+     * Завершает замер фазы, завершившейся ошибкой, и записывает событие.
+     */
+    public void commitFailed() {
+        this.failed = true;
+        commit();
+    }
+}
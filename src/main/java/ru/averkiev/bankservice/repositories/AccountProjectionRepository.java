@@ -0,0 +1,58 @@
+package ru.averkiev.bankservice.repositories;
+
+import org.springframework.data.domain.Pageable;
+import ru.averkiev.bankservice.models.AccountChangeDTO;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Репозиторий для чтения отдельных атрибутов счетов.
+ * Запрос выбирает только столбцы переданных атрибутов, остальные столбцы таблицы accounts не читаются.
+ * @author mrGreenNV
+ */
+public interface AccountProjectionRepository {
+
+    /**
+     * Выполняет поиск значений атрибутов счета по его идентификатору.
+     * @param accountId Идентификатор счета.
+     * @param attributes Названия атрибутов сущности Account.
+     * @return Optional, содержащий значения атрибутов в порядке переданных названий, если счет найден, иначе - пустой.
+     */
+    Optional<Object[]> findAttributesById(Long accountId, List<String> attributes);
+
+    /**
+     * Выполняет поиск значений атрибутов счетов.
+     * @param attributes Названия атрибутов сущности Account.
+     * @param pageable Пагинация страниц или Pageable.unpaged() для всех счетов.
+     * @return Список значений атрибутов счетов в порядке переданных названий.
+     */
+    List<Object[]> findAttributes(List<String> attributes, Pageable pageable);
+
+    /**
+     * Выполняет поиск счетов, измененных после переданной позиции, в порядке изменения.
+     * Позиция задается временем изменения и идентификатором последнего переданного счета, поэтому запрос использует
+     * индекс (updated_at, id). В отличие от остальных запросов счетов, возвращает и помеченные на удаление счета,
+     * чтобы клиенты удалили их из своего кеша.
+     * @param afterUpdatedAt Время изменения последнего переданного счета.
+     * @param afterId Идентификатор последнего переданного счета.
+     * @param until Верхняя граница времени изменения, включительно.
+     * @param pageable Ограничение количества строк.
+     * @return Список измененных счетов.
+     */
+    List<AccountChangeDTO> findChangesPage(Date afterUpdatedAt, Long afterId, Date until, Pageable pageable);
+
+    /**
+     * Подсчитывает количество и сумму балансов счетов по статусам и диапазонам баланса одним запросом.
+     * Запрос просматривает всю таблицу accounts, включая помеченные на удаление счета, и используется только
+     * для периодической сверки статистики.
+     * @param bucketBounds Верхние границы диапазонов баланса в минимальных денежных единицах по возрастанию;
+     * счета с балансом не меньше последней границы относятся к последнему диапазону.
+     * @param includeUnmaterialized Признак учета проводок, еще не учтенных в столбце balance, в режиме фонового
+     * учета проводок.
+     * @return Для каждой непустой группы: статус (EntityStatus), номер диапазона (Integer), количество счетов (Long)
+     * и сумма их балансов в минимальных денежных единицах (Long).
+     */
+    List<Object[]> findBalanceDistribution(long[] bucketBounds, boolean includeUnmaterialized);
+}
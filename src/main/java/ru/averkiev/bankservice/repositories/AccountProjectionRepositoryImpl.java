@@ -0,0 +1,140 @@
+package ru.averkiev.bankservice.repositories;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.domain.Pageable;
+import ru.averkiev.bankservice.models.Account;
+import ru.averkiev.bankservice.models.AccountChangeDTO;
+import ru.averkiev.bankservice.models.EntityStatus;
+import ru.averkiev.bankservice.models.Money;
+
+import java.sql.Timestamp;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Реализация репозитория для чтения отдельных атрибутов счетов.
+ * @author mrGreenNV
+ */
+public class AccountProjectionRepositoryImpl implements AccountProjectionRepository {
+
+    /**
+     * Запрос изменений счетов. Выполняется без HQL, чтобы к нему не добавлялось условие отбора
+     * не помеченных на удаление счетов сущности Account.
+     */
+    private static final String CHANGES_QUERY = "SELECT id, name, balance, status, updated_at FROM accounts "
+            + "WHERE updated_at <= :until "
+            + "AND (updated_at > :afterUpdatedAt OR (updated_at = :afterUpdatedAt AND id > :afterId)) "
+            + "ORDER BY updated_at, id";
+
+    /** Балансы счетов с учетом проводок, еще не учтенных в столбце balance */
+    private static final String CONSISTENT_BALANCES = "(SELECT a.status, a.balance + COALESCE(p.amount, 0) AS balance "
+            + "FROM accounts a LEFT JOIN (SELECT account_id, SUM(amount) AS amount FROM ledger_entries "
+            + "WHERE materialized = FALSE GROUP BY account_id) p ON p.account_id = a.id) accounts";
+
+    /** Менеджер сущностей */
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Выполняет поиск значений атрибутов счета по его идентификатору.
+     * @param accountId Идентификатор счета.
+     * @param attributes Названия атрибутов сущности Account.
+     * @return Optional, содержащий значения атрибутов в порядке переданных названий, если счет найден, иначе - пустой.
+     */
+    @Override
+    public Optional<Object[]> findAttributesById(Long accountId, List<String> attributes) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = builder.createTupleQuery();
+        Root<Account> root = query.from(Account.class);
+        query.multiselect(attributes.stream().<Selection<?>>map(root::get).toList())
+                .where(builder.equal(root.get("id"), accountId));
+
+        return entityManager.createQuery(query).getResultList().stream().findFirst().map(Tuple::toArray);
+    }
+
+    /**
+     * Выполняет поиск значений атрибутов счетов.
+     * @param attributes Названия атрибутов сущности Account.
+     * @param pageable Пагинация страниц или Pageable.unpaged() для всех счетов.
+     * @return Список значений атрибутов счетов в порядке переданных названий.
+     */
+    @Override
+    public List<Object[]> findAttributes(List<String> attributes, Pageable pageable) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = builder.createTupleQuery();
+        Root<Account> root = query.from(Account.class);
+        query.multiselect(attributes.stream().<Selection<?>>map(root::get).toList());
+
+        TypedQuery<Tuple> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+        return typedQuery.getResultList().stream().map(Tuple::toArray).toList();
+    }
+
+    /**
+     * Выполняет поиск счетов, измененных после переданной позиции, в порядке изменения, включая помеченные на удаление.
+     * @param afterUpdatedAt Время изменения последнего переданного счета.
+     * @param afterId Идентификатор последнего переданного счета.
+     * @param until Верхняя граница времени изменения, включительно.
+     * @param pageable Ограничение количества строк.
+     * @return Список измененных счетов.
+     */
+    @Override
+    public List<AccountChangeDTO> findChangesPage(Date afterUpdatedAt, Long afterId, Date until, Pageable pageable) {
+        @SuppressWarnings("unchecked")
+        List<Tuple> rows = entityManager.createNativeQuery(CHANGES_QUERY, Tuple.class)
+                .setParameter("afterUpdatedAt", new Timestamp(afterUpdatedAt.getTime()))
+                .setParameter("afterId", afterId)
+                .setParameter("until", new Timestamp(until.getTime()))
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+
+        return rows.stream()
+                .map(row -> new AccountChangeDTO(row.get(0, Long.class), row.get(1, String.class),
+                        Money.ofMinorUnits(row.get(2, Long.class)), EntityStatus.valueOf(row.get(3, String.class)),
+                        row.get(4, Date.class)))
+                .toList();
+    }
+
+    /**
+     * Подсчитывает количество и сумму балансов счетов по статусам и диапазонам баланса, включая помеченные
+     * на удаление счета.
+     * @param bucketBounds Верхние границы диапазонов баланса в минимальных денежных единицах по возрастанию.
+     * @param includeUnmaterialized Признак учета проводок, еще не учтенных в столбце balance.
+     * @return Статус, номер диапазона, количество счетов и сумма их балансов для каждой непустой группы.
+     */
+    @Override
+    public List<Object[]> findBalanceDistribution(long[] bucketBounds, boolean includeUnmaterialized) {
+        StringBuilder bucket = new StringBuilder("CASE");
+        for (int i = 0; i < bucketBounds.length; i++) {
+            bucket.append(" WHEN balance < :bound").append(i).append(" THEN ").append(i);
+        }
+        bucket.append(" ELSE ").append(bucketBounds.length).append(" END");
+
+        Query query = entityManager.createNativeQuery("SELECT status, " + bucket + " AS bucket, COUNT(*), "
+                + "COALESCE(SUM(balance), 0) FROM " + (includeUnmaterialized ? CONSISTENT_BALANCES : "accounts")
+                + " GROUP BY status, bucket");
+        for (int i = 0; i < bucketBounds.length; i++) {
+            query.setParameter("bound" + i, bucketBounds[i]);
+        }
+
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = query.getResultList();
+        return rows.stream()
+                .map(row -> new Object[]{EntityStatus.valueOf((String) row[0]), ((Number) row[1]).intValue(),
+                        ((Number) row[2]).longValue(), ((Number) row[3]).longValue()})
+                .toList();
+    }
+}
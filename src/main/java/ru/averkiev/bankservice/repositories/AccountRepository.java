@@ -1,9 +1,18 @@
 package ru.averkiev.bankservice.repositories;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import ru.averkiev.bankservice.models.Account;
+import ru.averkiev.bankservice.models.EntityStatus;
 
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -12,14 +21,55 @@ import java.util.Optional;
  * @author mrGreenNV
  */
 @Repository
-public interface AccountRepository extends JpaRepository<Account, Long> {
+public interface AccountRepository extends JpaRepository<Account, Long>, AccountProjectionRepository {
+
+    /**
+     * Выполняет поиск счета по его идентификатору.
+     * Стандартная реализация выполняется в транзакции только для чтения, которая в профиле replica-routing
+     * направляется на реплику. Поиск используется и перед изменением счета, поэтому вне транзакции вызывающего
+     * метода выполняется в основной базе данных; в транзакции только для чтения вызывающего метода - в реплике.
+     * @param id Идентификатор счета.
+     * @return Optional, содержащий информацию о счете, если счет найден, иначе - пустой.
+     */
+    @Override
+    @Transactional
+    Optional<Account> findById(Long id);
+
+    /**
+     * Проверяет существование в базе данных записи о счете по переданному идентификатору.
+     * Выполняется в основной базе данных по той же причине, что и {@link #findById(Long)}.
+     * @param id Идентификатор счета.
+     * @return true, если запись найдена, иначе - false.
+     */
+    @Override
+    @Transactional
+    boolean existsById(Long id);
+
+    /**
+     * Проверяет существование в базе данных записи о счете по переданному идентификатору, включая помеченные
+     * на удаление счета. Используется при окончательном удалении счета.
+     * @param id Идентификатор счета.
+     * @return true, если запись найдена, иначе - false.
+     */
+    @Query(value = "SELECT COUNT(*) > 0 FROM accounts WHERE id = :id", nativeQuery = true)
+    boolean existsAnyAccountById(@Param("id") Long id);
 
     /**
      * Проверяет существование в базе данных записи о счете по переданному названию счета.
+     * Учитывает и помеченные на удаление счета: их названия остаются заняты ограничением уникальности.
      * @param accountName Название счета.
      * @return true, если запись найдена, иначе - false.
      */
-    boolean existsAccountByAccountName(String accountName);
+    @Query(value = "SELECT COUNT(*) > 0 FROM accounts WHERE name = :accountName", nativeQuery = true)
+    boolean existsAccountByAccountName(@Param("accountName") String accountName);
+
+    /**
+     * Проверяет существование не помеченного на удаление счета по переданному названию счета.
+     * @param accountName Название счета.
+     * @return true, если счет найден, иначе - false.
+     */
+    @Query("select count(a) > 0 from Account a where a.accountName = :accountName")
+    boolean existsNotDeletedAccountByAccountName(@Param("accountName") String accountName);
 
     /**
      * Выполняет поиск счета по его названию.
@@ -27,4 +77,162 @@ public interface AccountRepository extends JpaRepository<Account, Long> {
      * @return Optional, содержащий информацию о счете, если счет найден, иначе - пустой.
      */
     Optional<Account> findAccountByAccountName(String accountName);
-}
\ No newline at end of file
+
+    /**
+     * Обновляет название счета, не затрагивая остальные столбцы.
+     * Используется в режиме движка учета балансов, где столбец balance обновляется только движком.
+     * @param accountId Идентификатор счета.
+     * @param accountName Новое название счета.
+     * @return Количество обновленных записей.
+     */
+    @Modifying
+    @Transactional
+    @Query("update Account a set a.accountName = :accountName, a.updatedAt = current_timestamp, a.version = a.version + 1 where a.id = :accountId")
+    int updateAccountName(@Param("accountId") Long accountId, @Param("accountName") String accountName);
+
+    /**
+     * Обновляет статус счета, не затрагивая остальные столбцы.
+     * Используется в режиме движка учета балансов, где столбец balance обновляется только движком.
+     * @param accountId Идентификатор счета.
+     * @param entityStatus Новый статус счета.
+     * @return Количество обновленных записей.
+     */
+    @Modifying
+    @Transactional
+    @Query("update Account a set a.entityStatus = :entityStatus, a.updatedAt = current_timestamp, a.version = a.version + 1 where a.id = :accountId")
+    int updateEntityStatus(@Param("accountId") Long accountId, @Param("entityStatus") EntityStatus entityStatus);
+
+    /**
+     * Изменяет баланс счета на переданную сумму.
+     * @param accountId Идентификатор счета.
+     * @param delta Сумма изменения баланса в минимальных денежных единицах.
+     * @return Количество обновленных записей.
+     */
+    @Modifying
+    @Query(value = "UPDATE accounts SET balance = balance + :delta, updated_at = CURRENT_TIMESTAMP, version = version + 1 "
+            + "WHERE id = :accountId", nativeQuery = true)
+    int addToBalance(@Param("accountId") Long accountId, @Param("delta") long delta);
+
+    /**
+     * Получает версию счета без загрузки остальных столбцов.
+     * @param accountId Идентификатор счета.
+     * @return Optional, содержащий версию счета, если счет найден, иначе - пустой.
+     */
+    @Query("select a.version from Account a where a.id = :accountId")
+    Optional<Long> findVersionById(@Param("accountId") Long accountId);
+
+    /**
+     * Получает сводную версию всех счетов: количество счетов, сумму идентификаторов и сумму версий.
+     * Идентификаторы новых счетов больше идентификаторов всех прежних, а версии только растут, поэтому любое
+     * создание, изменение или удаление счета изменяет результат.
+     * @return Сводная версия счетов.
+     */
+    @Query("select concat(cast(count(a) as String), '-', cast(coalesce(sum(a.id), 0) as String), '-', "
+            + "cast(coalesce(sum(a.version), 0) as String)) from Account a")
+    String findAccountsVersion();
+
+    /**
+     * Получает идентификаторы и версии счетов страницы в формате "идентификатор:версия".
+     * @param pageable Пагинация страниц.
+     * @return Список идентификаторов и версий счетов страницы.
+     */
+    @Query("select concat(cast(a.id as String), ':', cast(a.version as String)) from Account a")
+    List<String> findVersionsPage(Pageable pageable);
+
+    /**
+     * Получает идентификаторы, названия и статусы счетов с идентификатором больше переданного в порядке
+     * идентификаторов. Используется для построения индекса поиска по названиям: страницы читаются по первичному
+     * ключу без сортировки; запрос выполняется без условия сущности Account, поэтому помеченные на удаление счета
+     * отбрасываются вызывающим кодом.
+     * @param afterId Идентификатор, после которого выбираются счета.
+     * @param limit Наибольшее количество счетов.
+     * @return Идентификатор, название и статус каждого счета.
+     */
+    @Query(value = "SELECT id, name, status FROM accounts WHERE id > :afterId ORDER BY id LIMIT :limit", nativeQuery = true)
+    List<Object[]> findNamesPage(@Param("afterId") long afterId, @Param("limit") int limit);
+
+    /**
+     * Выполняет поиск и блокирует счета с переданным статусом, не изменявшиеся с переданного момента.
+     * Используется заданием архивации; запрос выполняется без условия сущности Account, поэтому находит
+     * и помеченные на удаление счета. Счета выбираются по индексу (status, id). Счета с проводками, еще не
+     * учтенными в балансе, пропускаются: их баланс в таблице accounts неполон.
+     * @param status Статус счетов.
+     * @param updatedBefore Момент, до которого счета должны быть изменены в последний раз.
+     * @param limit Наибольшее количество счетов.
+     * @return Идентификаторы счетов.
+     */
+    @Query(value = "SELECT id FROM accounts a WHERE status = :status AND updated_at < :updatedBefore "
+            + "AND NOT EXISTS (SELECT 1 FROM ledger_entries e WHERE e.account_id = a.id AND e.materialized = FALSE) "
+            + "ORDER BY id LIMIT :limit FOR UPDATE", nativeQuery = true)
+    List<Long> findIdsForArchive(@Param("status") String status,
+                                 @Param("updatedBefore") Date updatedBefore,
+                                 @Param("limit") int limit);
+
+    /**
+     * Получает и блокирует статус и баланс счета, включая помеченный на удаление счет.
+     * @param id Идентификатор счета.
+     * @return Пара статуса и баланса счета в минимальных денежных единицах или пустой список, если счет не найден.
+     */
+    @Query(value = "SELECT status, balance FROM accounts WHERE id = :id FOR UPDATE", nativeQuery = true)
+    List<Object[]> findStatusAndBalanceById(@Param("id") Long id);
+
+    /**
+     * Получает балансы счетов из переданного списка, включая помеченные на удаление счета.
+     * @param ids Идентификаторы счетов.
+     * @return Пары идентификатора счета и баланса в минимальных денежных единицах.
+     */
+    @Query(value = "SELECT id, balance FROM accounts WHERE id IN (:ids)", nativeQuery = true)
+    List<Object[]> findBalancesByIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Выполняет поиск и блокирует очередную пачку счетов с переданным статусом, созданных до переданного момента.
+     * Используется массовыми операциями со счетами: пачки выбираются по индексу (status, id) в порядке возрастания
+     * идентификатора начиная после последнего идентификатора предыдущей пачки, поэтому каждая пачка читает только
+     * свои строки. Запрос выполняется без условия сущности Account, поэтому находит и помеченные на удаление счета.
+     * @param status Статус счетов.
+     * @param afterId Идентификатор, после которого выбираются счета.
+     * @param createdBefore Момент, до которого счета должны быть созданы.
+     * @param limit Наибольшее количество счетов.
+     * @return Идентификаторы счетов по возрастанию.
+     */
+    @Query(value = "SELECT id FROM accounts WHERE status = :status AND id > :afterId AND created_at < :createdBefore "
+            + "ORDER BY id LIMIT :limit FOR UPDATE", nativeQuery = true)
+    List<Long> findIdsByCriteria(@Param("status") String status,
+                                 @Param("afterId") long afterId,
+                                 @Param("createdBefore") Date createdBefore,
+                                 @Param("limit") int limit);
+
+    /**
+     * Выполняет поиск и блокирует счета из переданного списка с переданными статусами, созданные до переданного
+     * момента. Используется массовыми операциями со счетами по списку идентификаторов.
+     * @param ids Идентификаторы счетов.
+     * @param statuses Статусы счетов.
+     * @param createdBefore Момент, до которого счета должны быть созданы.
+     * @return Идентификаторы найденных счетов по возрастанию.
+     */
+    @Query(value = "SELECT id FROM accounts WHERE id IN (:ids) AND status IN (:statuses) AND created_at < :createdBefore "
+            + "ORDER BY id FOR UPDATE", nativeQuery = true)
+    List<Long> findIdsByIdsAndCriteria(@Param("ids") Collection<Long> ids,
+                                       @Param("statuses") Collection<String> statuses,
+                                       @Param("createdBefore") Date createdBefore);
+
+    /**
+     * Обновляет статус счетов одним запросом без предварительной загрузки.
+     * @param ids Идентификаторы счетов.
+     * @param status Новый статус счетов.
+     * @return Количество обновленных счетов.
+     */
+    @Modifying
+    @Query(value = "UPDATE accounts SET status = :status, updated_at = CURRENT_TIMESTAMP, version = version + 1 "
+            + "WHERE id IN (:ids)", nativeQuery = true)
+    int updateStatusByIds(@Param("ids") Collection<Long> ids, @Param("status") String status);
+
+    /**
+     * Удаляет счета одним запросом без предварительной загрузки.
+     * @param ids Идентификаторы счетов.
+     * @return Количество удаленных счетов.
+     */
+    @Modifying
+    @Query(value = "DELETE FROM accounts WHERE id IN (:ids)", nativeQuery = true)
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+}
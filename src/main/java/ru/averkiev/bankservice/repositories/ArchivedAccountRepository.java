@@ -0,0 +1,41 @@
+package ru.averkiev.bankservice.repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import ru.averkiev.bankservice.models.ArchivedAccount;
+
+import java.util.Collection;
+
+/**
+ * Репозиторий для взаимодействия с архивными счетами.
+ * @author mrGreenNV
+ */
+@Repository
+public interface ArchivedAccountRepository extends JpaRepository<ArchivedAccount, Long> {
+
+    /**
+     * Копирует счета из таблицы accounts в архив одним запросом.
+     * Выполняется в транзакции вызывающего метода вместе с удалением скопированных счетов.
+     * @param ids Идентификаторы счетов.
+     * @return Количество скопированных счетов.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO accounts_archive "
+            + "(id, number, name, balance, pin_code, created_at, updated_at, status, version, archived_at) "
+            + "SELECT id, number, name, balance, pin_code, created_at, updated_at, status, version, CURRENT_TIMESTAMP "
+            + "FROM accounts WHERE id IN (:ids)", nativeQuery = true)
+    int copyFromAccounts(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Обновляет баланс архивного счета.
+     * @param id Идентификатор счета.
+     * @param balance Баланс в минимальных денежных единицах.
+     * @return Количество обновленных счетов.
+     */
+    @Modifying
+    @Query(value = "UPDATE accounts_archive SET balance = :balance WHERE id = :id", nativeQuery = true)
+    int updateBalance(@Param("id") Long id, @Param("balance") long balance);
+}
@@ -0,0 +1,54 @@
+package ru.averkiev.bankservice.repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import ru.averkiev.bankservice.models.BalanceSnapshot;
+
+import java.util.Date;
+import java.util.Optional;
+
+/**
+ * Репозиторий для взаимодействия с сущностью BalanceSnapshot.
+ * @author mrGreenNV
+ */
+@Repository
+public interface BalanceSnapshotRepository extends JpaRepository<BalanceSnapshot, Long> {
+
+    /**
+     * Выполняет поиск последнего снимка баланса счета, сделанного не позже переданного момента.
+     * @param accountId Идентификатор счета.
+     * @param at Момент времени.
+     * @return Optional, содержащий снимок, если он найден, иначе - пустой.
+     */
+    @Query(value = "SELECT * FROM balance_snapshots WHERE account_id = :accountId AND snapshot_at <= :at "
+            + "ORDER BY snapshot_at DESC LIMIT 1", nativeQuery = true)
+    Optional<BalanceSnapshot> findLatestAt(@Param("accountId") Long accountId, @Param("at") Date at);
+
+    /**
+     * Получает момент последнего снимка балансов.
+     * @return Момент последнего снимка или null, если снимков нет.
+     */
+    @Query("select max(s.snapshotAt) from BalanceSnapshot s")
+    Date findLastSnapshotAt();
+
+    /**
+     * Создает снимки балансов счетов, по которым были проводки после предыдущего снимка.
+     * Баланс нового снимка равен балансу предыдущего снимка счета и сумме проводок между снимками.
+     * @param previousSnapshotAt Момент предыдущего снимка.
+     * @param snapshotAt Момент нового снимка.
+     * @return Количество созданных снимков.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO balance_snapshots (account_id, balance, snapshot_at) "
+            + "SELECT e.account_id, COALESCE((SELECT s.balance FROM balance_snapshots s WHERE s.account_id = e.account_id "
+            + "ORDER BY s.snapshot_at DESC LIMIT 1), 0) + SUM(e.amount), :snapshotAt "
+            + "FROM ledger_entries e WHERE e.account_id IS NOT NULL "
+            + "AND e.created_at > :previousSnapshotAt AND e.created_at <= :snapshotAt "
+            + "GROUP BY e.account_id", nativeQuery = true)
+    int insertSnapshots(@Param("previousSnapshotAt") Date previousSnapshotAt, @Param("snapshotAt") Date snapshotAt);
+}
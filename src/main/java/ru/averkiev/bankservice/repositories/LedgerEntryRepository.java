@@ -0,0 +1,83 @@
+package ru.averkiev.bankservice.repositories;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import ru.averkiev.bankservice.models.LedgerEntry;
+import ru.averkiev.bankservice.models.StatementEntryDTO;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Репозиторий для взаимодействия с сущностью LedgerEntry.
+ * @author mrGreenNV
+ */
+@Repository
+public interface LedgerEntryRepository extends JpaRepository<LedgerEntry, Long> {
+
+    /**
+     * Вычисляет баланс счета с учетом проводок, еще не учтенных в таблице accounts.
+     * Баланс и сумма проводок читаются одним запросом, поэтому результат согласован с учетом проводок
+     * в балансе, выполняемым в отдельной транзакции.
+     * @param accountId Идентификатор счета.
+     * @return Optional, содержащий баланс счета в минимальных денежных единицах, если счет найден, иначе - пустой.
+     */
+    @Query(value = "SELECT CAST(a.balance + COALESCE((SELECT SUM(e.amount) FROM ledger_entries e "
+            + "WHERE e.account_id = a.id AND e.materialized = FALSE), 0) AS BIGINT) FROM accounts a WHERE a.id = :accountId",
+            nativeQuery = true)
+    Optional<Long> findConsistentBalance(@Param("accountId") Long accountId);
+
+    /**
+     * Выполняет поиск проводок, еще не учтенных в балансах счетов, в порядке их создания.
+     * @param pageable Ограничение количества проводок.
+     * @return Список проводок.
+     */
+    List<LedgerEntry> findByMaterializedFalseOrderById(Pageable pageable);
+
+    /**
+     * Отмечает проводки как учтенные в балансах счетов.
+     * @param ids Идентификаторы проводок.
+     * @return Количество обновленных записей.
+     */
+    @Modifying
+    @Query("update LedgerEntry e set e.materialized = true where e.id in :ids")
+    int markMaterialized(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Выполняет поиск очередной части выписки по счету после переданной позиции.
+     * Позиция задается временем и идентификатором последней прочитанной проводки, поэтому запрос использует
+     * индекс (account_id, created_at, id) и не пропускает ранее прочитанные строки, в отличие от смещения.
+     * @param accountId Идентификатор счета.
+     * @param afterCreatedAt Время последней прочитанной проводки.
+     * @param afterId Идентификатор последней прочитанной проводки.
+     * @param to Время окончания периода выписки, не включительно.
+     * @param pageable Ограничение количества строк.
+     * @return Список строк выписки.
+     */
+    @Query("select new ru.averkiev.bankservice.models.StatementEntryDTO(e.id, e.operationId, e.entryType, e.amount, e.createdAt) "
+            + "from LedgerEntry e where e.accountId = :accountId and e.createdAt < :to "
+            + "and (e.createdAt > :afterCreatedAt or (e.createdAt = :afterCreatedAt and e.id > :afterId)) "
+            + "order by e.createdAt, e.id")
+    List<StatementEntryDTO> findStatementPage(@Param("accountId") Long accountId,
+                                              @Param("afterCreatedAt") Date afterCreatedAt,
+                                              @Param("afterId") Long afterId,
+                                              @Param("to") Date to,
+                                              Pageable pageable);
+
+    /**
+     * Вычисляет сумму проводок счета за период.
+     * @param accountId Идентификатор счета.
+     * @param after Начало периода, не включительно.
+     * @param at Окончание периода, включительно.
+     * @return Сумма проводок в минимальных денежных единицах.
+     */
+    @Query(value = "SELECT CAST(COALESCE(SUM(amount), 0) AS BIGINT) FROM ledger_entries "
+            + "WHERE account_id = :accountId AND created_at > :after AND created_at <= :at", nativeQuery = true)
+    long sumAmountBetween(@Param("accountId") Long accountId, @Param("after") Date after, @Param("at") Date at);
+}
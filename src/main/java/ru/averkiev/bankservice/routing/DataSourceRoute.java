@@ -0,0 +1,14 @@
+package ru.averkiev.bankservice.routing;
+
+/**
+ * Перечисление, представляющее источники данных, между которыми распределяются запросы к базе данных.
+ * @author mrGreenNV
+ */
+public enum DataSourceRoute {
+
+    /** Основная база данных, выполняет все изменения */
+    PRIMARY,
+
+    /** Реплика основной базы данных, выполняет транзакции только для чтения */
+    REPLICA
+}
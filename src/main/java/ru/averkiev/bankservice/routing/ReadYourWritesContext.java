@@ -0,0 +1,38 @@
+package ru.averkiev.bankservice.routing;
+
+/**
+ * Хранит для текущего потока признак чтения из основной базы данных.
+ * Признак устанавливается на время обработки запроса клиента, недавно изменявшего данные: реплика может еще
+ * не содержать его изменений.
+ * @author mrGreenNV
+ */
+public final class ReadYourWritesContext {
+
+    /** Признак чтения из основной базы данных в текущем потоке */
+    private static final ThreadLocal<Boolean> PRIMARY_REQUIRED = new ThreadLocal<>();
+
+    private ReadYourWritesContext() {
+    }
+
+    /**
+     * Требует выполнять все запросы текущего потока в основной базе данных.
+     */
+    public static void requirePrimary() {
+        PRIMARY_REQUIRED.set(Boolean.TRUE);
+    }
+
+    /**
+     * Снимает требование чтения из основной базы данных в текущем потоке.
+     */
+    public static void clear() {
+        PRIMARY_REQUIRED.remove();
+    }
+
+    /**
+     * Проверяет, должны ли запросы текущего потока выполняться в основной базе данных.
+     * @return true, если реплику использовать нельзя, иначе - false.
+     */
+    public static boolean isPrimaryRequired() {
+        return PRIMARY_REQUIRED.get() != null;
+    }
+}
@@ -0,0 +1,97 @@
+package ru.averkiev.bankservice.routing;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Фильтр, обеспечивающий клиенту чтение собственных изменений при чтении из реплики.
+ * Запросы, изменяющие данные, выполняются в основной базе данных и устанавливают cookie с временем окончания окна
+ * чтения собственных изменений. Пока окно не истекло, запросы клиента на чтение также выполняются в основной базе
+ * данных, после чего реплика гарантированно получает его изменения.
+ * @author mrGreenNV
+ */
+@Component
+@Profile("replica-routing")
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    /** Название cookie со временем окончания окна чтения собственных изменений */
+    static final String COOKIE_NAME = "bank-read-your-writes";
+
+    /** Длительность окна чтения собственных изменений в миллисекундах */
+    private final long windowMillis;
+
+    /**
+     * Создает фильтр чтения собственных изменений.
+     * @param windowMillis Длительность окна чтения собственных изменений в миллисекундах. Должна превышать
+     *                     задержку репликации.
+     */
+    public ReadYourWritesFilter(@Value("${bank.replica.read-your-writes-ms:2000}") long windowMillis) {
+        this.windowMillis = windowMillis;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long now = System.currentTimeMillis();
+        boolean write = !isSafeMethod(request.getMethod());
+
+        if (write) {
+            // Cookie устанавливается до обработки запроса: после записи тела ответа заголовки уже не изменить.
+            Cookie cookie = new Cookie(COOKIE_NAME, String.valueOf(now + windowMillis));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int) Math.max(1, (windowMillis + 999) / 1000));
+            response.addCookie(cookie);
+        }
+
+        if (write || isWithinWindow(request, now)) {
+            ReadYourWritesContext.requirePrimary();
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ReadYourWritesContext.clear();
+        }
+    }
+
+    /**
+     * Проверяет, что метод запроса не изменяет данные.
+     * @param method HTTP-метод запроса.
+     * @return true, если метод не изменяет данные, иначе - false.
+     */
+    private static boolean isSafeMethod(String method) {
+        return "GET".equals(method) || "HEAD".equals(method) || "OPTIONS".equals(method);
+    }
+
+    /**
+     * Проверяет, не истекло ли окно чтения собственных изменений клиента.
+     * @param request HTTP-запрос.
+     * @param now Текущее время в миллисекундах.
+     * @return true, если клиент изменял данные в пределах окна, иначе - false.
+     */
+    private static boolean isWithinWindow(HttpServletRequest request, long now) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return false;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE_NAME.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue()) > now;
+                } catch (NumberFormatException ex) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+}
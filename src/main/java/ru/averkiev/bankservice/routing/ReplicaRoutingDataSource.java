@@ -0,0 +1,40 @@
+package ru.averkiev.bankservice.routing;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Источник данных, направляющий транзакции только для чтения на реплику, а остальные запросы - в основную базу данных.
+ * Признак транзакции только для чтения устанавливается после получения соединения менеджером транзакций, поэтому
+ * источник данных используется через LazyConnectionDataSourceProxy: соединение выбирается при первом запросе.
+ * @author mrGreenNV
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    /**
+     * Создает источник данных с маршрутизацией между основной базой данных и репликой.
+     * @param primary Основная база данных.
+     * @param replica Реплика основной базы данных.
+     */
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica) {
+        setTargetDataSources(Map.of(DataSourceRoute.PRIMARY, primary, DataSourceRoute.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    /**
+     * Выбирает источник данных для текущего соединения.
+     * @return REPLICA для транзакции только для чтения вне окна чтения собственных изменений, иначе - PRIMARY.
+     */
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                && !ReadYourWritesContext.isPrimaryRequired()) {
+            return DataSourceRoute.REPLICA;
+        }
+        return DataSourceRoute.PRIMARY;
+    }
+}
@@ -0,0 +1,188 @@
+package ru.averkiev.bankservice.routing;
+
+import jakarta.annotation.PostConstruct;
+import liquibase.integration.spring.SpringLiquibase;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.ResultSetMetaData;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Замена репликации базы данных для локального запуска с двумя экземплярами H2 в памяти.
+ * Создает схему реплики миграциями Liquibase и раз в bank.replica.stand-in.interval-ms переносит в реплику
+ * изменения таблицы accounts, сравнивая версии счетов. Из реплики читаются только счета, поэтому остальные
+ * таблицы не переносятся. Промышленная реплика поддерживается средствами СУБД, и этот компонент отключается.
+ * @author mrGreenNV
+ */
+@Component
+@Profile("replica-routing")
+@ConditionalOnProperty(value = "bank.replica.stand-in.enabled", havingValue = "true")
+@Slf4j
+public class ReplicationStandIn {
+
+    /** Количество счетов, переносимых одним запросом */
+    private static final int CHUNK_SIZE = 500;
+
+    /** Запрос версий всех счетов */
+    private static final String VERSIONS_QUERY = "SELECT id, version FROM accounts";
+
+    /** Основная база данных */
+    private final JdbcTemplate primary;
+
+    /** Соединения с репликой для записи */
+    private final DataSource replicaWriter;
+
+    /** Реплика базы данных */
+    private final JdbcTemplate replica;
+
+    /** Позволяет переносить изменения в реплику в одной транзакции */
+    private final TransactionTemplate replicaTransaction;
+
+    /** Файл миграций схемы базы данных */
+    private final String changeLog;
+
+    /** Позволяет загружать файлы миграций */
+    private final ResourceLoader resourceLoader;
+
+    /**
+     * Создает замену репликации.
+     * @param primaryDataSource Пул соединений основной базы данных.
+     * @param replicaDataSourceProperties Настройки реплики базы данных.
+     * @param changeLog Файл миграций схемы базы данных.
+     * @param resourceLoader Позволяет загружать файлы миграций.
+     */
+    public ReplicationStandIn(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                              @Qualifier("replicaDataSourceProperties") DataSourceProperties replicaDataSourceProperties,
+                              @Value("${spring.liquibase.change-log}") String changeLog,
+                              ResourceLoader resourceLoader) {
+        this.primary = new JdbcTemplate(primaryDataSource);
+        // Пул реплики открывает соединения только для чтения, поэтому изменения записываются отдельным соединением.
+        this.replicaWriter = replicaDataSourceProperties.initializeDataSourceBuilder()
+                .type(SimpleDriverDataSource.class).build();
+        this.replica = new JdbcTemplate(replicaWriter);
+        this.replicaTransaction = new TransactionTemplate(new DataSourceTransactionManager(replicaWriter));
+        this.changeLog = changeLog;
+        this.resourceLoader = resourceLoader;
+    }
+
+    /**
+     * Создает схему реплики.
+     * @throws Exception Выбрасывает при ошибке выполнения миграций.
+     */
+    @PostConstruct
+    public void migrateReplica() throws Exception {
+        SpringLiquibase liquibase = new SpringLiquibase();
+        liquibase.setDataSource(replicaWriter);
+        liquibase.setChangeLog(changeLog);
+        liquibase.setResourceLoader(resourceLoader);
+        liquibase.afterPropertiesSet();
+        log.info("IN migrateReplica - схема реплики создана");
+    }
+
+    /**
+     * Переносит в реплику созданные, измененные и удаленные счета.
+     * @return Количество перенесенных изменений.
+     */
+    @Scheduled(fixedDelayString = "${bank.replica.stand-in.interval-ms:500}",
+            initialDelayString = "${bank.replica.stand-in.interval-ms:500}")
+    public int replicate() {
+        Map<Long, Long> primaryVersions = versions(primary);
+        Map<Long, Long> replicaVersions = versions(replica);
+
+        List<Long> changed = primaryVersions.entrySet().stream()
+                .filter(entry -> !Objects.equals(entry.getValue(), replicaVersions.get(entry.getKey())))
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+        List<Long> deleted = replicaVersions.keySet().stream()
+                .filter(id -> !primaryVersions.containsKey(id))
+                .collect(Collectors.toList());
+
+        if (changed.isEmpty() && deleted.isEmpty()) {
+            return 0;
+        }
+
+        replicaTransaction.executeWithoutResult(status -> {
+            for (List<Long> chunk : chunks(changed)) {
+                copyAccounts(chunk);
+            }
+            for (List<Long> chunk : chunks(deleted)) {
+                replica.update("DELETE FROM accounts WHERE id IN (" + placeholders(chunk.size()) + ")", chunk.toArray());
+            }
+        });
+
+        log.info("IN replicate - перенесено в реплику измененных счетов: {}, удаленных: {}", changed.size(), deleted.size());
+        return changed.size() + deleted.size();
+    }
+
+    /**
+     * Копирует строки счетов из основной базы данных в реплику. Перечень столбцов берется из результата запроса,
+     * поэтому новые столбцы таблицы переносятся без изменения этого компонента.
+     * @param ids Идентификаторы счетов.
+     */
+    private void copyAccounts(List<Long> ids) {
+        List<String> columns = new ArrayList<>();
+        List<Object[]> rows = primary.query("SELECT * FROM accounts WHERE id IN (" + placeholders(ids.size()) + ")",
+                (resultSet, rowNum) -> {
+                    ResultSetMetaData metaData = resultSet.getMetaData();
+                    if (columns.isEmpty()) {
+                        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+                            columns.add(metaData.getColumnName(i));
+                        }
+                    }
+                    Object[] row = new Object[metaData.getColumnCount()];
+                    for (int i = 0; i < row.length; i++) {
+                        row[i] = resultSet.getObject(i + 1);
+                    }
+                    return row;
+                }, ids.toArray());
+
+        if (!rows.isEmpty()) {
+            replica.batchUpdate("MERGE INTO accounts (" + String.join(", ", columns) + ") KEY (id) VALUES ("
+                    + placeholders(columns.size()) + ")", rows);
+        }
+    }
+
+    /**
+     * Получает версии всех счетов базы данных.
+     * @param jdbcTemplate База данных.
+     * @return Версии счетов по идентификаторам.
+     */
+    private static Map<Long, Long> versions(JdbcTemplate jdbcTemplate) {
+        Map<Long, Long> versions = new HashMap<>();
+        jdbcTemplate.query(VERSIONS_QUERY, resultSet -> {
+            versions.put(resultSet.getLong(1), resultSet.getLong(2));
+        });
+        return versions;
+    }
+
+    private static List<List<Long>> chunks(List<Long> ids) {
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += CHUNK_SIZE) {
+            chunks.add(ids.subList(from, Math.min(from + CHUNK_SIZE, ids.size())));
+        }
+        return chunks;
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+}
@@ -0,0 +1,27 @@
+package ru.averkiev.bankservice.services;
+
+import ru.averkiev.bankservice.exceptions.AccountNotFoundException;
+import ru.averkiev.bankservice.models.ArchivedAccountDTO;
+
+/**
+ * Сервис архивации счетов: переносит помеченные на удаление и давно неактивные счета из таблицы accounts
+ * в таблицу accounts_archive.
+ * @author mrGreenNV
+ */
+public interface AccountArchiveService {
+
+    /**
+     * Переносит в архив очередную пачку счетов.
+     * @return Количество перенесенных счетов.
+     */
+    int archiveAccounts();
+
+    /**
+     * Получает архивный счет по его идентификатору.
+     * @param accountId Идентификатор счета.
+     * @return Информация об архивном счете.
+     * @throws AccountNotFoundException Выбрасывает, если счет не найден в архиве.
+     */
+    ArchivedAccountDTO getArchivedAccount(Long accountId)
+            throws AccountNotFoundException;
+}
@@ -0,0 +1,21 @@
+package ru.averkiev.bankservice.services;
+
+import ru.averkiev.bankservice.exceptions.ChangeTokenException;
+import ru.averkiev.bankservice.models.AccountChangesDTO;
+
+/**
+ * Сервис синхронизации изменений счетов.
+ * @author mrGreenNV
+ */
+public interface AccountChangeService {
+
+    /**
+     * Получает счета, измененные после переданного токена.
+     * @param since Токен, полученный в предыдущем ответе, или null для получения всех счетов.
+     * @param limit Максимальное количество счетов в ответе или null для размера по умолчанию.
+     * @return Страница изменений счетов и токен для получения следующих изменений.
+     * @throws ChangeTokenException Выбрасывает при некорректном токене.
+     */
+    AccountChangesDTO getChanges(String since, Integer limit)
+            throws ChangeTokenException;
+}
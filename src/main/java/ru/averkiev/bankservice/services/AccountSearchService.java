@@ -0,0 +1,35 @@
+package ru.averkiev.bankservice.services;
+
+import ru.averkiev.bankservice.models.AccountSearchDTO;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Сервис поиска счетов по части названия. Поиск выполняется по индексу названий в памяти, который строится
+ * при запуске приложения и обновляется при создании, переименовании и удалении счетов.
+ * @author mrGreenNV
+ */
+public interface AccountSearchService {
+
+    /**
+     * Выполняет поиск счетов, название которых содержит запрос, без учета регистра.
+     * @param query Часть названия счета.
+     * @param limit Максимальное количество счетов в ответе или null для количества по умолчанию.
+     * @return Найденные счета в порядке убывания релевантности.
+     */
+    List<AccountSearchDTO> search(String query, Integer limit);
+
+    /**
+     * Добавляет счет в индекс или обновляет его название.
+     * @param accountId Идентификатор счета.
+     * @param accountName Название счета.
+     */
+    void indexAccount(Long accountId, String accountName);
+
+    /**
+     * Удаляет счета из индекса.
+     * @param accountIds Идентификаторы счетов.
+     */
+    void removeAccounts(Collection<Long> accountIds);
+}
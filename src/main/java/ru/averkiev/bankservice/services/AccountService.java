@@ -3,7 +3,9 @@ package ru.averkiev.bankservice.services;
 import ru.averkiev.bankservice.exceptions.*;
 import ru.averkiev.bankservice.models.*;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * @author mrGreenNV
@@ -40,12 +42,68 @@ public interface AccountService {
     AccountDTO getInfoAccount(Long accountId)
             throws AccountNotFoundException;
 
+    /**
+     * Получает информацию о счете по его идентификатору.
+     * @param accountId Идентификатор счета.
+     * @param consistent Признак получения баланса с учетом операций, еще не учтенных в таблице accounts.
+     * @return Информацию о счете.
+     * @throws AccountNotFoundException Выбрасывает при возникновении ошибки на этапе поиска счета.
+     */
+    AccountDTO getInfoAccount(Long accountId, boolean consistent)
+            throws AccountNotFoundException;
+
+    /**
+     * Получает выбранные поля информации о счете. Из базы данных читаются только столбцы выбранных полей.
+     * @param accountId Идентификатор счета.
+     * @param consistent Признак получения баланса с учетом операций, еще не учтенных в таблице accounts.
+     * @param fields Названия полей информации о счете.
+     * @return Значения выбранных полей в порядке их перечисления.
+     * @throws AccountNotFoundException Выбрасывает при возникновении ошибки на этапе поиска счета.
+     * @throws FieldSelectionException Выбрасывает при пустом списке полей или неизвестном поле.
+     */
+    Map<String, Object> getInfoAccount(Long accountId, boolean consistent, List<String> fields)
+            throws AccountNotFoundException, FieldSelectionException;
+
+    /**
+     * Получает информацию о нескольких счетах по их идентификаторам.
+     * @param accountIds Идентификаторы счетов.
+     * @return Найденные счета в порядке идентификаторов и идентификаторы ненайденных счетов.
+     * @throws AccountBatchException Выбрасывает при пустом или слишком большом списке идентификаторов.
+     */
+    AccountsBatchDTO getInfoAccounts(Collection<Long> accountIds)
+            throws AccountBatchException;
+
+    /**
+     * Получает ETag информации о счете без загрузки счета целиком.
+     * @param accountId Идентификатор счета.
+     * @param consistent Признак получения баланса с учетом операций, еще не учтенных в таблице accounts.
+     * @return ETag, изменяющийся при каждом изменении информации о счете.
+     * @throws AccountNotFoundException Выбрасывает при возникновении ошибки на этапе поиска счета.
+     */
+    String getAccountETag(Long accountId, boolean consistent)
+            throws AccountNotFoundException;
+
     /**
      * Получает информацию о всех счетах.
      * @return Список объектов, содержащих информацию о всех счетах.
      */
     List<AccountInfoDTO> getAllAccounts();
 
+    /**
+     * Получает выбранные поля информации о всех счетах. Из базы данных читаются только столбцы выбранных полей.
+     * @param fields Названия полей информации о счете.
+     * @return Список значений выбранных полей в порядке их перечисления.
+     * @throws FieldSelectionException Выбрасывает при пустом списке полей или неизвестном поле.
+     */
+    List<Map<String, Object>> getAllAccounts(List<String> fields)
+            throws FieldSelectionException;
+
+    /**
+     * Получает ETag списка всех счетов без загрузки счетов.
+     * @return ETag, изменяющийся при создании, изменении или удалении любого счета.
+     */
+    String getAccountsETag();
+
     /**
      * Удаляет счет по его идентификатору.
      * @param accountId Идентификатор счета.
@@ -62,6 +120,33 @@ public interface AccountService {
     void softDeleteAccount(Long accountId)
             throws AccountNotFoundException;
 
+    /**
+     * Удаляет счета, выбранные по списку идентификаторов и (или) условиям.
+     * @param accountBulkRequestDTO Условия выбора счетов.
+     * @return Количество удаленных счетов.
+     * @throws AccountBatchException Выбрасывает при некорректных условиях выбора счетов.
+     */
+    AccountBulkResultDTO deleteAccounts(AccountBulkRequestDTO accountBulkRequestDTO)
+            throws AccountBatchException;
+
+    /**
+     * Деактивирует счета, выбранные по списку идентификаторов и (или) условиям.
+     * @param accountBulkRequestDTO Условия выбора счетов.
+     * @return Количество деактивированных счетов.
+     * @throws AccountBatchException Выбрасывает при некорректных условиях выбора счетов.
+     */
+    AccountBulkResultDTO softDeleteAccounts(AccountBulkRequestDTO accountBulkRequestDTO)
+            throws AccountBatchException;
+
+    /**
+     * Изменяет статус счетов, выбранных по списку идентификаторов и (или) условиям.
+     * @param accountBulkRequestDTO Условия выбора счетов и новый статус.
+     * @return Количество счетов, статус которых изменен.
+     * @throws AccountBatchException Выбрасывает при некорректных условиях выбора счетов или отсутствии нового статуса.
+     */
+    AccountBulkResultDTO changeAccountsStatus(AccountBulkRequestDTO accountBulkRequestDTO)
+            throws AccountBatchException;
+
     /**
      * Выполняет пополнение счета.
      * @param accountId Идентификатор пополняемого счета.
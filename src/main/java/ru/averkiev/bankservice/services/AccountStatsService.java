@@ -0,0 +1,66 @@
+package ru.averkiev.bankservice.services;
+
+import ru.averkiev.bankservice.models.AccountStatsDTO;
+import ru.averkiev.bankservice.models.EntityStatus;
+import ru.averkiev.bankservice.models.Money;
+
+/**
+ * Сервис сводной статистики по счетам: суммарного баланса, количества счетов по статусам и распределения балансов.
+ * Статистика обновляется при изменениях счетов и периодически сверяется с базой данных, поэтому ее получение
+ * не обращается к базе данных.
+ * @author mrGreenNV
+ */
+public interface AccountStatsService {
+
+    /**
+     * Получает сводную статистику по счетам.
+     * @return Статистика по счетам.
+     */
+    AccountStatsDTO getStats();
+
+    /**
+     * Учитывает новый счет.
+     * @param status Статус счета.
+     * @param balance Баланс счета.
+     */
+    void accountAdded(EntityStatus status, Money balance);
+
+    /**
+     * Учитывает удаление счета.
+     * @param status Статус счета.
+     * @param balance Баланс счета.
+     */
+    void accountRemoved(EntityStatus status, Money balance);
+
+    /**
+     * Учитывает удаление помеченных на удаление счетов, баланс которых не входит в статистику.
+     * @param count Количество удаленных счетов.
+     */
+    void deletedAccountsRemoved(long count);
+
+    /**
+     * Учитывает изменение статуса счета.
+     * @param from Прежний статус счета.
+     * @param to Новый статус счета.
+     * @param balance Баланс счета.
+     */
+    void statusChanged(EntityStatus from, EntityStatus to, Money balance);
+
+    /**
+     * Учитывает изменение баланса не помеченного на удаление счета.
+     * @param oldBalance Баланс до изменения.
+     * @param newBalance Баланс после изменения.
+     */
+    void balanceChanged(Money oldBalance, Money newBalance);
+
+    /**
+     * Сверяет статистику с базой данных и исправляет расхождения.
+     */
+    void reconcile();
+
+    /**
+     * Запрашивает сверку статистики с базой данных. Сверка выполняется в фоновом потоке, а не в потоке запроса;
+     * несколько запросов до начала сверки объединяются в одну сверку.
+     */
+    void requestReconcile();
+}
@@ -0,0 +1,42 @@
+package ru.averkiev.bankservice.services;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.averkiev.bankservice.exceptions.OperationRejectedException;
+import ru.averkiev.bankservice.models.Money;
+
+/**
+ * Сервис рассылки событий об изменении балансов счетов подписчикам Server-Sent Events.
+ * @author mrGreenNV
+ */
+public interface BalanceEventService {
+
+    /**
+     * Подписывает клиента на изменения баланса счета. Первым событием подписчик получает текущий баланс.
+     * @param accountId Идентификатор счета.
+     * @param balance Текущий баланс счета.
+     * @return Поток событий.
+     * @throws OperationRejectedException Выбрасывает при превышении максимального количества подписок.
+     */
+    SseEmitter subscribe(Long accountId, Money balance)
+            throws OperationRejectedException;
+
+    /**
+     * Проверяет наличие подписчиков на изменения баланса счета.
+     * @param accountId Идентификатор счета.
+     * @return true, если у счета есть подписчики, иначе - false.
+     */
+    boolean hasSubscribers(Long accountId);
+
+    /**
+     * Передает подписчикам счета новый баланс.
+     * @param accountId Идентификатор счета.
+     * @param balance Баланс счета после изменения.
+     */
+    void publish(Long accountId, Money balance);
+
+    /**
+     * Завершает потоки событий всех подписчиков счета.
+     * @param accountId Идентификатор счета.
+     */
+    void close(Long accountId);
+}
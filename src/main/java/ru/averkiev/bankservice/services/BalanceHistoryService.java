@@ -0,0 +1,29 @@
+package ru.averkiev.bankservice.services;
+
+import ru.averkiev.bankservice.exceptions.AccountNotFoundException;
+import ru.averkiev.bankservice.models.BalanceAtDTO;
+
+import java.time.LocalDateTime;
+
+/**
+ * Сервис получения исторических балансов счетов.
+ * @author mrGreenNV
+ */
+public interface BalanceHistoryService {
+
+    /**
+     * Получает баланс счета на момент времени.
+     * @param accountId Идентификатор счета.
+     * @param at Момент времени.
+     * @return Баланс счета на момент времени.
+     * @throws AccountNotFoundException Выбрасывает, если счет не найден.
+     */
+    BalanceAtDTO getBalanceAt(Long accountId, LocalDateTime at)
+            throws AccountNotFoundException;
+
+    /**
+     * Создает снимки балансов счетов, по которым были операции после предыдущего снимка.
+     * @return Количество созданных снимков.
+     */
+    int takeSnapshots();
+}
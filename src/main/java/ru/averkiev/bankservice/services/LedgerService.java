@@ -0,0 +1,72 @@
+package ru.averkiev.bankservice.services;
+
+import ru.averkiev.bankservice.exceptions.AccountNotFoundException;
+import ru.averkiev.bankservice.exceptions.AccountWithdrawException;
+import ru.averkiev.bankservice.models.LedgerEntryType;
+import ru.averkiev.bankservice.models.Money;
+
+/**
+ * Сервис журнала проводок по счетам.
+ * @author mrGreenNV
+ */
+public interface LedgerService {
+
+    /**
+     * Проверяет, учитываются ли проводки в балансах счетов асинхронно.
+     * @return true, если баланс в таблице accounts обновляется фоновым процессом, иначе - false.
+     */
+    boolean isAsyncMaterialization();
+
+    /**
+     * Получает баланс счета с учетом проводок, еще не учтенных в таблице accounts.
+     * @param accountId Идентификатор счета.
+     * @return Баланс счета.
+     * @throws AccountNotFoundException Выбрасывает, если счет не найден.
+     */
+    Money getConsistentBalance(Long accountId)
+            throws AccountNotFoundException;
+
+    /**
+     * Записывает проводки операции, уже отраженной в балансах счетов.
+     * @param entryType Тип операции.
+     * @param accountId Идентификатор счета списания или null для внешнего счета.
+     * @param destinationAccountId Идентификатор счета зачисления или null для внешнего счета.
+     * @param amount Сумма операции.
+     */
+    void record(LedgerEntryType entryType, Long accountId, Long destinationAccountId, Money amount);
+
+    /**
+     * Записывает проводки пополнения счета для асинхронного учета в балансе.
+     * @param accountId Идентификатор счета.
+     * @param amount Сумма пополнения.
+     * @return Баланс счета после пополнения.
+     */
+    Money deposit(Long accountId, Money amount);
+
+    /**
+     * Проверяет достаточность средств и записывает проводки списания для асинхронного учета в балансе.
+     * @param accountId Идентификатор счета.
+     * @param amount Сумма списания.
+     * @return Баланс счета после списания.
+     * @throws AccountWithdrawException Выбрасывает, если средств на счете недостаточно.
+     */
+    Money withdraw(Long accountId, Money amount)
+            throws AccountWithdrawException;
+
+    /**
+     * Проверяет достаточность средств и записывает проводки перевода для асинхронного учета в балансах.
+     * @param accountId Идентификатор счета списания.
+     * @param destinationAccountId Идентификатор счета зачисления.
+     * @param amount Сумма перевода.
+     * @return Баланс счета списания после перевода.
+     * @throws AccountWithdrawException Выбрасывает, если средств на счете недостаточно.
+     */
+    Money transfer(Long accountId, Long destinationAccountId, Money amount)
+            throws AccountWithdrawException;
+
+    /**
+     * Учитывает очередную пачку проводок в балансах счетов.
+     * @return Количество учтенных проводок.
+     */
+    int materialize();
+}
@@ -0,0 +1,34 @@
+package ru.averkiev.bankservice.services;
+
+import ru.averkiev.bankservice.exceptions.*;
+import ru.averkiev.bankservice.models.AccountTransactionDTO;
+import ru.averkiev.bankservice.models.OperationDTO;
+
+/**
+ * Сервис асинхронного выполнения операций со счетами.
+ * @author mrGreenNV
+ */
+public interface OperationService {
+
+    /**
+     * Выполняет быструю проверку данных перевода и ставит перевод в очередь на выполнение.
+     * Пин-код проверяется при выполнении перевода.
+     * @param accountId Идентификатор счета, с которого происходит списание средств.
+     * @param accountTransactionDTO Данные для перевода средств.
+     * @return Информация о принятой операции.
+     * @throws AccountNotFoundException Выбрасывает, если счет списания или зачисления не найден.
+     * @throws AccountWithdrawException Выбрасывает при некорректной сумме перевода.
+     * @throws OperationRejectedException Выбрасывает при переполнении очереди операций.
+     */
+    OperationDTO submitTransfer(Long accountId, AccountTransactionDTO accountTransactionDTO)
+            throws AccountNotFoundException, AccountWithdrawException, OperationRejectedException;
+
+    /**
+     * Получает состояние операции по ее идентификатору.
+     * @param operationId Идентификатор операции.
+     * @return Информация об операции.
+     * @throws OperationNotFoundException Выбрасывает, если операция не найдена.
+     */
+    OperationDTO getOperation(String operationId)
+            throws OperationNotFoundException;
+}
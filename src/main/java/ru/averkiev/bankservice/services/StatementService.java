@@ -0,0 +1,24 @@
+package ru.averkiev.bankservice.services;
+
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.averkiev.bankservice.exceptions.AccountNotFoundException;
+
+import java.time.LocalDateTime;
+
+/**
+ * Сервис формирования выписок по счетам.
+ * @author mrGreenNV
+ */
+public interface StatementService {
+
+    /**
+     * Проверяет параметры выписки и формирует тело ответа, которое записывает выписку по частям.
+     * @param accountId Идентификатор счета.
+     * @param from Время начала периода, включительно, или null для выписки с открытия счета.
+     * @param to Время окончания периода, не включительно, или null для выписки по текущий момент.
+     * @return Тело ответа, записывающее выписку в виде JSON-массива.
+     * @throws AccountNotFoundException Выбрасывает, если счет не найден.
+     */
+    StreamingResponseBody getStatement(Long accountId, LocalDateTime from, LocalDateTime to)
+            throws AccountNotFoundException;
+}
@@ -0,0 +1,236 @@
+package ru.averkiev.bankservice.services.impl;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.averkiev.bankservice.engine.LedgerEngine;
+import ru.averkiev.bankservice.exceptions.AccountNotFoundException;
+import ru.averkiev.bankservice.models.ArchivedAccount;
+import ru.averkiev.bankservice.models.ArchivedAccountDTO;
+import ru.averkiev.bankservice.models.EntityStatus;
+import ru.averkiev.bankservice.repositories.AccountRepository;
+import ru.averkiev.bankservice.repositories.ArchivedAccountRepository;
+import ru.averkiev.bankservice.services.AccountArchiveService;
+import ru.averkiev.bankservice.services.AccountSearchService;
+import ru.averkiev.bankservice.services.AccountStatsService;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Реализация сервиса архивации счетов.
+ * Раз в bank.archive.interval-ms переносит не более bank.archive.batch-size счетов: помеченные на удаление,
+ * не изменявшиеся bank.archive.deleted-min-age-ms, и, если задано bank.archive.not-active-min-age-ms, неактивные
+ * счета, не изменявшиеся это время. Пачка копируется в архив и удаляется из таблицы accounts в одной транзакции.
+ * Счета с еще не учтенными в балансе проводками пропускаются до их учета. В профиле ledger-engine счета удаляются
+ * из движка после фиксации переноса, и в архив записывается итоговый баланс из движка, если он отличается
+ * от сохраненного в таблице accounts.
+ * Если в пуле соединений нет свободных соединений, пачка пропускается, чтобы архивация не задерживала запросы
+ * клиентов.
+ * @author mrGreenNV
+ */
+@Service
+@Slf4j
+public class AccountArchiveServiceImpl implements AccountArchiveService {
+
+    /** Репозиторий для взаимодействия со счетами */
+    private final AccountRepository accountRepository;
+
+    /** Репозиторий для взаимодействия с архивными счетами */
+    private final ArchivedAccountRepository archivedAccountRepository;
+
+    /** Сервис поиска счетов по части названия */
+    private final AccountSearchService accountSearchService;
+
+    /** Сервис сводной статистики по счетам */
+    private final AccountStatsService accountStatsService;
+
+    /** Движок учета балансов в памяти, доступен только в профиле ledger-engine */
+    private final ObjectProvider<LedgerEngine> ledgerEngineProvider;
+
+    /** Источник данных приложения, по пулу соединений которого определяется нагрузка */
+    private final DataSource dataSource;
+
+    /** Позволяет переносить пачку счетов в одной транзакции */
+    private final TransactionTemplate transactionTemplate;
+
+    /** Наибольшее количество счетов, переносимых за один запуск */
+    private final int batchSize;
+
+    /** Время с последнего изменения помеченного на удаление счета до архивации в миллисекундах */
+    private final long deletedMinAgeMs;
+
+    /** Время с последнего изменения неактивного счета до архивации в миллисекундах, 0 - не архивировать */
+    private final long notActiveMinAgeMs;
+
+    /**
+     * Создает сервис архивации счетов.
+     * @param accountRepository Репозиторий для взаимодействия со счетами.
+     * @param archivedAccountRepository Репозиторий для взаимодействия с архивными счетами.
+     * @param accountSearchService Сервис поиска счетов по части названия.
+     * @param accountStatsService Сервис сводной статистики по счетам.
+     * @param ledgerEngineProvider Движок учета балансов в памяти, доступен только в профиле ledger-engine.
+     * @param dataSource Источник данных приложения.
+     * @param transactionManager Менеджер транзакций.
+     * @param batchSize Наибольшее количество счетов, переносимых за один запуск.
+     * @param deletedMinAgeMs Время с последнего изменения помеченного на удаление счета до архивации.
+     * @param notActiveMinAgeMs Время с последнего изменения неактивного счета до архивации, 0 - не архивировать.
+     */
+    public AccountArchiveServiceImpl(AccountRepository accountRepository,
+                                     ArchivedAccountRepository archivedAccountRepository,
+                                     AccountSearchService accountSearchService,
+                                     AccountStatsService accountStatsService,
+                                     ObjectProvider<LedgerEngine> ledgerEngineProvider,
+                                     DataSource dataSource,
+                                     PlatformTransactionManager transactionManager,
+                                     @Value("${bank.archive.batch-size:500}") int batchSize,
+                                     @Value("${bank.archive.deleted-min-age-ms:86400000}") long deletedMinAgeMs,
+                                     @Value("${bank.archive.not-active-min-age-ms:0}") long notActiveMinAgeMs) {
+        this.accountRepository = accountRepository;
+        this.archivedAccountRepository = archivedAccountRepository;
+        this.accountSearchService = accountSearchService;
+        this.accountStatsService = accountStatsService;
+        this.ledgerEngineProvider = ledgerEngineProvider;
+        this.dataSource = dataSource;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.deletedMinAgeMs = deletedMinAgeMs;
+        this.notActiveMinAgeMs = notActiveMinAgeMs;
+    }
+
+    /**
+     * Переносит в архив очередную пачку счетов.
+     * @return Количество перенесенных счетов.
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${bank.archive.interval-ms:10000}",
+            initialDelayString = "${bank.archive.interval-ms:10000}")
+    public int archiveAccounts() {
+        if (isConnectionPoolBusy()) {
+            log.debug("IN archiveAccounts - архивация пропущена: нет свободных соединений с базой данных");
+            return 0;
+        }
+
+        long now = System.currentTimeMillis();
+        int archived = archiveBatch(EntityStatus.DELETED, new Timestamp(now - deletedMinAgeMs), batchSize);
+        if (notActiveMinAgeMs > 0 && archived < batchSize) {
+            archived += archiveBatch(EntityStatus.NOT_ACTIVE, new Timestamp(now - notActiveMinAgeMs), batchSize - archived);
+        }
+
+        if (archived > 0) {
+            log.info("IN archiveAccounts - перенесено в архив счетов: {}", archived);
+        }
+        return archived;
+    }
+
+    /**
+     * Получает архивный счет по его идентификатору.
+     * @param accountId Идентификатор счета.
+     * @return Информация об архивном счете.
+     * @throws AccountNotFoundException Выбрасывает, если счет не найден в архиве.
+     */
+    @Override
+    public ArchivedAccountDTO getArchivedAccount(Long accountId)
+            throws AccountNotFoundException {
+        ArchivedAccount account = archivedAccountRepository.findById(accountId).orElseThrow(() -> {
+            log.error("IN getArchivedAccount - архивный счет с идентификатором: {} не найден", accountId);
+            return new AccountNotFoundException("Архивный счет с идентификатором: " + accountId + " не найден");
+        });
+
+        log.info("IN getArchivedAccount - архивный счет с идентификатором: {} успешно получен", accountId);
+        return new ArchivedAccountDTO(account.getId(), account.getAccountNumber(), account.getAccountName(),
+                account.getAccountBalance(), account.getEntityStatus(), account.getArchivedAt());
+    }
+
+    /**
+     * Копирует счета в архив и удаляет их из таблицы accounts в одной транзакции.
+     * Счета блокируются при выборке, поэтому изменение счета во время переноса дождется его завершения.
+     * Баланс помеченных на удаление счетов не входит в статистику, поэтому для них уменьшается только количество
+     * счетов; после переноса неактивных счетов, балансы которых не загружаются, статистика сверяется с базой данных.
+     * @param status Статус переносимых счетов.
+     * @param updatedBefore Момент, до которого счета должны быть изменены в последний раз.
+     * @param limit Наибольшее количество счетов.
+     * @return Количество перенесенных счетов.
+     */
+    private int archiveBatch(EntityStatus status, Timestamp updatedBefore, int limit) {
+        LedgerEngine ledgerEngine = ledgerEngineProvider.getIfAvailable();
+        List<Long> archivedIds = new ArrayList<>();
+        Map<Long, Long> archivedBalances = new HashMap<>();
+        Integer archived = transactionTemplate.execute(transactionStatus -> {
+            List<Long> ids = accountRepository.findIdsForArchive(status.name(), updatedBefore, limit);
+            if (ids.isEmpty()) {
+                return 0;
+            }
+            archivedIds.addAll(ids);
+            if (ledgerEngine != null) {
+                for (Object[] row : accountRepository.findBalancesByIds(ids)) {
+                    archivedBalances.put(((Number) row[0]).longValue(), ((Number) row[1]).longValue());
+                }
+            }
+            archivedAccountRepository.copyFromAccounts(ids);
+            return accountRepository.deleteByIds(ids);
+        });
+        if (archived == null || archived == 0) {
+            return 0;
+        }
+        // Счета удаляются из движка и индекса поиска только после фиксации переноса.
+        if (ledgerEngine != null) {
+            closeInLedgerEngine(ledgerEngine, archivedBalances);
+        }
+        accountSearchService.removeAccounts(archivedIds);
+        if (status == EntityStatus.DELETED) {
+            accountStatsService.deletedAccountsRemoved(archived);
+        } else {
+            accountStatsService.requestReconcile();
+        }
+        return archived;
+    }
+
+    /**
+     * Удаляет перенесенные в архив счета из движка учета балансов и записывает в архив итоговые балансы счетов,
+     * измененные в движке, но еще не сохраненные в таблице accounts к моменту переноса.
+     * @param ledgerEngine Движок учета балансов.
+     * @param archivedBalances Балансы, скопированные в архив, по идентификаторам счетов.
+     */
+    private void closeInLedgerEngine(LedgerEngine ledgerEngine, Map<Long, Long> archivedBalances) {
+        Map<Long, Long> corrections = new HashMap<>();
+        archivedBalances.forEach((accountId, archivedBalance) -> {
+            long balance = ledgerEngine.close(accountId);
+            if (balance != archivedBalance) {
+                corrections.put(accountId, balance);
+            }
+        });
+        if (!corrections.isEmpty()) {
+            transactionTemplate.executeWithoutResult(transactionStatus ->
+                    corrections.forEach(archivedAccountRepository::updateBalance));
+            log.info("IN closeInLedgerEngine - балансы архивных счетов обновлены из движка: {}", corrections.keySet());
+        }
+    }
+
+    /**
+     * Проверяет, заняты ли все соединения пула или ожидают ли соединения другие потоки.
+     * @return true, если архивацию следует отложить, иначе - false.
+     */
+    private boolean isConnectionPoolBusy() {
+        try {
+            if (!dataSource.isWrapperFor(HikariDataSource.class)) {
+                return false;
+            }
+            HikariPoolMXBean pool = dataSource.unwrap(HikariDataSource.class).getHikariPoolMXBean();
+            return pool != null && (pool.getThreadsAwaitingConnection() > 0 || pool.getIdleConnections() == 0);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+}
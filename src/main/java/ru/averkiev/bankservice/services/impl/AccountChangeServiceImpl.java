@@ -0,0 +1,140 @@
+package ru.averkiev.bankservice.services.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import ru.averkiev.bankservice.exceptions.ChangeTokenException;
+import ru.averkiev.bankservice.models.AccountChangeDTO;
+import ru.averkiev.bankservice.models.AccountChangesDTO;
+import ru.averkiev.bankservice.repositories.AccountRepository;
+import ru.averkiev.bankservice.services.AccountChangeService;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Реализация сервиса синхронизации изменений счетов.
+ * Токен хранит время изменения и идентификатор последнего переданного счета, поэтому следующий запрос читает
+ * только счета после этой позиции по индексу (updated_at, id). Счета, измененные за последние
+ * bank.account-changes.settle-lag-ms, не возвращаются до следующего запроса: так изменение, зафиксированное
+ * позже с более ранним временем, не окажется позади уже выданного токена.
+ * Удаленные без деактивации счета в изменениях не отображаются.
+ * @author mrGreenNV
+ */
+@Service
+@Slf4j
+public class AccountChangeServiceImpl implements AccountChangeService {
+
+    /** Разделитель частей токена */
+    private static final String TOKEN_SEPARATOR = ".";
+
+    /** Репозиторий для взаимодействия со счетами */
+    private final AccountRepository accountRepository;
+
+    /** Количество счетов в ответе по умолчанию */
+    private final int defaultLimit;
+
+    /** Максимальное количество счетов в ответе */
+    private final int maxLimit;
+
+    /** Отставание верхней границы изменений от текущего времени в миллисекундах */
+    private final long settleLagMillis;
+
+    /**
+     * Создает сервис синхронизации изменений счетов.
+     * @param accountRepository Репозиторий для взаимодействия со счетами.
+     * @param defaultLimit Количество счетов в ответе по умолчанию.
+     * @param maxLimit Максимальное количество счетов в ответе.
+     * @param settleLagMillis Отставание верхней границы изменений от текущего времени в миллисекундах.
+     */
+    public AccountChangeServiceImpl(AccountRepository accountRepository,
+                                    @Value("${bank.account-changes.default-limit:500}") int defaultLimit,
+                                    @Value("${bank.account-changes.max-limit:5000}") int maxLimit,
+                                    @Value("${bank.account-changes.settle-lag-ms:2000}") long settleLagMillis) {
+        this.accountRepository = accountRepository;
+        this.defaultLimit = defaultLimit;
+        this.maxLimit = maxLimit;
+        this.settleLagMillis = settleLagMillis;
+    }
+
+    /**
+     * Получает счета, измененные после переданного токена.
+     * @param since Токен, полученный в предыдущем ответе, или null для получения всех счетов.
+     * @param limit Максимальное количество счетов в ответе или null для размера по умолчанию.
+     * @return Страница изменений счетов и токен для получения следующих изменений.
+     * @throws ChangeTokenException Выбрасывает при некорректном токене.
+     */
+    @Override
+    public AccountChangesDTO getChanges(String since, Integer limit)
+            throws ChangeTokenException {
+
+        int pageSize = limit == null ? defaultLimit : Math.min(Math.max(limit, 1), maxLimit);
+        Position position = since == null || since.isBlank() ? new Position(new Timestamp(0), 0L) : decode(since);
+        Timestamp until = new Timestamp(System.currentTimeMillis() - settleLagMillis);
+
+        // Читается на одну строку больше, чтобы определить наличие следующей страницы без подсчета строк.
+        List<AccountChangeDTO> changes = accountRepository.findChangesPage(
+                position.updatedAt(), position.id(), until, PageRequest.of(0, pageSize + 1));
+        boolean hasMore = changes.size() > pageSize;
+        if (hasMore) {
+            changes = changes.subList(0, pageSize);
+        }
+
+        String nextToken = encode(position);
+        if (!changes.isEmpty()) {
+            AccountChangeDTO last = changes.get(changes.size() - 1);
+            Timestamp updatedAt = last.getUpdatedAt() instanceof Timestamp timestamp
+                    ? timestamp : new Timestamp(last.getUpdatedAt().getTime());
+            nextToken = encode(new Position(updatedAt, last.getId()));
+        }
+
+        log.info("IN getChanges - получено измененных счетов: {}", changes.size());
+        return new AccountChangesDTO(changes, nextToken, hasMore);
+    }
+
+    /**
+     * Формирует токен по позиции последнего переданного счета.
+     * @param position Позиция.
+     * @return Токен.
+     */
+    static String encode(Position position) {
+        Timestamp updatedAt = position.updatedAt();
+        String value = Math.floorDiv(updatedAt.getTime(), 1000) + TOKEN_SEPARATOR + updatedAt.getNanos()
+                + TOKEN_SEPARATOR + position.id();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Получает позицию последнего переданного счета из токена.
+     * @param token Токен.
+     * @return Позиция.
+     * @throws ChangeTokenException Выбрасывает при некорректном токене.
+     */
+    static Position decode(String token)
+            throws ChangeTokenException {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.US_ASCII)
+                    .split("\\" + TOKEN_SEPARATOR);
+            if (parts.length != 3) {
+                throw new IllegalArgumentException();
+            }
+            Timestamp updatedAt = new Timestamp(Long.parseLong(parts[0]) * 1000);
+            updatedAt.setNanos(Integer.parseInt(parts[1]));
+            return new Position(updatedAt, Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException ex) {
+            log.error("IN decode - некорректный токен изменений: {}", token);
+            throw new ChangeTokenException("Некорректный токен изменений: " + token);
+        }
+    }
+
+    /**
+     * Позиция последнего переданного счета: время изменения и идентификатор.
+     * @param updatedAt Время изменения счета.
+     * @param id Идентификатор счета.
+     */
+    record Position(Timestamp updatedAt, Long id) {
+    }
+}
@@ -0,0 +1,120 @@
+package ru.averkiev.bankservice.services.impl;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import ru.averkiev.bankservice.models.AccountSearchDTO;
+import ru.averkiev.bankservice.models.EntityStatus;
+import ru.averkiev.bankservice.repositories.AccountRepository;
+import ru.averkiev.bankservice.services.AccountSearchService;
+import ru.averkiev.bankservice.utils.NGramIndex;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Реализация сервиса поиска счетов по части названия.
+ * При запуске приложения названия счетов читаются страницами по bank.search.build-page-size строк по первичному
+ * ключу и добавляются в n-граммный индекс в памяти; запросы поиска к базе данных не обращаются.
+ * @author mrGreenNV
+ */
+@Service
+@Slf4j
+public class AccountSearchServiceImpl implements AccountSearchService {
+
+    /** Репозиторий для взаимодействия со счетами */
+    private final AccountRepository accountRepository;
+
+    /** Индекс названий счетов */
+    private final NGramIndex index = new NGramIndex();
+
+    /** Количество счетов, читаемых одним запросом при построении индекса */
+    private final int buildPageSize;
+
+    /** Количество счетов в ответе по умолчанию */
+    private final int defaultLimit;
+
+    /** Максимальное количество счетов в ответе */
+    private final int maxLimit;
+
+    /**
+     * Создает сервис поиска счетов.
+     * @param accountRepository Репозиторий для взаимодействия со счетами.
+     * @param buildPageSize Количество счетов, читаемых одним запросом при построении индекса.
+     * @param defaultLimit Количество счетов в ответе по умолчанию.
+     * @param maxLimit Максимальное количество счетов в ответе.
+     */
+    public AccountSearchServiceImpl(AccountRepository accountRepository,
+                                    @Value("${bank.search.build-page-size:1000}") int buildPageSize,
+                                    @Value("${bank.search.default-limit:20}") int defaultLimit,
+                                    @Value("${bank.search.max-limit:100}") int maxLimit) {
+        this.accountRepository = accountRepository;
+        this.buildPageSize = buildPageSize;
+        this.defaultLimit = defaultLimit;
+        this.maxLimit = maxLimit;
+    }
+
+    /**
+     * Строит индекс по названиям всех не помеченных на удаление счетов.
+     * Выполняется до приема запросов, поэтому изменения счетов во время построения не теряются.
+     */
+    @PostConstruct
+    public void buildIndex() {
+        long startNanos = System.nanoTime();
+        index.clear();
+
+        long afterId = 0;
+        List<Object[]> page;
+        do {
+            page = accountRepository.findNamesPage(afterId, buildPageSize);
+            for (Object[] row : page) {
+                long accountId = ((Number) row[0]).longValue();
+                if (!EntityStatus.DELETED.name().equals(row[2])) {
+                    index.put(accountId, (String) row[1]);
+                }
+                afterId = accountId;
+            }
+        } while (page.size() == buildPageSize);
+
+        log.info("IN buildIndex - индекс поиска построен по счетам: {} за {} мс", index.size(),
+                (System.nanoTime() - startNanos) / 1_000_000);
+    }
+
+    /**
+     * Выполняет поиск счетов, название которых содержит запрос, без учета регистра.
+     * Запросы короче трех символов ищутся только по началу названия.
+     * @param query Часть названия счета.
+     * @param limit Максимальное количество счетов в ответе или null для количества по умолчанию.
+     * @return Найденные счета в порядке убывания релевантности.
+     */
+    @Override
+    public List<AccountSearchDTO> search(String query, Integer limit) {
+        int size = limit == null ? defaultLimit : Math.min(Math.max(limit, 1), maxLimit);
+        List<AccountSearchDTO> accounts = index.search(query, size).stream()
+                .map(match -> new AccountSearchDTO(match.id(), match.text()))
+                .toList();
+
+        log.debug("IN search - по запросу: {} найдено счетов: {}", query, accounts.size());
+        return accounts;
+    }
+
+    /**
+     * Добавляет счет в индекс или обновляет его название.
+     * @param accountId Идентификатор счета.
+     * @param accountName Название счета.
+     */
+    @Override
+    public void indexAccount(Long accountId, String accountName) {
+        index.put(accountId, accountName);
+    }
+
+    /**
+     * Удаляет счета из индекса.
+     * @param accountIds Идентификаторы счетов.
+     */
+    @Override
+    public void removeAccounts(Collection<Long> accountIds) {
+        accountIds.forEach(index::remove);
+    }
+}
@@ -1,28 +1,84 @@
 package ru.averkiev.bankservice.services.impl;
 
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.DigestUtils;
+import ru.averkiev.bankservice.engine.LedgerEngine;
 import ru.averkiev.bankservice.exceptions.*;
 import ru.averkiev.bankservice.models.*;
+import ru.averkiev.bankservice.monitoring.AccountOperationPhaseEvent;
 import ru.averkiev.bankservice.repositories.AccountRepository;
+import ru.averkiev.bankservice.routing.ReadYourWritesContext;
+import ru.averkiev.bankservice.services.AccountSearchService;
 import ru.averkiev.bankservice.services.AccountService;
+import ru.averkiev.bankservice.services.AccountStatsService;
+import ru.averkiev.bankservice.services.BalanceEventService;
+import ru.averkiev.bankservice.services.LedgerService;
+import ru.averkiev.bankservice.utils.SingleFlight;
 
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
+import static ru.averkiev.bankservice.monitoring.AccountOperationPhaseEvent.*;
+
 /**
  * @author mrGreenNV
  */
 @Service
 @Slf4j
-@RequiredArgsConstructor
 public class AccountServiceImpl implements AccountService {
 
+    /** Поля информации о счете и соответствующие им атрибуты сущности Account */
+    private static final Map<String, String> ACCOUNT_FIELDS = Map.of(
+            "id", "id",
+            "accountName", "accountName",
+            "balance", "accountBalance"
+    );
+
+    /** Поля информации о счете в списке счетов и соответствующие им атрибуты сущности Account */
+    private static final Map<String, String> ACCOUNT_INFO_FIELDS = Map.of(
+            "accountName", "accountName",
+            "accountBalance", "accountBalance"
+    );
+
+    /** Максимальное количество идентификаторов в одном запросе счетов по списку */
+    static final int BATCH_MAX_IDS = 1000;
+
+    /** Количество идентификаторов в условии IN одного запроса к базе данных */
+    static final int BATCH_CHUNK_SIZE = 250;
+
+    /** Максимальное количество идентификаторов в одной массовой операции по списку */
+    static final int BULK_MAX_IDS = 10_000;
+
+    /** Количество счетов, изменяемых или удаляемых одним запросом массовой операции */
+    static final int BULK_CHUNK_SIZE = 500;
+
+    /** Граница времени создания, используемая, если массовая операция не ограничена временем создания счетов */
+    private static final Timestamp NO_CREATED_BEFORE = Timestamp.valueOf("9999-12-31 23:59:59");
+
     /** Репозиторий для взаимодействия с базой данных */
     private final AccountRepository accountRepository;
 
@@ -32,6 +88,67 @@ public class AccountServiceImpl implements AccountService {
     /** Позволяет шифровать данны */
     private final BCryptPasswordEncoder passwordEncoder;
 
+    /** Движок учета балансов в памяти, доступен только в профиле ledger-engine */
+    private final ObjectProvider<LedgerEngine> ledgerEngineProvider;
+
+    /** Сервис журнала проводок по счетам */
+    private final LedgerService ledgerService;
+
+    /** Сервис рассылки событий об изменении балансов счетов */
+    private final BalanceEventService balanceEventService;
+
+    /** Сервис поиска счетов по части названия */
+    private final AccountSearchService accountSearchService;
+
+    /** Сервис сводной статистики по счетам */
+    private final AccountStatsService accountStatsService;
+
+    /** Объединяет одновременные загрузки одного счета по идентификатору для чтения */
+    private final SingleFlight<Long, Optional<Account>> accountLoads = new SingleFlight<>();
+
+    /** Объединяет одновременные загрузки одного счета по названию для чтения */
+    private final SingleFlight<String, Optional<Account>> accountNameLoads = new SingleFlight<>();
+
+    /** Позволяет выполнять чтение в транзакции только для чтения */
+    private final TransactionTemplate readOnlyTransaction;
+
+    /** Позволяет выполнять удаление счета или пачку массовой операции в отдельной транзакции */
+    private final TransactionTemplate writeTransaction;
+
+    /**
+     * Создает сервис для взаимодействия со счетами.
+     * @param accountRepository Репозиторий для взаимодействия с базой данных.
+     * @param modelMapper Позволяет преобразовывать модели и DTO между собой.
+     * @param passwordEncoder Позволяет шифровать данные.
+     * @param ledgerEngineProvider Движок учета балансов в памяти, доступен только в профиле ledger-engine.
+     * @param ledgerService Сервис журнала проводок по счетам.
+     * @param balanceEventService Сервис рассылки событий об изменении балансов счетов.
+     * @param accountSearchService Сервис поиска счетов по части названия.
+     * @param accountStatsService Сервис сводной статистики по счетам.
+     * @param transactionManager Менеджер транзакций.
+     */
+    public AccountServiceImpl(AccountRepository accountRepository,
+                              ModelMapper modelMapper,
+                              BCryptPasswordEncoder passwordEncoder,
+                              ObjectProvider<LedgerEngine> ledgerEngineProvider,
+                              LedgerService ledgerService,
+                              BalanceEventService balanceEventService,
+                              AccountSearchService accountSearchService,
+                              AccountStatsService accountStatsService,
+                              PlatformTransactionManager transactionManager) {
+        this.accountRepository = accountRepository;
+        this.modelMapper = modelMapper;
+        this.passwordEncoder = passwordEncoder;
+        this.ledgerEngineProvider = ledgerEngineProvider;
+        this.ledgerService = ledgerService;
+        this.balanceEventService = balanceEventService;
+        this.accountSearchService = accountSearchService;
+        this.accountStatsService = accountStatsService;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+    }
+
     /**
      * Создает новый банковский счет.
      * @param accountCreateDTO Данные для создания счета.
@@ -61,6 +178,13 @@ public class AccountServiceImpl implements AccountService {
         Account account = modelMapper.map(accountCreateDTO, Account.class);
         account.setPin(passwordEncoder.encode(account.getPin()));
         account = accountRepository.save(account);
+        accountStatsService.accountAdded(account.getEntityStatus(), account.getAccountBalance());
+
+        LedgerEngine ledgerEngine = ledgerEngineProvider.getIfAvailable();
+        if (ledgerEngine != null) {
+            ledgerEngine.open(account.getId(), account.getAccountBalance().getMinorUnits());
+        }
+        accountSearchService.indexAccount(account.getId(), account.getAccountName());
 
         log.info("IN createAccount - новая запись о банковском счете: {} успешно сохранена", accountName);
         return modelMapper.map(account, AccountInfoDTO.class);
@@ -98,8 +222,15 @@ public class AccountServiceImpl implements AccountService {
             throw new AccountWithNameAlreadyExistsException("Ошибка при обновлении банковского счета. Название счета: " + newAccountName + " уже используется");
         }
 
-        account.setAccountName(newAccountName);
-        account = accountRepository.save(account);
+        if (isBalanceManagedExternally()) {
+            accountRepository.updateAccountName(accountId, newAccountName);
+            account.setAccountName(newAccountName);
+            account.setAccountBalance(getCurrentBalance(accountId, account));
+        } else {
+            account.setAccountName(newAccountName);
+            account = accountRepository.save(account);
+        }
+        accountSearchService.indexAccount(accountId, newAccountName);
 
         log.info("IN updateAccountName - название счета: {} успешно обновлено", account.getAccountName());
         return modelMapper.map(account, AccountInfoDTO.class);
@@ -114,8 +245,146 @@ public class AccountServiceImpl implements AccountService {
     @Override
     public AccountDTO getInfoAccount(Long accountId)
             throws AccountNotFoundException {
-        Account account = getAccount(accountId);
-        return modelMapper.map(account, AccountDTO.class);
+        return getInfoAccount(accountId, false);
+    }
+
+    /**
+     * Получает информацию о счете по его идентификатору.
+     * @param accountId Идентификатор счета.
+     * @param consistent Признак получения баланса с учетом проводок, еще не учтенных в таблице accounts.
+     * @return Информацию о счете.
+     * @throws AccountNotFoundException Выбрасывает при возникновении ошибки на этапе поиска счета.
+     */
+    @Override
+    public AccountDTO getInfoAccount(Long accountId, boolean consistent)
+            throws AccountNotFoundException {
+        // Баланс с учетом неучтенных проводок читается из основной базы данных: реплика может отставать.
+        return consistent ? loadInfoAccount(accountId, true) : readOnly(() -> loadInfoAccount(accountId, false));
+    }
+
+    /**
+     * Загружает информацию о счете по его идентификатору.
+     * @param accountId Идентификатор счета.
+     * @param consistent Признак получения баланса с учетом проводок, еще не учтенных в таблице accounts.
+     * @return Информацию о счете.
+     * @throws AccountNotFoundException Выбрасывает при возникновении ошибки на этапе поиска счета.
+     */
+    private AccountDTO loadInfoAccount(Long accountId, boolean consistent)
+            throws AccountNotFoundException {
+        // Одновременные запросы одного счета ожидают одну загрузку и получают общий экземпляр счета,
+        // поэтому баланс подставляется в DTO, а не в счет.
+        // Запросы в окне чтения собственных изменений не объединяются с загрузками из реплики.
+        Account account = getAccount(accountId, !ReadYourWritesContext.isPrimaryRequired());
+        AccountDTO accountDTO = modelMapper.map(account, AccountDTO.class);
+
+        if (consistent || ledgerEngineProvider.getIfAvailable() != null) {
+            accountDTO.setBalance(getCurrentBalance(accountId, account));
+        }
+        return accountDTO;
+    }
+
+    /**
+     * Получает выбранные поля информации о счете. Из базы данных читаются только столбцы выбранных полей.
+     * @param accountId Идентификатор счета.
+     * @param consistent Признак получения баланса с учетом проводок, еще не учтенных в таблице accounts.
+     * @param fields Названия полей информации о счете.
+     * @return Значения выбранных полей в порядке их перечисления.
+     * @throws AccountNotFoundException Выбрасывает при возникновении ошибки на этапе поиска счета.
+     * @throws FieldSelectionException Выбрасывает при пустом списке полей или неизвестном поле.
+     */
+    @Override
+    public Map<String, Object> getInfoAccount(Long accountId, boolean consistent, List<String> fields)
+            throws AccountNotFoundException, FieldSelectionException {
+        List<String> selected = selectFields(fields, ACCOUNT_FIELDS);
+        List<String> attributes = toAttributes(selected, ACCOUNT_FIELDS);
+        Optional<Object[]> values = consistent
+                ? accountRepository.findAttributesById(accountId, attributes)
+                : readOnly(() -> accountRepository.findAttributesById(accountId, attributes));
+
+        if (values.isEmpty()) {
+            log.error("IN getInfoAccount - счет с идентификатором: {} не найден", accountId);
+            throw new AccountNotFoundException("Счет с идентификатором: " + accountId + " не найден");
+        }
+
+        Map<String, Object> result = toFields(selected, values.get());
+        if (result.containsKey("balance")) {
+            findBalanceOutsideRow(accountId, consistent).ifPresent(balance -> result.put("balance", balance));
+        }
+        return result;
+    }
+
+    /**
+     * Получает информацию о нескольких счетах по их идентификаторам.
+     * Счета загружаются запросами с условием IN по BATCH_CHUNK_SIZE идентификаторов вместо отдельного запроса
+     * на каждый счет. Повторяющиеся идентификаторы возвращаются один раз.
+     * @param accountIds Идентификаторы счетов.
+     * @return Найденные счета в порядке идентификаторов и идентификаторы ненайденных счетов.
+     * @throws AccountBatchException Выбрасывает при пустом или слишком большом списке идентификаторов.
+     */
+    @Override
+    public AccountsBatchDTO getInfoAccounts(Collection<Long> accountIds)
+            throws AccountBatchException {
+        Set<Long> requested = accountIds == null ? Set.of() : accountIds.stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+
+        if (requested.isEmpty()) {
+            log.error("IN getInfoAccounts - список идентификаторов пуст");
+            throw new AccountBatchException("Список идентификаторов счетов не может быть пустым");
+        }
+        if (requested.size() > BATCH_MAX_IDS) {
+            log.error("IN getInfoAccounts - запрошено счетов: {}", requested.size());
+            throw new AccountBatchException("Количество идентификаторов счетов не может быть больше " + BATCH_MAX_IDS);
+        }
+
+        Map<Long, Account> found = new HashMap<>();
+        List<Long> ids = new ArrayList<>(requested);
+        readOnlyTransaction.executeWithoutResult(status -> {
+            for (int from = 0; from < ids.size(); from += BATCH_CHUNK_SIZE) {
+                accountRepository.findAllById(ids.subList(from, Math.min(from + BATCH_CHUNK_SIZE, ids.size())))
+                        .forEach(account -> found.put(account.getId(), account));
+            }
+        });
+
+        List<AccountDTO> accounts = new ArrayList<>(found.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long accountId : ids) {
+            Account account = found.get(accountId);
+            if (account == null) {
+                missingIds.add(accountId);
+                continue;
+            }
+            findBalanceOutsideRow(accountId, false).ifPresent(account::setAccountBalance);
+            accounts.add(modelMapper.map(account, AccountDTO.class));
+        }
+
+        log.info("IN getInfoAccounts - найдено счетов: {}, не найдено: {}", accounts.size(), missingIds.size());
+        return new AccountsBatchDTO(accounts, missingIds);
+    }
+
+    /**
+     * Получает ETag информации о счете без загрузки счета целиком.
+     * Все столбцы счета определяются его версией. Если баланс берется не из строки счета, в ETag входит и баланс.
+     * @param accountId Идентификатор счета.
+     * @param consistent Признак получения баланса с учетом проводок, еще не учтенных в таблице accounts.
+     * @return ETag, изменяющийся при каждом изменении информации о счете.
+     * @throws AccountNotFoundException Выбрасывает при возникновении ошибки на этапе поиска счета.
+     */
+    @Override
+    public String getAccountETag(Long accountId, boolean consistent)
+            throws AccountNotFoundException {
+        Optional<Long> version = consistent
+                ? accountRepository.findVersionById(accountId)
+                : readOnly(() -> accountRepository.findVersionById(accountId));
+
+        if (version.isEmpty()) {
+            log.error("IN getAccountETag - счет с идентификатором: {} не найден", accountId);
+            throw new AccountNotFoundException("Счет с идентификатором: " + accountId + " не найден");
+        }
+
+        return findBalanceOutsideRow(accountId, consistent)
+                .map(balance -> version.get() + "-" + balance.getMinorUnits())
+                .orElse(String.valueOf(version.get()));
     }
 
     /**
@@ -124,9 +393,9 @@ public class AccountServiceImpl implements AccountService {
      */
     @Override
     public List<AccountInfoDTO> getAllAccounts() {
-        return accountRepository.findAll().stream()
+        return readOnly(() -> accountRepository.findAll().stream()
                 .map(account -> modelMapper.map(account, AccountInfoDTO.class))
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
 
     /**
@@ -135,24 +404,92 @@ public class AccountServiceImpl implements AccountService {
      * @return Список объектов, содержащих информацию о всех счетах.
      */
     public List<AccountInfoDTO> getAllAccounts(PageRequest pageRequest) {
-        return accountRepository.findAll(pageRequest).stream()
+        return readOnly(() -> accountRepository.findAll(pageRequest).stream()
                 .map(account -> modelMapper.map(account, AccountInfoDTO.class))
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * Получает выбранные поля информации о всех счетах. Из базы данных читаются только столбцы выбранных полей.
+     * @param fields Названия полей информации о счете.
+     * @return Список значений выбранных полей в порядке их перечисления.
+     * @throws FieldSelectionException Выбрасывает при пустом списке полей или неизвестном поле.
+     */
+    @Override
+    public List<Map<String, Object>> getAllAccounts(List<String> fields)
+            throws FieldSelectionException {
+        return getAllAccounts(fields, Pageable.unpaged());
+    }
+
+    /**
+     * Получает выбранные поля информации о счетах с пагинацией.
+     * @param fields Названия полей информации о счете.
+     * @param pageable Пагинация страниц.
+     * @return Список значений выбранных полей в порядке их перечисления.
+     * @throws FieldSelectionException Выбрасывает при пустом списке полей или неизвестном поле.
+     */
+    public List<Map<String, Object>> getAllAccounts(List<String> fields, Pageable pageable)
+            throws FieldSelectionException {
+        List<String> selected = selectFields(fields, ACCOUNT_INFO_FIELDS);
+        List<String> attributes = toAttributes(selected, ACCOUNT_INFO_FIELDS);
+        return readOnly(() -> accountRepository.findAttributes(attributes, pageable)).stream()
+                .map(values -> toFields(selected, values))
                 .collect(Collectors.toList());
     }
 
     /**
-     * Удаляет счет по его идентификатору.
+     * Получает ETag списка всех счетов без загрузки счетов.
+     * @return ETag, изменяющийся при создании, изменении или удалении любого счета.
+     */
+    @Override
+    public String getAccountsETag() {
+        return readOnly(accountRepository::findAccountsVersion);
+    }
+
+    /**
+     * Получает ETag страницы счетов по идентификаторам и версиям счетов страницы.
+     * @param pageRequest Пагинация страниц.
+     * @return ETag, изменяющийся при изменении состава или любого счета страницы.
+     */
+    public String getAccountsETag(PageRequest pageRequest) {
+        String versions = String.join(",", readOnly(() -> accountRepository.findVersionsPage(pageRequest)));
+        return DigestUtils.md5DigestAsHex(versions.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Удаляет счет по его идентификатору. Удаляются и помеченные на удаление счета.
      * @param accountId Идентификатор счета.
      * @throws AccountNotFoundException Выбрасывает при возникновении ошибки на этапе поиска счета.
      */
     @Override
     public void deleteAccount(Long accountId)
             throws AccountNotFoundException {
-        if (notExistAccountById(accountId)) {
+        // Запросы сущности Account не видят помеченные на удаление счета, поэтому проверка и удаление выполняются
+        // запросами к таблице напрямую.
+        if (!accountRepository.existsAnyAccountById(accountId)) {
             log.error("IN deleteAccount - счет с идентификатором: {} не удален", accountId);
             throw new AccountNotFoundException("Счет с идентификатором: " + accountId + " не найден");
         }
-        accountRepository.deleteById(accountId);
+
+        AccountSnapshot removed = writeTransaction.execute(status -> {
+            AccountSnapshot snapshot = accountRepository.findStatusAndBalanceById(accountId).stream()
+                    .findFirst()
+                    .map(row -> new AccountSnapshot(EntityStatus.valueOf((String) row[0]),
+                            getCurrentBalance(accountId, Money.ofMinorUnits(((Number) row[1]).longValue()))))
+                    .orElse(null);
+            accountRepository.deleteByIds(List.of(accountId));
+            return snapshot;
+        });
+        // Счет удаляется из движка только после фиксации удаления: при откате транзакции баланс счета сохраняется.
+        LedgerEngine ledgerEngine = ledgerEngineProvider.getIfAvailable();
+        if (ledgerEngine != null) {
+            ledgerEngine.close(accountId);
+        }
+        if (removed != null) {
+            accountStatsService.accountRemoved(removed.status(), removed.balance());
+        }
+        balanceEventService.close(accountId);
+        accountSearchService.removeAccounts(List.of(accountId));
 
         log.info("IN deleteAccount - счет с идентификатором: {} успешно удален", accountId);
     }
@@ -171,12 +508,108 @@ public class AccountServiceImpl implements AccountService {
         }
 
         Account account = getAccount(accountId);
-        account.setEntityStatus(EntityStatus.DELETED);
-        accountRepository.save(account);
+        EntityStatus previousStatus = account.getEntityStatus();
+        Money balance = getCurrentBalance(accountId, account);
+        if (isBalanceManagedExternally()) {
+            accountRepository.updateEntityStatus(accountId, EntityStatus.DELETED);
+        } else {
+            account.setEntityStatus(EntityStatus.DELETED);
+            accountRepository.save(account);
+        }
+        accountStatsService.statusChanged(previousStatus, EntityStatus.DELETED, balance);
+        accountSearchService.removeAccounts(List.of(accountId));
 
         log.info("IN softDeleteAccount - счет с идентификатором: {} успешно деактивирован", accountId);
     }
 
+    /**
+     * Удаляет счета, выбранные по списку идентификаторов и (или) условиям.
+     * Счета удаляются пачками одним запросом DELETE на пачку, без загрузки сущностей. Удаляются и помеченные
+     * на удаление счета.
+     * @param accountBulkRequestDTO Условия выбора счетов.
+     * @return Количество удаленных счетов.
+     * @throws AccountBatchException Выбрасывает при некорректных условиях выбора счетов.
+     */
+    @Override
+    public AccountBulkResultDTO deleteAccounts(AccountBulkRequestDTO accountBulkRequestDTO)
+            throws AccountBatchException {
+        LedgerEngine ledgerEngine = ledgerEngineProvider.getIfAvailable();
+        long deleted = applyInChunks("deleteAccounts", accountBulkRequestDTO, EnumSet.allOf(EntityStatus.class),
+                accountRepository::deleteByIds,
+                ids -> {
+                    if (ledgerEngine != null) {
+                        ids.forEach(ledgerEngine::close);
+                    }
+                    ids.forEach(balanceEventService::close);
+                    accountSearchService.removeAccounts(ids);
+                });
+
+        if (deleted > 0) {
+            accountStatsService.requestReconcile();
+        }
+
+        log.info("IN deleteAccounts - удалено счетов: {}", deleted);
+        return new AccountBulkResultDTO(deleted);
+    }
+
+    /**
+     * Деактивирует счета, выбранные по списку идентификаторов и (или) условиям.
+     * Счета деактивируются пачками одним запросом UPDATE на пачку, без загрузки сущностей; столбец balance
+     * не затрагивается, поэтому операция допустима в любом режиме учета балансов.
+     * @param accountBulkRequestDTO Условия выбора счетов.
+     * @return Количество деактивированных счетов.
+     * @throws AccountBatchException Выбрасывает при некорректных условиях выбора счетов.
+     */
+    @Override
+    public AccountBulkResultDTO softDeleteAccounts(AccountBulkRequestDTO accountBulkRequestDTO)
+            throws AccountBatchException {
+        long deactivated = applyInChunks("softDeleteAccounts", accountBulkRequestDTO,
+                EnumSet.of(EntityStatus.ACTIVE, EntityStatus.NOT_ACTIVE),
+                ids -> accountRepository.updateStatusByIds(ids, EntityStatus.DELETED.name()),
+                accountSearchService::removeAccounts);
+
+        if (deactivated > 0) {
+            accountStatsService.requestReconcile();
+        }
+
+        log.info("IN softDeleteAccounts - деактивировано счетов: {}", deactivated);
+        return new AccountBulkResultDTO(deactivated);
+    }
+
+    /**
+     * Изменяет статус счетов, выбранных по списку идентификаторов и (или) условиям.
+     * Статус помеченных на удаление счетов не изменяется, счета с новым статусом не обновляются.
+     * @param accountBulkRequestDTO Условия выбора счетов и новый статус.
+     * @return Количество счетов, статус которых изменен.
+     * @throws AccountBatchException Выбрасывает при некорректных условиях выбора счетов или отсутствии нового статуса.
+     */
+    @Override
+    public AccountBulkResultDTO changeAccountsStatus(AccountBulkRequestDTO accountBulkRequestDTO)
+            throws AccountBatchException {
+        EntityStatus targetStatus = accountBulkRequestDTO == null ? null : accountBulkRequestDTO.getTargetStatus();
+        if (targetStatus == null) {
+            log.error("IN changeAccountsStatus - новый статус счетов не задан");
+            throw new AccountBatchException("Новый статус счетов не задан");
+        }
+
+        Set<EntityStatus> sourceStatuses = EnumSet.of(EntityStatus.ACTIVE, EntityStatus.NOT_ACTIVE);
+        sourceStatuses.remove(targetStatus);
+        long changed = applyInChunks("changeAccountsStatus", accountBulkRequestDTO, sourceStatuses,
+                ids -> accountRepository.updateStatusByIds(ids, targetStatus.name()),
+                ids -> {
+                    if (targetStatus == EntityStatus.DELETED) {
+                        accountSearchService.removeAccounts(ids);
+                    }
+                });
+
+        if (changed > 0) {
+            accountStatsService.requestReconcile();
+        }
+
+        log.info("IN changeAccountsStatus - статус {} установлен счетам: {}", targetStatus, changed);
+        return new AccountBulkResultDTO(changed);
+    }
+
     /**
      * Выполняет пополнение счета.
      * @param accountId Идентификатор пополняемого счета.
@@ -190,17 +623,36 @@ public class AccountServiceImpl implements AccountService {
             throws AccountWithdrawException, AccountNotFoundException {
 
         Account account = getAccount(accountId);
-        Double amount = accountTransactionDTO.getTransferAmount();
+        Money amount = accountTransactionDTO.getTransferAmount();
 
-        if (amount == null || amount <= 0) {
+        if (amount == null || !amount.isPositive()) {
             log.error("IN deposit - банковский счет с названием: {} не пополнен", account.getAccountName());
             throw new AccountWithdrawException("Сумма пополнения должна быть положительной и не может быть пустой");
         }
 
-        account.setAccountBalance(account.getAccountBalance() + amount);
-        account = accountRepository.save(account);
+        LedgerEngine ledgerEngine = ledgerEngineProvider.getIfAvailable();
+        if (ledgerEngine != null) {
+            account.setAccountBalance(Money.ofMinorUnits(ledgerEngine.deposit(accountId, amount.getMinorUnits())));
+        } else if (ledgerService.isAsyncMaterialization()) {
+            account.setAccountBalance(ledgerService.deposit(accountId, amount));
+        } else {
+            // Баланс счета и проводки сохраняются в одной транзакции.
+            account.setAccountBalance(account.getAccountBalance().plus(amount));
+            Account depositedAccount = account;
+            account = writeTransaction.execute(status -> {
+                Account saved = accountRepository.save(depositedAccount);
+                ledgerService.record(LedgerEntryType.DEPOSIT, null, accountId, amount);
+                return saved;
+            });
+        }
 
-        log.info("IN deposit - банковский счет с названием: {} успешно пополнен на сумму: {}", account.getAccountName(), amount);
+        accountStatsService.balanceChanged(account.getAccountBalance().minus(amount), account.getAccountBalance());
+        balanceEventService.publish(accountId, account.getAccountBalance());
+
+        log.atInfo()
+                .addKeyValue("accountId", accountId)
+                .addKeyValue("amount", amount)
+                .log("IN deposit - банковский счет с названием: {} успешно пополнен на сумму: {}", account.getAccountName(), amount);
         return modelMapper.map(account, AccountInfoDTO.class);
     }
 
@@ -217,21 +669,28 @@ public class AccountServiceImpl implements AccountService {
     public AccountInfoDTO withdraw(Long accountId, AccountTransactionDTO accountTransactionDTO)
             throws AccountNotFoundException, AccountAccessException, AccountWithdrawException {
 
+        Money amount = accountTransactionDTO.getTransferAmount();
+
+        AccountOperationPhaseEvent phase = AccountOperationPhaseEvent.begin(OPERATION_WITHDRAW, PHASE_SOURCE_LOOKUP, accountId, amount);
         Account account = getAccount(accountId);
+        phase.commit();
 
+        phase = AccountOperationPhaseEvent.begin(OPERATION_WITHDRAW, PHASE_PIN_VERIFY, accountId, amount);
         if (!passwordEncoder.matches(accountTransactionDTO.getPin(), account.getPin())) {
+            phase.commitFailed();
             log.error("IN withdraw - списание средств с банковского счета с названием: {} не прошло", account.getAccountName());
             throw new AccountAccessException("Введен неверный пин код");
         }
+        phase.commit();
 
-        Double amount = accountTransactionDTO.getTransferAmount();
+        LedgerEngine ledgerEngine = ledgerEngineProvider.getIfAvailable();
 
         try {
-            if (amount == null || amount <= 0) {
+            if (amount == null || !amount.isPositive()) {
                 throw new AccountWithdrawException("Сумма списания должна быть положительной и не может быть пустой");
             }
 
-            if (account.getAccountBalance() - amount < 0) {
+            if (!isBalanceManagedExternally() && account.getAccountBalance().isLessThan(amount)) {
                 throw new AccountWithdrawException("Сумма списания должна быть не больше текущего баланса");
             }
         } catch (AccountWithdrawException awEx) {
@@ -239,11 +698,36 @@ public class AccountServiceImpl implements AccountService {
             throw new AccountWithdrawException(awEx.getMessage());
         }
 
-        account.setAccountBalance(account.getAccountBalance() - amount);
-        account = accountRepository.save(account);
+        phase = AccountOperationPhaseEvent.begin(OPERATION_WITHDRAW, PHASE_DEBIT_SAVE, accountId, amount);
+        if (ledgerEngine != null) {
+            // Достаточность средств проверяется движком атомарно со списанием.
+            account.setAccountBalance(Money.ofMinorUnits(ledgerEngine.withdraw(accountId, amount.getMinorUnits())));
+        } else if (ledgerService.isAsyncMaterialization()) {
+            // Достаточность средств проверяется с учетом неучтенных проводок под блокировкой счета.
+            account.setAccountBalance(ledgerService.withdraw(accountId, amount));
+        } else {
+            // Баланс счета и проводки сохраняются в одной транзакции.
+            account.setAccountBalance(account.getAccountBalance().minus(amount));
+            Account debitedAccount = account;
+            account = writeTransaction.execute(status -> {
+                Account saved = accountRepository.save(debitedAccount);
+                ledgerService.record(LedgerEntryType.WITHDRAW, accountId, null, amount);
+                return saved;
+            });
+        }
+        phase.commit();
+        accountStatsService.balanceChanged(account.getAccountBalance().plus(amount), account.getAccountBalance());
+        balanceEventService.publish(accountId, account.getAccountBalance());
 
-        log.info("IN withdraw - списание средств на сумму: {} с банковского счета с названием: {} успешно прошло", amount, account.getAccountName());
-        return modelMapper.map(account, AccountInfoDTO.class);
+        log.atInfo()
+                .addKeyValue("accountId", accountId)
+                .addKeyValue("amount", amount)
+                .log("IN withdraw - списание средств на сумму: {} с банковского счета с названием: {} успешно прошло", amount, account.getAccountName());
+
+        phase = AccountOperationPhaseEvent.begin(OPERATION_WITHDRAW, PHASE_DTO_MAPPING, accountId, amount);
+        AccountInfoDTO accountInfoDTO = modelMapper.map(account, AccountInfoDTO.class);
+        phase.commit();
+        return accountInfoDTO;
     }
 
     /**
@@ -259,24 +743,43 @@ public class AccountServiceImpl implements AccountService {
     public AccountInfoDTO transfer(Long accountId, AccountTransactionDTO accountTransactionDTO)
             throws AccountNotFoundException, AccountAccessException, AccountWithdrawException {
 
+        Money amount = accountTransactionDTO.getTransferAmount();
+
+        AccountOperationPhaseEvent phase = AccountOperationPhaseEvent.begin(OPERATION_TRANSFER, PHASE_SOURCE_LOOKUP, accountId, amount);
         Account account = getAccount(accountId);
+        phase.commit();
 
+        phase = AccountOperationPhaseEvent.begin(OPERATION_TRANSFER, PHASE_PIN_VERIFY, accountId, amount);
         if (!passwordEncoder.matches(accountTransactionDTO.getPin(), account.getPin())) {
+            phase.commitFailed();
             log.error("IN transfer - перевод средств с банковского счета с названием: {} не прошел", account.getAccountName());
             throw new AccountAccessException("Введен неверный пин код");
         }
+        phase.commit();
 
         String sourceAccountName = accountTransactionDTO.getSourceAccountName();
-        Account sourceAccount = getAccountByName(sourceAccountName);
 
-        Double amount = accountTransactionDTO.getTransferAmount();
+        phase = AccountOperationPhaseEvent.begin(OPERATION_TRANSFER, PHASE_DESTINATION_LOOKUP, accountId, amount)
+                .destination(sourceAccountName);
+        // Если баланс обновляется не этим сервисом, счет зачисления только читается, и его загрузку можно
+        // объединить с одновременными переводами на тот же счет.
+        Account sourceAccount = getAccountByName(sourceAccountName, isBalanceManagedExternally());
+        phase.destinationAccountId(sourceAccount.getId()).commit();
+
+        LedgerEngine ledgerEngine = ledgerEngineProvider.getIfAvailable();
 
         try {
-            if (amount == null || amount <= 0) {
+            if (amount == null || !amount.isPositive()) {
                 throw new AccountWithdrawException("Сумма перевода должна быть положительной и не может быть пустой");
             }
 
-            if (account.getAccountBalance() - amount < 0) {
+            // Перевод на тот же счет отклоняется: в синхронном режиме счет списания и счет зачисления загружены
+            // отдельными копиями, и сохранение второй копии перезаписало бы списание.
+            if (accountId.equals(sourceAccount.getId())) {
+                throw new AccountWithdrawException("Счет зачисления должен отличаться от счета списания");
+            }
+
+            if (!isBalanceManagedExternally() && account.getAccountBalance().isLessThan(amount)) {
                 throw new AccountWithdrawException("Сумма перевода должна быть не больше текущего баланса");
             }
         } catch (AccountWithdrawException awEx) {
@@ -284,14 +787,274 @@ public class AccountServiceImpl implements AccountService {
             throw new AccountWithdrawException(awEx.getMessage());
         }
 
-        account.setAccountBalance(account.getAccountBalance() - amount);
-        account = accountRepository.save(account);
+        // Баланс счета зачисления после перевода. В режимах, где баланс обновляется не этим сервисом, столбец
+        // balance отстает, поэтому баланс берется из движка или журнала проводок.
+        Money creditedBalance;
+        if (ledgerEngine != null) {
+            // Списание и зачисление применяются движком атомарно одним событием журнала.
+            phase = AccountOperationPhaseEvent.begin(OPERATION_TRANSFER, PHASE_DEBIT_SAVE, accountId, amount)
+                    .destination(sourceAccountName).destinationAccountId(sourceAccount.getId());
+            LedgerEngine.TransferResult result = ledgerEngine.transfer(accountId, sourceAccount.getId(), amount.getMinorUnits());
+            account.setAccountBalance(Money.ofMinorUnits(result.balance()));
+            creditedBalance = Money.ofMinorUnits(result.destinationBalance());
+            phase.commit();
+        } else if (ledgerService.isAsyncMaterialization()) {
+            // Проводки списания и зачисления записываются вместе, балансы обновляются фоновым процессом.
+            phase = AccountOperationPhaseEvent.begin(OPERATION_TRANSFER, PHASE_DEBIT_SAVE, accountId, amount)
+                    .destination(sourceAccountName).destinationAccountId(sourceAccount.getId());
+            account.setAccountBalance(ledgerService.transfer(accountId, sourceAccount.getId(), amount));
+            creditedBalance = ledgerService.getConsistentBalance(sourceAccount.getId());
+            phase.commit();
+        } else {
+            // Списание, зачисление и проводки сохраняются в одной транзакции: при ошибке зачисления
+            // списание откатывается.
+            account.setAccountBalance(account.getAccountBalance().minus(amount));
+            sourceAccount.setAccountBalance(sourceAccount.getAccountBalance().plus(amount));
+            creditedBalance = sourceAccount.getAccountBalance();
+            Account debitedAccount = account;
+            account = writeTransaction.execute(status -> {
+                AccountOperationPhaseEvent debit = AccountOperationPhaseEvent.begin(OPERATION_TRANSFER, PHASE_DEBIT_SAVE,
+                        accountId, amount);
+                Account saved = accountRepository.save(debitedAccount);
+                debit.commit();
 
-        sourceAccount.setAccountBalance(sourceAccount.getAccountBalance() + amount);
-        accountRepository.save(sourceAccount);
+                AccountOperationPhaseEvent credit = AccountOperationPhaseEvent.begin(OPERATION_TRANSFER, PHASE_CREDIT_SAVE,
+                        accountId, amount).destination(sourceAccountName).destinationAccountId(sourceAccount.getId());
+                accountRepository.save(sourceAccount);
+                credit.commit();
 
-        log.info("IN transfer - перевод средств на сумму: {} с банковского счета с названием: {} успешно прошел", amount, account.getAccountName());
-        return modelMapper.map(account, AccountInfoDTO.class);
+                ledgerService.record(LedgerEntryType.TRANSFER, accountId, sourceAccount.getId(), amount);
+                return saved;
+            });
+        }
+
+        accountStatsService.balanceChanged(account.getAccountBalance().plus(amount), account.getAccountBalance());
+        accountStatsService.balanceChanged(creditedBalance.minus(amount), creditedBalance);
+        balanceEventService.publish(accountId, account.getAccountBalance());
+        if (balanceEventService.hasSubscribers(sourceAccount.getId())) {
+            balanceEventService.publish(sourceAccount.getId(), creditedBalance);
+        }
+
+        log.atInfo()
+                .addKeyValue("accountId", accountId)
+                .addKeyValue("destinationAccountId", sourceAccount.getId())
+                .addKeyValue("amount", amount)
+                .log("IN transfer - перевод средств на сумму: {} с банковского счета с названием: {} успешно прошел", amount, account.getAccountName());
+
+        phase = AccountOperationPhaseEvent.begin(OPERATION_TRANSFER, PHASE_DTO_MAPPING, accountId, amount);
+        AccountInfoDTO accountInfoDTO = modelMapper.map(account, AccountInfoDTO.class);
+        phase.commit();
+        return accountInfoDTO;
+    }
+
+    /**
+     * Выполняет массовую операцию над счетами пачками по BULK_CHUNK_SIZE счетов.
+     * Каждая пачка выполняется в отдельной транзакции двумя запросами: первый выбирает и блокирует идентификаторы
+     * счетов пачки, второй изменяет или удаляет их одним запросом. Счета, выбираемые по условиям, перебираются
+     * отдельно для каждого статуса, чтобы пачки читались по индексу (status, id) без сортировки. Счета блокируются по возрастанию идентификаторов,
+     * поэтому одновременные массовые операции не взаимоблокируются. При ошибке откатывается только текущая пачка;
+     * повторный запрос продолжит операцию с оставшимися счетами.
+     * @param operation Название операции для журнала.
+     * @param request Условия выбора счетов.
+     * @param sourceStatuses Статусы счетов, к которым применима операция.
+     * @param write Операция над пачкой идентификаторов, возвращающая количество измененных счетов.
+     * @param committed Действие над идентификаторами пачки, выполняемое после фиксации ее транзакции.
+     * @return Количество измененных счетов.
+     * @throws AccountBatchException Выбрасывает, если не заданы ни идентификаторы, ни условия, или идентификаторов
+     * больше BULK_MAX_IDS.
+     */
+    private long applyInChunks(String operation, AccountBulkRequestDTO request, Set<EntityStatus> sourceStatuses,
+                               Function<List<Long>, Integer> write, Consumer<List<Long>> committed)
+            throws AccountBatchException {
+        List<Long> ids = request == null || request.getIds() == null ? List.of() : request.getIds().stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .sorted()
+                .toList();
+        boolean byCriteria = request != null && (request.getStatus() != null || request.getCreatedBefore() != null);
+
+        if (ids.isEmpty() && !byCriteria) {
+            log.error("IN {} - не заданы идентификаторы или условия выбора счетов", operation);
+            throw new AccountBatchException("Не заданы идентификаторы или условия выбора счетов");
+        }
+        if (ids.size() > BULK_MAX_IDS) {
+            log.error("IN {} - передано идентификаторов: {}", operation, ids.size());
+            throw new AccountBatchException("Количество идентификаторов счетов не может быть больше " + BULK_MAX_IDS);
+        }
+
+        List<String> statuses = sourceStatuses.stream()
+                .filter(status -> request.getStatus() == null || request.getStatus() == status)
+                .map(Enum::name)
+                .toList();
+        if (statuses.isEmpty()) {
+            return 0;
+        }
+        Timestamp createdBefore = request.getCreatedBefore() == null
+                ? NO_CREATED_BEFORE
+                : Timestamp.valueOf(request.getCreatedBefore());
+
+        long affected = 0;
+        if (!ids.isEmpty()) {
+            for (int from = 0; from < ids.size(); from += BULK_CHUNK_SIZE) {
+                List<Long> chunkIds = ids.subList(from, Math.min(from + BULK_CHUNK_SIZE, ids.size()));
+                affected += applyToChunk(() -> accountRepository.findIdsByIdsAndCriteria(chunkIds, statuses, createdBefore),
+                        write, committed).affected();
+            }
+            return affected;
+        }
+
+        for (String status : statuses) {
+            long afterId = 0;
+            BulkChunk chunk;
+            do {
+                long lastId = afterId;
+                chunk = applyToChunk(() -> accountRepository.findIdsByCriteria(status, lastId, createdBefore, BULK_CHUNK_SIZE),
+                        write, committed);
+                affected += chunk.affected();
+                if (!chunk.ids().isEmpty()) {
+                    afterId = chunk.ids().get(chunk.ids().size() - 1);
+                }
+            } while (chunk.ids().size() == BULK_CHUNK_SIZE);
+        }
+        return affected;
+    }
+
+    /**
+     * Блокирует и изменяет пачку счетов в одной транзакции.
+     * @param lock Запрос, выбирающий и блокирующий идентификаторы счетов пачки.
+     * @param write Операция над пачкой идентификаторов, возвращающая количество измененных счетов.
+     * @param committed Действие над идентификаторами пачки, выполняемое после фиксации ее транзакции.
+     * @return Идентификаторы счетов пачки и количество измененных счетов.
+     */
+    private BulkChunk applyToChunk(Supplier<List<Long>> lock, Function<List<Long>, Integer> write,
+                                   Consumer<List<Long>> committed) {
+        BulkChunk chunk = writeTransaction.execute(status -> {
+            List<Long> ids = lock.get();
+            return new BulkChunk(ids, ids.isEmpty() ? 0 : write.apply(ids));
+        });
+        if (chunk == null) {
+            return new BulkChunk(List.of(), 0);
+        }
+        if (!chunk.ids().isEmpty()) {
+            committed.accept(chunk.ids());
+        }
+        return chunk;
+    }
+
+    /**
+     * Выполняет чтение в транзакции только для чтения. В профиле replica-routing такие транзакции выполняются
+     * в реплике базы данных.
+     * @param reader Чтение данных.
+     * @return Результат чтения.
+     */
+    private <T> T readOnly(Supplier<T> reader) {
+        return readOnlyTransaction.execute(status -> reader.get());
+    }
+
+    /**
+     * Проверяет, обновляется ли столбец balance не этим сервисом: движком учета балансов или фоновым учетом проводок.
+     * В этом случае сохранение счета целиком могло бы перезаписать баланс устаревшим значением.
+     * @return true, если баланс обновляется не этим сервисом, иначе - false.
+     */
+    private boolean isBalanceManagedExternally() {
+        return ledgerEngineProvider.getIfAvailable() != null || ledgerService.isAsyncMaterialization();
+    }
+
+    /**
+     * Получает актуальный баланс счета с учетом режима учета балансов.
+     * @param accountId Идентификатор счета.
+     * @param account Счет, загруженный из базы данных.
+     * @return Баланс счета.
+     */
+    private Money getCurrentBalance(Long accountId, Account account) {
+        return getCurrentBalance(accountId, account.getAccountBalance());
+    }
+
+    /**
+     * Получает текущий баланс счета по сохраненному в строке счета балансу.
+     * @param accountId Идентификатор счета.
+     * @param storedBalance Баланс из строки счета.
+     * @return Текущий баланс счета.
+     */
+    private Money getCurrentBalance(Long accountId, Money storedBalance) {
+        LedgerEngine ledgerEngine = ledgerEngineProvider.getIfAvailable();
+        if (ledgerEngine != null) {
+            return Money.ofMinorUnits(ledgerEngine.balance(accountId));
+        }
+        if (ledgerService.isAsyncMaterialization()) {
+            return ledgerService.getConsistentBalance(accountId);
+        }
+        return storedBalance;
+    }
+
+    /**
+     * Получает баланс счета, если он берется не из строки счета: из движка учета балансов или, при запросе
+     * баланса с учетом неучтенных проводок, из журнала проводок.
+     * @param accountId Идентификатор счета.
+     * @param consistent Признак получения баланса с учетом проводок, еще не учтенных в таблице accounts.
+     * @return Optional, содержащий баланс счета, или пустой, если баланс берется из строки счета.
+     */
+    private Optional<Money> findBalanceOutsideRow(Long accountId, boolean consistent) {
+        LedgerEngine ledgerEngine = ledgerEngineProvider.getIfAvailable();
+        if (ledgerEngine != null) {
+            return Optional.of(Money.ofMinorUnits(ledgerEngine.balance(accountId)));
+        }
+        if (consistent && ledgerService.isAsyncMaterialization()) {
+            return Optional.of(ledgerService.getConsistentBalance(accountId));
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Проверяет список запрошенных полей и удаляет из него пустые и повторяющиеся названия.
+     * @param fields Названия запрошенных полей.
+     * @param attributes Допустимые поля и соответствующие им атрибуты сущности Account.
+     * @return Названия полей в порядке их перечисления.
+     * @throws FieldSelectionException Выбрасывает при пустом списке полей или неизвестном поле.
+     */
+    private List<String> selectFields(List<String> fields, Map<String, String> attributes)
+            throws FieldSelectionException {
+        List<String> selected = fields.stream()
+                .map(String::trim)
+                .filter(field -> !field.isEmpty())
+                .distinct()
+                .collect(Collectors.toList());
+
+        if (selected.isEmpty()) {
+            log.error("IN selectFields - список полей пуст");
+            throw new FieldSelectionException("Список полей не может быть пустым");
+        }
+        for (String field : selected) {
+            if (!attributes.containsKey(field)) {
+                log.error("IN selectFields - поле: {} не найдено", field);
+                throw new FieldSelectionException("Неизвестное поле: " + field + ", допустимые поля: " + new TreeSet<>(attributes.keySet()));
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * Получает названия атрибутов сущности Account, соответствующих полям.
+     * @param fields Названия полей.
+     * @param attributes Поля и соответствующие им атрибуты сущности Account.
+     * @return Названия атрибутов в порядке полей.
+     */
+    private List<String> toAttributes(List<String> fields, Map<String, String> attributes) {
+        return fields.stream().map(attributes::get).collect(Collectors.toList());
+    }
+
+    /**
+     * Сопоставляет значения атрибутов с названиями полей.
+     * @param fields Названия полей.
+     * @param values Значения атрибутов в порядке полей.
+     * @return Значения полей в порядке их перечисления.
+     */
+    private Map<String, Object> toFields(List<String> fields, Object[] values) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        for (int i = 0; i < fields.size(); i++) {
+            result.put(fields.get(i), values[i]);
+        }
+        return result;
     }
 
     /**
@@ -301,7 +1064,21 @@ public class AccountServiceImpl implements AccountService {
      */
     private Account getAccount(Long accountId)
             throws AccountNotFoundException {
-        Optional<Account> account = accountRepository.findById(accountId);
+        return getAccount(accountId, false);
+    }
+
+    /**
+     * Получает полную информацию о счете по его идентификатору.
+     * @param accountId Идентификатор счета.
+     * @param shared Признак объединения с одновременными загрузками этого счета. Такой счет может быть общим
+     *               для нескольких запросов и не должен изменяться.
+     * @return Информация о счете.
+     */
+    private Account getAccount(Long accountId, boolean shared)
+            throws AccountNotFoundException {
+        Optional<Account> account = shared
+                ? accountLoads.execute(accountId, () -> accountRepository.findById(accountId))
+                : accountRepository.findById(accountId);
 
         if (account.isEmpty()) {
             log.error("IN getAccount - счет с идентификатором: {} не найден", accountId);
@@ -315,11 +1092,15 @@ public class AccountServiceImpl implements AccountService {
     /**
      * Получает полную информацию о счете по его названию.
      * @param accountName Название счета.
+     * @param shared Признак объединения с одновременными загрузками этого счета. Такой счет может быть общим
+     *               для нескольких запросов и не должен изменяться.
      * @return Информация о счете.
      */
-    private Account getAccountByName(String accountName)
+    private Account getAccountByName(String accountName, boolean shared)
             throws AccountNotFoundException {
-        Optional<Account> account = accountRepository.findAccountByAccountName(accountName);
+        Optional<Account> account = shared && accountName != null
+                ? accountNameLoads.execute(accountName, () -> accountRepository.findAccountByAccountName(accountName))
+                : accountRepository.findAccountByAccountName(accountName);
 
         if (account.isEmpty()) {
             log.error("IN getAccountByName - счет с названием: {} не найден", accountName);
@@ -347,4 +1128,20 @@ public class AccountServiceImpl implements AccountService {
     private boolean existAccountByName(String accountName) {
         return accountRepository.existsAccountByAccountName(accountName);
     }
+
+    /**
+     * Пачка массовой операции: заблокированные идентификаторы счетов и количество измененных счетов.
+     * @param ids Идентификаторы счетов пачки по возрастанию.
+     * @param affected Количество измененных счетов.
+     */
+    record BulkChunk(List<Long> ids, int affected) {
+    }
+
+    /**
+     * Статус и баланс удаляемого счета для обновления статистики.
+     * @param status Статус счета.
+     * @param balance Баланс счета.
+     */
+    record AccountSnapshot(EntityStatus status, Money balance) {
+    }
 }
@@ -0,0 +1,314 @@
+package ru.averkiev.bankservice.services.impl;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import ru.averkiev.bankservice.engine.LedgerEngine;
+import ru.averkiev.bankservice.models.AccountStatsDTO;
+import ru.averkiev.bankservice.models.BalanceBucketDTO;
+import ru.averkiev.bankservice.models.EntityStatus;
+import ru.averkiev.bankservice.models.Money;
+import ru.averkiev.bankservice.repositories.AccountRepository;
+import ru.averkiev.bankservice.services.AccountStatsService;
+import ru.averkiev.bankservice.services.LedgerService;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Реализация сервиса сводной статистики по счетам.
+ * Значения хранятся в счетчиках LongAdder: одновременные операции со счетами увеличивают разные ячейки счетчика
+ * и не конкурируют за одну переменную. Значения загружаются из базы данных при запуске и раз в
+ * bank.stats.reconcile-interval-ms сверяются с ней: к счетчикам прибавляется разница между базой данных и значением
+ * счетчика перед запросом, поэтому изменения, учтенные во время сверки, не теряются. Массовые операции и архивация
+ * неактивных счетов не передают балансы измененных счетов и вместо этого запрашивают сверку: запрос только
+ * устанавливает признак, а сверку выполняет планировщик раз в bank.stats.reconcile-request-check-ms.
+ * В режимах движка учета балансов и фонового учета проводок столбец balance отстает от балансов счетов. Поэтому
+ * в режиме фонового учета сверка прибавляет к столбцу balance еще не учтенные проводки, а в режиме движка
+ * перед запросом дожидается сохранения в таблице accounts всех принятых движком операций.
+ * @author mrGreenNV
+ */
+@Service
+@Slf4j
+public class AccountStatsServiceImpl implements AccountStatsService {
+
+    /** Максимальное время ожидания сохранения балансов движка учета балансов перед сверкой в миллисекундах */
+    private static final long ENGINE_CHECKPOINT_TIMEOUT_MILLIS = 5_000;
+
+    /** Верхние границы диапазонов баланса в минимальных денежных единицах: 0.01, 100, 1 000, 10 000, 100 000 */
+    static final long[] BUCKET_BOUNDS = {1, 10_000, 100_000, 1_000_000, 10_000_000};
+
+    /** Репозиторий для взаимодействия со счетами */
+    private final AccountRepository accountRepository;
+
+    /** Сервис журнала проводок */
+    private final LedgerService ledgerService;
+
+    /** Движок учета балансов, доступен только в профиле ledger-engine */
+    private final ObjectProvider<LedgerEngine> ledgerEngineProvider;
+
+    /** Признак запрошенной, но еще не начатой сверки */
+    private final AtomicBoolean reconcileRequested = new AtomicBoolean();
+
+    /** Количество счетов по статусам в порядке EntityStatus.values() */
+    private final LongAdder[] statusCounts = newAdders(EntityStatus.values().length);
+
+    /** Суммарный баланс не помеченных на удаление счетов в минимальных денежных единицах */
+    private final LongAdder totalBalance = new LongAdder();
+
+    /** Количество не помеченных на удаление счетов по диапазонам баланса */
+    private final LongAdder[] bucketCounts = newAdders(BUCKET_BOUNDS.length + 1);
+
+    /** Время последней сверки статистики с базой данных */
+    private volatile Date reconciledAt;
+
+    /**
+     * Создает сервис сводной статистики по счетам.
+     * @param accountRepository Репозиторий для взаимодействия со счетами.
+     * @param ledgerService Сервис журнала проводок.
+     * @param ledgerEngineProvider Движок учета балансов, если он включен.
+     */
+    public AccountStatsServiceImpl(AccountRepository accountRepository, LedgerService ledgerService,
+                                   ObjectProvider<LedgerEngine> ledgerEngineProvider) {
+        this.accountRepository = accountRepository;
+        this.ledgerService = ledgerService;
+        this.ledgerEngineProvider = ledgerEngineProvider;
+    }
+
+    /**
+     * Загружает статистику из базы данных при запуске приложения.
+     */
+    @PostConstruct
+    public void load() {
+        reconcile();
+    }
+
+    /**
+     * Получает сводную статистику по счетам без обращения к базе данных.
+     * Значения счетчиков читаются по отдельности, поэтому при одновременных операциях значения могут относиться
+     * к немного разным моментам.
+     * @return Статистика по счетам.
+     */
+    @Override
+    public AccountStatsDTO getStats() {
+        Map<EntityStatus, Long> accountsByStatus = new EnumMap<>(EntityStatus.class);
+        for (EntityStatus status : EntityStatus.values()) {
+            accountsByStatus.put(status, statusCounts[status.ordinal()].sum());
+        }
+
+        List<BalanceBucketDTO> balanceDistribution = new ArrayList<>(bucketCounts.length);
+        for (int i = 0; i < bucketCounts.length; i++) {
+            Money from = i == 0 ? null : Money.ofMinorUnits(BUCKET_BOUNDS[i - 1]);
+            Money to = i == BUCKET_BOUNDS.length ? null : Money.ofMinorUnits(BUCKET_BOUNDS[i]);
+            balanceDistribution.add(new BalanceBucketDTO(from, to, bucketCounts[i].sum()));
+        }
+
+        return new AccountStatsDTO(Money.ofMinorUnits(totalBalance.sum()), accountsByStatus, balanceDistribution,
+                reconciledAt);
+    }
+
+    /**
+     * Учитывает новый счет.
+     * @param status Статус счета.
+     * @param balance Баланс счета.
+     */
+    @Override
+    public void accountAdded(EntityStatus status, Money balance) {
+        add(status, balance.getMinorUnits(), 1);
+    }
+
+    /**
+     * Учитывает удаление счета.
+     * @param status Статус счета.
+     * @param balance Баланс счета.
+     */
+    @Override
+    public void accountRemoved(EntityStatus status, Money balance) {
+        add(status, balance.getMinorUnits(), -1);
+    }
+
+    /**
+     * Учитывает удаление помеченных на удаление счетов, баланс которых не входит в статистику.
+     * @param count Количество удаленных счетов.
+     */
+    @Override
+    public void deletedAccountsRemoved(long count) {
+        statusCounts[EntityStatus.DELETED.ordinal()].add(-count);
+    }
+
+    /**
+     * Учитывает изменение статуса счета.
+     * @param from Прежний статус счета.
+     * @param to Новый статус счета.
+     * @param balance Баланс счета.
+     */
+    @Override
+    public void statusChanged(EntityStatus from, EntityStatus to, Money balance) {
+        if (from != to) {
+            add(from, balance.getMinorUnits(), -1);
+            add(to, balance.getMinorUnits(), 1);
+        }
+    }
+
+    /**
+     * Учитывает изменение баланса не помеченного на удаление счета.
+     * @param oldBalance Баланс до изменения.
+     * @param newBalance Баланс после изменения.
+     */
+    @Override
+    public void balanceChanged(Money oldBalance, Money newBalance) {
+        totalBalance.add(newBalance.getMinorUnits() - oldBalance.getMinorUnits());
+        int oldBucket = bucketOf(oldBalance.getMinorUnits());
+        int newBucket = bucketOf(newBalance.getMinorUnits());
+        if (oldBucket != newBucket) {
+            bucketCounts[oldBucket].decrement();
+            bucketCounts[newBucket].increment();
+        }
+    }
+
+    /**
+     * Сверяет статистику с базой данных одним агрегирующим запросом и исправляет расхождения.
+     * Операция, зафиксированная в базе данных до запроса, но учтенная в счетчиках после снимка их значений,
+     * учитывается дважды; такое расхождение исправляется следующей сверкой.
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${bank.stats.reconcile-interval-ms:60000}",
+            initialDelayString = "${bank.stats.reconcile-interval-ms:60000}")
+    public synchronized void reconcile() {
+        reconcileRequested.set(false);
+        long[] statusBefore = sums(statusCounts);
+        long totalBefore = totalBalance.sum();
+        long[] bucketsBefore = sums(bucketCounts);
+
+        LedgerEngine ledgerEngine = ledgerEngineProvider.getIfAvailable();
+        if (ledgerEngine != null && !awaitEngineCheckpoint(ledgerEngine)) {
+            log.warn("IN reconcile - балансы движка учета балансов не сохранены в базе данных, сверка отложена");
+            return;
+        }
+
+        long[] statusActual = new long[statusCounts.length];
+        long totalActual = 0;
+        long[] bucketsActual = new long[bucketCounts.length];
+        for (Object[] row : accountRepository.findBalanceDistribution(BUCKET_BOUNDS, ledgerService.isAsyncMaterialization())) {
+            EntityStatus status = (EntityStatus) row[0];
+            long count = (Long) row[2];
+            statusActual[status.ordinal()] += count;
+            if (status != EntityStatus.DELETED) {
+                bucketsActual[(Integer) row[1]] += count;
+                totalActual += (Long) row[3];
+            }
+        }
+
+        boolean corrected = correct(statusCounts, statusBefore, statusActual);
+        corrected |= correct(bucketCounts, bucketsBefore, bucketsActual);
+        if (totalActual != totalBefore) {
+            totalBalance.add(totalActual - totalBefore);
+            corrected = true;
+        }
+
+        if (reconciledAt == null) {
+            log.info("IN reconcile - статистика загружена: счетов по статусам {}, суммарный баланс {}",
+                    Arrays.toString(statusActual), Money.ofMinorUnits(totalActual));
+        } else if (corrected) {
+            log.info("IN reconcile - статистика исправлена: счетов по статусам {} -> {}, суммарный баланс {} -> {}",
+                    Arrays.toString(statusBefore), Arrays.toString(statusActual),
+                    Money.ofMinorUnits(totalBefore), Money.ofMinorUnits(totalActual));
+        }
+        reconciledAt = new Date();
+    }
+
+    /**
+     * Запрашивает сверку статистики с базой данных без ее выполнения в вызывающем потоке.
+     */
+    @Override
+    public void requestReconcile() {
+        reconcileRequested.set(true);
+    }
+
+    /**
+     * Выполняет запрошенную сверку статистики. Плановая сверка также выполняет запрошенную.
+     */
+    @Scheduled(fixedDelayString = "${bank.stats.reconcile-request-check-ms:1000}")
+    public void reconcileIfRequested() {
+        if (reconcileRequested.get()) {
+            reconcile();
+        }
+    }
+
+    /**
+     * Ожидает сохранения в таблице accounts всех операций, принятых движком учета балансов.
+     * @param ledgerEngine Движок учета балансов.
+     * @return true, если операции сохранены, иначе - false.
+     */
+    private static boolean awaitEngineCheckpoint(LedgerEngine ledgerEngine) {
+        try {
+            return ledgerEngine.awaitCheckpoint(ENGINE_CHECKPOINT_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Прибавляет к статистике счет или вычитает его из статистики.
+     * @param status Статус счета.
+     * @param balance Баланс счета в минимальных денежных единицах.
+     * @param sign 1 - прибавить счет, -1 - вычесть.
+     */
+    private void add(EntityStatus status, long balance, int sign) {
+        statusCounts[status.ordinal()].add(sign);
+        if (status != EntityStatus.DELETED) {
+            totalBalance.add(sign * balance);
+            bucketCounts[bucketOf(balance)].add(sign);
+        }
+    }
+
+    /**
+     * Определяет номер диапазона баланса.
+     * @param balance Баланс в минимальных денежных единицах.
+     * @return Номер первого диапазона, верхняя граница которого больше баланса.
+     */
+    static int bucketOf(long balance) {
+        int bucket = 0;
+        while (bucket < BUCKET_BOUNDS.length && balance >= BUCKET_BOUNDS[bucket]) {
+            bucket++;
+        }
+        return bucket;
+    }
+
+    /**
+     * Прибавляет к счетчикам разницу между значениями в базе данных и значениями счетчиков перед запросом.
+     * @param adders Счетчики.
+     * @param before Значения счетчиков перед запросом.
+     * @param actual Значения в базе данных.
+     * @return true, если хотя бы один счетчик исправлен, иначе - false.
+     */
+    private static boolean correct(LongAdder[] adders, long[] before, long[] actual) {
+        boolean corrected = false;
+        for (int i = 0; i < adders.length; i++) {
+            if (actual[i] != before[i]) {
+                adders[i].add(actual[i] - before[i]);
+                corrected = true;
+            }
+        }
+        return corrected;
+    }
+
+    private static long[] sums(LongAdder[] adders) {
+        return Arrays.stream(adders).mapToLong(LongAdder::sum).toArray();
+    }
+
+    private static LongAdder[] newAdders(int count) {
+        LongAdder[] adders = new LongAdder[count];
+        Arrays.setAll(adders, i -> new LongAdder());
+        return adders;
+    }
+}
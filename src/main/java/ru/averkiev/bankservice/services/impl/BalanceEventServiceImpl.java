@@ -0,0 +1,403 @@
+package ru.averkiev.bankservice.services.impl;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.averkiev.bankservice.exceptions.OperationRejectedException;
+import ru.averkiev.bankservice.models.BalanceEventDTO;
+import ru.averkiev.bankservice.models.Money;
+import ru.averkiev.bankservice.services.BalanceEventService;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Реализация сервиса рассылки событий об изменении балансов счетов.
+ * Ожидающий подписчик не занимает поток: соединение удерживается асинхронным запросом сервлета. Небольшой пул
+ * потоков только планирует отправку, а запись в ответ выполняется отдельным ограниченным пулом потоков записи,
+ * поэтому медленный клиент не задерживает отправку событий остальным. Подписчик, запись которому длится дольше
+ * bank.balance-events.write-timeout-ms или для которого нет свободного потока записи, отключается.
+ * У каждого подписчика есть буфер на одно событие: баланс, изменившийся несколько раз за время
+ * bank.balance-events.coalesce-ms, отправляется один раз последним значением, поэтому частые изменения
+ * не накапливаются в памяти. Периодические комментарии позволяют обнаруживать разорванные соединения
+ * простаивающих подписчиков.
+ * @author mrGreenNV
+ */
+@Service
+@Slf4j
+public class BalanceEventServiceImpl implements BalanceEventService {
+
+    /** Название события об изменении баланса */
+    private static final String EVENT_NAME = "balance";
+
+    /** Признак проверки соединения в буфере подписчика */
+    private static final BalanceEventDTO HEARTBEAT = new BalanceEventDTO();
+
+    /** Подписчики по идентификаторам счетов */
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+
+    /** Количество подписчиков */
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+
+    /** Пул потоков, планирующих отправку событий */
+    private final ScheduledExecutorService dispatcher;
+
+    /** Пул потоков записи событий в ответ */
+    private final ExecutorService writers;
+
+    /** Время жизни подписки в миллисекундах */
+    private final long timeoutMillis;
+
+    /** Интервал объединения изменений баланса в миллисекундах */
+    private final long coalesceMillis;
+
+    /** Интервал проверки соединений в миллисекундах */
+    private final long heartbeatMillis;
+
+    /** Максимальное время записи события подписчику в миллисекундах */
+    private final long writeTimeoutMillis;
+
+    /** Максимальное количество подписчиков */
+    private final int maxSubscribers;
+
+    /**
+     * Создает сервис рассылки событий.
+     * @param threads Количество потоков, планирующих отправку событий.
+     * @param writerThreads Максимальное количество потоков записи событий в ответ.
+     * @param timeoutMillis Время жизни подписки в миллисекундах, после которого клиент переподключается.
+     * @param coalesceMillis Интервал объединения изменений баланса в миллисекундах.
+     * @param heartbeatMillis Интервал проверки соединений в миллисекундах.
+     * @param writeTimeoutMillis Максимальное время записи события подписчику в миллисекундах.
+     * @param maxSubscribers Максимальное количество подписчиков.
+     */
+    public BalanceEventServiceImpl(@Value("${bank.balance-events.threads:2}") int threads,
+                                   @Value("${bank.balance-events.writer-threads:64}") int writerThreads,
+                                   @Value("${bank.balance-events.timeout-ms:1800000}") long timeoutMillis,
+                                   @Value("${bank.balance-events.coalesce-ms:200}") long coalesceMillis,
+                                   @Value("${bank.balance-events.heartbeat-ms:30000}") long heartbeatMillis,
+                                   @Value("${bank.balance-events.write-timeout-ms:10000}") long writeTimeoutMillis,
+                                   @Value("${bank.balance-events.max-subscribers:4096}") int maxSubscribers) {
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(threads, threadFactory("balance-events-"));
+        executor.setRemoveOnCancelPolicy(true);
+        this.dispatcher = executor;
+        // Без очереди: если все потоки записи заняты медленными клиентами, отправка не ждет, а подписчик отключается.
+        this.writers = new ThreadPoolExecutor(0, writerThreads, 60, TimeUnit.SECONDS, new SynchronousQueue<>(),
+                threadFactory("balance-events-writer-"));
+        this.timeoutMillis = timeoutMillis;
+        this.coalesceMillis = coalesceMillis;
+        this.heartbeatMillis = heartbeatMillis;
+        this.writeTimeoutMillis = writeTimeoutMillis;
+        this.maxSubscribers = maxSubscribers;
+    }
+
+    /**
+     * Запускает периодическую проверку соединений и поиск подписчиков с зависшей записью.
+     */
+    @PostConstruct
+    public void start() {
+        dispatcher.scheduleWithFixedDelay(this::heartbeat, heartbeatMillis, heartbeatMillis, TimeUnit.MILLISECONDS);
+        long checkMillis = Math.max(writeTimeoutMillis / 2, 1);
+        dispatcher.scheduleWithFixedDelay(this::dropSlowSubscribers, checkMillis, checkMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Завершает потоки событий всех подписчиков и останавливает пулы потоков отправки и записи.
+     */
+    @PreDestroy
+    public void stop() {
+        dispatcher.shutdownNow();
+        writers.shutdownNow();
+        subscribers.values().forEach(accountSubscribers -> accountSubscribers.forEach(Subscriber::complete));
+    }
+
+    /**
+     * Подписывает клиента на изменения баланса счета. Первым событием подписчик получает текущий баланс.
+     * @param accountId Идентификатор счета.
+     * @param balance Текущий баланс счета.
+     * @return Поток событий.
+     * @throws OperationRejectedException Выбрасывает при превышении максимального количества подписок.
+     */
+    @Override
+    public SseEmitter subscribe(Long accountId, Money balance)
+            throws OperationRejectedException {
+        return register(accountId, balance, new SseEmitter(timeoutMillis));
+    }
+
+    /**
+     * Регистрирует поток событий подписчика.
+     * @param accountId Идентификатор счета.
+     * @param balance Текущий баланс счета.
+     * @param emitter Поток событий.
+     * @return Поток событий.
+     * @throws OperationRejectedException Выбрасывает при превышении максимального количества подписок.
+     */
+    SseEmitter register(Long accountId, Money balance, SseEmitter emitter)
+            throws OperationRejectedException {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            log.error("IN subscribe - подписка на изменения баланса счета с идентификатором: {} отклонена", accountId);
+            throw new OperationRejectedException("Превышено максимальное количество подписок, повторите запрос позже");
+        }
+
+        Subscriber subscriber = new Subscriber(accountId, emitter);
+        emitter.onCompletion(subscriber::remove);
+        emitter.onTimeout(subscriber::complete);
+        emitter.onError(ex -> subscriber.remove());
+        subscribers.compute(accountId, (id, accountSubscribers) -> {
+            Set<Subscriber> result = accountSubscribers == null ? ConcurrentHashMap.newKeySet() : accountSubscribers;
+            result.add(subscriber);
+            return result;
+        });
+        subscriber.offer(new BalanceEventDTO(accountId, balance, LocalDateTime.now()));
+
+        log.info("IN subscribe - подписка на изменения баланса счета с идентификатором: {} создана", accountId);
+        return emitter;
+    }
+
+    /**
+     * Проверяет наличие подписчиков на изменения баланса счета.
+     * @param accountId Идентификатор счета.
+     * @return true, если у счета есть подписчики, иначе - false.
+     */
+    @Override
+    public boolean hasSubscribers(Long accountId) {
+        return subscribers.containsKey(accountId);
+    }
+
+    /**
+     * Передает подписчикам счета новый баланс.
+     * @param accountId Идентификатор счета.
+     * @param balance Баланс счета после изменения.
+     */
+    @Override
+    public void publish(Long accountId, Money balance) {
+        Set<Subscriber> accountSubscribers = subscribers.get(accountId);
+        if (accountSubscribers == null) {
+            return;
+        }
+        BalanceEventDTO event = new BalanceEventDTO(accountId, balance, LocalDateTime.now());
+        for (Subscriber subscriber : accountSubscribers) {
+            subscriber.offer(event);
+        }
+    }
+
+    /**
+     * Завершает потоки событий всех подписчиков счета.
+     * @param accountId Идентификатор счета.
+     */
+    @Override
+    public void close(Long accountId) {
+        Set<Subscriber> accountSubscribers = subscribers.get(accountId);
+        if (accountSubscribers != null) {
+            accountSubscribers.forEach(Subscriber::complete);
+        }
+    }
+
+    /**
+     * Возвращает количество подписчиков.
+     * @return Количество подписчиков.
+     */
+    int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    /**
+     * Передает комментарий подписчикам, у которых нет ожидающих отправки событий.
+     */
+    private void heartbeat() {
+        subscribers.values().forEach(accountSubscribers -> accountSubscribers.forEach(Subscriber::ping));
+    }
+
+    /**
+     * Отключает подписчиков, запись которым длится дольше допустимого времени.
+     */
+    private void dropSlowSubscribers() {
+        long now = System.nanoTime();
+        long timeoutNanos = TimeUnit.MILLISECONDS.toNanos(writeTimeoutMillis);
+        subscribers.values().forEach(accountSubscribers -> accountSubscribers.forEach(subscriber -> {
+            long startedAt = subscriber.writeStartedAt;
+            if (startedAt != 0 && now - startedAt > timeoutNanos && subscriber.drop()) {
+                log.warn("IN dropSlowSubscribers - подписка на изменения баланса счета с идентификатором: {} отключена, "
+                        + "запись события длится дольше {} мс", subscriber.accountId, writeTimeoutMillis);
+            }
+        }));
+    }
+
+    private static ThreadFactory threadFactory(String prefix) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Подписчик на изменения баланса счета.
+     */
+    private class Subscriber {
+
+        /** Идентификатор счета */
+        private final Long accountId;
+
+        /** Поток событий */
+        private final SseEmitter emitter;
+
+        /** Последнее еще не отправленное событие */
+        private final AtomicReference<BalanceEventDTO> pending = new AtomicReference<>();
+
+        /** Признак запланированной отправки */
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        /** Признак удаления подписчика */
+        private final AtomicBoolean removed = new AtomicBoolean();
+
+        /** Время начала текущей записи по System.nanoTime() или 0, если запись не выполняется */
+        private volatile long writeStartedAt;
+
+        /** Признак отключения подписчика во время зависшей записи */
+        private volatile boolean dropped;
+
+        private Subscriber(Long accountId, SseEmitter emitter) {
+            this.accountId = accountId;
+            this.emitter = emitter;
+        }
+
+        /**
+         * Помещает событие в буфер, заменяя еще не отправленное событие, и планирует отправку.
+         * @param event Событие.
+         */
+        private void offer(BalanceEventDTO event) {
+            pending.set(event);
+            schedule(coalesceMillis);
+        }
+
+        /**
+         * Помещает в буфер проверку соединения, если в нем нет события.
+         */
+        private void ping() {
+            if (pending.compareAndSet(null, HEARTBEAT)) {
+                schedule(0);
+            }
+        }
+
+        /**
+         * Планирует отправку, если она еще не запланирована. Одновременно выполняется не более одной отправки,
+         * поэтому события подписчика отправляются по порядку.
+         * @param delayMillis Задержка отправки в миллисекундах.
+         */
+        private void schedule(long delayMillis) {
+            if (!removed.get() && scheduled.compareAndSet(false, true)) {
+                dispatcher.schedule(this::dispatch, delayMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+
+        /**
+         * Передает отправку пулу потоков записи. Если свободного потока записи нет, подписчик отключается:
+         * все потоки заняты записью медленным клиентам.
+         */
+        private void dispatch() {
+            try {
+                writers.execute(this::flush);
+            } catch (RejectedExecutionException ex) {
+                if (!writers.isShutdown()) {
+                    log.warn("IN dispatch - подписка на изменения баланса счета с идентификатором: {} отключена, "
+                            + "нет свободных потоков записи", accountId);
+                }
+                complete();
+            }
+        }
+
+        /**
+         * Отправляет событие из буфера и, если за время отправки поступило новое событие, планирует следующую отправку.
+         */
+        private void flush() {
+            BalanceEventDTO event = pending.getAndSet(null);
+            if (event != null && !removed.get()) {
+                send(event);
+            }
+            if (dropped) {
+                // Завершение потока событий ожидает окончания записи, поэтому выполняется потоком записи.
+                emitter.complete();
+                return;
+            }
+            scheduled.set(false);
+            if (pending.get() != null) {
+                schedule(coalesceMillis);
+            }
+        }
+
+        /**
+         * Отправляет событие клиенту.
+         * @param event Событие.
+         */
+        private void send(BalanceEventDTO event) {
+            writeStartedAt = System.nanoTime();
+            try {
+                if (event == HEARTBEAT) {
+                    emitter.send(SseEmitter.event().comment("heartbeat"));
+                } else {
+                    emitter.send(SseEmitter.event().name(EVENT_NAME).data(event, MediaType.APPLICATION_JSON));
+                }
+            } catch (IOException | IllegalStateException ex) {
+                log.warn("IN send - подписка на изменения баланса счета с идентификатором: {} разорвана", accountId);
+                // Контейнер сервлетов сам завершает асинхронный запрос после ошибки записи.
+                remove();
+            } finally {
+                writeStartedAt = 0;
+            }
+        }
+
+        /**
+         * Завершает поток событий.
+         */
+        private void complete() {
+            remove();
+            emitter.complete();
+        }
+
+        /**
+         * Отключает подписчика с зависшей записью. Поток событий завершается потоком записи после ее окончания.
+         * @return true, если подписчик был отключен этим вызовом.
+         */
+        private boolean drop() {
+            if (removed.get()) {
+                return false;
+            }
+            dropped = true;
+            remove();
+            return true;
+        }
+
+        /**
+         * Удаляет подписчика.
+         */
+        private void remove() {
+            if (removed.compareAndSet(false, true)) {
+                subscriberCount.decrementAndGet();
+                subscribers.computeIfPresent(accountId, (id, accountSubscribers) -> {
+                    accountSubscribers.remove(this);
+                    return accountSubscribers.isEmpty() ? null : accountSubscribers;
+                });
+            }
+        }
+    }
+}
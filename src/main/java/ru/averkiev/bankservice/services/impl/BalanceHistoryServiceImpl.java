@@ -0,0 +1,129 @@
+package ru.averkiev.bankservice.services.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import ru.averkiev.bankservice.engine.LedgerEngine;
+import ru.averkiev.bankservice.exceptions.AccountNotFoundException;
+import ru.averkiev.bankservice.exceptions.LedgerHistoryUnavailableException;
+import ru.averkiev.bankservice.models.BalanceAtDTO;
+import ru.averkiev.bankservice.models.BalanceSnapshot;
+import ru.averkiev.bankservice.models.Money;
+import ru.averkiev.bankservice.repositories.AccountRepository;
+import ru.averkiev.bankservice.repositories.BalanceSnapshotRepository;
+import ru.averkiev.bankservice.repositories.LedgerEntryRepository;
+import ru.averkiev.bankservice.services.BalanceHistoryService;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.Optional;
+
+/**
+ * Реализация сервиса получения исторических балансов счетов.
+ * Баланс на момент времени вычисляется от ближайшего предшествующего снимка с добавлением только проводок,
+ * созданных после него. Снимки создаются фоновым заданием с настраиваемым интервалом; момент снимка отстает
+ * от текущего времени на bank.snapshots.settle-lag-ms, чтобы в снимок попадали только зафиксированные проводки.
+ * Движок учета балансов не записывает проводки, поэтому в профиле ledger-engine исторические балансы недоступны,
+ * а снимки не создаются.
+ * @author mrGreenNV
+ */
+@Service
+@Slf4j
+public class BalanceHistoryServiceImpl implements BalanceHistoryService {
+
+    /** Репозиторий для взаимодействия со снимками балансов */
+    private final BalanceSnapshotRepository balanceSnapshotRepository;
+
+    /** Репозиторий для взаимодействия с проводками */
+    private final LedgerEntryRepository ledgerEntryRepository;
+
+    /** Репозиторий для взаимодействия со счетами */
+    private final AccountRepository accountRepository;
+
+    /** Движок учета балансов, доступен только в профиле ledger-engine */
+    private final ObjectProvider<LedgerEngine> ledgerEngineProvider;
+
+    /** Отставание момента снимка от текущего времени в миллисекундах */
+    private final long settleLagMillis;
+
+    /**
+     * Создает сервис получения исторических балансов.
+     * @param balanceSnapshotRepository Репозиторий для взаимодействия со снимками балансов.
+     * @param ledgerEntryRepository Репозиторий для взаимодействия с проводками.
+     * @param accountRepository Репозиторий для взаимодействия со счетами.
+     * @param ledgerEngineProvider Движок учета балансов, если он включен.
+     * @param settleLagMillis Отставание момента снимка от текущего времени в миллисекундах.
+     */
+    public BalanceHistoryServiceImpl(BalanceSnapshotRepository balanceSnapshotRepository,
+                                     LedgerEntryRepository ledgerEntryRepository,
+                                     AccountRepository accountRepository,
+                                     ObjectProvider<LedgerEngine> ledgerEngineProvider,
+                                     @Value("${bank.snapshots.settle-lag-ms:5000}") long settleLagMillis) {
+        this.balanceSnapshotRepository = balanceSnapshotRepository;
+        this.ledgerEntryRepository = ledgerEntryRepository;
+        this.accountRepository = accountRepository;
+        this.ledgerEngineProvider = ledgerEngineProvider;
+        this.settleLagMillis = settleLagMillis;
+    }
+
+    /**
+     * Получает баланс счета на момент времени.
+     * @param accountId Идентификатор счета.
+     * @param at Момент времени.
+     * @return Баланс счета на момент времени.
+     * @throws AccountNotFoundException Выбрасывает, если счет не найден.
+     * @throws LedgerHistoryUnavailableException Выбрасывает в профиле ledger-engine, в котором проводки не записываются.
+     */
+    @Override
+    public BalanceAtDTO getBalanceAt(Long accountId, LocalDateTime at)
+            throws AccountNotFoundException {
+
+        if (ledgerEngineProvider.getIfAvailable() != null) {
+            log.error("IN getBalanceAt - баланс счета с идентификатором: {} на момент: {} не вычислен", accountId, at);
+            throw new LedgerHistoryUnavailableException("Исторические балансы недоступны при учете балансов в движке");
+        }
+
+        if (!accountRepository.existsById(accountId)) {
+            log.error("IN getBalanceAt - счет с идентификатором: {} не найден", accountId);
+            throw new AccountNotFoundException("Счет с идентификатором: " + accountId + " не найден");
+        }
+
+        Date moment = Timestamp.valueOf(at);
+        Optional<BalanceSnapshot> snapshot = balanceSnapshotRepository.findLatestAt(accountId, moment);
+        Money balance = snapshot.map(BalanceSnapshot::getBalance).orElse(Money.ZERO);
+        Date after = snapshot.map(BalanceSnapshot::getSnapshotAt).orElse(new Date(0));
+
+        balance = balance.plus(Money.ofMinorUnits(ledgerEntryRepository.sumAmountBetween(accountId, after, moment)));
+
+        log.info("IN getBalanceAt - баланс счета с идентификатором: {} на момент: {} вычислен", accountId, at);
+        return new BalanceAtDTO(accountId, balance, at);
+    }
+
+    /**
+     * Создает снимки балансов счетов, по которым были операции после предыдущего снимка.
+     * @return Количество созданных снимков.
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${bank.snapshots.interval-ms:3600000}",
+            initialDelayString = "${bank.snapshots.interval-ms:3600000}")
+    public int takeSnapshots() {
+        if (ledgerEngineProvider.getIfAvailable() != null) {
+            return 0;
+        }
+        Date previous = balanceSnapshotRepository.findLastSnapshotAt();
+        Date snapshotAt = new Timestamp(System.currentTimeMillis() - settleLagMillis);
+        if (previous == null) {
+            previous = new Date(0);
+        }
+        if (!snapshotAt.after(previous)) {
+            return 0;
+        }
+
+        int created = balanceSnapshotRepository.insertSnapshots(previous, snapshotAt);
+        log.info("IN takeSnapshots - создано снимков балансов: {} на момент: {}", created, snapshotAt);
+        return created;
+    }
+}
@@ -0,0 +1,253 @@
+package ru.averkiev.bankservice.services.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.averkiev.bankservice.engine.LongLongHashMap;
+import ru.averkiev.bankservice.exceptions.AccountNotFoundException;
+import ru.averkiev.bankservice.exceptions.AccountWithdrawException;
+import ru.averkiev.bankservice.models.LedgerEntry;
+import ru.averkiev.bankservice.models.LedgerEntryType;
+import ru.averkiev.bankservice.models.Money;
+import ru.averkiev.bankservice.repositories.AccountRepository;
+import ru.averkiev.bankservice.repositories.LedgerEntryRepository;
+import ru.averkiev.bankservice.services.LedgerService;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Реализация сервиса журнала проводок по счетам.
+ * В синхронном режиме (по умолчанию) баланс счета обновляется вызывающим сервисом, а проводки записываются
+ * как уже учтенные. В асинхронном режиме (bank.ledger.materialization=async) операции только добавляют проводки,
+ * а фоновый процесс пачками переносит их суммы в таблицу accounts. Списания одного счета выполняются
+ * последовательно под блокировкой, чтобы проверка достаточности средств и запись проводок были атомарными.
+ * @author mrGreenNV
+ */
+@Service
+@Slf4j
+public class LedgerServiceImpl implements LedgerService {
+
+    /** Количество блокировок, между которыми распределяются счета */
+    private static final int LOCK_STRIPES = 256;
+
+    /** Репозиторий для взаимодействия с проводками */
+    private final LedgerEntryRepository ledgerEntryRepository;
+
+    /** Репозиторий для взаимодействия со счетами */
+    private final AccountRepository accountRepository;
+
+    /** Позволяет выполнять запросы в транзакции */
+    private final TransactionTemplate transactionTemplate;
+
+    /** Признак асинхронного учета проводок в балансах счетов */
+    private final boolean asyncMaterialization;
+
+    /** Максимальное количество проводок, учитываемых в одной транзакции */
+    private final int batchSize;
+
+    /** Блокировки списаний по счетам */
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+
+    /**
+     * Создает сервис журнала проводок.
+     * @param ledgerEntryRepository Репозиторий для взаимодействия с проводками.
+     * @param accountRepository Репозиторий для взаимодействия со счетами.
+     * @param transactionManager Менеджер транзакций.
+     * @param materialization Режим учета проводок в балансах: sync или async.
+     * @param batchSize Максимальное количество проводок, учитываемых в одной транзакции.
+     */
+    public LedgerServiceImpl(LedgerEntryRepository ledgerEntryRepository,
+                             AccountRepository accountRepository,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${bank.ledger.materialization:sync}") String materialization,
+                             @Value("${bank.ledger.materializer.batch-size:1000}") int batchSize) {
+        this.ledgerEntryRepository = ledgerEntryRepository;
+        this.accountRepository = accountRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.asyncMaterialization = "async".equalsIgnoreCase(materialization);
+        this.batchSize = batchSize;
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    @Override
+    public boolean isAsyncMaterialization() {
+        return asyncMaterialization;
+    }
+
+    /**
+     * Получает баланс счета с учетом проводок, еще не учтенных в таблице accounts.
+     * @param accountId Идентификатор счета.
+     * @return Баланс счета.
+     * @throws AccountNotFoundException Выбрасывает, если счет не найден.
+     */
+    @Override
+    public Money getConsistentBalance(Long accountId)
+            throws AccountNotFoundException {
+        return ledgerEntryRepository.findConsistentBalance(accountId).map(Money::ofMinorUnits).orElseThrow(() -> {
+            log.error("IN getConsistentBalance - счет с идентификатором: {} не найден", accountId);
+            return new AccountNotFoundException("Счет с идентификатором: " + accountId + " не найден");
+        });
+    }
+
+    /**
+     * Записывает проводки операции, уже отраженной в балансах счетов.
+     * @param entryType Тип операции.
+     * @param accountId Идентификатор счета списания или null для внешнего счета.
+     * @param destinationAccountId Идентификатор счета зачисления или null для внешнего счета.
+     * @param amount Сумма операции.
+     */
+    @Override
+    public void record(LedgerEntryType entryType, Long accountId, Long destinationAccountId, Money amount) {
+        saveEntries(entryType, accountId, destinationAccountId, amount, true);
+    }
+
+    /**
+     * Записывает проводки пополнения счета для асинхронного учета в балансе.
+     * @param accountId Идентификатор счета.
+     * @param amount Сумма пополнения.
+     * @return Баланс счета после пополнения.
+     */
+    @Override
+    public Money deposit(Long accountId, Money amount) {
+        saveEntries(LedgerEntryType.DEPOSIT, null, accountId, amount, false);
+        return getConsistentBalance(accountId);
+    }
+
+    /**
+     * Проверяет достаточность средств и записывает проводки списания для асинхронного учета в балансе.
+     * @param accountId Идентификатор счета.
+     * @param amount Сумма списания.
+     * @return Баланс счета после списания.
+     * @throws AccountWithdrawException Выбрасывает, если средств на счете недостаточно.
+     */
+    @Override
+    public Money withdraw(Long accountId, Money amount)
+            throws AccountWithdrawException {
+        ReentrantLock lock = lockFor(accountId);
+        lock.lock();
+        try {
+            Money balance = getConsistentBalance(accountId);
+            if (balance.isLessThan(amount)) {
+                log.error("IN withdraw - списание средств со счета с идентификатором: {} не прошло", accountId);
+                throw new AccountWithdrawException("Сумма списания должна быть не больше текущего баланса");
+            }
+            saveEntries(LedgerEntryType.WITHDRAW, accountId, null, amount, false);
+            return balance.minus(amount);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Проверяет достаточность средств и записывает проводки перевода для асинхронного учета в балансах.
+     * @param accountId Идентификатор счета списания.
+     * @param destinationAccountId Идентификатор счета зачисления.
+     * @param amount Сумма перевода.
+     * @return Баланс счета списания после перевода.
+     * @throws AccountWithdrawException Выбрасывает, если средств на счете недостаточно.
+     */
+    @Override
+    public Money transfer(Long accountId, Long destinationAccountId, Money amount)
+            throws AccountWithdrawException {
+        ReentrantLock lock = lockFor(accountId);
+        lock.lock();
+        try {
+            Money balance = getConsistentBalance(accountId);
+            if (balance.isLessThan(amount)) {
+                log.error("IN transfer - перевод средств со счета с идентификатором: {} не прошел", accountId);
+                throw new AccountWithdrawException("Сумма перевода должна быть не больше текущего баланса");
+            }
+            saveEntries(LedgerEntryType.TRANSFER, accountId, destinationAccountId, amount, false);
+            return balance.minus(amount);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Учитывает очередную пачку проводок в балансах счетов. Изменения балансов и отметка проводок
+     * выполняются в одной транзакции.
+     * @return Количество учтенных проводок.
+     */
+    @Override
+    public int materialize() {
+        Integer materialized = transactionTemplate.execute(status -> {
+            List<LedgerEntry> entries = ledgerEntryRepository.findByMaterializedFalseOrderById(PageRequest.of(0, batchSize));
+            if (entries.isEmpty()) {
+                return 0;
+            }
+
+            LongLongHashMap deltas = new LongLongHashMap(entries.size());
+            for (LedgerEntry entry : entries) {
+                if (entry.getAccountId() != null) {
+                    long accountId = entry.getAccountId();
+                    deltas.put(accountId, Math.addExact(deltas.get(accountId, 0), entry.getAmount().getMinorUnits()));
+                }
+            }
+            deltas.forEach(accountRepository::addToBalance);
+            ledgerEntryRepository.markMaterialized(entries.stream().map(LedgerEntry::getId).toList());
+            return entries.size();
+        });
+        return materialized == null ? 0 : materialized;
+    }
+
+    /**
+     * Периодически учитывает накопленные проводки в балансах счетов, пока очередь проводок не опустеет.
+     */
+    @Scheduled(fixedDelayString = "${bank.ledger.materializer.interval-ms:200}")
+    public void materializePending() {
+        if (!asyncMaterialization) {
+            return;
+        }
+        int materialized;
+        int total = 0;
+        do {
+            materialized = materialize();
+            total += materialized;
+        } while (materialized == batchSize);
+
+        if (total > 0) {
+            log.info("IN materializePending - учтено проводок: {}", total);
+        }
+    }
+
+    /**
+     * Записывает пару проводок операции.
+     * @param entryType Тип операции.
+     * @param accountId Идентификатор счета списания или null для внешнего счета.
+     * @param destinationAccountId Идентификатор счета зачисления или null для внешнего счета.
+     * @param amount Сумма операции.
+     * @param materialized Признак учета проводок в балансах счетов.
+     */
+    private void saveEntries(LedgerEntryType entryType, Long accountId, Long destinationAccountId, Money amount,
+                             boolean materialized) {
+        String operationId = UUID.randomUUID().toString();
+        ledgerEntryRepository.saveAll(List.of(
+                entry(operationId, entryType, accountId, amount.negate(), materialized),
+                entry(operationId, entryType, destinationAccountId, amount, materialized)
+        ));
+    }
+
+    private LedgerEntry entry(String operationId, LedgerEntryType entryType, Long accountId, Money amount,
+                              boolean materialized) {
+        LedgerEntry entry = new LedgerEntry();
+        entry.setOperationId(operationId);
+        entry.setEntryType(entryType);
+        entry.setAccountId(accountId);
+        entry.setAmount(amount);
+        entry.setMaterialized(materialized);
+        return entry;
+    }
+
+    private ReentrantLock lockFor(Long accountId) {
+        return locks[Math.floorMod(Long.hashCode(accountId), LOCK_STRIPES)];
+    }
+}
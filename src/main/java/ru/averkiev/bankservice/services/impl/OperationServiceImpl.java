@@ -0,0 +1,290 @@
+package ru.averkiev.bankservice.services.impl;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import ru.averkiev.bankservice.exceptions.*;
+import ru.averkiev.bankservice.models.*;
+import ru.averkiev.bankservice.repositories.AccountRepository;
+import ru.averkiev.bankservice.services.AccountService;
+import ru.averkiev.bankservice.services.OperationService;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Реализация сервиса асинхронного выполнения операций со счетами.
+ * Переводы распределяются по рабочим потокам по идентификатору счета списания, поэтому операции одного счета
+ * выполняются последовательно и в порядке поступления. У каждого рабочего потока своя ограниченная очередь;
+ * при ее заполнении новые операции отклоняются.
+ * Состояние операций хранится в памяти, при этом сохраняется ограниченное количество последних завершенных операций.
+ * @author mrGreenNV
+ */
+@Service
+@Slf4j
+public class OperationServiceImpl implements OperationService {
+
+    /** Максимальное время ожидания завершения операций из очереди при остановке приложения в секундах */
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 30;
+
+    /** Сервис для взаимодействия со счетами */
+    private final AccountService accountService;
+
+    /** Репозиторий для взаимодействия с базой данных */
+    private final AccountRepository accountRepository;
+
+    /** Очереди операций рабочих потоков */
+    private final BlockingQueue<TransferOperation>[] queues;
+
+    /** Рабочие потоки */
+    private final Thread[] workers;
+
+    /** Операции по идентификаторам */
+    private final Map<String, TransferOperation> operations = new ConcurrentHashMap<>();
+
+    /** Идентификаторы завершенных операций в порядке завершения */
+    private final Queue<String> finishedOperations = new ConcurrentLinkedQueue<>();
+
+    /** Количество сохраненных завершенных операций */
+    private final AtomicInteger finishedCount = new AtomicInteger();
+
+    /** Максимальное количество сохраненных завершенных операций */
+    private final int retainedOperations;
+
+    /** Признак приема новых операций */
+    private volatile boolean running;
+
+    /**
+     * Создает сервис асинхронного выполнения операций.
+     * @param accountService Сервис для взаимодействия со счетами.
+     * @param accountRepository Репозиторий для взаимодействия с базой данных.
+     * @param workers Количество рабочих потоков.
+     * @param queueCapacity Суммарная емкость очередей операций.
+     * @param retainedOperations Максимальное количество сохраненных завершенных операций.
+     */
+    @SuppressWarnings("unchecked")
+    public OperationServiceImpl(AccountService accountService,
+                                AccountRepository accountRepository,
+                                @Value("${bank.async-transfer.workers:4}") int workers,
+                                @Value("${bank.async-transfer.queue-capacity:10000}") int queueCapacity,
+                                @Value("${bank.async-transfer.retained-operations:100000}") int retainedOperations) {
+        this.accountService = accountService;
+        this.accountRepository = accountRepository;
+        this.retainedOperations = retainedOperations;
+        this.queues = new BlockingQueue[workers];
+        this.workers = new Thread[workers];
+        for (int i = 0; i < workers; i++) {
+            queues[i] = new ArrayBlockingQueue<>(Math.max(1, queueCapacity / workers));
+        }
+    }
+
+    /**
+     * Запускает рабочие потоки.
+     */
+    @PostConstruct
+    public void start() {
+        running = true;
+        for (int i = 0; i < workers.length; i++) {
+            BlockingQueue<TransferOperation> queue = queues[i];
+            workers[i] = new Thread(() -> drain(queue), "transfer-worker-" + i);
+            workers[i].setDaemon(true);
+            workers[i].start();
+        }
+    }
+
+    /**
+     * Прекращает прием операций и ожидает выполнения операций, уже находящихся в очередях.
+     * @throws InterruptedException Выбрасывает при прерывании ожидания.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(SHUTDOWN_TIMEOUT_SECONDS);
+        for (Thread worker : workers) {
+            worker.join(Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())));
+        }
+    }
+
+    /**
+     * Выполняет быструю проверку данных перевода и ставит перевод в очередь на выполнение.
+     * Пин-код проверяется при выполнении перевода.
+     * @param accountId Идентификатор счета, с которого происходит списание средств.
+     * @param accountTransactionDTO Данные для перевода средств.
+     * @return Информация о принятой операции.
+     * @throws AccountNotFoundException Выбрасывает, если счет списания или зачисления не найден.
+     * @throws AccountWithdrawException Выбрасывает при некорректной сумме перевода.
+     * @throws OperationRejectedException Выбрасывает при переполнении очереди операций.
+     */
+    @Override
+    public OperationDTO submitTransfer(Long accountId, AccountTransactionDTO accountTransactionDTO)
+            throws AccountNotFoundException, AccountWithdrawException, OperationRejectedException {
+
+        Money amount = accountTransactionDTO.getTransferAmount();
+        if (amount == null || !amount.isPositive()) {
+            log.error("IN submitTransfer - перевод средств со счета с идентификатором: {} не принят", accountId);
+            throw new AccountWithdrawException("Сумма перевода должна быть положительной и не может быть пустой");
+        }
+
+        if (!accountRepository.existsById(accountId)) {
+            log.error("IN submitTransfer - счет с идентификатором: {} не найден", accountId);
+            throw new AccountNotFoundException("Счет с идентификатором: " + accountId + " не найден");
+        }
+
+        String sourceAccountName = accountTransactionDTO.getSourceAccountName();
+        if (sourceAccountName == null || !accountRepository.existsNotDeletedAccountByAccountName(sourceAccountName)) {
+            log.error("IN submitTransfer - счет с названием: {} не найден", sourceAccountName);
+            throw new AccountNotFoundException("Счет с названием: " + sourceAccountName + " не найден");
+        }
+
+        TransferOperation operation = new TransferOperation(UUID.randomUUID().toString(), accountId, accountTransactionDTO);
+        BlockingQueue<TransferOperation> queue = queues[Math.floorMod(Long.hashCode(accountId), queues.length)];
+
+        // Снимок формируется до постановки в очередь: рабочий поток может завершить операцию раньше ответа клиенту.
+        OperationDTO accepted = operation.toDTO();
+        operations.put(operation.id, operation);
+        if (!running || !queue.offer(operation)) {
+            operations.remove(operation.id);
+            log.error("IN submitTransfer - перевод средств со счета с идентификатором: {} не принят, очередь переполнена", accountId);
+            throw new OperationRejectedException("Очередь операций переполнена, повторите запрос позже");
+        }
+
+        log.info("IN submitTransfer - перевод средств со счета с идентификатором: {} принят, операция: {}", accountId, operation.id);
+        return accepted;
+    }
+
+    /**
+     * Получает состояние операции по ее идентификатору.
+     * @param operationId Идентификатор операции.
+     * @return Информация об операции.
+     * @throws OperationNotFoundException Выбрасывает, если операция не найдена.
+     */
+    @Override
+    public OperationDTO getOperation(String operationId)
+            throws OperationNotFoundException {
+        TransferOperation operation = operations.get(operationId);
+
+        if (operation == null) {
+            log.error("IN getOperation - операция с идентификатором: {} не найдена", operationId);
+            throw new OperationNotFoundException("Операция с идентификатором: " + operationId + " не найдена");
+        }
+
+        return operation.toDTO();
+    }
+
+    /**
+     * Выполняет операции из очереди рабочего потока.
+     * @param queue Очередь операций.
+     */
+    private void drain(BlockingQueue<TransferOperation> queue) {
+        while (running || !queue.isEmpty()) {
+            TransferOperation operation;
+            try {
+                operation = queue.poll(100, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (operation != null) {
+                execute(operation);
+            }
+        }
+    }
+
+    /**
+     * Выполняет перевод средств и сохраняет результат операции.
+     * @param operation Операция перевода.
+     */
+    private void execute(TransferOperation operation) {
+        operation.status = OperationStatus.PROCESSING;
+        try {
+            operation.result = accountService.transfer(operation.accountId, operation.transaction);
+            operation.completedAt = LocalDateTime.now();
+            operation.status = OperationStatus.COMPLETED;
+        } catch (Throwable ex) {
+            // Перехватываются и ошибки уровня Error: иначе поток обработки очереди завершится, а операция останется в статусе PROCESSING.
+            log.error("IN execute - операция с идентификатором: {} завершилась ошибкой", operation.id, ex);
+            operation.errorMessage = ex.getMessage();
+            operation.completedAt = LocalDateTime.now();
+            operation.status = OperationStatus.FAILED;
+        } finally {
+            // Данные перевода содержат пин-код и не нужны после выполнения, а операция хранится до вытеснения.
+            operation.transaction = null;
+        }
+        retain(operation.id);
+    }
+
+    /**
+     * Сохраняет идентификатор завершенной операции и удаляет самые старые завершенные операции сверх лимита.
+     * @param operationId Идентификатор завершенной операции.
+     */
+    private void retain(String operationId) {
+        finishedOperations.add(operationId);
+        if (finishedCount.incrementAndGet() > retainedOperations) {
+            String evicted = finishedOperations.poll();
+            if (evicted != null) {
+                finishedCount.decrementAndGet();
+                operations.remove(evicted);
+            }
+        }
+    }
+
+    /**
+     * Операция перевода средств, ожидающая выполнения.
+     */
+    private static class TransferOperation {
+
+        /** Идентификатор операции */
+        private final String id;
+
+        /** Идентификатор счета, с которого происходит списание средств */
+        private final Long accountId;
+
+        /** Данные для перевода средств, удаляются после выполнения перевода */
+        private AccountTransactionDTO transaction;
+
+        /** Время приема операции */
+        private final LocalDateTime createdAt = LocalDateTime.now();
+
+        /** Статус операции */
+        private volatile OperationStatus status = OperationStatus.PENDING;
+
+        /** Информация о счете после выполнения перевода */
+        private volatile AccountInfoDTO result;
+
+        /** Сообщение об ошибке */
+        private volatile String errorMessage;
+
+        /** Время завершения операции */
+        private volatile LocalDateTime completedAt;
+
+        private TransferOperation(String id, Long accountId, AccountTransactionDTO transaction) {
+            this.id = id;
+            this.accountId = accountId;
+            this.transaction = transaction;
+        }
+
+        /**
+         * Формирует снимок состояния операции.
+         * Статус читается первым: результат операции записывается до статуса, поэтому для завершенной операции
+         * результат всегда виден.
+         * @return Информация об операции.
+         */
+        private OperationDTO toDTO() {
+            OperationDTO operationDTO = new OperationDTO();
+            operationDTO.setStatus(status);
+            operationDTO.setId(id);
+            operationDTO.setAccountId(accountId);
+            operationDTO.setCreatedAt(createdAt);
+            operationDTO.setResult(result);
+            operationDTO.setErrorMessage(errorMessage);
+            operationDTO.setCompletedAt(completedAt);
+            return operationDTO;
+        }
+    }
+}
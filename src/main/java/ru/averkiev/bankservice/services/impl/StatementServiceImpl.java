@@ -0,0 +1,129 @@
+package ru.averkiev.bankservice.services.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.averkiev.bankservice.engine.LedgerEngine;
+import ru.averkiev.bankservice.exceptions.AccountNotFoundException;
+import ru.averkiev.bankservice.exceptions.LedgerHistoryUnavailableException;
+import ru.averkiev.bankservice.models.StatementEntryDTO;
+import ru.averkiev.bankservice.repositories.AccountRepository;
+import ru.averkiev.bankservice.repositories.LedgerEntryRepository;
+import ru.averkiev.bankservice.services.StatementService;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Реализация сервиса формирования выписок по счетам.
+ * Выписка читается частями по ключу (время, идентификатор проводки) и записывается в ответ по мере чтения,
+ * поэтому в памяти одновременно находится не более одной части.
+ * Выписка строится по проводкам, которые движок учета балансов не записывает, поэтому в профиле ledger-engine
+ * она недоступна.
+ * @author mrGreenNV
+ */
+@Service
+@Slf4j
+public class StatementServiceImpl implements StatementService {
+
+    /** Репозиторий для взаимодействия с проводками */
+    private final LedgerEntryRepository ledgerEntryRepository;
+
+    /** Репозиторий для взаимодействия со счетами */
+    private final AccountRepository accountRepository;
+
+    /** Позволяет преобразовывать строки выписки в JSON */
+    private final ObjectMapper objectMapper;
+
+    /** Движок учета балансов, доступен только в профиле ledger-engine */
+    private final ObjectProvider<LedgerEngine> ledgerEngineProvider;
+
+    /** Количество строк, читаемых одним запросом */
+    private final int chunkSize;
+
+    /**
+     * Создает сервис формирования выписок.
+     * @param ledgerEntryRepository Репозиторий для взаимодействия с проводками.
+     * @param accountRepository Репозиторий для взаимодействия со счетами.
+     * @param objectMapper Позволяет преобразовывать строки выписки в JSON.
+     * @param ledgerEngineProvider Движок учета балансов, если он включен.
+     * @param chunkSize Количество строк, читаемых одним запросом.
+     */
+    public StatementServiceImpl(LedgerEntryRepository ledgerEntryRepository,
+                                AccountRepository accountRepository,
+                                ObjectMapper objectMapper,
+                                ObjectProvider<LedgerEngine> ledgerEngineProvider,
+                                @Value("${bank.statement.chunk-size:1000}") int chunkSize) {
+        this.ledgerEntryRepository = ledgerEntryRepository;
+        this.accountRepository = accountRepository;
+        this.objectMapper = objectMapper;
+        this.ledgerEngineProvider = ledgerEngineProvider;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Проверяет параметры выписки и формирует тело ответа, которое записывает выписку по частям.
+     * @param accountId Идентификатор счета.
+     * @param from Время начала периода, включительно, или null для выписки с открытия счета.
+     * @param to Время окончания периода, не включительно, или null для выписки по текущий момент.
+     * @return Тело ответа, записывающее выписку в виде JSON-массива.
+     * @throws AccountNotFoundException Выбрасывает, если счет не найден.
+     * @throws LedgerHistoryUnavailableException Выбрасывает в профиле ledger-engine, в котором проводки не записываются.
+     */
+    @Override
+    public StreamingResponseBody getStatement(Long accountId, LocalDateTime from, LocalDateTime to)
+            throws AccountNotFoundException {
+
+        // Проверка выполняется до формирования тела ответа: после начала записи выписки статус ответа уже не изменить.
+        if (ledgerEngineProvider.getIfAvailable() != null) {
+            log.error("IN getStatement - выписка по счету с идентификатором: {} не сформирована", accountId);
+            throw new LedgerHistoryUnavailableException("Выписки по счетам недоступны при учете балансов в движке");
+        }
+
+        if (!accountRepository.existsById(accountId)) {
+            log.error("IN getStatement - счет с идентификатором: {} не найден", accountId);
+            throw new AccountNotFoundException("Счет с идентификатором: " + accountId + " не найден");
+        }
+
+        Date start = from == null ? new Date(0) : Timestamp.valueOf(from);
+        Date end = to == null ? new Date() : Timestamp.valueOf(to);
+        if (!start.before(end)) {
+            log.error("IN getStatement - выписка по счету с идентификатором: {} не сформирована", accountId);
+            throw new IllegalArgumentException("Начало периода выписки должно быть раньше его окончания");
+        }
+
+        return outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.writeStartArray();
+                long rows = 0;
+                // Идентификаторы проводок положительные, поэтому первая часть начинается со всех строк со временем start.
+                Date afterCreatedAt = start;
+                Long afterId = 0L;
+                List<StatementEntryDTO> chunk;
+                do {
+                    chunk = ledgerEntryRepository.findStatementPage(accountId, afterCreatedAt, afterId, end,
+                            PageRequest.of(0, chunkSize));
+                    for (StatementEntryDTO entry : chunk) {
+                        generator.writeObject(entry);
+                    }
+                    generator.flush();
+                    rows += chunk.size();
+                    if (!chunk.isEmpty()) {
+                        StatementEntryDTO last = chunk.get(chunk.size() - 1);
+                        afterCreatedAt = last.getCreatedAt();
+                        afterId = last.getId();
+                    }
+                } while (chunk.size() == chunkSize);
+                generator.writeEndArray();
+                log.info("IN getStatement - выписка по счету с идентификатором: {} сформирована, строк: {}", accountId, rows);
+            }
+        };
+    }
+}
@@ -0,0 +1,100 @@
+package ru.averkiev.bankservice.storage;
+
+import lombok.extern.slf4j.Slf4j;
+import org.h2.engine.Session;
+import org.h2.engine.SessionLocal;
+import org.h2.jdbc.JdbcConnection;
+import org.h2.mvstore.MVStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Обслуживание файла базы данных H2 (MVStore) в профиле durable.
+ * Раз в bank.storage.checkpoint-interval-ms выполняет контрольную точку с синхронизацией файла с диском, ограничивая
+ * потерю зафиксированных транзакций при отключении питания. По расписанию bank.storage.compaction-cron уплотняет
+ * файл: частично заполненные блоки переписываются, пока их заполненность не достигнет
+ * bank.storage.compaction-fill-rate или не истечет bank.storage.compaction-max-time-ms.
+ * @author mrGreenNV
+ */
+@Component
+@Profile("durable")
+@Slf4j
+public class DurableStorageMaintenance {
+
+    /** Объем данных, переписываемый за один шаг уплотнения, в байтах */
+    static final int COMPACTION_STEP_BYTES = 16 * 1024 * 1024;
+
+    /** Источник данных приложения */
+    private final DataSource dataSource;
+
+    /** Позволяет выполнять служебные команды базы данных */
+    private final JdbcTemplate jdbcTemplate;
+
+    /** Целевая заполненность блоков файла в процентах */
+    private final int compactionFillRate;
+
+    /** Наибольшая длительность уплотнения файла в миллисекундах */
+    private final long compactionMaxTimeMs;
+
+    /**
+     * Создает компонент обслуживания файла базы данных.
+     * @param dataSource Источник данных приложения.
+     * @param compactionFillRate Целевая заполненность блоков файла в процентах.
+     * @param compactionMaxTimeMs Наибольшая длительность уплотнения файла в миллисекундах.
+     */
+    public DurableStorageMaintenance(DataSource dataSource,
+                                     @Value("${bank.storage.compaction-fill-rate:80}") int compactionFillRate,
+                                     @Value("${bank.storage.compaction-max-time-ms:5000}") long compactionMaxTimeMs) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.compactionFillRate = compactionFillRate;
+        this.compactionMaxTimeMs = compactionMaxTimeMs;
+    }
+
+    /**
+     * Записывает изменения в файл базы данных и синхронизирует его с диском.
+     */
+    @Scheduled(fixedDelayString = "${bank.storage.checkpoint-interval-ms:1000}",
+            initialDelayString = "${bank.storage.checkpoint-interval-ms:1000}")
+    public void checkpoint() {
+        jdbcTemplate.execute("CHECKPOINT SYNC");
+    }
+
+    /**
+     * Уплотняет файл базы данных, переписывая частично заполненные блоки.
+     * Уплотнение выполняется шагами, между которыми транзакции приложения не блокируются.
+     * @return Заполненность блоков файла после уплотнения в процентах.
+     * @throws SQLException Выбрасывает при ошибке получения соединения с базой данных.
+     */
+    @Scheduled(cron = "${bank.storage.compaction-cron:0 30 3 * * *}")
+    public int compact() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            Session session = connection.unwrap(JdbcConnection.class).getSession();
+            if (!(session instanceof SessionLocal sessionLocal)) {
+                log.warn("IN compact - база данных открыта в режиме сервера, уплотнение выполняется на сервере");
+                return -1;
+            }
+            MVStore store = sessionLocal.getDatabase().getStore().getMvStore();
+
+            int fillRateBefore = store.getFileStore().getChunksFillRate();
+            long deadline = System.currentTimeMillis() + compactionMaxTimeMs;
+            int steps = 0;
+            while (System.currentTimeMillis() < deadline && store.compact(compactionFillRate, COMPACTION_STEP_BYTES)) {
+                steps++;
+            }
+            store.commit();
+
+            int fillRateAfter = store.getFileStore().getChunksFillRate();
+            log.info("IN compact - файл базы данных уплотнен за {} шагов, заполненность блоков: {}% -> {}%, размер файла: {} байт",
+                    steps, fillRateBefore, fillRateAfter, store.getFileStore().size());
+            return fillRateAfter;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package ru.averkiev.bankservice.utils;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import ru.averkiev.bankservice.models.Money;
+
+/**
+ * Преобразует денежную сумму в столбец BIGINT с суммой в минимальных денежных единицах и обратно.
+ * Применяется ко всем атрибутам сущностей типа {@link Money}.
+ * @author mrGreenNV
+ */
+@Converter(autoApply = true)
+public class MoneyAttributeConverter implements AttributeConverter<Money, Long> {
+
+    @Override
+    public Long convertToDatabaseColumn(Money money) {
+        return money == null ? null : money.getMinorUnits();
+    }
+
+    @Override
+    public Money convertToEntityAttribute(Long minorUnits) {
+        return minorUnits == null ? null : Money.ofMinorUnits(minorUnits);
+    }
+}
@@ -0,0 +1,44 @@
+package ru.averkiev.bankservice.utils;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import ru.averkiev.bankservice.models.Money;
+
+import java.io.IOException;
+
+/**
+ * Читает денежную сумму из JSON-числа или строки с десятичным числом.
+ * Дробные числа читаются из исходного текста без промежуточного double, поэтому сумма не искажается округлением.
+ * Суммы с более чем двумя знаками после запятой отклоняются.
+ * @author mrGreenNV
+ */
+public class MoneyJsonDeserializer extends StdDeserializer<Money> {
+
+    public MoneyJsonDeserializer() {
+        super(Money.class);
+    }
+
+    @Override
+    public Money deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        JsonToken token = parser.currentToken();
+        String text = parser.getText();
+        try {
+            if (token == JsonToken.VALUE_NUMBER_INT) {
+                return Money.ofMinorUnits(Math.multiplyExact(parser.getLongValue(), 100L));
+            }
+            if (token == JsonToken.VALUE_NUMBER_FLOAT) {
+                return Money.of(parser.getDecimalValue());
+            }
+            if (token == JsonToken.VALUE_STRING) {
+                return Money.parse(text.trim());
+            }
+        } catch (ArithmeticException | NumberFormatException | IOException ex) {
+            throw InvalidFormatException.from(parser,
+                    "Сумма должна быть числом с не более чем двумя знаками после запятой", text, Money.class);
+        }
+        return (Money) context.handleUnexpectedToken(Money.class, parser);
+    }
+}
@@ -0,0 +1,25 @@
+package ru.averkiev.bankservice.utils;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import ru.averkiev.bankservice.models.Money;
+
+import java.io.IOException;
+
+/**
+ * Записывает денежную сумму десятичным числом с двумя знаками после запятой.
+ * В двоичных форматах (CBOR, Smile) сумма записывается точным десятичным числом, а не строкой.
+ * @author mrGreenNV
+ */
+public class MoneyJsonSerializer extends StdSerializer<Money> {
+
+    public MoneyJsonSerializer() {
+        super(Money.class);
+    }
+
+    @Override
+    public void serialize(Money money, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        generator.writeNumber(money.toBigDecimal());
+    }
+}
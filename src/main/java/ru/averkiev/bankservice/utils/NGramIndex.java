@@ -0,0 +1,239 @@
+package ru.averkiev.bankservice.utils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Индекс строк в памяти для поиска по началу и по подстроке без учета регистра.
+ * Каждая строка разбивается на n-граммы длиной N; для каждой n-граммы хранятся идентификаторы содержащих ее строк.
+ * Поиск подстроки выбирает самый короткий из списков идентификаторов n-грамм запроса и проверяет строки из него
+ * целиком. Запросы короче N символов ищутся только по началу строки по упорядоченному списку строк, и чтение
+ * прекращается после limit найденных строк.
+ * Изменения выполняются последовательно, поиск - без блокировок; во время изменения поиск может не найти
+ * изменяемую строку, но не возвращает строк, не содержащих запрос.
+ * @author mrGreenNV
+ */
+public class NGramIndex {
+
+    /** Длина n-граммы */
+    public static final int N = 3;
+
+    /** Разделитель строки и идентификатора в ключе упорядоченного списка строк */
+    private static final char KEY_SEPARATOR = '\u0000';
+
+    /** Сравнивает найденные строки: сначала точное совпадение, затем совпадение начала строки, начала слова, подстроки */
+    private static final Comparator<Match> RANKING = Comparator.comparingInt(Match::rank)
+            .thenComparingInt(match -> match.text().length())
+            .thenComparing(Match::text)
+            .thenComparingLong(Match::id);
+
+    /** Проиндексированные строки по идентификаторам */
+    private final ConcurrentMap<Long, Entry> entries = new ConcurrentHashMap<>();
+
+    /** Идентификаторы строк по n-граммам */
+    private final ConcurrentMap<String, Set<Long>> postings = new ConcurrentHashMap<>();
+
+    /** Идентификаторы строк, упорядоченные по строкам в нижнем регистре */
+    private final NavigableMap<String, Long> sorted = new ConcurrentSkipListMap<>();
+
+    /**
+     * Добавляет строку в индекс или заменяет ранее добавленную строку с тем же идентификатором.
+     * @param id Идентификатор строки.
+     * @param text Строка.
+     */
+    public synchronized void put(long id, String text) {
+        remove(id);
+        if (text == null) {
+            return;
+        }
+        Entry entry = new Entry(text, normalize(text));
+        entries.put(id, entry);
+        sorted.put(sortKey(entry.normalized(), id), id);
+        for (String gram : grams(entry.normalized())) {
+            postings.computeIfAbsent(gram, key -> ConcurrentHashMap.newKeySet()).add(id);
+        }
+    }
+
+    /**
+     * Удаляет строку из индекса. Удаление отсутствующей строки не считается ошибкой.
+     * @param id Идентификатор строки.
+     */
+    public synchronized void remove(long id) {
+        Entry entry = entries.remove(id);
+        if (entry == null) {
+            return;
+        }
+        sorted.remove(sortKey(entry.normalized(), id));
+        for (String gram : grams(entry.normalized())) {
+            Set<Long> ids = postings.get(gram);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    /**
+     * Удаляет все строки из индекса.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        postings.clear();
+        sorted.clear();
+    }
+
+    /**
+     * Получает количество строк в индексе.
+     * @return Количество строк.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Выполняет поиск строк, содержащих запрос, без учета регистра.
+     * @param query Искомая подстрока.
+     * @param limit Наибольшее количество результатов.
+     * @return Найденные строки в порядке убывания релевантности: точное совпадение, совпадение начала строки,
+     * совпадение начала слова, остальные; при равной релевантности более короткие строки идут первыми.
+     * Для запросов короче N символов - точное совпадение, затем строки, начинающиеся с запроса, по алфавиту.
+     */
+    public List<Match> search(String query, int limit) {
+        String normalized = normalize(query == null ? "" : query.strip());
+        if (normalized.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        return normalized.length() < N ? searchPrefix(normalized, limit) : searchSubstring(normalized, limit);
+    }
+
+    /**
+     * Выполняет поиск строк, начинающихся с запроса, по упорядоченному списку строк.
+     * Точное совпадение упорядочено перед остальными строками с тем же началом, поэтому сортировка не нужна.
+     * @param normalized Запрос в нижнем регистре.
+     * @param limit Наибольшее количество результатов.
+     * @return Найденные строки: точное совпадение, затем остальные по алфавиту.
+     */
+    private List<Match> searchPrefix(String normalized, int limit) {
+        List<Match> matches = new ArrayList<>();
+        for (Long id : sorted.subMap(normalized, true, normalized + Character.MAX_VALUE, false).values()) {
+            Entry entry = entries.get(id);
+            if (entry != null && entry.normalized().startsWith(normalized)) {
+                matches.add(new Match(id, entry.text(), rank(entry.normalized(), normalized)));
+                if (matches.size() == limit) {
+                    break;
+                }
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Выполняет поиск строк, содержащих запрос, по спискам идентификаторов n-грамм запроса.
+     * @param normalized Запрос в нижнем регистре длиной не менее N символов.
+     * @param limit Наибольшее количество результатов.
+     * @return Найденные строки в порядке убывания релевантности.
+     */
+    private List<Match> searchSubstring(String normalized, int limit) {
+        Set<String> grams = grams(normalized);
+        Set<Long> smallest = null;
+        for (String gram : grams) {
+            Set<Long> ids = postings.get(gram);
+            if (ids == null) {
+                return List.of();
+            }
+            if (smallest == null || ids.size() < smallest.size()) {
+                smallest = ids;
+            }
+        }
+
+        List<Match> matches = new ArrayList<>();
+        for (Long id : smallest) {
+            Entry entry = entries.get(id);
+            if (entry != null && entry.normalized().contains(normalized)) {
+                matches.add(new Match(id, entry.text(), rank(entry.normalized(), normalized)));
+            }
+        }
+        return top(matches, limit);
+    }
+
+    /**
+     * Упорядочивает найденные строки по релевантности и оставляет не более limit первых.
+     * @param matches Найденные строки.
+     * @param limit Наибольшее количество результатов.
+     * @return Первые найденные строки по релевантности.
+     */
+    private static List<Match> top(List<Match> matches, int limit) {
+        matches.sort(RANKING);
+        return matches.size() > limit ? List.copyOf(matches.subList(0, limit)) : matches;
+    }
+
+    /**
+     * Определяет релевантность строки: 0 - точное совпадение, 1 - совпадение начала строки,
+     * 2 - совпадение начала слова, 3 - совпадение подстроки.
+     * @param normalized Строка в нижнем регистре.
+     * @param query Запрос в нижнем регистре.
+     * @return Релевантность, меньшее значение - более релевантная строка.
+     */
+    private static int rank(String normalized, String query) {
+        if (normalized.equals(query)) {
+            return 0;
+        }
+        if (normalized.startsWith(query)) {
+            return 1;
+        }
+        for (int from = normalized.indexOf(query); from > 0; from = normalized.indexOf(query, from + 1)) {
+            if (!Character.isLetterOrDigit(normalized.charAt(from - 1))) {
+                return 2;
+            }
+        }
+        return 3;
+    }
+
+    /**
+     * Разбивает строку на n-граммы длиной N.
+     * @param normalized Строка в нижнем регистре.
+     * @return Различные n-граммы строки.
+     */
+    private static Set<String> grams(String normalized) {
+        Set<String> grams = new HashSet<>();
+        for (int from = 0; from + N <= normalized.length(); from++) {
+            grams.add(normalized.substring(from, from + N));
+        }
+        return grams;
+    }
+
+    private static String normalize(String text) {
+        return text.toLowerCase(Locale.ROOT);
+    }
+
+    private static String sortKey(String normalized, long id) {
+        return normalized + KEY_SEPARATOR + id;
+    }
+
+    /**
+     * Проиндексированная строка.
+     * @param text Исходная строка.
+     * @param normalized Строка в нижнем регистре.
+     */
+    record Entry(String text, String normalized) {
+    }
+
+    /**
+     * Найденная строка.
+     * @param id Идентификатор строки.
+     * @param text Строка.
+     * @param rank Релевантность, меньшее значение - более релевантная строка.
+     */
+    public record Match(long id, String text, int rank) {
+    }
+}
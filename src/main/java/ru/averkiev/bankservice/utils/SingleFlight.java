@@ -0,0 +1,75 @@
+package ru.averkiev.bankservice.utils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Объединяет одновременные загрузки по одному ключу: пока загрузка выполняется, остальные вызовы с тем же ключом
+ * ожидают ее результат вместо повторного обращения к источнику данных. Результат не кешируется: вызов после
+ * завершения загрузки выполняет новую загрузку.
+ * Результат передается всем ожидающим вызовам общим экземпляром, поэтому вызывающий код не должен его изменять.
+ * @param <K> Тип ключа загрузки.
+ * @param <V> Тип загружаемого значения.
+ * @author mrGreenNV
+ */
+public class SingleFlight<K, V> {
+
+    /** Выполняющиеся загрузки по ключам */
+    private final ConcurrentMap<K, CompletableFuture<V>> flights = new ConcurrentHashMap<>();
+
+    /**
+     * Загружает значение по ключу или ожидает результат уже выполняющейся загрузки по этому ключу.
+     * Ошибка загрузки передается всем ожидающим вызовам.
+     * @param key Ключ загрузки.
+     * @param loader Загрузка значения, выполняется в потоке первого вызова.
+     * @return Загруженное значение.
+     */
+    public V execute(K key, Supplier<V> loader) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> existing = flights.putIfAbsent(key, flight);
+        if (existing != null) {
+            return await(existing);
+        }
+
+        try {
+            V value = loader.get();
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error ex) {
+            flight.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            flights.remove(key, flight);
+        }
+    }
+
+    /**
+     * Получает количество выполняющихся загрузок.
+     * @return Количество выполняющихся загрузок.
+     */
+    public int inFlight() {
+        return flights.size();
+    }
+
+    /**
+     * Ожидает результат загрузки, выполняемой другим вызовом.
+     * @param flight Выполняющаяся загрузка.
+     * @return Загруженное значение.
+     */
+    private V await(CompletableFuture<V> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (ex.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw ex;
+        }
+    }
+}
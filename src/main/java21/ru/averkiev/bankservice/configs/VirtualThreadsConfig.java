@@ -0,0 +1,44 @@
+package ru.averkiev.bankservice.configs;
+
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.scheduling.annotation.AsyncAnnotationBeanPostProcessor;
+
+import java.util.concurrent.Executors;
+
+/**
+ * Конфигурация выполнения запросов и асинхронных задач на виртуальных потоках.
+ * Доступна только при сборке под JDK 21 и активном профиле virtual-threads.
+ * Количество одновременных обращений к базе данных по-прежнему ограничено размером пула соединений.
+ * @author mrGreenNV
+ */
+@Configuration
+@Profile("virtual-threads")
+public class VirtualThreadsConfig {
+
+    /**
+     * Создает Bean, переключающий обработку HTTP-запросов Tomcat на виртуальные потоки.
+     * @return настройщик обработчика протокола Tomcat.
+     */
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadsProtocolHandlerCustomizer() {
+        return protocolHandler -> protocolHandler.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    /**
+     * Создает Bean исполнителя асинхронных задач приложения на виртуальных потоках.
+     * @return исполнитель асинхронных задач.
+     */
+    @Bean(name = {
+            TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME,
+            AsyncAnnotationBeanPostProcessor.DEFAULT_TASK_EXECUTOR_BEAN_NAME
+    })
+    public AsyncTaskExecutor applicationTaskExecutor() {
+        return new TaskExecutorAdapter(Executors.newVirtualThreadPerTaskExecutor());
+    }
+}
@@ -0,0 +1,154 @@
+package ru.averkiev.bankservice.configs;
+
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.ReadingConverter;
+import org.springframework.data.convert.WritingConverter;
+import org.springframework.data.r2dbc.convert.R2dbcCustomConversions;
+import org.springframework.data.r2dbc.dialect.DialectResolver;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import ru.averkiev.bankservice.models.Money;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Конфигурация реактивного стека: WebFlux на Netty и доступ к базе данных через R2DBC.
+ * Автоконфигурация R2DBC отключена в application.yaml, чтобы в остальных профилях не создавался второй
+ * менеджер транзакций. Источник данных JDBC объявлен явно, так как автоконфигурация JDBC отключается при наличии
+ * фабрики соединений R2DBC, а он по-прежнему нужен для миграций Liquibase и блокирующего стека.
+ * @author mrGreenNV
+ */
+@Configuration
+@Profile("reactive")
+public class ReactiveConfig {
+
+    /**
+     * Создает Bean фабрики веб-сервера Netty.
+     * @return фабрика реактивного веб-сервера.
+     */
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    /**
+     * Создает Bean настроек источника данных JDBC.
+     * @return настройки источника данных.
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource")
+    public DataSourceProperties dataSourceProperties() {
+        return new DataSourceProperties();
+    }
+
+    /**
+     * Создает Bean источника данных JDBC.
+     * @param dataSourceProperties настройки источника данных.
+     * @return источник данных.
+     */
+    @Bean
+    public DataSource dataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().build();
+    }
+
+    /**
+     * Создает Bean фабрики соединений R2DBC.
+     * @param url URL базы данных R2DBC.
+     * @param username Имя пользователя базы данных.
+     * @param password Пароль пользователя базы данных.
+     * @return фабрика соединений.
+     */
+    @Bean
+    public ConnectionFactory connectionFactory(@Value("${spring.r2dbc.url}") String url,
+                                               @Value("${spring.r2dbc.username}") String username,
+                                               @Value("${spring.r2dbc.password}") String password) {
+        return ConnectionFactories.get(ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build());
+    }
+
+    /**
+     * Создает Bean клиента базы данных, используемого реактивными репозиториями.
+     * @param connectionFactory фабрика соединений.
+     * @return клиент базы данных.
+     */
+    @Bean
+    public DatabaseClient databaseClient(ConnectionFactory connectionFactory) {
+        return DatabaseClient.builder()
+                .connectionFactory(connectionFactory)
+                .bindMarkers(DialectResolver.getDialect(connectionFactory).getBindMarkersFactory())
+                .build();
+    }
+
+    /**
+     * Создает Bean преобразований типов R2DBC: денежные суммы хранятся в минимальных денежных единицах.
+     * @param connectionFactory фабрика соединений.
+     * @return преобразования типов.
+     */
+    @Bean
+    public R2dbcCustomConversions r2dbcCustomConversions(ConnectionFactory connectionFactory) {
+        return R2dbcCustomConversions.of(DialectResolver.getDialect(connectionFactory),
+                List.of(new MoneyReadingConverter(), new MoneyWritingConverter()));
+    }
+
+    /**
+     * Создает Bean для выполнения реактивных цепочек в транзакции.
+     * @param connectionFactory фабрика соединений.
+     * @return транзакционный оператор.
+     */
+    @Bean
+    public TransactionalOperator reactiveTransactionalOperator(ConnectionFactory connectionFactory) {
+        return TransactionalOperator.create(new R2dbcTransactionManager(connectionFactory));
+    }
+
+    /**
+     * Создает Bean ограниченного пула потоков для блокирующих операций BCrypt.
+     * @param threads Максимальное количество потоков.
+     * @param queueCapacity Максимальное количество задач в очереди.
+     * @return планировщик задач.
+     */
+    @Bean(destroyMethod = "dispose")
+    public Scheduler passwordEncoderScheduler(@Value("${bank.reactive.password-encoder.threads:4}") int threads,
+                                              @Value("${bank.reactive.password-encoder.queue-capacity:10000}") int queueCapacity) {
+        return Schedulers.newBoundedElastic(threads, queueCapacity, "password-encoder");
+    }
+
+    /**
+     * Преобразует столбец BIGINT в денежную сумму.
+     */
+    @ReadingConverter
+    private static class MoneyReadingConverter implements Converter<Long, Money> {
+
+        @Override
+        public Money convert(Long minorUnits) {
+            return Money.ofMinorUnits(minorUnits);
+        }
+    }
+
+    /**
+     * Преобразует денежную сумму в столбец BIGINT.
+     */
+    @WritingConverter
+    private static class MoneyWritingConverter implements Converter<Money, Long> {
+
+        @Override
+        public Long convert(Money money) {
+            return money.getMinorUnits();
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package ru.averkiev.bankservice.controllers;
+
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.averkiev.bankservice.models.*;
+import ru.averkiev.bankservice.services.ReactiveAccountService;
+
+/**
+ * Реактивный REST-контроллер для взаимодействия со счетами.
+ * Повторяет API-endpoints {@link AccountsController} и используется вместо него в профиле reactive.
+ * @author mrGreenNV
+ */
+@RestController
+@Profile("reactive")
+@RequiredArgsConstructor
+@RequestMapping("/api/accounts")
+public class ReactiveAccountsController {
+
+    /** Реактивный сервис для взаимодействия со счетами */
+    private final ReactiveAccountService accountService;
+
+    /**
+     * API-endpoint для создания нового банковского счета.
+     * @param accountCreateDTO Данные для создания счета.
+     * @return Информация о созданном счете.
+     */
+    @PostMapping()
+    public Mono<ResponseEntity<AccountInfoDTO>> openAccount(@Valid @RequestBody AccountCreateDTO accountCreateDTO) {
+        return accountService.createAccount(accountCreateDTO)
+                .map(ResponseEntity.status(HttpStatus.OK)::body);
+    }
+
+    /**
+     * API-endpoint для обновления названия банковского счета.
+     * @param accountId Идентификатор обновляемого счета.
+     * @param accountUpdateNameDTO Данные для обновления счета.
+     * @return Информация об обновленном счете.
+     */
+    @PutMapping("/{accountId}")
+    public Mono<ResponseEntity<AccountInfoDTO>> editAccount(@PathVariable Long accountId, @RequestBody AccountUpdateNameDTO accountUpdateNameDTO) {
+        return accountService.updateAccountName(accountId, accountUpdateNameDTO)
+                .map(ResponseEntity.status(HttpStatus.OK)::body);
+    }
+
+    /**
+     * API-endpoint для получения информации о счете по его идентификатору.
+     * @param accountId Идентификатор счета.
+     * @return Информация о запрашиваемом счете.
+     */
+    @GetMapping("/{accountId}")
+    public Mono<ResponseEntity<AccountDTO>> showAccount(@PathVariable Long accountId) {
+        return accountService.getInfoAccount(accountId)
+                .map(ResponseEntity.status(HttpStatus.OK)::body);
+    }
+
+    /**
+     * API-endpoint для получения списка всех банковских счетов.
+     * @return Список счетов содержащий информацию о названии и балансе.
+     */
+    @GetMapping()
+    public Flux<AccountInfoDTO> showAllAccounts(
+            @RequestParam(value = "page", required = false) Integer page,
+            @RequestParam(value = "pageSize", required = false) Integer pageSize
+    ) {
+        if (page == null || pageSize == null) {
+            return accountService.getAllAccounts();
+        }
+        return accountService.getAllAccounts(page, pageSize);
+    }
+
+    /**
+     * API-endpoint для удаления банковского счета.
+     * @param accountId Идентификатор счета.
+     * @return Статус выполнения запроса.
+     */
+    @DeleteMapping("/{accountId}")
+    public Mono<ResponseEntity<HttpStatus>> closeAccount(@PathVariable Long accountId) {
+        return accountService.deleteAccount(accountId)
+                .thenReturn(ResponseEntity.status(HttpStatus.OK).build());
+    }
+
+    /**
+     * API-endpoint для деактивации банковского счета.
+     * @param accountId Идентификатор счета
+     * @return Статус выполнения запроса.
+     */
+    @PostMapping("/{accountId}/soft")
+    public Mono<ResponseEntity<HttpStatus>> deactivateAccount(@PathVariable Long accountId) {
+        return accountService.softDeleteAccount(accountId)
+                .thenReturn(ResponseEntity.status(HttpStatus.OK).build());
+    }
+
+    /**
+     * API-endpoint для пополнения банковского счета.
+     * @param accountId Идентификатор пополняемого счета.
+     * @param accountTransactionDTO Данные для пополнения счета.
+     * @return Информация о пополненном счете.
+     */
+    @PostMapping("/{accountId}/deposit")
+    public Mono<ResponseEntity<AccountInfoDTO>> deposit(@PathVariable Long accountId, @RequestBody AccountTransactionDTO accountTransactionDTO) {
+        return accountService.deposit(accountId, accountTransactionDTO)
+                .map(ResponseEntity.status(HttpStatus.OK)::body);
+    }
+
+    /**
+     * API-endpoint для списания средств с банковского счета.
+     * @param accountId Идентификатор счета, с которого происходит списание.
+     * @param accountTransactionDTO Данные для списания средств со счета.
+     * @return Информация о счете.
+     */
+    @PostMapping("/{accountId}/withdraw")
+    public Mono<ResponseEntity<AccountInfoDTO>> withdraw(@PathVariable Long accountId, @RequestBody AccountTransactionDTO accountTransactionDTO) {
+        return accountService.withdraw(accountId, accountTransactionDTO)
+                .map(ResponseEntity.status(HttpStatus.OK)::body);
+    }
+
+    /**
+     * API-endpoint для перевода средств между банковскими счетами.
+     * @param accountId Идентификатор счета, с которого происходит списание.
+     * @param accountTransactionDTO Данные для перевода средств между счетами.
+     * @return Информация о счете.
+     */
+    @PostMapping("/{accountId}/transfer")
+    public Mono<ResponseEntity<AccountInfoDTO>> transfer(@PathVariable Long accountId, @RequestBody AccountTransactionDTO accountTransactionDTO) {
+        return accountService.transfer(accountId, accountTransactionDTO)
+                .map(ResponseEntity.status(HttpStatus.OK)::body);
+    }
+
+}
@@ -0,0 +1,94 @@
+package ru.averkiev.bankservice.exceptions;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.server.ServerWebExchange;
+import ru.averkiev.bankservice.utils.ErrorResponse;
+
+import java.util.List;
+
+/**
+ * Класс отлавливает все исключения возникающие на уровне реактивного контроллера, для предоставления ошибки клиенту
+ * в виде JSON. Формирует те же ответы, что и {@link GlobalExceptionHandler}.
+ * @author mrGreenNV
+ */
+@ControllerAdvice
+@Profile("reactive")
+public class ReactiveGlobalExceptionHandler {
+
+    /**
+     * Позволяет обработать ошибки связанные с валидацией данных.
+     * @param ex Ошибки при валидации данных.
+     * @param exchange HTTP запрос и ответ.
+     * @return ResponseEntity, содержащий информацию об ошибке.
+     */
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<ErrorResponse> handleValidationException(WebExchangeBindException ex, ServerWebExchange exchange) {
+        List<String> errorMessages = ex.getFieldErrors().stream()
+                .map((FieldError error) -> error.getField() + ": " + error.getDefaultMessage())
+                .toList();
+
+        ErrorResponse response = new ErrorResponse(
+                HttpStatus.UNPROCESSABLE_ENTITY,
+                "Ошибки при валидации данных",
+                exchange.getRequest().getPath().value(),
+                errorMessages
+        );
+        return ResponseEntity.status(response.getStatus()).body(response);
+    }
+
+    /**
+     * Позволяет обработать ошибки связанные с получением доступа к банковскому счету.
+     * @param aEx Ошибка при получении доступа к счету.
+     * @param exchange HTTP запрос и ответ.
+     * @return ResponseEntity, содержащий информацию об ошибке.
+     */
+    @ExceptionHandler(AccountAccessException.class)
+    public ResponseEntity<ErrorResponse> handleAccountAccessException(AccountAccessException aEx, ServerWebExchange exchange) {
+        return buildResponse(HttpStatus.FORBIDDEN, aEx, exchange);
+    }
+
+    /**
+     * Позволяет обработать ошибки связанные с поиском банковского счета.
+     * @param anfEx Ошибка при поиске банковского счета.
+     * @param exchange HTTP запрос и ответ.
+     * @return ResponseEntity, содержащий информацию об ошибке.
+     */
+    @ExceptionHandler(AccountNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleAccountNotFoundException(AccountNotFoundException anfEx, ServerWebExchange exchange) {
+        return buildResponse(HttpStatus.NOT_FOUND, anfEx, exchange);
+    }
+
+    /**
+     * Позволяет обработать ошибки при создании счета, списании средств, дублировании названия счета и прочие ошибки
+     * при взаимодействии с банковским счетом.
+     * @param ex Ошибка при взаимодействии с банковским счетом.
+     * @param exchange HTTP запрос и ответ.
+     * @return ResponseEntity, содержащий информацию об ошибке.
+     */
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<ErrorResponse> handleException(Exception ex, ServerWebExchange exchange) {
+        return buildResponse(HttpStatus.BAD_REQUEST, ex, exchange);
+    }
+
+    /**
+     * Формирует ответ с информацией об ошибке.
+     * @param status HTTP статус ошибки.
+     * @param ex Ошибка.
+     * @param exchange HTTP запрос и ответ.
+     * @return ResponseEntity, содержащий информацию об ошибке.
+     */
+    private ResponseEntity<ErrorResponse> buildResponse(HttpStatus status, Exception ex, ServerWebExchange exchange) {
+        ErrorResponse response = new ErrorResponse(
+                status,
+                ex.getMessage(),
+                exchange.getRequest().getPath().value()
+        );
+        return ResponseEntity.status(response.getStatus()).body(response);
+    }
+}
@@ -0,0 +1,57 @@
+package ru.averkiev.bankservice.models;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * Класс представляет собой модель банковского счета для реактивного доступа к данным через R2DBC.
+ * Отображается на ту же таблицу, что и {@link Account}.
+ * @author mrGreenNV
+ */
+@Table("accounts")
+@Getter
+@Setter
+public class ReactiveAccount {
+
+    /** Идентификатор счета */
+    @Id
+    @Column("id")
+    private Long id;
+
+    /** Номер счета */
+    @Column("number")
+    private String accountNumber;
+
+    /** Название счета */
+    @Column("name")
+    private String accountName;
+
+    /** Баланс счета */
+    @Column("balance")
+    private Money accountBalance = Money.ZERO;
+
+    /** Пин-код для доступа к счету */
+    @Column("pin_code")
+    private String pin;
+
+    /** Время создания счета */
+    @Column("created_at")
+    private LocalDateTime createdAt;
+
+    /** Время обновления счета */
+    @Column("updated_at")
+    private LocalDateTime updatedAt;
+
+    /** Версия счета, увеличивается при каждом изменении записи */
+    @Column("version")
+    private Long version = 0L;
+
+    /** Статус счета в системе */
+    @Column("status")
+    private EntityStatus entityStatus = EntityStatus.ACTIVE;
+}
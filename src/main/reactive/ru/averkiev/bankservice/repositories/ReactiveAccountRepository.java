@@ -0,0 +1,111 @@
+package ru.averkiev.bankservice.repositories;
+
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.averkiev.bankservice.models.Account;
+import ru.averkiev.bankservice.models.ReactiveAccount;
+
+/**
+ * Реактивный репозиторий для взаимодействия с сущностью ReactiveAccount через R2DBC.
+ * Изменение баланса, названия и статуса выполняется атомарными запросами UPDATE, затрагивающими только
+ * изменяемые столбцы, поэтому они не перезаписывают баланс, измененный параллельной операцией.
+ * Как и запросы сущности Account, запросы чтения не возвращают помеченные на удаление счета.
+ * @author mrGreenNV
+ */
+@Repository
+public interface ReactiveAccountRepository extends ReactiveCrudRepository<ReactiveAccount, Long> {
+
+    /**
+     * Выполняет поиск счета по его идентификатору.
+     * @param id Идентификатор счета.
+     * @return Счет, если он найден, иначе - пустой Mono.
+     */
+    @Override
+    @Query("SELECT * FROM accounts WHERE id = :id AND " + Account.NOT_DELETED)
+    Mono<ReactiveAccount> findById(Long id);
+
+    /**
+     * Проверяет существование в базе данных записи о счете по переданному идентификатору.
+     * @param id Идентификатор счета.
+     * @return true, если запись найдена, иначе - false.
+     */
+    @Override
+    @Query("SELECT COUNT(*) > 0 FROM accounts WHERE id = :id AND " + Account.NOT_DELETED)
+    Mono<Boolean> existsById(Long id);
+
+    /**
+     * Получает все счета.
+     * @return Все счета.
+     */
+    @Override
+    @Query("SELECT * FROM accounts WHERE " + Account.NOT_DELETED)
+    Flux<ReactiveAccount> findAll();
+
+    /**
+     * Проверяет существование в базе данных записи о счете по переданному названию счета.
+     * Учитывает и помеченные на удаление счета: их названия остаются заняты ограничением уникальности.
+     * @param accountName Название счета.
+     * @return true, если запись найдена, иначе - false.
+     */
+    Mono<Boolean> existsByAccountName(String accountName);
+
+    /**
+     * Выполняет поиск счета по его названию.
+     * @param accountName Название счета.
+     * @return Счет, если он найден, иначе - пустой Mono.
+     */
+    @Query("SELECT * FROM accounts WHERE name = :accountName AND " + Account.NOT_DELETED)
+    Mono<ReactiveAccount> findByAccountName(String accountName);
+
+    /**
+     * Получает страницу счетов.
+     * @param limit Количество счетов на странице.
+     * @param offset Количество пропускаемых счетов.
+     * @return Счета на запрошенной странице.
+     */
+    @Query("SELECT * FROM accounts WHERE " + Account.NOT_DELETED + " LIMIT :limit OFFSET :offset")
+    Flux<ReactiveAccount> findPage(int limit, long offset);
+
+    /**
+     * Атомарно обновляет название счета, не затрагивая остальные столбцы записи.
+     * @param id Идентификатор счета.
+     * @param accountName Новое название счета.
+     * @return Количество измененных записей: 0, если счет не найден или помечен на удаление.
+     */
+    @Modifying
+    @Query("UPDATE accounts SET name = :accountName, updated_at = CURRENT_TIMESTAMP, version = version + 1 WHERE id = :id AND " + Account.NOT_DELETED)
+    Mono<Integer> updateName(Long id, String accountName);
+
+    /**
+     * Атомарно помечает счет на удаление, не затрагивая остальные столбцы записи.
+     * @param id Идентификатор счета.
+     * @return Количество измененных записей: 0, если счет не найден или уже помечен на удаление.
+     */
+    @Modifying
+    @Query("UPDATE accounts SET status = 'DELETED', updated_at = CURRENT_TIMESTAMP, version = version + 1 WHERE id = :id AND " + Account.NOT_DELETED)
+    Mono<Integer> markDeleted(Long id);
+
+    /**
+     * Атомарно зачисляет средства на счет, если он не помечен на удаление.
+     * @param id Идентификатор счета.
+     * @param amount Сумма зачисления в минимальных денежных единицах.
+     * @return Количество измененных записей: 0, если счет помечен на удаление.
+     */
+    @Modifying
+    @Query("UPDATE accounts SET balance = balance + :amount, updated_at = CURRENT_TIMESTAMP, version = version + 1 WHERE id = :id AND " + Account.NOT_DELETED)
+    Mono<Integer> credit(Long id, long amount);
+
+    /**
+     * Атомарно списывает средства со счета, если он не помечен на удаление и его баланс не меньше суммы списания.
+     * @param id Идентификатор счета.
+     * @param amount Сумма списания в минимальных денежных единицах.
+     * @return Количество измененных записей: 0, если средств на счете недостаточно или счет помечен на удаление.
+     */
+    @Modifying
+    @Query("UPDATE accounts SET balance = balance - :amount, updated_at = CURRENT_TIMESTAMP, version = version + 1 WHERE id = :id AND balance >= :amount AND " + Account.NOT_DELETED)
+    Mono<Integer> debit(Long id, long amount);
+}
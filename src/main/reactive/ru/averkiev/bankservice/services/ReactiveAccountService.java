@@ -0,0 +1,91 @@
+package ru.averkiev.bankservice.services;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.averkiev.bankservice.exceptions.*;
+import ru.averkiev.bankservice.models.*;
+
+/**
+ * Реактивный сервис для взаимодействия со счетами.
+ * Повторяет семантику {@link AccountService}, ошибки передаются через сигнал onError.
+ * @author mrGreenNV
+ */
+public interface ReactiveAccountService {
+
+    /**
+     * Создает новый банковский счет.
+     * @param accountCreateDTO Данные для создания счета.
+     * @return Информация о созданном счете или ошибка {@link AccountCreatedException}.
+     */
+    Mono<AccountInfoDTO> createAccount(AccountCreateDTO accountCreateDTO);
+
+    /**
+     * Обновляет наименование счета.
+     * @param accountId Идентификатор обновляемого счета.
+     * @param accountUpdateNameDTO Данные для обновления счета.
+     * @return Информация об обновленном счете или ошибка {@link AccountAccessException},
+     * {@link AccountNotFoundException}, {@link AccountWithNameAlreadyExistsException}.
+     */
+    Mono<AccountInfoDTO> updateAccountName(Long accountId, AccountUpdateNameDTO accountUpdateNameDTO);
+
+    /**
+     * Получает информацию о счете по его идентификатору.
+     * @param accountId Идентификатор счета.
+     * @return Информация о счете или ошибка {@link AccountNotFoundException}.
+     */
+    Mono<AccountDTO> getInfoAccount(Long accountId);
+
+    /**
+     * Получает информацию о всех счетах.
+     * @return Поток объектов, содержащих информацию о всех счетах.
+     */
+    Flux<AccountInfoDTO> getAllAccounts();
+
+    /**
+     * Получает информацию о всех счетах с пагинацией.
+     * @param page Номер страницы.
+     * @param pageSize Количество счетов на странице.
+     * @return Поток объектов, содержащих информацию о счетах на странице.
+     */
+    Flux<AccountInfoDTO> getAllAccounts(int page, int pageSize);
+
+    /**
+     * Удаляет счет по его идентификатору.
+     * @param accountId Идентификатор счета.
+     * @return Пустой Mono или ошибка {@link AccountNotFoundException}.
+     */
+    Mono<Void> deleteAccount(Long accountId);
+
+    /**
+     * Деактивирует счет по его идентификатору.
+     * @param accountId Идентификатор счета.
+     * @return Пустой Mono или ошибка {@link AccountNotFoundException}.
+     */
+    Mono<Void> softDeleteAccount(Long accountId);
+
+    /**
+     * Выполняет пополнение счета.
+     * @param accountId Идентификатор пополняемого счета.
+     * @param accountTransactionDTO Данные для совершения пополнения счета.
+     * @return Информация о счете или ошибка {@link AccountNotFoundException}, {@link AccountWithdrawException}.
+     */
+    Mono<AccountInfoDTO> deposit(Long accountId, AccountTransactionDTO accountTransactionDTO);
+
+    /**
+     * Выполняет списание средств со счета.
+     * @param accountId Идентификатор счета, с которого происходит списание средств.
+     * @param accountTransactionDTO Данные для списания средств со счета.
+     * @return Информация о счете или ошибка {@link AccountNotFoundException}, {@link AccountAccessException},
+     * {@link AccountWithdrawException}.
+     */
+    Mono<AccountInfoDTO> withdraw(Long accountId, AccountTransactionDTO accountTransactionDTO);
+
+    /**
+     * Выполняет перевод средств между счетами.
+     * @param accountId Идентификатор счета, с которого происходит списание средств.
+     * @param accountTransactionDTO Данные для перевода средств.
+     * @return Информация о счете или ошибка {@link AccountNotFoundException}, {@link AccountAccessException},
+     * {@link AccountWithdrawException}.
+     */
+    Mono<AccountInfoDTO> transfer(Long accountId, AccountTransactionDTO accountTransactionDTO);
+}
@@ -0,0 +1,360 @@
+package ru.averkiev.bankservice.services.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.modelmapper.ModelMapper;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import ru.averkiev.bankservice.exceptions.*;
+import ru.averkiev.bankservice.models.*;
+import ru.averkiev.bankservice.repositories.ReactiveAccountRepository;
+import ru.averkiev.bankservice.services.ReactiveAccountService;
+
+import java.time.LocalDateTime;
+
+/**
+ * Реактивная реализация сервиса для взаимодействия со счетами.
+ * Проверка пин-кода и его шифрование выполняются на отдельном ограниченном пуле потоков,
+ * списание средств выполняется атомарным условным запросом UPDATE.
+ * @author mrGreenNV
+ */
+@Service
+@Slf4j
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveAccountServiceImpl implements ReactiveAccountService {
+
+    /** Реактивный репозиторий для взаимодействия с базой данных */
+    private final ReactiveAccountRepository accountRepository;
+
+    /** Позволяет преобразовывать модели и DTO между собой */
+    private final ModelMapper modelMapper;
+
+    /** Позволяет шифровать данные */
+    private final BCryptPasswordEncoder passwordEncoder;
+
+    /** Пул потоков для блокирующих операций BCrypt */
+    private final Scheduler passwordEncoderScheduler;
+
+    /** Выполняет перевод средств в одной транзакции */
+    private final TransactionalOperator reactiveTransactionalOperator;
+
+    /**
+     * Создает новый банковский счет.
+     * @param accountCreateDTO Данные для создания счета.
+     * @return Информация о созданном счете или ошибка {@link AccountCreatedException}.
+     */
+    @Override
+    public Mono<AccountInfoDTO> createAccount(AccountCreateDTO accountCreateDTO) {
+
+        String accountName = accountCreateDTO.getAccountName();
+
+        if (accountName == null || accountName.equals("")) {
+            log.error("IN createAccount - новая запись о банковском счете не сохранена");
+            return Mono.error(new AccountCreatedException("Ошибка при создании банковского счета. Название счета не может быть пустым"));
+        }
+
+        return accountRepository.existsByAccountName(accountName)
+                .flatMap(exists -> {
+                    if (exists) {
+                        log.error("IN createAccount - новая запись о банковском счете: {} не сохранена", accountName);
+                        return Mono.error(new AccountCreatedException("Ошибка при создании банковского счета. Название счета: " + accountName + " уже используется"));
+                    }
+                    return encodePin(accountCreateDTO.getPin());
+                })
+                .map(pin -> {
+                    LocalDateTime now = LocalDateTime.now();
+                    ReactiveAccount account = new ReactiveAccount();
+                    account.setAccountNumber(Account.nextAccountNumber());
+                    account.setAccountName(accountName);
+                    account.setPin(pin);
+                    account.setCreatedAt(now);
+                    account.setUpdatedAt(now);
+                    return account;
+                })
+                .flatMap(accountRepository::save)
+                .doOnNext(account -> log.info("IN createAccount - новая запись о банковском счете: {} успешно сохранена", accountName))
+                .map(account -> modelMapper.map(account, AccountInfoDTO.class));
+    }
+
+    /**
+     * Обновляет наименование счета.
+     * @param accountId Идентификатор обновляемого счета.
+     * @param accountUpdateNameDTO Данные для обновления счета.
+     * @return Информация об обновленном счете или ошибка {@link AccountAccessException},
+     * {@link AccountNotFoundException}, {@link AccountWithNameAlreadyExistsException}.
+     */
+    @Override
+    public Mono<AccountInfoDTO> updateAccountName(Long accountId, AccountUpdateNameDTO accountUpdateNameDTO) {
+
+        String newAccountName = accountUpdateNameDTO.getUpdatedAccountName();
+
+        return getAccount(accountId)
+                .flatMap(account -> checkPin(accountUpdateNameDTO.getPin(), account, "updateAccountName", "название счета: {} не обновлено"))
+                .flatMap(account -> {
+                    if (newAccountName == null || newAccountName.equals("")) {
+                        log.error("IN updateAccountName - название счета не обновлено");
+                        return Mono.error(new NullPointerException("Название счета не должно быть пустым"));
+                    }
+                    return accountRepository.existsByAccountName(newAccountName)
+                            .flatMap(exists -> {
+                                if (exists) {
+                                    log.error("IN updateAccountName - название счета: {} не обновлено", account.getAccountName());
+                                    return Mono.error(new AccountWithNameAlreadyExistsException("Ошибка при обновлении банковского счета. Название счета: " + newAccountName + " уже используется"));
+                                }
+                                return accountRepository.updateName(accountId, newAccountName);
+                            });
+                })
+                .then(getAccount(accountId))
+                .doOnNext(account -> log.info("IN updateAccountName - название счета: {} успешно обновлено", account.getAccountName()))
+                .map(account -> modelMapper.map(account, AccountInfoDTO.class));
+    }
+
+    /**
+     * Получает информацию о счете по его идентификатору.
+     * @param accountId Идентификатор счета.
+     * @return Информация о счете или ошибка {@link AccountNotFoundException}.
+     */
+    @Override
+    public Mono<AccountDTO> getInfoAccount(Long accountId) {
+        return getAccount(accountId)
+                .map(account -> modelMapper.map(account, AccountDTO.class));
+    }
+
+    /**
+     * Получает информацию о всех счетах.
+     * @return Поток объектов, содержащих информацию о всех счетах.
+     */
+    @Override
+    public Flux<AccountInfoDTO> getAllAccounts() {
+        return accountRepository.findAll()
+                .map(account -> modelMapper.map(account, AccountInfoDTO.class));
+    }
+
+    /**
+     * Получает информацию о всех счетах с пагинацией.
+     * @param page Номер страницы.
+     * @param pageSize Количество счетов на странице.
+     * @return Поток объектов, содержащих информацию о счетах на странице.
+     */
+    @Override
+    public Flux<AccountInfoDTO> getAllAccounts(int page, int pageSize) {
+        return accountRepository.findPage(pageSize, (long) page * pageSize)
+                .map(account -> modelMapper.map(account, AccountInfoDTO.class));
+    }
+
+    /**
+     * Удаляет счет по его идентификатору.
+     * @param accountId Идентификатор счета.
+     * @return Пустой Mono или ошибка {@link AccountNotFoundException}.
+     */
+    @Override
+    public Mono<Void> deleteAccount(Long accountId) {
+        return accountRepository.existsById(accountId)
+                .flatMap(exists -> {
+                    if (!exists) {
+                        log.error("IN deleteAccount - счет с идентификатором: {} не удален", accountId);
+                        return Mono.error(new AccountNotFoundException("Счет с идентификатором: " + accountId + " не найден"));
+                    }
+                    return accountRepository.deleteById(accountId)
+                            .doOnSuccess(ignored -> log.info("IN deleteAccount - счет с идентификатором: {} успешно удален", accountId));
+                });
+    }
+
+    /**
+     * Деактивирует счет по его идентификатору.
+     * @param accountId Идентификатор счета.
+     * @return Пустой Mono или ошибка {@link AccountNotFoundException}.
+     */
+    @Override
+    public Mono<Void> softDeleteAccount(Long accountId) {
+        return getAccount(accountId)
+                .onErrorMap(AccountNotFoundException.class, anfEx -> {
+                    log.error("IN softDeleteAccount - счет с идентификатором: {} не деактивирован", accountId);
+                    return anfEx;
+                })
+                .flatMap(account -> accountRepository.markDeleted(accountId))
+                .flatMap(updated -> {
+                    if (updated == 0) {
+                        log.error("IN softDeleteAccount - счет с идентификатором: {} не деактивирован", accountId);
+                        return Mono.error(new AccountNotFoundException("Счет с идентификатором: " + accountId + " не найден"));
+                    }
+                    log.info("IN softDeleteAccount - счет с идентификатором: {} успешно деактивирован", accountId);
+                    return Mono.<Void>empty();
+                });
+    }
+
+    /**
+     * Выполняет пополнение счета.
+     * @param accountId Идентификатор пополняемого счета.
+     * @param accountTransactionDTO Данные для совершения пополнения счета.
+     * @return Информация о счете или ошибка {@link AccountNotFoundException}, {@link AccountWithdrawException}.
+     */
+    @Override
+    public Mono<AccountInfoDTO> deposit(Long accountId, AccountTransactionDTO accountTransactionDTO) {
+
+        Money amount = accountTransactionDTO.getTransferAmount();
+
+        return getAccount(accountId)
+                .flatMap(account -> {
+                    if (amount == null || !amount.isPositive()) {
+                        log.error("IN deposit - банковский счет с названием: {} не пополнен", account.getAccountName());
+                        return Mono.error(new AccountWithdrawException("Сумма пополнения должна быть положительной и не может быть пустой"));
+                    }
+                    return accountRepository.credit(accountId, amount.getMinorUnits());
+                })
+                .then(getAccount(accountId))
+                .doOnNext(account -> log.info("IN deposit - банковский счет с названием: {} успешно пополнен на сумму: {}", account.getAccountName(), amount))
+                .map(account -> modelMapper.map(account, AccountInfoDTO.class));
+    }
+
+    /**
+     * Выполняет списание средств со счета.
+     * @param accountId Идентификатор счета, с которого происходит списание средств.
+     * @param accountTransactionDTO Данные для списания средств со счета.
+     * @return Информация о счете или ошибка {@link AccountNotFoundException}, {@link AccountAccessException},
+     * {@link AccountWithdrawException}.
+     */
+    @Override
+    public Mono<AccountInfoDTO> withdraw(Long accountId, AccountTransactionDTO accountTransactionDTO) {
+
+        Money amount = accountTransactionDTO.getTransferAmount();
+        String errorMessage = "списание средств с банковского счета с названием: {} не прошло";
+
+        return getAccount(accountId)
+                .flatMap(account -> checkPin(accountTransactionDTO.getPin(), account, "withdraw", errorMessage))
+                .flatMap(account -> {
+                    if (amount == null || !amount.isPositive()) {
+                        log.error("IN withdraw - " + errorMessage, account.getAccountName());
+                        return Mono.error(new AccountWithdrawException("Сумма списания должна быть положительной и не может быть пустой"));
+                    }
+                    return debit(account, amount, "withdraw", errorMessage, "Сумма списания должна быть не больше текущего баланса");
+                })
+                .then(getAccount(accountId))
+                .doOnNext(account -> log.info("IN withdraw - списание средств на сумму: {} с банковского счета с названием: {} успешно прошло", amount, account.getAccountName()))
+                .map(account -> modelMapper.map(account, AccountInfoDTO.class));
+    }
+
+    /**
+     * Выполняет перевод средств между счетами.
+     * Списание и зачисление выполняются в одной транзакции.
+     * @param accountId Идентификатор счета, с которого происходит списание средств.
+     * @param accountTransactionDTO Данные для перевода средств.
+     * @return Информация о счете или ошибка {@link AccountNotFoundException}, {@link AccountAccessException},
+     * {@link AccountWithdrawException}.
+     */
+    @Override
+    public Mono<AccountInfoDTO> transfer(Long accountId, AccountTransactionDTO accountTransactionDTO) {
+
+        Money amount = accountTransactionDTO.getTransferAmount();
+        String errorMessage = "перевод средств с банковского счета с названием: {} не прошел";
+
+        return getAccount(accountId)
+                .flatMap(account -> checkPin(accountTransactionDTO.getPin(), account, "transfer", errorMessage))
+                .flatMap(account -> getAccountByName(accountTransactionDTO.getSourceAccountName())
+                        .flatMap(sourceAccount -> {
+                            if (amount == null || !amount.isPositive()) {
+                                log.error("IN transfer - " + errorMessage, account.getAccountName());
+                                return Mono.error(new AccountWithdrawException("Сумма перевода должна быть положительной и не может быть пустой"));
+                            }
+                            return debit(account, amount, "transfer", errorMessage, "Сумма перевода должна быть не больше текущего баланса")
+                                    .then(accountRepository.credit(sourceAccount.getId(), amount.getMinorUnits()))
+                                    .flatMap(credited -> {
+                                        if (credited == 0) {
+                                            log.error("IN transfer - " + errorMessage, account.getAccountName());
+                                            return Mono.error(new AccountNotFoundException("Счет с названием: " + sourceAccount.getAccountName() + " не найден"));
+                                        }
+                                        return Mono.just(credited);
+                                    })
+                                    .as(reactiveTransactionalOperator::transactional);
+                        }))
+                .then(getAccount(accountId))
+                .doOnNext(account -> log.info("IN transfer - перевод средств на сумму: {} с банковского счета с названием: {} успешно прошел", amount, account.getAccountName()))
+                .map(account -> modelMapper.map(account, AccountInfoDTO.class));
+    }
+
+    /**
+     * Атомарно списывает средства со счета.
+     * @param account Счет, с которого списываются средства.
+     * @param amount Сумма списания.
+     * @param operation Название операции для логирования.
+     * @param errorMessage Шаблон сообщения об ошибке для логирования.
+     * @param insufficientMessage Сообщение исключения при недостатке средств.
+     * @return Количество измененных записей или ошибка {@link AccountWithdrawException}.
+     */
+    private Mono<Integer> debit(ReactiveAccount account, Money amount, String operation, String errorMessage, String insufficientMessage) {
+        return accountRepository.debit(account.getId(), amount.getMinorUnits())
+                .flatMap(updated -> {
+                    if (updated == 0) {
+                        log.error("IN " + operation + " - " + errorMessage, account.getAccountName());
+                        return Mono.error(new AccountWithdrawException(insufficientMessage));
+                    }
+                    return Mono.just(updated);
+                });
+    }
+
+    /**
+     * Проверяет пин-код счета на пуле потоков для блокирующих операций.
+     * @param pin Введенный пин-код.
+     * @param account Счет.
+     * @param operation Название операции для логирования.
+     * @param errorMessage Шаблон сообщения об ошибке для логирования.
+     * @return Счет или ошибка {@link AccountAccessException}.
+     */
+    private Mono<ReactiveAccount> checkPin(String pin, ReactiveAccount account, String operation, String errorMessage) {
+        return Mono.fromCallable(() -> pin != null && passwordEncoder.matches(pin, account.getPin()))
+                .subscribeOn(passwordEncoderScheduler)
+                .flatMap(matches -> {
+                    if (!matches) {
+                        log.error("IN " + operation + " - " + errorMessage, account.getAccountName());
+                        return Mono.error(new AccountAccessException("Введен неверный пин код"));
+                    }
+                    return Mono.just(account);
+                });
+    }
+
+    /**
+     * Шифрует пин-код на пуле потоков для блокирующих операций.
+     * @param pin Пин-код.
+     * @return Зашифрованный пин-код.
+     */
+    private Mono<String> encodePin(String pin) {
+        return Mono.fromCallable(() -> passwordEncoder.encode(pin))
+                .subscribeOn(passwordEncoderScheduler);
+    }
+
+    /**
+     * Получает полную информацию о счете по его идентификатору.
+     * @param accountId Идентификатор счета.
+     * @return Информация о счете или ошибка {@link AccountNotFoundException}.
+     */
+    private Mono<ReactiveAccount> getAccount(Long accountId) {
+        return accountRepository.findById(accountId)
+                .switchIfEmpty(Mono.defer(() -> {
+                    log.error("IN getAccount - счет с идентификатором: {} не найден", accountId);
+                    return Mono.error(new AccountNotFoundException("Счет с идентификатором: " + accountId + " не найден"));
+                }));
+    }
+
+    /**
+     * Получает полную информацию о счете по его названию.
+     * @param accountName Название счета.
+     * @return Информация о счете или ошибка {@link AccountNotFoundException}.
+     */
+    private Mono<ReactiveAccount> getAccountByName(String accountName) {
+        if (accountName == null) {
+            log.error("IN getAccountByName - счет с названием: {} не найден", accountName);
+            return Mono.error(new AccountNotFoundException("Счет с названием: " + accountName + " не найден"));
+        }
+        return accountRepository.findByAccountName(accountName)
+                .switchIfEmpty(Mono.defer(() -> {
+                    log.error("IN getAccountByName - счет с названием: {} не найден", accountName);
+                    return Mono.error(new AccountNotFoundException("Счет с названием: " + accountName + " не найден"));
+                }));
+    }
+}
@@ -0,0 +1,143 @@
+package ru.averkiev.bankservice.grpc;
+
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.StreamObserver;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import ru.averkiev.bankservice.exceptions.AccountAccessException;
+import ru.averkiev.bankservice.exceptions.AccountNotFoundException;
+import ru.averkiev.bankservice.grpc.proto.*;
+import ru.averkiev.bankservice.models.AccountInfoDTO;
+import ru.averkiev.bankservice.models.Money;
+import ru.averkiev.bankservice.services.AccountService;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Класс тестирует gRPC-сервис операций со счетами.
+ * @author mrGreenNV
+ */
+@Tag("account-operations-grpc-service")
+class AccountOperationsGrpcServiceTest {
+
+    private AutoCloseable closeable;
+
+    @Mock
+    private AccountService accountService;
+
+    @Mock
+    private Validator validator;
+
+    private Server server;
+
+    private ManagedChannel channel;
+
+    @BeforeEach
+    public void startServer() throws Exception {
+        closeable = MockitoAnnotations.openMocks(this);
+        String serverName = InProcessServerBuilder.generateName();
+        server = InProcessServerBuilder.forName(serverName)
+                .directExecutor()
+                .addService(new AccountOperationsGrpcService(accountService, validator))
+                .build()
+                .start();
+        channel = InProcessChannelBuilder.forName(serverName).directExecutor().build();
+    }
+
+    @AfterEach
+    public void stopServer() throws Exception {
+        channel.shutdownNow();
+        server.shutdownNow();
+        closeable.close();
+    }
+
+    /**
+     * Проверяет преобразование ошибки отсутствия счета в статус NOT_FOUND.
+     */
+    @Test
+    @Tag("get-account")
+    public void testGetAccount_NotFound() {
+        when(accountService.getInfoAccount(1L, false)).thenThrow(new AccountNotFoundException("Счет не найден"));
+
+        AccountOperationsGrpc.AccountOperationsBlockingStub stub = AccountOperationsGrpc.newBlockingStub(channel);
+        StatusRuntimeException ex = assertThrows(StatusRuntimeException.class,
+                () -> stub.getAccount(GetAccountRequest.newBuilder().setAccountId(1L).build()));
+
+        assertEquals(Status.Code.NOT_FOUND, ex.getStatus().getCode());
+        assertEquals("Счет не найден", ex.getStatus().getDescription());
+    }
+
+    /**
+     * Проверяет, что результаты переводов из потока сопоставляются с запросами, а ошибка перевода не прерывает поток.
+     */
+    @Test
+    @Tag("stream-transfers")
+    public void testStreamTransfers_CorrelatesResults() throws Exception {
+        AccountInfoDTO accountInfoDTO = new AccountInfoDTO();
+        accountInfoDTO.setAccountName("Счет 1");
+        accountInfoDTO.setAccountBalance(Money.parse("90.00"));
+        when(accountService.transfer(eq(1L), any())).thenReturn(accountInfoDTO);
+        when(accountService.transfer(eq(2L), any()))
+                .thenThrow(new AccountAccessException("Неверный пин-код"));
+
+        List<TransferResult> results = new CopyOnWriteArrayList<>();
+        CompletableFuture<Void> completed = new CompletableFuture<>();
+        StreamObserver<TransferRequest> requests = AccountOperationsGrpc.newStub(channel)
+                .streamTransfers(new StreamObserver<>() {
+                    @Override
+                    public void onNext(TransferResult result) {
+                        results.add(result);
+                    }
+
+                    @Override
+                    public void onError(Throwable throwable) {
+                        completed.completeExceptionally(throwable);
+                    }
+
+                    @Override
+                    public void onCompleted() {
+                        completed.complete(null);
+                    }
+                });
+
+        requests.onNext(transfer("a", 1L));
+        requests.onNext(transfer("b", 2L));
+        requests.onCompleted();
+        completed.get(5, TimeUnit.SECONDS);
+
+        assertEquals(2, results.size());
+        assertEquals("a", results.get(0).getRequestId());
+        assertEquals(9000L, results.get(0).getAccount().getBalanceMinor());
+        assertEquals("b", results.get(1).getRequestId());
+        assertEquals(Status.Code.PERMISSION_DENIED.name(), results.get(1).getError().getCode());
+        verify(accountService, times(2)).transfer(any(), any());
+    }
+
+    private TransferRequest transfer(String requestId, Long accountId) {
+        return TransferRequest.newBuilder()
+                .setRequestId(requestId)
+                .setAccountId(accountId)
+                .setPin("1234")
+                .setAmountMinor(1000L)
+                .setDestinationAccountName("Счет 3")
+                .build();
+    }
+}
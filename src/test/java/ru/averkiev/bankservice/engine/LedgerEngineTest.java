@@ -0,0 +1,237 @@
+package ru.averkiev.bankservice.engine;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import ru.averkiev.bankservice.exceptions.AccountNotFoundException;
+import ru.averkiev.bankservice.exceptions.AccountWithdrawException;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+/**
+ * Класс тестирует применение операций движком учета балансов и восстановление состояния из журнала.
+ * @author mrGreenNV
+ */
+@Tag("ledger-engine")
+class LedgerEngineTest {
+
+    @TempDir
+    private Path directory;
+
+    /**
+     * Проверяет применение операций и отклонение операций без достаточных средств или с неизвестным счетом.
+     * @throws Exception Выбрасывает при ошибке журнала.
+     */
+    @Test
+    @Tag("ledger-apply")
+    public void testOperations_Applied() throws Exception {
+        LedgerSnapshotStore store = store(new LedgerSnapshotStore.Checkpoint(0, 0));
+        LedgerEngine engine = engine(store, directory.resolve("ledger.journal"));
+        engine.start();
+        try {
+            engine.open(3, 0);
+
+            assertEquals(new LedgerEngine.TransferResult(7_000, 3_000), engine.transfer(1, 2, 3_000));
+            assertEquals(2_000, engine.withdraw(1, 5_000));
+            assertEquals(3_500, engine.deposit(3, 3_500));
+            assertEquals(3_000, engine.balance(2));
+
+            assertThrows(AccountWithdrawException.class, () -> engine.withdraw(1, 2_001));
+            assertThrows(AccountWithdrawException.class, () -> engine.transfer(1, 2, 2_001));
+            assertThrows(AccountNotFoundException.class, () -> engine.transfer(1, 42, 1));
+            assertEquals(2_000, engine.balance(1));
+
+            engine.close(3);
+            assertThrows(AccountNotFoundException.class, () -> engine.balance(3));
+        } finally {
+            engine.stop();
+        }
+        verify(store, atLeastOnce()).save(any(), any(), eq(5L));
+    }
+
+    /**
+     * Проверяет восстановление балансов из снимка базы данных и журнала после аварийного завершения.
+     * @throws Exception Выбрасывает при ошибке журнала.
+     */
+    @Test
+    @Tag("ledger-recovery")
+    public void testRecovery_ReplaysJournal() throws Exception {
+        Path journal = directory.resolve("ledger.journal");
+        Path crashed = directory.resolve("crashed.journal");
+
+        LedgerSnapshotStore store = store(new LedgerSnapshotStore.Checkpoint(0, 0));
+        LedgerEngine engine = engine(store, journal);
+        engine.start();
+        ArgumentCaptor<Long> journalId = ArgumentCaptor.forClass(Long.class);
+        verify(store).saveJournalId(journalId.capture());
+        try {
+            engine.transfer(1, 2, 3_000);
+            engine.withdraw(2, 1_000);
+            // Копия журнала соответствует состоянию на момент аварийного завершения: снимок в базу не сохранялся.
+            for (Path segment : new LedgerJournal(journal, false, 16).listSegments()) {
+                Files.copy(segment, crashed.resolveSibling(segment.getFileName().toString()
+                        .replace(journal.getFileName().toString(), crashed.getFileName().toString())));
+            }
+        } finally {
+            engine.stop();
+        }
+
+        LedgerSnapshotStore recoveredStore = store(new LedgerSnapshotStore.Checkpoint(journalId.getValue(), 0));
+        LedgerEngine recovered = engine(recoveredStore, crashed);
+        recovered.start();
+        try {
+            assertEquals(7_000, recovered.balance(1));
+            assertEquals(2_000, recovered.balance(2));
+        } finally {
+            recovered.stop();
+        }
+        verify(recoveredStore, atLeastOnce()).save(any(), any(), eq(2L));
+    }
+
+    /**
+     * Проверяет отказ от восстановления по журналу, не связанному с базой данных.
+     * @throws Exception Выбрасывает при ошибке журнала.
+     */
+    @Test
+    @Tag("ledger-recovery")
+    public void testRecovery_ForeignJournal() throws Exception {
+        Path journal = directory.resolve("ledger.journal");
+        try (LedgerJournal foreign = new LedgerJournal(journal, false, 16)) {
+            foreign.start(0, 12345);
+            foreign.append(1, LedgerEventType.DEPOSIT, 1, 0, 100);
+            foreign.commit();
+        }
+
+        LedgerEngine engine = engine(store(new LedgerSnapshotStore.Checkpoint(54321, 0)), journal);
+        assertThrows(IllegalStateException.class, engine::start);
+    }
+
+    /**
+     * Проверяет, что после сохранения контрольной точки начинается новый сегмент журнала, а сегменты
+     * с сохраненными событиями удаляются.
+     * @throws Exception Выбрасывает при ошибке журнала.
+     */
+    @Test
+    @Tag("ledger-journal")
+    public void testJournal_SegmentsDeletedAfterCheckpoint() throws Exception {
+        Path journal = directory.resolve("ledger.journal");
+        LedgerSnapshotStore store = store(new LedgerSnapshotStore.Checkpoint(0, 0));
+        LedgerEngine engine = new LedgerEngine(store, journal, false, 1024, 64, 10, 16);
+        engine.start();
+        try {
+            engine.transfer(1, 2, 3_000);
+            engine.withdraw(2, 1_000);
+
+            verify(store, timeout(5_000).atLeastOnce()).save(any(), any(), eq(2L));
+            Path segment = journal.resolveSibling("ledger.journal." + String.format("%020d", 2));
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            List<Path> segments = new LedgerJournal(journal, false, 16).listSegments();
+            while (!segments.equals(List.of(segment)) && System.nanoTime() < deadline) {
+                TimeUnit.MILLISECONDS.sleep(10);
+                segments = new LedgerJournal(journal, false, 16).listSegments();
+            }
+            assertEquals(List.of(segment), segments);
+            assertEquals(9_000, engine.deposit(2, 7_000));
+        } finally {
+            engine.stop();
+        }
+
+        try (LedgerJournal events = new LedgerJournal(directory.resolve("events.journal"), false, 16)) {
+            events.start(0, 12345);
+            for (long sequence = 1; sequence <= 3; sequence++) {
+                events.append(sequence, LedgerEventType.DEPOSIT, 1, 0, 100);
+            }
+            events.rotate(3);
+            events.append(4, LedgerEventType.DEPOSIT, 1, 0, 100);
+            events.commit();
+
+            List<Long> sequences = new ArrayList<>();
+            events.replay((sequence, type, accountId, counterpartyId, amount) -> sequences.add(sequence));
+            assertEquals(List.of(0L, 1L, 2L, 3L, 3L, 4L), sequences);
+
+            assertEquals(0, events.deleteSegments(2));
+            assertEquals(1, events.deleteSegments(3));
+            sequences.clear();
+            events.replay((sequence, type, accountId, counterpartyId, amount) -> sequences.add(sequence));
+            assertEquals(List.of(3L, 4L), sequences);
+        }
+    }
+
+    /**
+     * Проверяет, что ожидание контрольной точки завершается после сохранения принятых операций, в том числе
+     * только удалений счетов, и прерывается по времени, если снимок еще не сохранен.
+     * @throws Exception Выбрасывает при ошибке журнала.
+     */
+    @Test
+    @Tag("ledger-checkpoint")
+    public void testAwaitCheckpoint() throws Exception {
+        LedgerSnapshotStore store = store(new LedgerSnapshotStore.Checkpoint(0, 0));
+        LedgerEngine engine = new LedgerEngine(store, directory.resolve("ledger.journal"), false, 1024, 64, 10, 16);
+        engine.start();
+        try {
+            engine.close(2);
+            assertTrue(engine.awaitCheckpoint(5_000));
+            verify(store).save(new long[0], new long[0], 1L);
+        } finally {
+            engine.stop();
+        }
+
+        LedgerSnapshotStore slowStore = store(new LedgerSnapshotStore.Checkpoint(0, 0));
+        LedgerEngine slowEngine = engine(slowStore, directory.resolve("slow.journal"));
+        slowEngine.start();
+        try {
+            slowEngine.deposit(1, 100);
+            assertFalse(slowEngine.awaitCheckpoint(50));
+        } finally {
+            slowEngine.stop();
+        }
+    }
+
+    /**
+     * Проверяет работу хеш-таблицы балансов при расширении и удалении элементов.
+     */
+    @Test
+    @Tag("ledger-map")
+    public void testLongLongHashMap() {
+        LongLongHashMap map = new LongLongHashMap(4);
+        for (long key = 1; key <= 1_000; key++) {
+            map.put(key, key * 10);
+        }
+        for (long key = 1; key <= 1_000; key += 2) {
+            assertTrue(map.remove(key));
+        }
+
+        assertEquals(500, map.size());
+        for (long key = 1; key <= 1_000; key++) {
+            assertEquals(key % 2 == 0, map.containsKey(key));
+            assertEquals(key % 2 == 0 ? key * 10 : -1, map.get(key, -1));
+        }
+    }
+
+    private LedgerSnapshotStore store(LedgerSnapshotStore.Checkpoint checkpoint) {
+        LedgerSnapshotStore store = mock(LedgerSnapshotStore.class);
+        when(store.loadCheckpoint()).thenReturn(checkpoint);
+        doAnswer(invocation -> {
+            LongLongHashMap balances = invocation.getArgument(0);
+            balances.put(1, 10_000);
+            balances.put(2, 0);
+            return null;
+        }).when(store).loadBalances(any());
+        doNothing().when(store).saveJournalId(anyLong());
+        return store;
+    }
+
+    private LedgerEngine engine(LedgerSnapshotStore store, Path journal) {
+        return new LedgerEngine(store, journal, false, 1024, 64, 60_000, 16);
+    }
+}
@@ -0,0 +1,70 @@
+package ru.averkiev.bankservice.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.event.KeyValuePair;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Класс тестирует выборочное логирование сообщений с парами ключ-значение.
+ * @author mrGreenNV
+ */
+@Tag("logging")
+class KeyValueSamplingFilterTest {
+
+    private KeyValueSamplingFilter filter;
+
+    private Logger logger;
+
+    @BeforeEach
+    public void setUp() {
+        filter = new KeyValueSamplingFilter();
+        filter.setRates("deposit=1000000");
+        filter.start();
+        logger = new LoggerContext().getLogger("test");
+    }
+
+    /**
+     * Проверяет, что сообщения с парами ключ-значение отбрасываются по частоте их категории.
+     */
+    @Test
+    public void testDecide_KeyValueEvent_Deny() {
+
+        int denied = 0;
+        for (int i = 0; i < 100; i++) {
+            if (filter.decide(event(Level.INFO, List.of(new KeyValuePair("accountId", 1L)))) == FilterReply.DENY) {
+                denied++;
+            }
+        }
+
+        assertTrue(denied >= 99);
+
+    }
+
+    /**
+     * Проверяет, что сообщения без пар ключ-значение, уже прошедшие турбо-фильтр, и ошибки не отбрасываются.
+     */
+    @Test
+    public void testDecide_PlainEventOrError_Neutral() {
+
+        assertEquals(FilterReply.NEUTRAL, filter.decide(event(Level.INFO, null)));
+        assertEquals(FilterReply.NEUTRAL, filter.decide(event(Level.ERROR, List.of(new KeyValuePair("accountId", 1L)))));
+
+    }
+
+    private LoggingEvent event(Level level, List<KeyValuePair> keyValuePairs) {
+        LoggingEvent event = new LoggingEvent(Logger.class.getName(), logger, level,
+                "IN deposit - банковский счет с названием: {} успешно пополнен на сумму: {}", null, null);
+        event.setKeyValuePairs(keyValuePairs);
+        return event;
+    }
+}
@@ -0,0 +1,83 @@
+package ru.averkiev.bankservice.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Класс тестирует выборочное логирование успешных операций.
+ * @author mrGreenNV
+ */
+@Tag("logging")
+class SamplingTurboFilterTest {
+
+    private SamplingTurboFilter filter;
+
+    private Logger logger;
+
+    @BeforeEach
+    public void setUp() {
+        filter = new SamplingTurboFilter();
+        filter.setRates("getAccount=1000000, deposit=1");
+        filter.start();
+        logger = new LoggerContext().getLogger("test");
+    }
+
+    /**
+     * Проверяет, что успешные операции категории с выборкой отбрасываются.
+     */
+    @Test
+    public void testDecide_SampledCategory_Deny() {
+
+        int denied = 0;
+        for (int i = 0; i < 100; i++) {
+            if (filter.decide(null, logger, Level.INFO, "IN getAccount - счет с идентификатором: {} успешно найден", null, null) == FilterReply.DENY) {
+                denied++;
+            }
+        }
+
+        assertTrue(denied >= 99);
+
+    }
+
+    /**
+     * Проверяет, что ошибки сохраняются независимо от настроек выборки.
+     */
+    @Test
+    public void testDecide_Error_Neutral() {
+
+        FilterReply reply = filter.decide(null, logger, Level.ERROR, "IN getAccount - счет с идентификатором: {} не найден", null, null);
+
+        assertEquals(FilterReply.NEUTRAL, reply);
+
+    }
+
+    /**
+     * Проверяет, что сообщения категорий без выборки сохраняются.
+     */
+    @Test
+    public void testDecide_UnsampledCategory_Neutral() {
+
+        assertEquals(FilterReply.NEUTRAL, filter.decide(null, logger, Level.INFO, "IN deposit - банковский счет пополнен", null, null));
+        assertEquals(FilterReply.NEUTRAL, filter.decide(null, logger, Level.INFO, "Started BankServiceApplication", null, null));
+
+    }
+
+    /**
+     * Проверяет извлечение категории из шаблона сообщения.
+     */
+    @Test
+    public void testCategoryOf() {
+
+        assertEquals("getAccountByName", SamplingTurboFilter.categoryOf("IN getAccountByName - счет с названием: {} успешно найден"));
+        assertEquals("transfer", SamplingTurboFilter.categoryOf("IN transfer"));
+        assertEquals("", SamplingTurboFilter.categoryOf("Started BankServiceApplication"));
+
+    }
+}
@@ -0,0 +1,96 @@
+package ru.averkiev.bankservice.models;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Класс тестирует арифметику денежных сумм и их преобразование в JSON и CBOR.
+ * @author mrGreenNV
+ */
+@Tag("money")
+class MoneyTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * Проверяет точность арифметики и отказ при переполнении.
+     */
+    @Test
+    @Tag("money-arithmetic")
+    public void testArithmetic_Exact() {
+        Money sum = Money.ZERO;
+        for (int i = 0; i < 10; i++) {
+            sum = sum.plus(Money.parse("0.10"));
+        }
+
+        assertEquals(Money.parse("1.00"), sum);
+        assertEquals(Money.parse("-0.05"), Money.parse("0.05").negate());
+        assertTrue(Money.parse("99.99").isLessThan(Money.parse("100")));
+        assertEquals(new BigDecimal("1000000000.01"), Money.parse("1000000000.01").toBigDecimal());
+        assertThrows(ArithmeticException.class, () -> Money.ofMinorUnits(Long.MAX_VALUE).plus(Money.ofMinorUnits(1)));
+        assertThrows(ArithmeticException.class, () -> Money.parse("0.001"));
+    }
+
+    /**
+     * Проверяет строковое представление сумм.
+     */
+    @Test
+    @Tag("money-format")
+    public void testToString() {
+        assertEquals("0.00", Money.ZERO.toString());
+        assertEquals("12.05", Money.ofMinorUnits(1_205).toString());
+        assertEquals("-0.05", Money.ofMinorUnits(-5).toString());
+        assertEquals("-1.50", Money.ofMinorUnits(-150).toString());
+    }
+
+    /**
+     * Проверяет чтение сумм из JSON и запись в JSON.
+     * @throws Exception Выбрасывает при ошибке преобразования JSON.
+     */
+    @Test
+    @Tag("money-json")
+    public void testJson() throws Exception {
+        AccountTransactionDTO transaction = objectMapper.readValue(
+                "{\"transferAmount\": 0.1}", AccountTransactionDTO.class);
+        assertEquals(Money.ofMinorUnits(10), transaction.getTransferAmount());
+        assertEquals(Money.ofMinorUnits(500),
+                objectMapper.readValue("{\"transferAmount\": 5}", AccountTransactionDTO.class).getTransferAmount());
+        assertEquals(Money.ofMinorUnits(1_999),
+                objectMapper.readValue("{\"transferAmount\": \"19.99\"}", AccountTransactionDTO.class).getTransferAmount());
+        assertThrows(InvalidFormatException.class,
+                () -> objectMapper.readValue("{\"transferAmount\": 0.005}", AccountTransactionDTO.class));
+
+        AccountInfoDTO accountInfoDTO = new AccountInfoDTO();
+        accountInfoDTO.setAccountName("account");
+        accountInfoDTO.setAccountBalance(Money.ofMinorUnits(12_345));
+        assertEquals("{\"accountName\":\"account\",\"accountBalance\":123.45}", objectMapper.writeValueAsString(accountInfoDTO));
+    }
+
+    /**
+     * Проверяет запись сумм в CBOR точным десятичным числом и обратное чтение.
+     * @throws Exception Выбрасывает при ошибке преобразования CBOR.
+     */
+    @Test
+    @Tag("money-cbor")
+    public void testCbor() throws Exception {
+        CBORMapper cborMapper = new CBORMapper();
+        AccountInfoDTO accountInfoDTO = new AccountInfoDTO();
+        accountInfoDTO.setAccountName("account");
+        accountInfoDTO.setAccountBalance(Money.parse("0.30"));
+
+        byte[] bytes = cborMapper.writeValueAsBytes(accountInfoDTO);
+
+        JsonNode balance = cborMapper.readTree(bytes).get("accountBalance");
+        assertTrue(balance.isBigDecimal());
+        assertEquals(0, new BigDecimal("0.30").compareTo(balance.decimalValue()));
+        assertEquals(Money.parse("0.30"), cborMapper.readValue(bytes, AccountInfoDTO.class).getAccountBalance());
+    }
+}
@@ -0,0 +1,212 @@
+package ru.averkiev.bankservice.repositories;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.averkiev.bankservice.models.Account;
+import ru.averkiev.bankservice.models.EntityStatus;
+
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Класс тестирует, что основные запросы счетов выполняются по индексам, а не полным просмотром таблицы,
+ * и не возвращают помеченные на удаление счета. Планы запросов, сформированных Hibernate, получаются командой EXPLAIN.
+ * @author mrGreenNV
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "ru.averkiev.bankservice.repositories.AccountRepositoryIndexTest$RecordingStatementInspector")
+@Tag("account-repository-index")
+class AccountRepositoryIndexTest {
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Account active;
+
+    private Account deleted;
+
+    @BeforeEach
+    public void setUp() {
+        for (int i = 0; i < 20; i++) {
+            accountRepository.save(account("account-" + i, i % 2 == 0 ? EntityStatus.ACTIVE : EntityStatus.DELETED));
+        }
+        active = accountRepository.save(account("active", EntityStatus.ACTIVE));
+        deleted = accountRepository.save(account("deleted", EntityStatus.DELETED));
+        entityManager.flush();
+        entityManager.clear();
+        RecordingStatementInspector.STATEMENTS.clear();
+    }
+
+    /**
+     * Проверяет, что помеченные на удаление счета не возвращаются запросами счетов, но их названия остаются заняты.
+     */
+    @Test
+    public void testDeletedAccountsAreFiltered() {
+        assertTrue(accountRepository.findById(active.getId()).isPresent());
+        assertTrue(accountRepository.findById(deleted.getId()).isEmpty());
+        assertFalse(accountRepository.existsById(deleted.getId()));
+        assertTrue(accountRepository.existsAnyAccountById(deleted.getId()));
+        assertEquals("DELETED", accountRepository.findStatusAndBalanceById(deleted.getId()).get(0)[0]);
+        assertTrue(accountRepository.findAccountByAccountName("deleted").isEmpty());
+        assertTrue(accountRepository.existsAccountByAccountName("deleted"));
+        assertFalse(accountRepository.existsNotDeletedAccountByAccountName("deleted"));
+        assertTrue(accountRepository.existsNotDeletedAccountByAccountName("active"));
+        assertEquals(11, accountRepository.findAll().size());
+        assertEquals(List.of(active.getId()),
+                accountRepository.findAllById(List.of(active.getId(), deleted.getId())).stream().map(Account::getId).toList());
+        assertTrue(accountRepository.findChangesPage(new Timestamp(0), 0L, new Timestamp(System.currentTimeMillis() + 60_000),
+                PageRequest.of(0, 100)).stream().anyMatch(change -> change.getStatus() == EntityStatus.DELETED));
+    }
+
+    /**
+     * Проверяет, что задание архивации не выбирает счета с проводками, еще не учтенными в балансе.
+     */
+    @Test
+    public void testArchiveSkipsAccountsWithPendingEntries() {
+        Timestamp future = new Timestamp(System.currentTimeMillis() + 60_000);
+        assertTrue(accountRepository.findIdsForArchive("DELETED", future, 100).contains(deleted.getId()));
+
+        jdbcTemplate.update("INSERT INTO ledger_entries (operation_id, account_id, amount, entry_type, materialized, created_at) "
+                + "VALUES ('op', ?, 100, 'DEPOSIT', FALSE, CURRENT_TIMESTAMP)", deleted.getId());
+
+        assertFalse(accountRepository.findIdsForArchive("DELETED", future, 100).contains(deleted.getId()));
+        assertEquals(List.of(deleted.getId(), 0L), accountRepository.findBalancesByIds(List.of(deleted.getId())).stream()
+                .flatMap(row -> Arrays.stream(row).map(value -> ((Number) value).longValue())).toList());
+    }
+
+    /**
+     * Проверяет, что распределение балансов при фоновом учете проводок учитывает проводки, еще не учтенные
+     * в столбце balance.
+     */
+    @Test
+    public void testBalanceDistributionIncludesUnmaterializedEntries() {
+        jdbcTemplate.update("INSERT INTO ledger_entries (operation_id, account_id, amount, entry_type, materialized, created_at) "
+                + "VALUES ('op', ?, 2000000, 'DEPOSIT', FALSE, CURRENT_TIMESTAMP)", active.getId());
+        long[] bounds = {1, 1_000_000};
+
+        List<Object[]> stored = accountRepository.findBalanceDistribution(bounds, false).stream()
+                .filter(row -> row[0] == EntityStatus.ACTIVE).toList();
+        assertEquals(1, stored.size());
+        assertArrayEquals(new Object[]{EntityStatus.ACTIVE, 0, 11L, 0L}, stored.get(0));
+
+        List<Object[]> consistent = accountRepository.findBalanceDistribution(bounds, true).stream()
+                .filter(row -> row[0] == EntityStatus.ACTIVE && (Integer) row[1] == 2).toList();
+        assertEquals(1, consistent.size());
+        assertArrayEquals(new Object[]{EntityStatus.ACTIVE, 2, 1L, 2_000_000L}, consistent.get(0));
+    }
+
+    /**
+     * Проверяет, что сохранение счета увеличивает версию, а сохранение устаревшей копии счета отклоняется.
+     */
+    @Test
+    public void testStaleSaveIsRejected() {
+        Account first = accountRepository.findById(active.getId()).orElseThrow();
+        entityManager.clear();
+        Account stale = accountRepository.findById(active.getId()).orElseThrow();
+        entityManager.clear();
+
+        first.setAccountName("renamed");
+        accountRepository.save(first);
+        entityManager.flush();
+        entityManager.clear();
+        assertEquals(Long.valueOf(1), accountRepository.findVersionById(active.getId()).orElseThrow());
+
+        stale.setAccountName("stale");
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> {
+            accountRepository.save(stale);
+            entityManager.flush();
+        });
+    }
+
+    /**
+     * Проверяет планы основных запросов счетов.
+     */
+    @Test
+    public void testHotQueriesUseIndexes() {
+        assertUsesIndex("PRIMARY_KEY", () -> accountRepository.findById(active.getId()), active.getId());
+        assertUsesIndex("PRIMARY_KEY", () -> accountRepository.findVersionById(active.getId()), active.getId());
+        assertUsesIndex("PRIMARY_KEY", () -> accountRepository.findAllById(List.of(active.getId(), deleted.getId())),
+                active.getId(), deleted.getId());
+        assertUsesIndex(": NAME = ?1", () -> accountRepository.findAccountByAccountName("active"), "active");
+        assertUsesIndex(": NAME = ?1", () -> accountRepository.existsAccountByAccountName("active"), "active");
+        assertUsesIndex(": NAME = ?1", () -> accountRepository.existsNotDeletedAccountByAccountName("active"), "active");
+        assertUsesIndex("IDX_ACCOUNTS_STATUS_ID", () -> accountRepository.findAll());
+        assertUsesIndex("IDX_ACCOUNTS_STATUS_ID", () -> accountRepository.findAll(PageRequest.of(0, 5)), 0, 5);
+        assertUsesIndex("IDX_ACCOUNTS_STATUS_ID", () -> accountRepository.findVersionsPage(PageRequest.of(0, 5)), 0, 5);
+        assertUsesIndex("IDX_ACCOUNTS_STATUS_ID", () -> accountRepository.findAccountsVersion());
+        assertUsesIndex("IDX_ACCOUNTS_UPDATED_AT_ID", () -> accountRepository.findChangesPage(new Timestamp(0), 0L,
+                        new Timestamp(System.currentTimeMillis()), PageRequest.of(0, 5)),
+                new Timestamp(System.currentTimeMillis()), new Timestamp(0), new Timestamp(0), 0L, 5);
+        assertUsesIndex("IDX_ACCOUNTS_STATUS_ID", () -> accountRepository.findIdsForArchive("DELETED",
+                new Timestamp(System.currentTimeMillis()), 5), "DELETED", new Timestamp(System.currentTimeMillis()), 5);
+        assertUsesIndex("PRIMARY_KEY", () -> accountRepository.findNamesPage(0L, 5), 0L, 5);
+        assertUsesIndex("IDX_ACCOUNTS_STATUS_ID", () -> accountRepository.findIdsByCriteria("ACTIVE", 0L,
+                new Timestamp(System.currentTimeMillis()), 5), "ACTIVE", 0L, new Timestamp(System.currentTimeMillis()), 5);
+        assertUsesIndex("PRIMARY_KEY", () -> accountRepository.findIdsByIdsAndCriteria(List.of(active.getId(), deleted.getId()),
+                        List.of("ACTIVE"), new Timestamp(System.currentTimeMillis())),
+                active.getId(), deleted.getId(), "ACTIVE", new Timestamp(System.currentTimeMillis()));
+    }
+
+    /**
+     * Выполняет запрос, получает планы сформированных SQL-запросов и проверяет, что они используют индекс.
+     * @param index Часть названия индекса или условия, выполняемого по индексу.
+     * @param query Запрос репозитория.
+     * @param parameters Значения параметров SQL-запросов в порядке их выполнения.
+     */
+    private void assertUsesIndex(String index, Runnable query, Object... parameters) {
+        RecordingStatementInspector.STATEMENTS.clear();
+        query.run();
+        assertFalse(RecordingStatementInspector.STATEMENTS.isEmpty());
+
+        int from = 0;
+        for (String sql : RecordingStatementInspector.STATEMENTS) {
+            int count = (int) sql.chars().filter(c -> c == '?').count();
+            String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class,
+                    Arrays.copyOfRange(parameters, from, from + count));
+            from += count;
+            assertFalse(plan.contains("tableScan"), plan);
+            assertTrue(plan.toUpperCase().contains(index), plan);
+        }
+        assertEquals(parameters.length, from);
+    }
+
+    private static Account account(String name, EntityStatus status) {
+        Account account = new Account();
+        account.setAccountName(name);
+        account.setPin("pin");
+        account.setEntityStatus(status);
+        return account;
+    }
+
+    /**
+     * Сохраняет SQL-запросы, сформированные Hibernate.
+     */
+    public static class RecordingStatementInspector implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
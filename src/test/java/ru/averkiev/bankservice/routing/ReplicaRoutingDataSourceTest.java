@@ -0,0 +1,77 @@
+package ru.averkiev.bankservice.routing;
+
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Класс тестирует выбор основной базы данных или реплики для запросов.
+ * @author mrGreenNV
+ */
+@Tag("replica-routing")
+class ReplicaRoutingDataSourceTest {
+
+    private final ReplicaRoutingDataSource dataSource =
+            new ReplicaRoutingDataSource(mock(DataSource.class), mock(DataSource.class));
+
+    @AfterEach
+    public void clearContext() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        ReadYourWritesContext.clear();
+    }
+
+    /**
+     * Проверяет, что на реплику направляются только транзакции только для чтения вне окна чтения собственных изменений.
+     */
+    @Test
+    public void testDetermineCurrentLookupKey() {
+        assertEquals(DataSourceRoute.PRIMARY, dataSource.determineCurrentLookupKey());
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertEquals(DataSourceRoute.REPLICA, dataSource.determineCurrentLookupKey());
+
+        ReadYourWritesContext.requirePrimary();
+        assertEquals(DataSourceRoute.PRIMARY, dataSource.determineCurrentLookupKey());
+    }
+
+    /**
+     * Проверяет, что изменяющий запрос открывает окно чтения собственных изменений, а чтение в окне
+     * выполняется в основной базе данных.
+     */
+    @Test
+    public void testReadYourWritesFilter() throws Exception {
+        ReadYourWritesFilter filter = new ReadYourWritesFilter(2_000);
+        List<Boolean> primaryRequired = new ArrayList<>();
+
+        MockHttpServletResponse writeResponse = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/accounts/1/deposit"), writeResponse,
+                (request, response) -> primaryRequired.add(ReadYourWritesContext.isPrimaryRequired()));
+        Cookie cookie = writeResponse.getCookie(ReadYourWritesFilter.COOKIE_NAME);
+        assertNotNull(cookie);
+
+        MockHttpServletRequest readInWindow = new MockHttpServletRequest("GET", "/api/accounts/1");
+        readInWindow.setCookies(cookie);
+        filter.doFilter(readInWindow, new MockHttpServletResponse(),
+                (request, response) -> primaryRequired.add(ReadYourWritesContext.isPrimaryRequired()));
+
+        MockHttpServletRequest readAfterWindow = new MockHttpServletRequest("GET", "/api/accounts/1");
+        readAfterWindow.setCookies(new Cookie(ReadYourWritesFilter.COOKIE_NAME, String.valueOf(System.currentTimeMillis() - 1)));
+        filter.doFilter(readAfterWindow, new MockHttpServletResponse(),
+                (request, response) -> primaryRequired.add(ReadYourWritesContext.isPrimaryRequired()));
+
+        assertEquals(List.of(true, true, false), primaryRequired);
+        assertFalse(ReadYourWritesContext.isPrimaryRequired());
+    }
+}
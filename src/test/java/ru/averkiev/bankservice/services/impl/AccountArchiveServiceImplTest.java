@@ -0,0 +1,175 @@
+package ru.averkiev.bankservice.services.impl;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.averkiev.bankservice.engine.LedgerEngine;
+import ru.averkiev.bankservice.exceptions.AccountNotFoundException;
+import ru.averkiev.bankservice.repositories.AccountRepository;
+import ru.averkiev.bankservice.repositories.ArchivedAccountRepository;
+import ru.averkiev.bankservice.services.AccountSearchService;
+import ru.averkiev.bankservice.services.AccountStatsService;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Класс тестирует перенос счетов в архив и получение архивных счетов.
+ * @author mrGreenNV
+ */
+@Tag("account-archive-service")
+class AccountArchiveServiceImplTest {
+
+    private AutoCloseable closeable;
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private ArchivedAccountRepository archivedAccountRepository;
+
+    @Mock
+    private AccountSearchService accountSearchService;
+
+    @Mock
+    private AccountStatsService accountStatsService;
+
+    @Mock
+    private ObjectProvider<LedgerEngine> ledgerEngineProvider;
+
+    @Mock
+    private DataSource dataSource;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    public void openMocks() {
+        closeable = MockitoAnnotations.openMocks(this);
+    }
+
+    @AfterEach
+    public void releaseMocks() throws Exception {
+        closeable.close();
+    }
+
+    /**
+     * Проверяет, что пачка помеченных на удаление счетов копируется в архив и удаляется из таблицы счетов,
+     * а неактивные счета без настройки bank.archive.not-active-min-age-ms не переносятся.
+     */
+    @Test
+    @Tag("archive-accounts")
+    public void testArchiveAccounts_Deleted() {
+        AccountArchiveServiceImpl archiveService = archiveService(0);
+        when(accountRepository.findIdsForArchive(eq("DELETED"), any(), eq(500))).thenReturn(List.of(1L, 2L));
+        when(archivedAccountRepository.copyFromAccounts(List.of(1L, 2L))).thenReturn(2);
+        when(accountRepository.deleteByIds(List.of(1L, 2L))).thenReturn(2);
+
+        assertEquals(2, archiveService.archiveAccounts());
+
+        verify(archivedAccountRepository).copyFromAccounts(List.of(1L, 2L));
+        verify(accountRepository).deleteByIds(List.of(1L, 2L));
+        verify(accountSearchService).removeAccounts(List.of(1L, 2L));
+        verify(accountStatsService).deletedAccountsRemoved(2);
+        verify(accountStatsService, never()).requestReconcile();
+        verify(accountRepository, never()).findIdsForArchive(eq("NOT_ACTIVE"), any(), anyInt());
+    }
+
+    /**
+     * Проверяет, что неактивные счета переносятся в пределах оставшегося размера пачки.
+     */
+    @Test
+    @Tag("archive-accounts")
+    public void testArchiveAccounts_NotActive() {
+        AccountArchiveServiceImpl archiveService = archiveService(60_000);
+        when(accountRepository.findIdsForArchive(eq("DELETED"), any(), eq(500))).thenReturn(List.of(1L));
+        when(accountRepository.findIdsForArchive(eq("NOT_ACTIVE"), any(), eq(499))).thenReturn(List.of(3L));
+        when(accountRepository.deleteByIds(any())).thenReturn(1);
+
+        assertEquals(2, archiveService.archiveAccounts());
+
+        verify(archivedAccountRepository).copyFromAccounts(List.of(3L));
+        verify(accountStatsService).deletedAccountsRemoved(1);
+        verify(accountStatsService).requestReconcile();
+    }
+
+    /**
+     * Проверяет, что в профиле ledger-engine счета удаляются из движка после переноса, а в архив записывается
+     * итоговый баланс счета, еще не сохраненный движком в таблице accounts.
+     */
+    @Test
+    @Tag("archive-accounts")
+    public void testArchiveAccounts_LedgerEngine_ArchivesEngineBalance() {
+        AccountArchiveServiceImpl archiveService = archiveService(60_000);
+        LedgerEngine ledgerEngine = mock(LedgerEngine.class);
+        when(ledgerEngineProvider.getIfAvailable()).thenReturn(ledgerEngine);
+        when(accountRepository.findIdsForArchive(eq("NOT_ACTIVE"), any(), eq(500))).thenReturn(List.of(3L, 4L));
+        when(accountRepository.findBalancesByIds(List.of(3L, 4L))).thenReturn(List.of(
+                new Object[]{3L, 10_000L}, new Object[]{4L, 500L}));
+        when(accountRepository.deleteByIds(List.of(3L, 4L))).thenReturn(2);
+        when(ledgerEngine.close(3L)).thenReturn(10_000L);
+        when(ledgerEngine.close(4L)).thenReturn(1_500L);
+
+        assertEquals(2, archiveService.archiveAccounts());
+
+        InOrder order = inOrder(accountRepository, transactionManager, ledgerEngine);
+        order.verify(accountRepository).deleteByIds(List.of(3L, 4L));
+        order.verify(transactionManager).commit(any());
+        order.verify(ledgerEngine).close(3L);
+        verify(ledgerEngine).close(4L);
+        verify(archivedAccountRepository).updateBalance(4L, 1_500L);
+        verify(archivedAccountRepository, never()).updateBalance(eq(3L), anyLong());
+        verify(accountSearchService).removeAccounts(List.of(3L, 4L));
+    }
+
+    /**
+     * Проверяет, что архивация пропускается, пока запросы клиентов ожидают соединений с базой данных.
+     */
+    @Test
+    @Tag("archive-accounts")
+    public void testArchiveAccounts_PoolBusy() throws Exception {
+        HikariDataSource hikariDataSource = mock(HikariDataSource.class);
+        HikariPoolMXBean pool = mock(HikariPoolMXBean.class);
+        when(dataSource.isWrapperFor(HikariDataSource.class)).thenReturn(true);
+        when(dataSource.unwrap(HikariDataSource.class)).thenReturn(hikariDataSource);
+        when(hikariDataSource.getHikariPoolMXBean()).thenReturn(pool);
+        when(pool.getThreadsAwaitingConnection()).thenReturn(3);
+
+        assertEquals(0, archiveService(0).archiveAccounts());
+
+        verifyNoInteractions(accountRepository, archivedAccountRepository);
+    }
+
+    /**
+     * Проверяет получение отсутствующего в архиве счета.
+     */
+    @Test
+    @Tag("get-archived-account")
+    public void testGetArchivedAccount_NotFound() {
+        when(archivedAccountRepository.findById(1L)).thenReturn(Optional.empty());
+
+        assertThrows(AccountNotFoundException.class, () -> archiveService(0).getArchivedAccount(1L));
+    }
+
+    private AccountArchiveServiceImpl archiveService(long notActiveMinAgeMs) {
+        return new AccountArchiveServiceImpl(accountRepository, archivedAccountRepository, accountSearchService,
+                accountStatsService, ledgerEngineProvider, dataSource, transactionManager, 500, 86_400_000,
+                notActiveMinAgeMs);
+    }
+}
@@ -0,0 +1,95 @@
+package ru.averkiev.bankservice.services.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Pageable;
+import ru.averkiev.bankservice.exceptions.ChangeTokenException;
+import ru.averkiev.bankservice.models.AccountChangeDTO;
+import ru.averkiev.bankservice.models.AccountChangesDTO;
+import ru.averkiev.bankservice.models.EntityStatus;
+import ru.averkiev.bankservice.models.Money;
+import ru.averkiev.bankservice.repositories.AccountRepository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Класс тестирует получение изменений счетов по токену синхронизации.
+ * @author mrGreenNV
+ */
+@Tag("account-change-service")
+class AccountChangeServiceImplTest {
+
+    private AutoCloseable closeable;
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    private AccountChangeServiceImpl accountChangeService;
+
+    @BeforeEach
+    public void openMocks() {
+        closeable = MockitoAnnotations.openMocks(this);
+        accountChangeService = new AccountChangeServiceImpl(accountRepository, 500, 5_000, 2_000);
+    }
+
+    @AfterEach
+    public void releaseMocks() throws Exception {
+        closeable.close();
+    }
+
+    /**
+     * Проверяет ограничение размера страницы и продолжение с позиции последнего переданного счета.
+     */
+    @Test
+    @Tag("account-changes")
+    public void testGetChanges_ContinuesFromToken() {
+        Timestamp updatedAt = Timestamp.valueOf(LocalDateTime.of(2023, 10, 1, 12, 0, 0, 123_456_789));
+        List<AccountChangeDTO> rows = List.of(change(1L, updatedAt), change(2L, updatedAt), change(3L, updatedAt));
+        when(accountRepository.findChangesPage(any(), any(), any(), any())).thenReturn(rows);
+
+        AccountChangesDTO first = accountChangeService.getChanges(null, 2);
+
+        assertEquals(2, first.getAccounts().size());
+        assertTrue(first.isHasMore());
+        ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+        verify(accountRepository).findChangesPage(eq(new Timestamp(0)), eq(0L), any(), pageable.capture());
+        assertEquals(3, pageable.getValue().getPageSize());
+
+        when(accountRepository.findChangesPage(any(), any(), any(), any())).thenReturn(List.of());
+
+        AccountChangesDTO second = accountChangeService.getChanges(first.getNextToken(), 2);
+
+        assertFalse(second.isHasMore());
+        assertEquals(first.getNextToken(), second.getNextToken());
+        verify(accountRepository).findChangesPage(eq(updatedAt), eq(2L), any(), any());
+    }
+
+    /**
+     * Проверяет отклонение некорректного токена.
+     */
+    @Test
+    @Tag("account-changes")
+    public void testGetChanges_InvalidToken() {
+        assertThrows(ChangeTokenException.class, () -> accountChangeService.getChanges("не токен", null));
+        assertThrows(ChangeTokenException.class, () -> accountChangeService.getChanges("MTIz", null));
+
+        verifyNoInteractions(accountRepository);
+    }
+
+    private AccountChangeDTO change(Long id, Date updatedAt) {
+        return new AccountChangeDTO(id, "Счет " + id, Money.parse("10.00"), EntityStatus.ACTIVE, updatedAt);
+    }
+}
@@ -4,22 +4,42 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.averkiev.bankservice.engine.LedgerEngine;
 import ru.averkiev.bankservice.exceptions.*;
 import ru.averkiev.bankservice.models.*;
+import ru.averkiev.bankservice.monitoring.AccountOperationPhaseEvent;
 import ru.averkiev.bankservice.repositories.AccountRepository;
-
+import ru.averkiev.bankservice.services.AccountSearchService;
+import ru.averkiev.bankservice.services.AccountStatsService;
+import ru.averkiev.bankservice.services.BalanceEventService;
+import ru.averkiev.bankservice.services.LedgerService;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
@@ -40,6 +60,24 @@ class AccountServiceImplTest {
     @Mock
     private ModelMapper modelMapper;
 
+    @Mock
+    private ObjectProvider<LedgerEngine> ledgerEngineProvider;
+
+    @Mock
+    private LedgerService ledgerService;
+
+    @Mock
+    private BalanceEventService balanceEventService;
+
+    @Mock
+    private AccountSearchService accountSearchService;
+
+    @Mock
+    private AccountStatsService accountStatsService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     @InjectMocks
     private AccountServiceImpl accountService;
 
@@ -86,6 +124,7 @@ class AccountServiceImplTest {
         verify(modelMapper, times(1)).map(accountCreateDTO, Account.class);
         verify(passwordEncoder, times(1)).encode(any(String.class));
         verify(accountRepository, times(1)).save(any(Account.class));
+        verify(accountSearchService, times(1)).indexAccount(account.getId(), testAccountName);
 
         assertNotNull(result);
         assertEquals(testAccountName, result.getAccountName());
@@ -193,6 +232,7 @@ class AccountServiceImplTest {
         verify(passwordEncoder, times(1)).matches(any(String.class), any(String.class));
         verify(accountRepository, times(1)).save(saveAccount);
         verify(modelMapper, times(1)).map(saveAccount, AccountInfoDTO.class);
+        verify(accountSearchService, times(1)).indexAccount(accountId, newAccountName);
 
         assertNotNull(result);
         assertEquals(newAccountName, saveAccount.getAccountName());
@@ -430,6 +470,126 @@ class AccountServiceImplTest {
 
     }
 
+    /**
+     * Проверяет формирование ETag счета по версии без загрузки счета и с учетом баланса движка учета балансов.
+     */
+    @Test
+    @Tag("get-account-etag")
+    public void testGetAccountETag_FromVersion() {
+
+        LedgerEngine ledgerEngine = mock(LedgerEngine.class);
+
+        when(accountRepository.findVersionById(1L)).thenReturn(Optional.of(7L));
+
+        assertEquals("7", accountService.getAccountETag(1L, false));
+
+        when(ledgerEngineProvider.getIfAvailable()).thenReturn(ledgerEngine);
+        when(ledgerEngine.balance(1L)).thenReturn(12_345L);
+
+        assertEquals("7-12345", accountService.getAccountETag(1L, false));
+        verify(accountRepository, never()).findById(anyLong());
+        verify(modelMapper, never()).map(any(), any());
+
+        when(accountRepository.findVersionById(2L)).thenReturn(Optional.empty());
+
+        assertThrows(AccountNotFoundException.class, () -> accountService.getAccountETag(2L, false));
+    }
+
+    /**
+     * Проверяет чтение только выбранных полей счета и получение баланса из движка учета балансов.
+     */
+    @Test
+    @Tag("get-info-account-fields")
+    public void testGetInfoAccountFields_Success() {
+
+        LedgerEngine ledgerEngine = mock(LedgerEngine.class);
+
+        when(accountRepository.findAttributesById(1L, List.of("accountBalance", "accountName")))
+                .thenReturn(Optional.of(new Object[] {Money.parse("1.00"), "account"}));
+        when(ledgerEngineProvider.getIfAvailable()).thenReturn(ledgerEngine);
+        when(ledgerEngine.balance(1L)).thenReturn(250L);
+
+        Map<String, Object> result = accountService.getInfoAccount(1L, false, List.of("balance", " accountName", "balance"));
+
+        assertEquals(List.of("balance", "accountName"), new ArrayList<>(result.keySet()));
+        assertEquals(Money.parse("2.50"), result.get("balance"));
+        assertEquals("account", result.get("accountName"));
+        verify(accountRepository, never()).findById(anyLong());
+    }
+
+    /**
+     * Проверяет выброс исключения при запросе неизвестного поля.
+     */
+    @Test
+    @Tag("get-info-account-fields")
+    public void testGetAllAccountsFields_UnknownField_ThrowFieldSelectionException() {
+
+        Throwable result = assertThrows(FieldSelectionException.class,
+                () -> accountService.getAllAccounts(List.of("accountName", "pin")));
+
+        assertEquals("Неизвестное поле: pin, допустимые поля: [accountBalance, accountName]", result.getMessage());
+        assertThrows(FieldSelectionException.class, () -> accountService.getAllAccounts(List.of(" ")));
+        verifyNoInteractions(accountRepository);
+    }
+
+    /**
+     * Проверяет загрузку счетов по списку частями, порядок счетов в ответе и перечисление ненайденных счетов.
+     */
+    @Test
+    @Tag("get-info-accounts")
+    @SuppressWarnings("unchecked")
+    public void testGetInfoAccounts_KeepsRequestOrder() {
+
+        List<Long> ids = new ArrayList<>();
+        for (long id = AccountServiceImpl.BATCH_CHUNK_SIZE + 1; id >= 1; id--) {
+            ids.add(id);
+        }
+        ids.add(2L);
+        ids.add(1_000_000L);
+
+        when(accountRepository.findAllById(any())).thenAnswer(invocation -> {
+            List<Account> accounts = new ArrayList<>();
+            for (Long id : (Iterable<Long>) invocation.getArgument(0)) {
+                if (id < 1_000_000L) {
+                    Account account = new Account();
+                    account.setId(id);
+                    accounts.add(0, account);
+                }
+            }
+            return accounts;
+        });
+        when(modelMapper.map(any(Account.class), eq(AccountDTO.class))).thenAnswer(invocation -> {
+            AccountDTO accountDTO = new AccountDTO();
+            accountDTO.setId(invocation.getArgument(0, Account.class).getId());
+            return accountDTO;
+        });
+
+        AccountsBatchDTO result = accountService.getInfoAccounts(ids);
+
+        verify(accountRepository, times(2)).findAllById(any());
+        assertEquals(ids.subList(0, AccountServiceImpl.BATCH_CHUNK_SIZE + 1),
+                result.getAccounts().stream().map(AccountDTO::getId).toList());
+        assertEquals(List.of(1_000_000L), result.getMissingIds());
+        verify(accountRepository, never()).findById(anyLong());
+    }
+
+    /**
+     * Проверяет выброс исключения при пустом и слишком большом списке идентификаторов.
+     */
+    @Test
+    @Tag("get-info-accounts")
+    public void testGetInfoAccounts_InvalidIds_ThrowAccountBatchException() {
+
+        List<Long> ids = new ArrayList<>();
+        for (long id = 0; id <= AccountServiceImpl.BATCH_MAX_IDS; id++) {
+            ids.add(id);
+        }
+
+        assertThrows(AccountBatchException.class, () -> accountService.getInfoAccounts(List.of()));
+        assertThrows(AccountBatchException.class, () -> accountService.getInfoAccounts(ids));
+        verifyNoInteractions(accountRepository);
+    }
+
     /**
      * Проверяет получение списка всех счетов.
      */
@@ -462,12 +622,61 @@ class AccountServiceImplTest {
     public void testDeleteAccount_Success()
             throws AccountNotFoundException {
 
-        when(accountRepository.existsById(anyLong())).thenReturn(true);
+        when(accountRepository.existsAnyAccountById(1L)).thenReturn(true);
+        when(accountRepository.findStatusAndBalanceById(1L)).thenReturn(List.<Object[]>of(new Object[]{"ACTIVE", 15_000L}));
 
-        accountService.deleteAccount(anyLong());
+        accountService.deleteAccount(1L);
 
-        verify(accountRepository, times(1)).existsById(anyLong());
-        verify(accountRepository, times(1)).deleteById(anyLong());
+        verify(accountRepository, times(1)).existsAnyAccountById(1L);
+        verify(accountRepository, times(1)).deleteByIds(List.of(1L));
+        verify(accountStatsService, times(1)).accountRemoved(EntityStatus.ACTIVE, Money.parse("150.00"));
+
+    }
+
+    /**
+     * Проверяет, что помеченный на удаление счет удаляется окончательно, а не считается ненайденным.
+     */
+    @Test
+    @Tag("delete-account")
+    public void testDeleteAccount_SoftDeleted_Success() {
+
+        when(accountRepository.existsAnyAccountById(1L)).thenReturn(true);
+        when(accountRepository.findStatusAndBalanceById(1L)).thenReturn(List.<Object[]>of(new Object[]{"DELETED", 0L}));
+
+        accountService.deleteAccount(1L);
+
+        verify(accountRepository, never()).existsById(anyLong());
+        verify(accountRepository, times(1)).deleteByIds(List.of(1L));
+        verify(accountStatsService, times(1)).accountRemoved(EntityStatus.DELETED, Money.ZERO);
+
+    }
+
+    /**
+     * Проверяет, что при ошибке удаления счета в базе данных счет не удаляется из движка учета балансов,
+     * а после успешного удаления удаляется из движка после фиксации транзакции.
+     */
+    @Test
+    @Tag("delete-account")
+    public void testDeleteAccount_LedgerEngine_ClosedAfterCommit() {
+
+        LedgerEngine ledgerEngine = mock(LedgerEngine.class);
+
+        when(ledgerEngineProvider.getIfAvailable()).thenReturn(ledgerEngine);
+        when(ledgerEngine.balance(1L)).thenReturn(15_000L);
+        when(accountRepository.existsAnyAccountById(1L)).thenReturn(true);
+        when(accountRepository.findStatusAndBalanceById(1L)).thenReturn(List.<Object[]>of(new Object[]{"ACTIVE", 0L}));
+        when(accountRepository.deleteByIds(List.of(1L))).thenThrow(new IllegalStateException("delete failed")).thenReturn(1);
+
+        assertThrows(IllegalStateException.class, () -> accountService.deleteAccount(1L));
+        verify(ledgerEngine, never()).close(anyLong());
+
+        accountService.deleteAccount(1L);
+
+        InOrder order = inOrder(accountRepository, transactionManager, ledgerEngine);
+        order.verify(accountRepository).deleteByIds(List.of(1L));
+        order.verify(transactionManager).commit(any());
+        order.verify(ledgerEngine).close(1L);
+        verify(accountStatsService, times(1)).accountRemoved(EntityStatus.ACTIVE, Money.parse("150.00"));
 
     }
 
@@ -482,12 +691,12 @@ class AccountServiceImplTest {
 
         Long accountId = 1L;
 
-        when(accountRepository.existsById(anyLong())).thenReturn(false);
+        when(accountRepository.existsAnyAccountById(anyLong())).thenReturn(false);
 
         Throwable result = assertThrows(AccountNotFoundException.class, () -> accountService.deleteAccount(accountId));
 
-        verify(accountRepository, times(1)).existsById(anyLong());
-        verify(accountRepository, never()).deleteById(anyLong());
+        verify(accountRepository, times(1)).existsAnyAccountById(anyLong());
+        verify(accountRepository, never()).deleteByIds(any());
 
         assertNotNull(result);
         assertEquals(AccountNotFoundException.class, result.getClass());
@@ -515,6 +724,7 @@ class AccountServiceImplTest {
         verify(accountRepository, times(1)).existsById(anyLong());
         verify(accountRepository, times(1)).findById(anyLong());
         verify(accountRepository, never()).deleteById(anyLong());
+        verify(accountStatsService, times(1)).statusChanged(eq(EntityStatus.ACTIVE), eq(EntityStatus.DELETED), any());
 
         assertEquals(EntityStatus.DELETED, account.getEntityStatus());
 
@@ -544,6 +754,116 @@ class AccountServiceImplTest {
 
     }
 
+    /**
+     * Проверяет, что удаление счетов по условиям выполняется пачками по BULK_CHUNK_SIZE счетов, следующая пачка
+     * выбирается после последнего идентификатора предыдущей, а удаленные счета закрываются в движке учета балансов.
+     */
+    @Test
+    @Tag("delete-accounts")
+    public void testDeleteAccounts_ByCriteria_InChunks() {
+
+        AccountBulkRequestDTO request = new AccountBulkRequestDTO();
+        request.setStatus(EntityStatus.NOT_ACTIVE);
+        request.setCreatedBefore(LocalDateTime.of(2024, 1, 1, 0, 0));
+
+        List<Long> firstChunk = new ArrayList<>();
+        for (long id = 1; id <= AccountServiceImpl.BULK_CHUNK_SIZE; id++) {
+            firstChunk.add(id);
+        }
+        long lastId = AccountServiceImpl.BULK_CHUNK_SIZE;
+        LedgerEngine ledgerEngine = mock(LedgerEngine.class);
+
+        when(ledgerEngineProvider.getIfAvailable()).thenReturn(ledgerEngine);
+        when(accountRepository.findIdsByCriteria(eq("NOT_ACTIVE"), eq(0L), eq(Timestamp.valueOf("2024-01-01 00:00:00")),
+                eq(AccountServiceImpl.BULK_CHUNK_SIZE))).thenReturn(firstChunk);
+        when(accountRepository.findIdsByCriteria(eq("NOT_ACTIVE"), eq(lastId), any(), anyInt())).thenReturn(List.of(lastId + 1));
+        when(accountRepository.deleteByIds(any())).thenAnswer(invocation -> invocation.getArgument(0, List.class).size());
+
+        AccountBulkResultDTO result = accountService.deleteAccounts(request);
+
+        assertEquals(AccountServiceImpl.BULK_CHUNK_SIZE + 1, result.getAffected());
+        verify(accountRepository, times(2)).findIdsByCriteria(any(), anyLong(), any(), anyInt());
+        verify(accountRepository).deleteByIds(List.of(lastId + 1));
+        verify(ledgerEngine).close(lastId + 1);
+        verify(balanceEventService).close(lastId + 1);
+        verify(accountSearchService).removeAccounts(List.of(lastId + 1));
+        verify(accountRepository, never()).deleteById(anyLong());
+
+    }
+
+    /**
+     * Проверяет, что деактивация счетов по списку идентификаторов выполняется одним запросом UPDATE для счетов,
+     * найденных среди активных и неактивных, а повторяющиеся идентификаторы передаются один раз.
+     */
+    @Test
+    @Tag("soft-delete-accounts")
+    public void testSoftDeleteAccounts_ByIds() {
+
+        AccountBulkRequestDTO request = new AccountBulkRequestDTO();
+        request.setIds(List.of(3L, 1L, 3L, 2L));
+
+        when(accountRepository.findIdsByIdsAndCriteria(List.of(1L, 2L, 3L), List.of("ACTIVE", "NOT_ACTIVE"),
+                Timestamp.valueOf("9999-12-31 23:59:59"))).thenReturn(List.of(1L, 3L));
+        when(accountRepository.updateStatusByIds(List.of(1L, 3L), "DELETED")).thenReturn(2);
+
+        AccountBulkResultDTO result = accountService.softDeleteAccounts(request);
+
+        assertEquals(2, result.getAffected());
+        verify(accountRepository, never()).findById(anyLong());
+        verify(accountRepository, never()).save(any());
+        verify(accountStatsService, times(1)).requestReconcile();
+
+    }
+
+    /**
+     * Проверяет, что при изменении статуса счета с новым статусом не выбираются, а при совпадении условия
+     * со статусом назначения запросы не выполняются.
+     */
+    @Test
+    @Tag("change-accounts-status")
+    public void testChangeAccountsStatus_SkipsTargetStatus() {
+
+        AccountBulkRequestDTO request = new AccountBulkRequestDTO();
+        request.setIds(List.of(1L, 2L));
+        request.setTargetStatus(EntityStatus.NOT_ACTIVE);
+
+        when(accountRepository.findIdsByIdsAndCriteria(eq(List.of(1L, 2L)), eq(List.of("ACTIVE")), any()))
+                .thenReturn(List.of(2L));
+        when(accountRepository.updateStatusByIds(List.of(2L), "NOT_ACTIVE")).thenReturn(1);
+
+        assertEquals(1, accountService.changeAccountsStatus(request).getAffected());
+
+        request.setStatus(EntityStatus.NOT_ACTIVE);
+        assertEquals(0, accountService.changeAccountsStatus(request).getAffected());
+        verify(accountRepository, times(1)).findIdsByIdsAndCriteria(any(), any(), any());
+        verify(accountStatsService, times(1)).requestReconcile();
+
+    }
+
+    /**
+     * Проверяет выброс исключения при массовой операции без идентификаторов и условий, со слишком большим
+     * списком идентификаторов или без нового статуса.
+     */
+    @Test
+    @Tag("delete-accounts")
+    public void testBulkOperations_InvalidRequest_ThrowAccountBatchException() {
+
+        List<Long> ids = new ArrayList<>();
+        for (long id = 0; id <= AccountServiceImpl.BULK_MAX_IDS; id++) {
+            ids.add(id);
+        }
+        AccountBulkRequestDTO tooManyIds = new AccountBulkRequestDTO();
+        tooManyIds.setIds(ids);
+        AccountBulkRequestDTO noTargetStatus = new AccountBulkRequestDTO();
+        noTargetStatus.setIds(List.of(1L));
+
+        assertThrows(AccountBatchException.class, () -> accountService.deleteAccounts(new AccountBulkRequestDTO()));
+        assertThrows(AccountBatchException.class, () -> accountService.softDeleteAccounts(tooManyIds));
+        assertThrows(AccountBatchException.class, () -> accountService.changeAccountsStatus(noTargetStatus));
+        verifyNoInteractions(accountRepository);
+
+    }
+
     /**
      * Проверяет корректность пополнения банковского счета.
      * @throws AccountNotFoundException Выбрасывает при возникновении ошибки на этапе поиска счета.
@@ -553,9 +873,9 @@ class AccountServiceImplTest {
     public void testDeposit_Success()
             throws AccountNotFoundException {
 
-        Double startBalance = 0.;
-        Double amount = 50.;
-        Double currentBalance = startBalance + amount;
+        Money startBalance = Money.parse("0.00");
+        Money amount = Money.parse("50.00");
+        Money currentBalance = startBalance.plus(amount);
 
         Account account = new Account();
         account.setAccountBalance(startBalance);
@@ -573,6 +893,7 @@ class AccountServiceImplTest {
 
         verify(accountRepository, times(1)).findById(anyLong());
         verify(accountRepository, times(1)).save(any());
+        verify(accountStatsService, times(1)).balanceChanged(startBalance, currentBalance);
 
         assertNotNull(result);
         assertEquals(currentBalance, account.getAccountBalance());
@@ -617,9 +938,9 @@ class AccountServiceImplTest {
     public void testDeposit_IncorrectAmount_ThrowAccountWithdrawException()
             throws AccountWithdrawException, AccountNotFoundException {
 
-        Double startBalance = 0.;
-        Double amount = -50.;
-        Double currentBalance = startBalance + amount;
+        Money startBalance = Money.parse("0.00");
+        Money amount = Money.parse("-50.00");
+        Money currentBalance = startBalance.plus(amount);
 
         Account account = new Account();
         account.setAccountBalance(startBalance);
@@ -653,9 +974,9 @@ class AccountServiceImplTest {
     public void testWithdraw_Success()
             throws AccountNotFoundException, AccountAccessException, AccountWithdrawException {
 
-        Double startBalance = 100.;
-        Double amount = 30.;
-        Double currentBalance = startBalance - amount;
+        Money startBalance = Money.parse("100.00");
+        Money amount = Money.parse("30.00");
+        Money currentBalance = startBalance.minus(amount);
 
         Account account = new Account();
         account.setAccountBalance(startBalance);
@@ -758,8 +1079,8 @@ class AccountServiceImplTest {
     public void testWithdraw_AmountNegativeOrZero_ThrowAccountWithdrawException()
             throws AccountNotFoundException, AccountAccessException, AccountWithdrawException {
 
-        Double startBalance = 100.;
-        Double amount = -10.;
+        Money startBalance = Money.parse("100.00");
+        Money amount = Money.parse("-10.00");
 
         Account account = new Account();
         account.setAccountBalance(startBalance);
@@ -799,8 +1120,8 @@ class AccountServiceImplTest {
     public void testWithdraw_AmountExceedingBalance_ThrowAccountWithdrawException()
             throws AccountNotFoundException, AccountAccessException, AccountWithdrawException {
 
-        Double startBalance = 100.;
-        Double amount = 101.;
+        Money startBalance = Money.parse("100.00");
+        Money amount = Money.parse("101.00");
 
         Account account = new Account();
         account.setAccountBalance(startBalance);
@@ -840,11 +1161,11 @@ class AccountServiceImplTest {
     public void testTransfer_Access()
             throws AccountNotFoundException, AccountAccessException, AccountWithdrawException {
 
-        Double startBalanceAccount = 500.;
-        Double startBalanceSourceAccount = 100.;
-        Double transferAmount = 300.;
-        Double newBalanceAccount = startBalanceAccount - transferAmount;
-        Double newBalanceSourceAccount = startBalanceSourceAccount + transferAmount;
+        Money startBalanceAccount = Money.parse("500.00");
+        Money startBalanceSourceAccount = Money.parse("100.00");
+        Money transferAmount = Money.parse("300.00");
+        Money newBalanceAccount = startBalanceAccount.minus(transferAmount);
+        Money newBalanceSourceAccount = startBalanceSourceAccount.plus(transferAmount);
 
         Account account = new Account();
         account.setPin("hashed_valid_pin");
@@ -880,6 +1201,123 @@ class AccountServiceImplTest {
 
     }
 
+    /**
+     * Проверяет выброс исключения при переводе средств на тот же счет: балансы не изменяются.
+     */
+    @Test
+    @Tag("transfer")
+    public void testTransfer_SameAccount_ThrowAccountWithdrawException() {
+
+        Account account = new Account();
+        account.setId(1L);
+        account.setAccountName("account");
+        account.setPin("hashed_valid_pin");
+        account.setAccountBalance(Money.parse("500.00"));
+
+        Account sourceAccount = new Account();
+        sourceAccount.setId(1L);
+        sourceAccount.setAccountName("account");
+        sourceAccount.setAccountBalance(Money.parse("500.00"));
+
+        AccountTransactionDTO accountTransactionDTO = new AccountTransactionDTO();
+        accountTransactionDTO.setSourceAccountName("account");
+        accountTransactionDTO.setPin("valid_pin");
+        accountTransactionDTO.setTransferAmount(Money.parse("300.00"));
+
+        when(accountRepository.findById(1L)).thenReturn(Optional.of(account));
+        when(passwordEncoder.matches(anyString(), anyString())).thenReturn(true);
+        when(accountRepository.findAccountByAccountName("account")).thenReturn(Optional.of(sourceAccount));
+
+        Throwable result = assertThrows(AccountWithdrawException.class,
+                () -> accountService.transfer(1L, accountTransactionDTO));
+
+        assertEquals("Счет зачисления должен отличаться от счета списания", result.getMessage());
+        verify(accountRepository, never()).save(any());
+        verify(ledgerService, never()).record(any(), any(), any(), any());
+        assertEquals(Money.parse("500.00"), account.getAccountBalance());
+        assertEquals(Money.parse("500.00"), sourceAccount.getAccountBalance());
+    }
+
+    /**
+     * Проверяет, что при ошибке зачисления перевод откатывается целиком: списание и зачисление сохраняются вместе
+     * с проводками в одной транзакции, проводки не записываются.
+     */
+    @Test
+    @Tag("transfer")
+    public void testTransfer_CreditFails_RollsBackTransaction() {
+
+        Account account = new Account();
+        account.setId(1L);
+        account.setPin("hashed_valid_pin");
+        account.setAccountBalance(Money.parse("500.00"));
+
+        Account sourceAccount = new Account();
+        sourceAccount.setId(2L);
+        sourceAccount.setAccountBalance(Money.parse("100.00"));
+
+        AccountTransactionDTO accountTransactionDTO = new AccountTransactionDTO();
+        accountTransactionDTO.setSourceAccountName("source_account");
+        accountTransactionDTO.setPin("valid_pin");
+        accountTransactionDTO.setTransferAmount(Money.parse("300.00"));
+
+        when(accountRepository.findById(1L)).thenReturn(Optional.of(account));
+        when(passwordEncoder.matches(anyString(), anyString())).thenReturn(true);
+        when(accountRepository.findAccountByAccountName(anyString())).thenReturn(Optional.of(sourceAccount));
+        when(accountRepository.save(account)).thenReturn(account);
+        when(accountRepository.save(sourceAccount)).thenThrow(new IllegalStateException("credit failed"));
+
+        assertThrows(IllegalStateException.class, () -> accountService.transfer(1L, accountTransactionDTO));
+
+        verify(accountRepository, times(1)).save(account);
+        verify(ledgerService, never()).record(any(), any(), any(), any());
+        verify(transactionManager, times(1)).rollback(any());
+        verify(transactionManager, never()).commit(any());
+        verify(accountStatsService, never()).balanceChanged(any(), any());
+    }
+
+    /**
+     * Проверяет перевод средств в режиме асинхронного учета проводок: баланс в таблице accounts не перезаписывается,
+     * а перевод записывается проводками. Статистика учитывает баланс счета зачисления из журнала проводок,
+     * а не отстающий столбец balance.
+     */
+    @Test
+    @Tag("transfer")
+    public void testTransfer_AsyncMaterialization_AppendsLedgerEntries() {
+
+        Account account = new Account();
+        account.setId(1L);
+        account.setPin("hashed_valid_pin");
+        account.setAccountBalance(Money.parse("500.00"));
+
+        Account sourceAccount = new Account();
+        sourceAccount.setId(2L);
+        sourceAccount.setAccountBalance(Money.parse("100.00"));
+
+        AccountTransactionDTO accountTransactionDTO = new AccountTransactionDTO();
+        accountTransactionDTO.setSourceAccountName("source_account");
+        accountTransactionDTO.setPin("valid_pin");
+        accountTransactionDTO.setTransferAmount(Money.parse("300.00"));
+
+        when(ledgerService.isAsyncMaterialization()).thenReturn(true);
+        when(ledgerService.transfer(1L, 2L, Money.parse("300.00"))).thenReturn(Money.parse("200.00"));
+        when(ledgerService.getConsistentBalance(2L)).thenReturn(Money.parse("550.00"));
+        when(accountRepository.findById(1L)).thenReturn(Optional.of(account));
+        when(passwordEncoder.matches(anyString(), anyString())).thenReturn(true);
+        when(accountRepository.findAccountByAccountName(anyString())).thenReturn(Optional.of(sourceAccount));
+        when(modelMapper.map(account, AccountInfoDTO.class)).thenReturn(new AccountInfoDTO());
+
+        accountService.transfer(1L, accountTransactionDTO);
+
+        verify(ledgerService, times(1)).transfer(1L, 2L, Money.parse("300.00"));
+        verify(accountRepository, never()).save(any());
+        verify(balanceEventService, times(1)).publish(1L, Money.parse("200.00"));
+        verify(balanceEventService, never()).publish(eq(2L), any());
+        verify(accountStatsService, times(1)).balanceChanged(Money.parse("500.00"), Money.parse("200.00"));
+        verify(accountStatsService, times(1)).balanceChanged(Money.parse("250.00"), Money.parse("550.00"));
+        assertEquals(Money.parse("200.00"), account.getAccountBalance());
+        assertEquals(Money.parse("100.00"), sourceAccount.getAccountBalance());
+    }
+
     /**
      * Проверяет выброс исключения при переводе средств между счетами на этапе поиска счета на который необходимо совершить перевод.
      * @throws AccountNotFoundException Выбрасывает при возникновении ошибки на этапе поиска счета.
@@ -928,9 +1366,9 @@ class AccountServiceImplTest {
     public void testTransfer_AmountExceedingBalance_ThrowAccountWithdrawException()
             throws AccountNotFoundException, AccountAccessException, AccountWithdrawException {
 
-        Double startBalanceAccount = 500.;
-        Double startBalanceSourceAccount = 100.;
-        Double transferAmount = 800.;
+        Money startBalanceAccount = Money.parse("500.00");
+        Money startBalanceSourceAccount = Money.parse("100.00");
+        Money transferAmount = Money.parse("800.00");
 
         Account account = new Account();
         account.setPin("hashed_valid_pin");
@@ -995,4 +1433,99 @@ class AccountServiceImplTest {
         assertEquals("Введен неверный пин код", result.getMessage());
 
     }
-}
\ No newline at end of file
+
+    /**
+     * Проверяет, что перевод средств записывает события JFR для каждой фазы операции.
+     * @throws Exception Выбрасывает при ошибке записи или чтения файла JFR.
+     */
+    @Test
+    @Tag("transfer")
+    public void testTransfer_RecordsPhaseEvents() throws Exception {
+
+        Account account = new Account();
+        account.setId(7L);
+        account.setPin("hashed_valid_pin");
+        account.setAccountBalance(Money.parse("500.00"));
+
+        Account sourceAccount = new Account();
+        sourceAccount.setId(9L);
+        sourceAccount.setAccountBalance(Money.parse("100.00"));
+
+        AccountTransactionDTO accountTransactionDTO = new AccountTransactionDTO();
+        accountTransactionDTO.setSourceAccountName("source_account");
+        accountTransactionDTO.setPin("valid_pin");
+        accountTransactionDTO.setTransferAmount(Money.parse("300.00"));
+
+        when(accountRepository.findById(7L)).thenReturn(Optional.of(account));
+        when(passwordEncoder.matches(anyString(), anyString())).thenReturn(true);
+        when(accountRepository.save(account)).thenReturn(account);
+        when(accountRepository.findAccountByAccountName(anyString())).thenReturn(Optional.of(sourceAccount));
+        when(modelMapper.map(account, AccountInfoDTO.class)).thenReturn(new AccountInfoDTO());
+
+        List<RecordedEvent> events = recordPhaseEvents(() -> accountService.transfer(7L, accountTransactionDTO));
+
+        assertEquals(List.of(
+                AccountOperationPhaseEvent.PHASE_SOURCE_LOOKUP,
+                AccountOperationPhaseEvent.PHASE_PIN_VERIFY,
+                AccountOperationPhaseEvent.PHASE_DESTINATION_LOOKUP,
+                AccountOperationPhaseEvent.PHASE_DEBIT_SAVE,
+                AccountOperationPhaseEvent.PHASE_CREDIT_SAVE,
+                AccountOperationPhaseEvent.PHASE_DTO_MAPPING
+        ), events.stream().map(event -> event.getString("phase")).toList());
+        events.forEach(event -> {
+            assertEquals(AccountOperationPhaseEvent.OPERATION_TRANSFER, event.getString("operation"));
+            assertEquals(7L, event.getLong("accountId"));
+            assertEquals(30_000L, event.getLong("amount"));
+            assertFalse(event.getBoolean("failed"));
+        });
+        assertEquals(List.of(0L, 0L, 9L, 0L, 9L, 0L),
+                events.stream().map(event -> event.getLong("destinationAccountId")).toList());
+
+    }
+
+    /**
+     * Проверяет, что при неверном пин-коде фаза проверки пин-кода записывается с признаком ошибки.
+     * @throws Exception Выбрасывает при ошибке записи или чтения файла JFR.
+     */
+    @Test
+    @Tag("withdraw")
+    public void testWithdraw_InvalidPin_RecordsFailedPhaseEvent() throws Exception {
+
+        Account account = new Account();
+        account.setId(7L);
+        account.setPin("hashed_valid_pin");
+
+        AccountTransactionDTO accountTransactionDTO = new AccountTransactionDTO();
+        accountTransactionDTO.setPin("invalid_pin");
+        accountTransactionDTO.setTransferAmount(Money.parse("10.00"));
+
+        when(accountRepository.findById(7L)).thenReturn(Optional.of(account));
+        when(passwordEncoder.matches(anyString(), anyString())).thenReturn(false);
+
+        List<RecordedEvent> events = recordPhaseEvents(() -> assertThrows(AccountAccessException.class,
+                () -> accountService.withdraw(7L, accountTransactionDTO)));
+
+        assertEquals(List.of(AccountOperationPhaseEvent.PHASE_SOURCE_LOOKUP, AccountOperationPhaseEvent.PHASE_PIN_VERIFY),
+                events.stream().map(event -> event.getString("phase")).toList());
+        assertFalse(events.get(0).getBoolean("failed"));
+        assertTrue(events.get(1).getBoolean("failed"));
+
+    }
+
+    private static List<RecordedEvent> recordPhaseEvents(Runnable operation) throws Exception {
+        Path recordingFile = Files.createTempFile("account-phases", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(AccountOperationPhaseEvent.NAME).withThreshold(Duration.ZERO);
+            recording.start();
+            operation.run();
+            recording.stop();
+            recording.dump(recordingFile);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(recordingFile).stream()
+                .filter(event -> event.getEventType().getName().equals(AccountOperationPhaseEvent.NAME))
+                .toList();
+        Files.deleteIfExists(recordingFile);
+        return events;
+    }
+}
@@ -0,0 +1,231 @@
+package ru.averkiev.bankservice.services.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.beans.factory.ObjectProvider;
+import ru.averkiev.bankservice.engine.LedgerEngine;
+import ru.averkiev.bankservice.models.AccountStatsDTO;
+import ru.averkiev.bankservice.models.BalanceBucketDTO;
+import ru.averkiev.bankservice.models.EntityStatus;
+import ru.averkiev.bankservice.models.Money;
+import ru.averkiev.bankservice.repositories.AccountRepository;
+import ru.averkiev.bankservice.services.LedgerService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Класс тестирует поддержание и сверку сводной статистики по счетам.
+ * @author mrGreenNV
+ */
+@Tag("account-stats-service")
+class AccountStatsServiceImplTest {
+
+    private AutoCloseable closeable;
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private LedgerService ledgerService;
+
+    @Mock
+    private ObjectProvider<LedgerEngine> ledgerEngineProvider;
+
+    private AccountStatsServiceImpl statsService;
+
+    @BeforeEach
+    public void openMocks() {
+        closeable = MockitoAnnotations.openMocks(this);
+        statsService = new AccountStatsServiceImpl(accountRepository, ledgerService, ledgerEngineProvider);
+    }
+
+    @AfterEach
+    public void releaseMocks() throws Exception {
+        closeable.close();
+    }
+
+    /**
+     * Проверяет, что создание счета, изменение баланса и пометка на удаление обновляют суммарный баланс,
+     * количество счетов по статусам и распределение по диапазонам баланса.
+     */
+    @Test
+    @Tag("account-stats")
+    public void testIncrementalUpdates() {
+        statsService.accountAdded(EntityStatus.ACTIVE, Money.ZERO);
+        statsService.accountAdded(EntityStatus.ACTIVE, Money.ZERO);
+        statsService.balanceChanged(Money.ZERO, Money.parse("500.00"));
+        statsService.balanceChanged(Money.parse("500.00"), Money.parse("450.00"));
+        statsService.balanceChanged(Money.ZERO, Money.parse("50.00"));
+        statsService.statusChanged(EntityStatus.ACTIVE, EntityStatus.DELETED, Money.parse("50.00"));
+
+        AccountStatsDTO stats = statsService.getStats();
+
+        assertEquals(Money.parse("450.00"), stats.getTotalBalance());
+        assertEquals(1L, stats.getAccountsByStatus().get(EntityStatus.ACTIVE));
+        assertEquals(1L, stats.getAccountsByStatus().get(EntityStatus.DELETED));
+        assertEquals(List.of(0L, 0L, 1L, 0L, 0L, 0L), counts(stats));
+        assertNull(stats.getBalanceDistribution().get(0).getFrom());
+        assertEquals(Money.parse("100.00"), stats.getBalanceDistribution().get(2).getFrom());
+        assertEquals(Money.parse("1000.00"), stats.getBalanceDistribution().get(2).getTo());
+        assertNull(stats.getBalanceDistribution().get(5).getTo());
+
+        statsService.deletedAccountsRemoved(1);
+        statsService.accountRemoved(EntityStatus.ACTIVE, Money.parse("450.00"));
+
+        stats = statsService.getStats();
+        assertEquals(Money.ZERO, stats.getTotalBalance());
+        assertEquals(0L, stats.getAccountsByStatus().get(EntityStatus.ACTIVE));
+        assertEquals(0L, stats.getAccountsByStatus().get(EntityStatus.DELETED));
+        assertEquals(List.of(0L, 0L, 0L, 0L, 0L, 0L), counts(stats));
+    }
+
+    /**
+     * Проверяет, что сверка заменяет значения счетчиков данными базы данных без учета балансов помеченных
+     * на удаление счетов.
+     */
+    @Test
+    @Tag("account-stats")
+    public void testReconcile_CorrectsCounters() {
+        when(accountRepository.findBalanceDistribution(any(), anyBoolean())).thenReturn(List.of(
+                new Object[]{EntityStatus.ACTIVE, 0, 3L, 0L},
+                new Object[]{EntityStatus.ACTIVE, 3, 2L, 500_000L},
+                new Object[]{EntityStatus.NOT_ACTIVE, 5, 1L, 20_000_000L},
+                new Object[]{EntityStatus.DELETED, 2, 4L, 40_000L}));
+        statsService.accountAdded(EntityStatus.ACTIVE, Money.parse("7.00"));
+
+        statsService.reconcile();
+        AccountStatsDTO stats = statsService.getStats();
+
+        assertEquals(Money.ofMinorUnits(20_500_000), stats.getTotalBalance());
+        assertEquals(5L, stats.getAccountsByStatus().get(EntityStatus.ACTIVE));
+        assertEquals(1L, stats.getAccountsByStatus().get(EntityStatus.NOT_ACTIVE));
+        assertEquals(4L, stats.getAccountsByStatus().get(EntityStatus.DELETED));
+        assertEquals(List.of(3L, 0L, 0L, 2L, 0L, 1L), counts(stats));
+        assertNotNull(stats.getReconciledAt());
+    }
+
+    /**
+     * Проверяет, что запрос сверки не обращается к базе данных, а сверку выполняет планировщик один раз
+     * для нескольких запросов.
+     */
+    @Test
+    @Tag("account-stats")
+    public void testRequestReconcile_RunsOnSchedulerOnce() {
+        when(accountRepository.findBalanceDistribution(any(), anyBoolean())).thenReturn(List.of());
+
+        statsService.requestReconcile();
+        statsService.requestReconcile();
+        verify(accountRepository, never()).findBalanceDistribution(any(), anyBoolean());
+
+        statsService.reconcileIfRequested();
+        statsService.reconcileIfRequested();
+        verify(accountRepository, times(1)).findBalanceDistribution(any(), anyBoolean());
+    }
+
+    /**
+     * Проверяет, что при фоновом учете проводок сверка учитывает проводки, еще не учтенные в балансах счетов.
+     */
+    @Test
+    @Tag("account-stats")
+    public void testReconcile_AsyncMaterialization_IncludesUnmaterializedEntries() {
+        when(ledgerService.isAsyncMaterialization()).thenReturn(true);
+        when(accountRepository.findBalanceDistribution(any(), anyBoolean())).thenReturn(List.of());
+
+        statsService.reconcile();
+
+        verify(accountRepository, times(1)).findBalanceDistribution(any(), eq(true));
+    }
+
+    /**
+     * Проверяет, что в режиме движка учета балансов сверка дожидается сохранения балансов движка
+     * и откладывается, если они не сохранены.
+     * @throws InterruptedException Выбрасывает при прерывании ожидания.
+     */
+    @Test
+    @Tag("account-stats")
+    public void testReconcile_LedgerEngine_AwaitsCheckpoint() throws InterruptedException {
+        LedgerEngine ledgerEngine = mock(LedgerEngine.class);
+        when(ledgerEngineProvider.getIfAvailable()).thenReturn(ledgerEngine);
+        when(ledgerEngine.awaitCheckpoint(anyLong())).thenReturn(false).thenReturn(true);
+        when(accountRepository.findBalanceDistribution(any(), anyBoolean())).thenReturn(List.of());
+
+        statsService.reconcile();
+        verify(accountRepository, never()).findBalanceDistribution(any(), anyBoolean());
+        assertNull(statsService.getStats().getReconciledAt());
+
+        statsService.reconcile();
+        verify(accountRepository, times(1)).findBalanceDistribution(any(), eq(false));
+        assertNotNull(statsService.getStats().getReconciledAt());
+    }
+
+    /**
+     * Проверяет, что изменения, учтенные во время запроса сверки, не теряются.
+     */
+    @Test
+    @Tag("account-stats")
+    public void testReconcile_KeepsConcurrentUpdates() {
+        when(accountRepository.findBalanceDistribution(any(), anyBoolean())).thenAnswer(invocation -> {
+            // Счет создан после снимка счетчиков, но не попал в результат запроса.
+            statsService.accountAdded(EntityStatus.ACTIVE, Money.parse("10.00"));
+            List<Object[]> rows = new ArrayList<>();
+            rows.add(new Object[]{EntityStatus.ACTIVE, 1, 2L, 2_000L});
+            return rows;
+        });
+
+        statsService.reconcile();
+        AccountStatsDTO stats = statsService.getStats();
+
+        assertEquals(3L, stats.getAccountsByStatus().get(EntityStatus.ACTIVE));
+        assertEquals(Money.parse("30.00"), stats.getTotalBalance());
+        assertEquals(List.of(0L, 3L, 0L, 0L, 0L, 0L), counts(stats));
+    }
+
+    /**
+     * Проверяет, что одновременные изменения балансов из нескольких потоков учитываются без потерь.
+     * @throws InterruptedException Выбрасывает при прерывании ожидания потоков.
+     */
+    @Test
+    @Tag("account-stats")
+    public void testConcurrentUpdates() throws InterruptedException {
+        int threads = 8;
+        int operations = 10_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int i = 0; i < threads; i++) {
+            executor.execute(() -> {
+                statsService.accountAdded(EntityStatus.ACTIVE, Money.ZERO);
+                for (int j = 0; j < operations; j++) {
+                    statsService.balanceChanged(Money.ofMinorUnits(j), Money.ofMinorUnits(j + 1));
+                }
+                done.countDown();
+            });
+        }
+        assertTrue(done.await(30, TimeUnit.SECONDS));
+        executor.shutdown();
+
+        AccountStatsDTO stats = statsService.getStats();
+        assertEquals(Money.ofMinorUnits((long) threads * operations), stats.getTotalBalance());
+        assertEquals((long) threads, stats.getAccountsByStatus().get(EntityStatus.ACTIVE));
+        assertEquals(List.of(0L, 0L, (long) threads, 0L, 0L, 0L), counts(stats));
+    }
+
+    private static List<Long> counts(AccountStatsDTO stats) {
+        return stats.getBalanceDistribution().stream().map(BalanceBucketDTO::getAccounts).toList();
+    }
+}
@@ -0,0 +1,158 @@
+package ru.averkiev.bankservice.services.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.averkiev.bankservice.exceptions.OperationRejectedException;
+import ru.averkiev.bankservice.models.BalanceEventDTO;
+import ru.averkiev.bankservice.models.Money;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Класс тестирует рассылку событий об изменении балансов счетов подписчикам.
+ * @author mrGreenNV
+ */
+@Tag("balance-event-service")
+class BalanceEventServiceImplTest {
+
+    private BalanceEventServiceImpl balanceEventService;
+
+    @BeforeEach
+    public void start() {
+        balanceEventService = new BalanceEventServiceImpl(1, 4, 60_000, 50, 60_000, 200, 2);
+        balanceEventService.start();
+    }
+
+    @AfterEach
+    public void stop() {
+        balanceEventService.stop();
+    }
+
+    /**
+     * Проверяет, что частые изменения баланса передаются подписчику одним последним значением.
+     * @throws Exception Выбрасывает при прерывании ожидания.
+     */
+    @Test
+    @Tag("balance-events")
+    public void testPublish_CoalescesRapidUpdates() throws Exception {
+        CapturingEmitter emitter = new CapturingEmitter();
+        balanceEventService.register(1L, Money.ZERO, emitter);
+        awaitEvents(emitter, 1);
+
+        for (int i = 1; i <= 100; i++) {
+            balanceEventService.publish(1L, Money.ofMinorUnits(i));
+        }
+        balanceEventService.publish(2L, Money.ofMinorUnits(500));
+        awaitEvents(emitter, 2);
+        Thread.sleep(200);
+
+        assertEquals(2, emitter.events.size());
+        assertEquals(Money.ZERO, emitter.events.get(0).getBalance());
+        assertEquals(Money.ofMinorUnits(100), emitter.events.get(1).getBalance());
+    }
+
+    /**
+     * Проверяет удаление подписчика после завершения потока событий и ограничение количества подписок.
+     */
+    @Test
+    @Tag("balance-events")
+    public void testSubscribers_Limited() {
+        balanceEventService.register(1L, Money.ZERO, new CapturingEmitter());
+        balanceEventService.register(1L, Money.ZERO, new CapturingEmitter());
+
+        assertTrue(balanceEventService.hasSubscribers(1L));
+        assertThrows(OperationRejectedException.class,
+                () -> balanceEventService.register(2L, Money.ZERO, new CapturingEmitter()));
+
+        balanceEventService.close(1L);
+
+        assertFalse(balanceEventService.hasSubscribers(1L));
+        assertEquals(0, balanceEventService.getSubscriberCount());
+    }
+
+    /**
+     * Проверяет, что подписчик с зависшей записью отключается и не задерживает отправку событий другим подписчикам.
+     * @throws Exception Выбрасывает при прерывании ожидания.
+     */
+    @Test
+    @Tag("balance-events")
+    public void testPublish_SlowSubscriberDropped() throws Exception {
+        BlockingEmitter slowEmitter = new BlockingEmitter();
+        CapturingEmitter emitter = new CapturingEmitter();
+        balanceEventService.register(1L, Money.ZERO, slowEmitter);
+        balanceEventService.register(2L, Money.ZERO, emitter);
+        awaitEvents(emitter, 1);
+
+        balanceEventService.publish(2L, Money.ofMinorUnits(100));
+        awaitEvents(emitter, 2);
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (balanceEventService.hasSubscribers(1L) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertFalse(balanceEventService.hasSubscribers(1L));
+        assertEquals(1, balanceEventService.getSubscriberCount());
+
+        slowEmitter.release.countDown();
+        assertTrue(slowEmitter.completed.await(5, TimeUnit.SECONDS));
+    }
+
+    private void awaitEvents(CapturingEmitter emitter, int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (emitter.events.size() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(count, emitter.events.size());
+    }
+
+    /**
+     * Поток событий, сохраняющий отправленные события вместо записи в ответ.
+     */
+    private static class CapturingEmitter extends SseEmitter {
+
+        private final List<BalanceEventDTO> events = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            for (ResponseBodyEmitter.DataWithMediaType data : builder.build()) {
+                if (data.getData() instanceof BalanceEventDTO event) {
+                    events.add(event);
+                }
+            }
+        }
+    }
+
+    /**
+     * Поток событий медленного клиента: запись не завершается до освобождения.
+     */
+    private static class BlockingEmitter extends SseEmitter {
+
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        private final CountDownLatch completed = new CountDownLatch(1);
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            try {
+                release.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public void complete() {
+            completed.countDown();
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package ru.averkiev.bankservice.services.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.beans.factory.ObjectProvider;
+import ru.averkiev.bankservice.engine.LedgerEngine;
+import ru.averkiev.bankservice.exceptions.AccountNotFoundException;
+import ru.averkiev.bankservice.exceptions.LedgerHistoryUnavailableException;
+import ru.averkiev.bankservice.models.BalanceAtDTO;
+import ru.averkiev.bankservice.models.BalanceSnapshot;
+import ru.averkiev.bankservice.models.Money;
+import ru.averkiev.bankservice.repositories.AccountRepository;
+import ru.averkiev.bankservice.repositories.BalanceSnapshotRepository;
+import ru.averkiev.bankservice.repositories.LedgerEntryRepository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Класс тестирует вычисление баланса счета на момент времени и создание снимков балансов.
+ * @author mrGreenNV
+ */
+@Tag("balance-history-service")
+class BalanceHistoryServiceImplTest {
+
+    private AutoCloseable closeable;
+
+    @Mock
+    private BalanceSnapshotRepository balanceSnapshotRepository;
+
+    @Mock
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private ObjectProvider<LedgerEngine> ledgerEngineProvider;
+
+    private BalanceHistoryServiceImpl balanceHistoryService;
+
+    @BeforeEach
+    public void openMocks() {
+        closeable = MockitoAnnotations.openMocks(this);
+        balanceHistoryService = new BalanceHistoryServiceImpl(
+                balanceSnapshotRepository, ledgerEntryRepository, accountRepository, ledgerEngineProvider, 5_000);
+    }
+
+    @AfterEach
+    public void releaseMocks() throws Exception {
+        closeable.close();
+    }
+
+    /**
+     * Проверяет вычисление баланса от ближайшего снимка с добавлением только последующих проводок.
+     */
+    @Test
+    @Tag("balance-at")
+    public void testGetBalanceAt_FromSnapshot() {
+        LocalDateTime at = LocalDateTime.of(2023, 10, 1, 0, 0);
+        Date snapshotAt = Timestamp.valueOf(LocalDateTime.of(2023, 9, 30, 12, 0));
+        BalanceSnapshot snapshot = new BalanceSnapshot();
+        snapshot.setAccountId(1L);
+        snapshot.setBalance(Money.parse("1000.00"));
+        snapshot.setSnapshotAt(snapshotAt);
+
+        when(accountRepository.existsById(1L)).thenReturn(true);
+        when(balanceSnapshotRepository.findLatestAt(1L, Timestamp.valueOf(at))).thenReturn(Optional.of(snapshot));
+        when(ledgerEntryRepository.sumAmountBetween(1L, snapshotAt, Timestamp.valueOf(at))).thenReturn(-25_000L);
+
+        BalanceAtDTO result = balanceHistoryService.getBalanceAt(1L, at);
+
+        assertEquals(1L, result.getAccountId());
+        assertEquals(Money.parse("750.00"), result.getBalance());
+        assertEquals(at, result.getAt());
+    }
+
+    /**
+     * Проверяет вычисление баланса по всем проводкам при отсутствии снимка и ошибку для несуществующего счета.
+     */
+    @Test
+    @Tag("balance-at")
+    public void testGetBalanceAt_WithoutSnapshot() {
+        LocalDateTime at = LocalDateTime.of(2023, 10, 1, 0, 0);
+        when(accountRepository.existsById(1L)).thenReturn(true);
+        when(balanceSnapshotRepository.findLatestAt(eq(1L), any())).thenReturn(Optional.empty());
+        when(ledgerEntryRepository.sumAmountBetween(1L, new Date(0), Timestamp.valueOf(at))).thenReturn(30_000L);
+
+        assertEquals(Money.parse("300.00"), balanceHistoryService.getBalanceAt(1L, at).getBalance());
+        assertThrows(AccountNotFoundException.class, () -> balanceHistoryService.getBalanceAt(2L, at));
+    }
+
+    /**
+     * Проверяет, что в режиме движка учета балансов, который не записывает проводки, исторический баланс
+     * не вычисляется, а снимки не создаются.
+     */
+    @Test
+    @Tag("balance-at")
+    public void testGetBalanceAt_LedgerEngine_ThrowLedgerHistoryUnavailableException() {
+        when(ledgerEngineProvider.getIfAvailable()).thenReturn(mock(LedgerEngine.class));
+        when(accountRepository.existsById(1L)).thenReturn(true);
+
+        assertThrows(LedgerHistoryUnavailableException.class,
+                () -> balanceHistoryService.getBalanceAt(1L, LocalDateTime.of(2023, 10, 1, 0, 0)));
+        assertEquals(0, balanceHistoryService.takeSnapshots());
+        verifyNoInteractions(ledgerEntryRepository, balanceSnapshotRepository);
+    }
+
+    /**
+     * Проверяет создание снимков за период от предыдущего снимка до момента с учетом отставания.
+     */
+    @Test
+    @Tag("balance-snapshot")
+    public void testTakeSnapshots() {
+        Date previous = new Timestamp(System.currentTimeMillis() - 60_000);
+        when(balanceSnapshotRepository.findLastSnapshotAt()).thenReturn(previous);
+        when(balanceSnapshotRepository.insertSnapshots(eq(previous), any())).thenReturn(3);
+
+        long before = System.currentTimeMillis();
+        assertEquals(3, balanceHistoryService.takeSnapshots());
+
+        ArgumentCaptor<Date> snapshotAt = ArgumentCaptor.forClass(Date.class);
+        verify(balanceSnapshotRepository).insertSnapshots(eq(previous), snapshotAt.capture());
+        assertTrue(snapshotAt.getValue().getTime() <= before);
+        assertTrue(snapshotAt.getValue().getTime() >= before - 5_000 - 1_000);
+    }
+}
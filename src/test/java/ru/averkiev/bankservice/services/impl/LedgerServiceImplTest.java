@@ -0,0 +1,121 @@
+package ru.averkiev.bankservice.services.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.averkiev.bankservice.exceptions.AccountWithdrawException;
+import ru.averkiev.bankservice.models.LedgerEntry;
+import ru.averkiev.bankservice.models.LedgerEntryType;
+import ru.averkiev.bankservice.models.Money;
+import ru.averkiev.bankservice.repositories.AccountRepository;
+import ru.averkiev.bankservice.repositories.LedgerEntryRepository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Класс тестирует запись проводок и их учет в балансах счетов.
+ * @author mrGreenNV
+ */
+@Tag("ledger-service")
+class LedgerServiceImplTest {
+
+    private AutoCloseable closeable;
+
+    @Mock
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private LedgerServiceImpl ledgerService;
+
+    @BeforeEach
+    public void openMocks() {
+        closeable = MockitoAnnotations.openMocks(this);
+        ledgerService = new LedgerServiceImpl(ledgerEntryRepository, accountRepository, transactionManager, "async", 3);
+    }
+
+    @AfterEach
+    public void releaseMocks() throws Exception {
+        closeable.close();
+    }
+
+    /**
+     * Проверяет запись пары проводок с противоположными суммами при переводе.
+     */
+    @Test
+    @Tag("ledger-transfer")
+    public void testTransfer_SavesDoubleEntry() {
+        when(ledgerEntryRepository.findConsistentBalance(1L)).thenReturn(Optional.of(50_000L));
+
+        Money balance = ledgerService.transfer(1L, 2L, Money.parse("300.00"));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<LedgerEntry>> entries = ArgumentCaptor.forClass(List.class);
+        verify(ledgerEntryRepository).saveAll(entries.capture());
+        assertEquals(Money.parse("200.00"), balance);
+        assertEquals(2, entries.getValue().size());
+        assertEquals(1L, entries.getValue().get(0).getAccountId());
+        assertEquals(Money.parse("-300.00"), entries.getValue().get(0).getAmount());
+        assertEquals(2L, entries.getValue().get(1).getAccountId());
+        assertEquals(Money.parse("300.00"), entries.getValue().get(1).getAmount());
+        assertEquals(entries.getValue().get(0).getOperationId(), entries.getValue().get(1).getOperationId());
+        assertFalse(entries.getValue().get(0).isMaterialized());
+    }
+
+    /**
+     * Проверяет отказ в списании при недостаточном балансе с учетом неучтенных проводок.
+     */
+    @Test
+    @Tag("ledger-withdraw")
+    public void testWithdraw_InsufficientConsistentBalance_ThrowAccountWithdrawException() {
+        when(ledgerEntryRepository.findConsistentBalance(1L)).thenReturn(Optional.of(10_000L));
+
+        assertThrows(AccountWithdrawException.class, () -> ledgerService.withdraw(1L, Money.parse("100.01")));
+        verify(ledgerEntryRepository, never()).saveAll(any());
+    }
+
+    /**
+     * Проверяет суммирование проводок по счетам и отметку учтенных проводок.
+     */
+    @Test
+    @Tag("ledger-materialize")
+    public void testMaterialize_FoldsEntriesPerAccount() {
+        when(ledgerEntryRepository.findByMaterializedFalseOrderById(any())).thenReturn(List.of(
+                entry(1L, 1L, Money.parse("-300.00")), entry(2L, 2L, Money.parse("300.00")), entry(3L, 1L, Money.parse("50.00"))
+        ));
+
+        int materialized = ledgerService.materialize();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<Long>> ids = ArgumentCaptor.forClass(Collection.class);
+        verify(accountRepository).addToBalance(1L, -25_000L);
+        verify(accountRepository).addToBalance(2L, 30_000L);
+        verify(ledgerEntryRepository).markMaterialized(ids.capture());
+        assertEquals(3, materialized);
+        assertEquals(List.of(1L, 2L, 3L), List.copyOf(ids.getValue()));
+    }
+
+    private LedgerEntry entry(Long id, Long accountId, Money amount) {
+        LedgerEntry entry = new LedgerEntry();
+        entry.setId(id);
+        entry.setAccountId(accountId);
+        entry.setAmount(amount);
+        entry.setEntryType(LedgerEntryType.TRANSFER);
+        return entry;
+    }
+}
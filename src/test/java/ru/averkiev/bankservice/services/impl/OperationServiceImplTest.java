@@ -0,0 +1,201 @@
+package ru.averkiev.bankservice.services.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import ru.averkiev.bankservice.exceptions.*;
+import ru.averkiev.bankservice.models.*;
+import ru.averkiev.bankservice.repositories.AccountRepository;
+import ru.averkiev.bankservice.services.AccountService;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Класс тестирует асинхронное выполнение операций со счетами.
+ * @author mrGreenNV
+ */
+@Tag("operation-service")
+class OperationServiceImplTest {
+
+    private AutoCloseable closeable;
+
+    @Mock
+    private AccountService accountService;
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    private OperationServiceImpl operationService;
+
+    @BeforeEach
+    public void openMocks() {
+        closeable = MockitoAnnotations.openMocks(this);
+        when(accountRepository.existsById(1L)).thenReturn(true);
+        when(accountRepository.existsNotDeletedAccountByAccountName("destination")).thenReturn(true);
+    }
+
+    @AfterEach
+    public void releaseMocks() throws Exception {
+        if (operationService != null) {
+            operationService.stop();
+        }
+        closeable.close();
+    }
+
+    /**
+     * Проверяет выполнение принятого перевода и получение его результата.
+     * @throws InterruptedException Выбрасывает при прерывании ожидания.
+     */
+    @Test
+    @Tag("submit-transfer")
+    public void testSubmitTransfer_Completed() throws InterruptedException {
+        AccountInfoDTO accountInfoDTO = new AccountInfoDTO();
+        accountInfoDTO.setAccountName("source");
+        accountInfoDTO.setAccountBalance(Money.parse("50.00"));
+        when(accountService.transfer(eq(1L), any(AccountTransactionDTO.class))).thenReturn(accountInfoDTO);
+
+        operationService = startService(10);
+        OperationDTO accepted = operationService.submitTransfer(1L, transaction(Money.parse("50.00")));
+
+        assertEquals(OperationStatus.PENDING, accepted.getStatus());
+        OperationDTO completed = awaitFinished(accepted.getId());
+        assertEquals(OperationStatus.COMPLETED, completed.getStatus());
+        assertEquals(accountInfoDTO, completed.getResult());
+        assertNotNull(completed.getCompletedAt());
+    }
+
+    /**
+     * Проверяет сохранение ошибки перевода в состоянии операции.
+     * @throws InterruptedException Выбрасывает при прерывании ожидания.
+     */
+    @Test
+    @Tag("submit-transfer")
+    public void testSubmitTransfer_Failed() throws InterruptedException {
+        when(accountService.transfer(eq(1L), any(AccountTransactionDTO.class)))
+                .thenThrow(new AccountAccessException("Введенный пин-код не верный"));
+
+        operationService = startService(10);
+        OperationDTO accepted = operationService.submitTransfer(1L, transaction(Money.parse("50.00")));
+
+        OperationDTO failed = awaitFinished(accepted.getId());
+        assertEquals(OperationStatus.FAILED, failed.getStatus());
+        assertEquals("Введенный пин-код не верный", failed.getErrorMessage());
+        assertNull(failed.getResult());
+    }
+
+    /**
+     * Проверяет, что ошибка уровня Error помечает операцию как неуспешную и не останавливает обработку очереди.
+     * @throws InterruptedException Выбрасывает при прерывании ожидания.
+     */
+    @Test
+    @Tag("submit-transfer")
+    public void testSubmitTransfer_Error_WorkerKeepsRunning() throws InterruptedException {
+        when(accountService.transfer(eq(1L), any(AccountTransactionDTO.class)))
+                .thenThrow(new StackOverflowError("stack overflow"))
+                .thenReturn(new AccountInfoDTO());
+
+        operationService = startService(10);
+        OperationDTO first = operationService.submitTransfer(1L, transaction(Money.parse("50.00")));
+        OperationDTO failed = awaitFinished(first.getId());
+        assertEquals(OperationStatus.FAILED, failed.getStatus());
+        assertEquals("stack overflow", failed.getErrorMessage());
+
+        OperationDTO second = operationService.submitTransfer(1L, transaction(Money.parse("50.00")));
+        assertEquals(OperationStatus.COMPLETED, awaitFinished(second.getId()).getStatus());
+    }
+
+    /**
+     * Проверяет отклонение перевода с некорректной суммой, несуществующим или помеченным на удаление счетом
+     * до постановки в очередь.
+     */
+    @Test
+    @Tag("submit-transfer")
+    public void testSubmitTransfer_Validation() {
+        operationService = startService(10);
+
+        assertThrows(AccountWithdrawException.class, () -> operationService.submitTransfer(1L, transaction(Money.parse("-1.00"))));
+        assertThrows(AccountNotFoundException.class, () -> operationService.submitTransfer(2L, transaction(Money.parse("10.00"))));
+
+        AccountTransactionDTO unknownDestination = transaction(Money.parse("10.00"));
+        unknownDestination.setSourceAccountName("unknown");
+        assertThrows(AccountNotFoundException.class, () -> operationService.submitTransfer(1L, unknownDestination));
+
+        // Название помеченного на удаление счета занято, но перевод на такой счет не принимается.
+        when(accountRepository.existsAccountByAccountName("deleted")).thenReturn(true);
+        AccountTransactionDTO deletedDestination = transaction(Money.parse("10.00"));
+        deletedDestination.setSourceAccountName("deleted");
+        assertThrows(AccountNotFoundException.class, () -> operationService.submitTransfer(1L, deletedDestination));
+
+        verify(accountService, never()).transfer(any(), any());
+    }
+
+    /**
+     * Проверяет отклонение перевода при переполнении очереди.
+     * @throws InterruptedException Выбрасывает при прерывании ожидания.
+     */
+    @Test
+    @Tag("submit-transfer")
+    public void testSubmitTransfer_Rejected() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(accountService.transfer(eq(1L), any(AccountTransactionDTO.class))).thenAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return new AccountInfoDTO();
+        });
+
+        operationService = startService(1);
+        operationService.submitTransfer(1L, transaction(Money.parse("10.00")));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        operationService.submitTransfer(1L, transaction(Money.parse("10.00")));
+
+        assertThrows(OperationRejectedException.class, () -> operationService.submitTransfer(1L, transaction(Money.parse("10.00"))));
+        release.countDown();
+    }
+
+    /**
+     * Проверяет поиск несуществующей операции.
+     */
+    @Test
+    @Tag("get-operation")
+    public void testGetOperation_NotFound() {
+        operationService = startService(10);
+
+        assertThrows(OperationNotFoundException.class, () -> operationService.getOperation("unknown"));
+    }
+
+    private OperationServiceImpl startService(int queueCapacity) {
+        OperationServiceImpl service = new OperationServiceImpl(accountService, accountRepository, 1, queueCapacity, 100);
+        service.start();
+        return service;
+    }
+
+    private AccountTransactionDTO transaction(Money amount) {
+        AccountTransactionDTO accountTransactionDTO = new AccountTransactionDTO();
+        accountTransactionDTO.setSourceAccountName("destination");
+        accountTransactionDTO.setTransferAmount(amount);
+        accountTransactionDTO.setPin("1234");
+        return accountTransactionDTO;
+    }
+
+    private OperationDTO awaitFinished(String operationId) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        OperationDTO operationDTO = operationService.getOperation(operationId);
+        while (operationDTO.getStatus() != OperationStatus.COMPLETED
+                && operationDTO.getStatus() != OperationStatus.FAILED
+                && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            operationDTO = operationService.getOperation(operationId);
+        }
+        return operationDTO;
+    }
+}
@@ -0,0 +1,119 @@
+package ru.averkiev.bankservice.services.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.beans.factory.ObjectProvider;
+import ru.averkiev.bankservice.engine.LedgerEngine;
+import ru.averkiev.bankservice.exceptions.AccountNotFoundException;
+import ru.averkiev.bankservice.exceptions.LedgerHistoryUnavailableException;
+import ru.averkiev.bankservice.models.LedgerEntryType;
+import ru.averkiev.bankservice.models.Money;
+import ru.averkiev.bankservice.models.StatementEntryDTO;
+import ru.averkiev.bankservice.repositories.AccountRepository;
+import ru.averkiev.bankservice.repositories.LedgerEntryRepository;
+
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Класс тестирует формирование выписки по счету.
+ * @author mrGreenNV
+ */
+@Tag("statement-service")
+class StatementServiceImplTest {
+
+    private AutoCloseable closeable;
+
+    @Mock
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private ObjectProvider<LedgerEngine> ledgerEngineProvider;
+
+    private StatementServiceImpl statementService;
+
+    @BeforeEach
+    public void openMocks() {
+        closeable = MockitoAnnotations.openMocks(this);
+        statementService = new StatementServiceImpl(ledgerEntryRepository, accountRepository, new ObjectMapper(),
+                ledgerEngineProvider, 2);
+    }
+
+    @AfterEach
+    public void releaseMocks() throws Exception {
+        closeable.close();
+    }
+
+    /**
+     * Проверяет чтение выписки частями с продолжением от последней прочитанной строки.
+     * @throws Exception Выбрасывает при ошибке записи выписки.
+     */
+    @Test
+    @Tag("statement")
+    public void testGetStatement_ReadsByKeyset() throws Exception {
+        Date first = new Date(1_000);
+        Date second = new Date(2_000);
+        when(accountRepository.existsById(1L)).thenReturn(true);
+        when(ledgerEntryRepository.findStatementPage(eq(1L), any(), any(), any(), any()))
+                .thenReturn(List.of(entry(10L, first, Money.parse("100.00")), entry(12L, second, Money.parse("-40.00"))))
+                .thenReturn(List.of(entry(15L, second, Money.parse("-10.00"))));
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        statementService.getStatement(1L, LocalDateTime.of(1970, 1, 1, 0, 0), null).writeTo(outputStream);
+
+        verify(ledgerEntryRepository).findStatementPage(eq(1L), any(), eq(0L), any(), any());
+        verify(ledgerEntryRepository).findStatementPage(eq(1L), eq(second), eq(12L), any(), any());
+        verifyNoMoreInteractions(ledgerEntryRepository);
+
+        JsonNode statement = new ObjectMapper().readTree(outputStream.toByteArray());
+        assertEquals(3, statement.size());
+        assertEquals(10L, statement.get(0).get("id").asLong());
+        assertEquals(-10., statement.get(2).get("amount").asDouble());
+    }
+
+    /**
+     * Проверяет выброс исключения при запросе выписки по несуществующему счету.
+     */
+    @Test
+    @Tag("statement")
+    public void testGetStatement_AccountNotFound_ThrowAccountNotFoundException() {
+        when(accountRepository.existsById(1L)).thenReturn(false);
+
+        assertThrows(AccountNotFoundException.class, () -> statementService.getStatement(1L, null, null));
+        verifyNoInteractions(ledgerEntryRepository);
+    }
+
+    /**
+     * Проверяет, что в режиме движка учета балансов, который не записывает проводки, выписка отклоняется
+     * до начала записи ответа, а не формируется пустой.
+     */
+    @Test
+    @Tag("statement")
+    public void testGetStatement_LedgerEngine_ThrowLedgerHistoryUnavailableException() {
+        when(ledgerEngineProvider.getIfAvailable()).thenReturn(mock(LedgerEngine.class));
+        when(accountRepository.existsById(1L)).thenReturn(true);
+
+        assertThrows(LedgerHistoryUnavailableException.class, () -> statementService.getStatement(1L, null, null));
+        verifyNoInteractions(ledgerEntryRepository);
+    }
+
+    private StatementEntryDTO entry(Long id, Date createdAt, Money amount) {
+        return new StatementEntryDTO(id, "operation-" + id, LedgerEntryType.TRANSFER, amount, createdAt);
+    }
+}
@@ -0,0 +1,214 @@
+package ru.averkiev.bankservice.storage;
+
+import liquibase.integration.spring.SpringLiquibase;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Нагрузочный тест хранилища: сравнивает пропускную способность пополнений и переводов и время восстановления
+ * после аварийного завершения для базы данных в памяти и файловой базы данных профиля durable.
+ * Не выполняется при обычной сборке, запуск: mvn -Pbenchmark test
+ * @author mrGreenNV
+ */
+@Tag("benchmark")
+@Slf4j
+class DurableStorageBenchmarkTest {
+
+    /** Количество счетов */
+    private static final int ACCOUNTS = 1_000;
+
+    /** Количество операций каждого вида */
+    private static final int OPERATIONS = 20_000;
+
+    /** Начальный баланс счета в минимальных денежных единицах */
+    private static final long INITIAL_BALANCE = 1_000_000;
+
+    /** Параметры файловой базы данных, совпадающие с application-durable.yaml */
+    private static final String DURABLE_SETTINGS =
+            ";CACHE_SIZE=65536;WRITE_DELAY=0;RETENTION_TIME=10000;MAX_COMPACT_TIME=2000;DB_CLOSE_ON_EXIT=FALSE";
+
+    @TempDir
+    Path dataDirectory;
+
+    /**
+     * Сравнивает режимы хранения. Файловая база данных с WRITE_DELAY=0 не должна терять зафиксированные операции
+     * при аварийном завершении; с задержкой записи по умолчанию H2 теряются операции последних 500 мс.
+     */
+    @Test
+    public void compareStorageModes() throws Exception {
+        // Прогрев JIT, чтобы первый замеряемый режим не оказался в худших условиях.
+        run("warm-up", "jdbc:h2:mem:bank_service_benchmark_warm_up;DB_CLOSE_DELAY=-1");
+
+        Result memory = run("in-memory", "jdbc:h2:mem:bank_service_benchmark;DB_CLOSE_DELAY=-1");
+        Result durable = run("durable", "jdbc:h2:file:" + dataDirectory.resolve("durable") + DURABLE_SETTINGS);
+        Result delayed = run("durable, WRITE_DELAY=500",
+                "jdbc:h2:file:" + dataDirectory.resolve("delayed") + ";WRITE_DELAY=500;DB_CLOSE_ON_EXIT=FALSE");
+
+        log.info("{}", Result.HEADER);
+        log.info("{}", memory);
+        log.info("{}", durable);
+        log.info("{}", delayed);
+
+        assertEquals(memory.committedEntries(), memory.lostEntries());
+        assertEquals(0, durable.lostEntries());
+        assertEquals(ACCOUNTS * INITIAL_BALANCE, durable.recoveredTotalBalance());
+    }
+
+    /**
+     * Выполняет пополнения и переводы, аварийно закрывает базу данных и открывает ее повторно.
+     * @param mode Название режима.
+     * @param url Адрес базы данных.
+     * @return Результаты замеров.
+     */
+    private Result run(String mode, String url) throws Exception {
+        long depositsPerSecond;
+        long transfersPerSecond;
+        long committedEntries;
+        try (Connection connection = DriverManager.getConnection(url, "sa", "password")) {
+            migrate(connection);
+            createAccounts(connection);
+            // Пополнения выполняются со счета-источника, чтобы сумма балансов счетов не менялась.
+            depositsPerSecond = measure(() -> transfer(connection, "DEPOSIT"));
+            transfersPerSecond = measure(() -> transfer(connection, "TRANSFER"));
+            committedEntries = countEntries(connection);
+
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SHUTDOWN IMMEDIATELY");
+            }
+        }
+
+        long started = System.nanoTime();
+        try (Connection connection = DriverManager.getConnection(url + ";IFEXISTS=TRUE", "sa", "password")) {
+            long recoveredEntries = countEntries(connection);
+            long recoveryMs = (System.nanoTime() - started) / 1_000_000;
+            return new Result(mode, depositsPerSecond, transfersPerSecond, recoveryMs, committedEntries,
+                    committedEntries - recoveredEntries, totalBalance(connection));
+        } catch (SQLException e) {
+            // База данных в памяти после завершения не существует: потеряны все операции.
+            return new Result(mode, depositsPerSecond, transfersPerSecond, -1, committedEntries, committedEntries, 0);
+        }
+    }
+
+    private static void migrate(Connection connection) throws Exception {
+        SpringLiquibase liquibase = new SpringLiquibase();
+        liquibase.setDataSource(new SingleConnectionDataSource(connection, true));
+        liquibase.setChangeLog("classpath:db/changelog/db.changelog-master.xml");
+        liquibase.setResourceLoader(new DefaultResourceLoader());
+        liquibase.afterPropertiesSet();
+    }
+
+    private static void createAccounts(Connection connection) throws SQLException {
+        connection.setAutoCommit(false);
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO accounts "
+                + "(number, name, balance, pin_code, created_at, updated_at, status, version) "
+                + "VALUES (?, ?, ?, 'pin', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, 'ACTIVE', 0)")) {
+            for (int i = 0; i < ACCOUNTS; i++) {
+                insert.setString(1, String.format("%020d", i));
+                insert.setString(2, "account-" + i);
+                insert.setLong(3, INITIAL_BALANCE);
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+        connection.commit();
+    }
+
+    /**
+     * Выполняет операцию в отдельной транзакции: изменяет балансы двух счетов и записывает пару проводок,
+     * как это делает сервис счетов.
+     */
+    private static void transfer(Connection connection, String entryType) throws SQLException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long source = random.nextLong(1, ACCOUNTS + 1);
+        long destination = random.nextLong(1, ACCOUNTS + 1);
+        long amount = random.nextLong(1, 100);
+        String operationId = UUID.randomUUID().toString();
+
+        try (PreparedStatement update = connection.prepareStatement("UPDATE accounts SET balance = balance + ?, "
+                + "updated_at = CURRENT_TIMESTAMP, version = version + 1 WHERE id = ?");
+             PreparedStatement insert = connection.prepareStatement("INSERT INTO ledger_entries "
+                     + "(operation_id, account_id, amount, entry_type, materialized, created_at) "
+                     + "VALUES (?, ?, ?, ?, TRUE, CURRENT_TIMESTAMP)")) {
+            update.setLong(1, -amount);
+            update.setLong(2, source);
+            update.addBatch();
+            update.setLong(1, amount);
+            update.setLong(2, destination);
+            update.addBatch();
+            update.executeBatch();
+
+            insert.setString(1, operationId);
+            insert.setLong(2, source);
+            insert.setLong(3, -amount);
+            insert.setString(4, entryType);
+            insert.addBatch();
+            insert.setString(1, operationId);
+            insert.setLong(2, destination);
+            insert.setLong(3, amount);
+            insert.setString(4, entryType);
+            insert.addBatch();
+            insert.executeBatch();
+        }
+        connection.commit();
+    }
+
+    private static long measure(Operation operation) throws SQLException {
+        long started = System.nanoTime();
+        for (int i = 0; i < OPERATIONS; i++) {
+            operation.execute();
+        }
+        return OPERATIONS * 1_000_000_000L / (System.nanoTime() - started);
+    }
+
+    private static long countEntries(Connection connection) throws SQLException {
+        return queryLong(connection, "SELECT COUNT(*) FROM ledger_entries");
+    }
+
+    private static long totalBalance(Connection connection) throws SQLException {
+        return queryLong(connection, "SELECT SUM(balance) FROM accounts");
+    }
+
+    private static long queryLong(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement(); ResultSet resultSet = statement.executeQuery(sql)) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Operation {
+        void execute() throws SQLException;
+    }
+
+    /**
+     * Результаты замеров режима хранения.
+     */
+    private record Result(String mode, long depositsPerSecond, long transfersPerSecond, long recoveryMs,
+                          long committedEntries, long lostEntries, long recoveredTotalBalance) {
+
+        static final String HEADER = String.format("%-26s %12s %12s %12s %14s",
+                "mode", "deposits/s", "transfers/s", "recovery ms", "lost entries");
+
+        @Override
+        public String toString() {
+            return String.format("%-26s %12d %12d %12s %14d", mode, depositsPerSecond, transfersPerSecond,
+                    recoveryMs < 0 ? "n/a" : String.valueOf(recoveryMs), lostEntries);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package ru.averkiev.bankservice.storage;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Класс тестирует обслуживание файла базы данных в профиле durable.
+ * @author mrGreenNV
+ */
+@Tag("durable-storage-maintenance")
+class DurableStorageMaintenanceTest {
+
+    @TempDir
+    Path dataDirectory;
+
+    private SingleConnectionDataSource dataSource;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private DurableStorageMaintenance maintenance;
+
+    @BeforeEach
+    public void setUp() {
+        dataSource = new SingleConnectionDataSource("jdbc:h2:file:" + dataDirectory.resolve("bank_service_db")
+                + ";WRITE_DELAY=0;RETENTION_TIME=0", "sa", "password", true);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        maintenance = new DurableStorageMaintenance(dataSource, 80, 5_000);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        dataSource.destroy();
+    }
+
+    /**
+     * Проверяет, что уплотнение после удаления большей части строк повышает заполненность блоков файла,
+     * а данные после контрольной точки и уплотнения сохраняются.
+     */
+    @Test
+    public void testCheckpointAndCompact() throws Exception {
+        jdbcTemplate.execute("CREATE TABLE accounts (id BIGINT PRIMARY KEY, name VARCHAR(100))");
+        for (int batch = 0; batch < 20; batch++) {
+            int from = batch * 1_000;
+            jdbcTemplate.update("INSERT INTO accounts SELECT X, REPEAT('a', 100) FROM SYSTEM_RANGE(?, ?)",
+                    from, from + 999);
+        }
+        jdbcTemplate.update("DELETE FROM accounts WHERE MOD(id, 10) <> 0");
+        maintenance.checkpoint();
+
+        int fillRate = maintenance.compact();
+
+        assertTrue(fillRate >= 80, "fill rate " + fillRate);
+        assertEquals(2_000, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM accounts", Integer.class));
+    }
+}
@@ -0,0 +1,76 @@
+package ru.averkiev.bankservice.utils;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Класс тестирует поиск строк по началу и подстроке в n-граммном индексе.
+ * @author mrGreenNV
+ */
+@Tag("n-gram-index")
+class NGramIndexTest {
+
+    /**
+     * Проверяет, что поиск подстроки не учитывает регистр и упорядочивает результаты по релевантности:
+     * точное совпадение, начало строки, начало слова, остальные совпадения.
+     */
+    @Test
+    public void testSearch_RanksMatches() {
+        NGramIndex index = new NGramIndex();
+        index.put(1L, "Savings Ivanov");
+        index.put(2L, "ivanova");
+        index.put(3L, "Salary Petrov");
+        index.put(4L, "Ivan");
+        index.put(5L, "Davivanko");
+
+        assertEquals(List.of(4L, 2L, 1L, 5L), ids(index.search("IVAN", 10)));
+        assertEquals(List.of(4L, 2L), ids(index.search("ivan", 2)));
+        assertEquals(List.of(3L), ids(index.search("petr", 10)));
+        assertTrue(index.search("ivanovich", 10).isEmpty());
+        assertTrue(index.search(" ", 10).isEmpty());
+    }
+
+    /**
+     * Проверяет, что запросы короче длины n-граммы ищутся по началу строки: точное совпадение первым,
+     * затем остальные строки по алфавиту.
+     */
+    @Test
+    public void testSearch_ShortQueryByPrefix() {
+        NGramIndex index = new NGramIndex();
+        index.put(1L, "abc");
+        index.put(2L, "Ab");
+        index.put(3L, "xab");
+        index.put(4L, "abaca");
+
+        assertEquals(List.of(2L, 4L, 1L), ids(index.search("ab", 10)));
+        assertEquals(List.of(2L), ids(index.search("aB", 1)));
+    }
+
+    /**
+     * Проверяет, что переименованная и удаленная строки не находятся по прежнему названию.
+     */
+    @Test
+    public void testPutAndRemove_UpdatesIndex() {
+        NGramIndex index = new NGramIndex();
+        index.put(1L, "Branch office");
+        index.put(2L, "Branch closed");
+
+        index.put(1L, "Head office");
+        index.remove(2L);
+        index.remove(3L);
+
+        assertTrue(index.search("branch", 10).isEmpty());
+        assertTrue(index.search("br", 10).isEmpty());
+        assertEquals(List.of(1L), ids(index.search("office", 10)));
+        assertEquals("Head office", index.search("he", 10).get(0).text());
+        assertEquals(1, index.size());
+    }
+
+    private static List<Long> ids(List<NGramIndex.Match> matches) {
+        return matches.stream().map(NGramIndex.Match::id).toList();
+    }
+}
@@ -0,0 +1,114 @@
+package ru.averkiev.bankservice.utils;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Класс тестирует объединение одновременных загрузок по одному ключу.
+ * @author mrGreenNV
+ */
+@Tag("single-flight")
+class SingleFlightTest {
+
+    private static final int CALLERS = 8;
+
+    /**
+     * Проверяет, что одновременные вызовы с одним ключом выполняют одну загрузку и получают ее результат,
+     * а вызов после завершения загрузки выполняет новую загрузку.
+     */
+    @Test
+    public void testExecute_CoalescesConcurrentCalls() throws Exception {
+        SingleFlight<Long, String> singleFlight = new SingleFlight<>();
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loadStarted = new CountDownLatch(1);
+        CountDownLatch releaseLoad = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+        try {
+            Future<String> leader = executor.submit(() -> singleFlight.execute(1L, () -> {
+                loads.incrementAndGet();
+                loadStarted.countDown();
+                await(releaseLoad);
+                return "account-1";
+            }));
+            assertTrue(loadStarted.await(5, TimeUnit.SECONDS));
+
+            List<Future<String>> followers = new ArrayList<>();
+            for (int i = 1; i < CALLERS; i++) {
+                followers.add(executor.submit(() -> singleFlight.execute(1L, () -> {
+                    loads.incrementAndGet();
+                    return "account-1-again";
+                })));
+            }
+            // Загрузка другого ключа не ожидает загрузку первого.
+            assertEquals("account-2", singleFlight.execute(2L, () -> "account-2"));
+
+            Thread.sleep(100);
+            releaseLoad.countDown();
+
+            assertEquals("account-1", leader.get(5, TimeUnit.SECONDS));
+            for (Future<String> follower : followers) {
+                assertEquals("account-1", follower.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, loads.get());
+        assertEquals(0, singleFlight.inFlight());
+        assertEquals("account-1-again", singleFlight.execute(1L, () -> "account-1-again"));
+    }
+
+    /**
+     * Проверяет передачу ошибки загрузки ожидающим вызовам.
+     */
+    @Test
+    public void testExecute_PropagatesFailure() throws Exception {
+        SingleFlight<Long, String> singleFlight = new SingleFlight<>();
+        CountDownLatch loadStarted = new CountDownLatch(1);
+        CountDownLatch releaseLoad = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> leader = executor.submit(() -> singleFlight.execute(1L, () -> {
+                loadStarted.countDown();
+                await(releaseLoad);
+                throw new IllegalStateException("База данных недоступна");
+            }));
+            assertTrue(loadStarted.await(5, TimeUnit.SECONDS));
+            Future<String> follower = executor.submit(() -> singleFlight.execute(1L, () -> "account-1"));
+
+            Thread.sleep(100);
+            releaseLoad.countDown();
+
+            Exception leaderError = assertThrows(Exception.class, () -> leader.get(5, TimeUnit.SECONDS));
+            Exception followerError = assertThrows(Exception.class, () -> follower.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(IllegalStateException.class, leaderError.getCause());
+            assertInstanceOf(IllegalStateException.class, followerError.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(0, singleFlight.inFlight());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        }
+    }
+}
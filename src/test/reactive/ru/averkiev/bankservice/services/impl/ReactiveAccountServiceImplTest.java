@@ -0,0 +1,304 @@
+package ru.averkiev.bankservice.services.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.modelmapper.ModelMapper;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.transaction.ReactiveTransaction;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+import ru.averkiev.bankservice.exceptions.AccountAccessException;
+import ru.averkiev.bankservice.exceptions.AccountNotFoundException;
+import ru.averkiev.bankservice.exceptions.AccountWithdrawException;
+import ru.averkiev.bankservice.models.AccountInfoDTO;
+import ru.averkiev.bankservice.models.AccountTransactionDTO;
+import ru.averkiev.bankservice.models.AccountUpdateNameDTO;
+import ru.averkiev.bankservice.models.Money;
+import ru.averkiev.bankservice.models.ReactiveAccount;
+import ru.averkiev.bankservice.repositories.ReactiveAccountRepository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Класс тестирует реактивный сервисный уровень при взаимодействии со счетом.
+ * @author mrGreenNV
+ */
+@Tag("reactive-account-service")
+class ReactiveAccountServiceImplTest {
+
+    private AutoCloseable closeable;
+
+    @Mock
+    private ReactiveAccountRepository accountRepository;
+
+    @Mock
+    private ModelMapper modelMapper;
+
+    @Mock
+    private BCryptPasswordEncoder passwordEncoder;
+
+    @Mock
+    private ReactiveTransactionManager transactionManager;
+
+    @Mock
+    private ReactiveTransaction transaction;
+
+    private ReactiveAccountServiceImpl accountService;
+
+    @BeforeEach
+    public void openMocks() {
+        closeable = MockitoAnnotations.openMocks(this);
+        when(transactionManager.getReactiveTransaction(any())).thenReturn(Mono.just(transaction));
+        when(transactionManager.commit(any())).thenReturn(Mono.empty());
+        when(transactionManager.rollback(any())).thenReturn(Mono.empty());
+        accountService = new ReactiveAccountServiceImpl(accountRepository, modelMapper, passwordEncoder,
+                Schedulers.immediate(), TransactionalOperator.create(transactionManager));
+    }
+
+    @AfterEach
+    public void releaseMocks() throws Exception {
+        closeable.close();
+    }
+
+    /**
+     * Проверяет, что списание выполняется одним условным запросом UPDATE без сохранения счета целиком.
+     */
+    @Test
+    @Tag("withdraw")
+    public void testWithdraw_ConditionalDebit_Success() {
+
+        ReactiveAccount account = account(1L, "account", "500.00");
+        AccountInfoDTO accountInfoDTO = new AccountInfoDTO();
+
+        when(accountRepository.findById(1L)).thenReturn(Mono.just(account));
+        when(passwordEncoder.matches("1234", "hashed_pin")).thenReturn(true);
+        when(accountRepository.debit(1L, 20_000L)).thenReturn(Mono.just(1));
+        when(modelMapper.map(account, AccountInfoDTO.class)).thenReturn(accountInfoDTO);
+
+        StepVerifier.create(accountService.withdraw(1L, transaction("1234", "200.00", null)))
+                .expectNext(accountInfoDTO)
+                .verifyComplete();
+
+        verify(accountRepository, times(1)).debit(1L, 20_000L);
+        verify(accountRepository, never()).save(any());
+    }
+
+    /**
+     * Проверяет выброс исключения при списании суммы больше баланса: условный запрос не изменяет ни одной записи.
+     */
+    @Test
+    @Tag("withdraw")
+    public void testWithdraw_Overdraft_ThrowAccountWithdrawException() {
+
+        when(accountRepository.findById(1L)).thenReturn(Mono.just(account(1L, "account", "100.00")));
+        when(passwordEncoder.matches("1234", "hashed_pin")).thenReturn(true);
+        when(accountRepository.debit(1L, 20_000L)).thenReturn(Mono.just(0));
+
+        StepVerifier.create(accountService.withdraw(1L, transaction("1234", "200.00", null)))
+                .expectErrorSatisfies(error -> {
+                    assertEquals(AccountWithdrawException.class, error.getClass());
+                    assertEquals("Сумма списания должна быть не больше текущего баланса", error.getMessage());
+                })
+                .verify();
+
+        verify(modelMapper, never()).map(any(), eq(AccountInfoDTO.class));
+    }
+
+    /**
+     * Проверяет выброс исключения при неверном пин-коде: средства не списываются.
+     */
+    @Test
+    @Tag("withdraw")
+    public void testWithdraw_InvalidPin_ThrowAccountAccessException() {
+
+        when(accountRepository.findById(1L)).thenReturn(Mono.just(account(1L, "account", "500.00")));
+        when(passwordEncoder.matches(anyString(), anyString())).thenReturn(false);
+
+        StepVerifier.create(accountService.withdraw(1L, transaction("0000", "200.00", null)))
+                .expectError(AccountAccessException.class)
+                .verify();
+
+        verify(accountRepository, never()).debit(anyLong(), anyLong());
+    }
+
+    /**
+     * Проверяет, что перевод выполняет списание и зачисление в одной транзакции и фиксирует ее.
+     */
+    @Test
+    @Tag("transfer")
+    public void testTransfer_Success_CommitsTransaction() {
+
+        ReactiveAccount account = account(1L, "account", "500.00");
+        AccountInfoDTO accountInfoDTO = new AccountInfoDTO();
+
+        when(accountRepository.findById(1L)).thenReturn(Mono.just(account));
+        when(accountRepository.findByAccountName("destination")).thenReturn(Mono.just(account(2L, "destination", "0.00")));
+        when(passwordEncoder.matches("1234", "hashed_pin")).thenReturn(true);
+        when(accountRepository.debit(1L, 20_000L)).thenReturn(Mono.just(1));
+        when(accountRepository.credit(2L, 20_000L)).thenReturn(Mono.just(1));
+        when(modelMapper.map(account, AccountInfoDTO.class)).thenReturn(accountInfoDTO);
+
+        StepVerifier.create(accountService.transfer(1L, transaction("1234", "200.00", "destination")))
+                .expectNext(accountInfoDTO)
+                .verifyComplete();
+
+        verify(transactionManager, times(1)).commit(transaction);
+        verify(transactionManager, never()).rollback(any());
+    }
+
+    /**
+     * Проверяет, что при ошибке зачисления транзакция перевода откатывается вместе с уже выполненным списанием.
+     */
+    @Test
+    @Tag("transfer")
+    public void testTransfer_CreditFails_RollsBackTransaction() {
+
+        when(accountRepository.findById(1L)).thenReturn(Mono.just(account(1L, "account", "500.00")));
+        when(accountRepository.findByAccountName("destination")).thenReturn(Mono.just(account(2L, "destination", "0.00")));
+        when(passwordEncoder.matches("1234", "hashed_pin")).thenReturn(true);
+        when(accountRepository.debit(1L, 20_000L)).thenReturn(Mono.just(1));
+        when(accountRepository.credit(2L, 20_000L)).thenReturn(Mono.error(new IllegalStateException("credit failed")));
+
+        StepVerifier.create(accountService.transfer(1L, transaction("1234", "200.00", "destination")))
+                .expectError(IllegalStateException.class)
+                .verify();
+
+        verify(accountRepository, times(1)).debit(1L, 20_000L);
+        verify(transactionManager, times(1)).rollback(transaction);
+        verify(transactionManager, never()).commit(any());
+    }
+
+    /**
+     * Проверяет, что перевод суммы больше баланса откатывает транзакцию без зачисления.
+     */
+    @Test
+    @Tag("transfer")
+    public void testTransfer_Overdraft_RollsBackTransaction() {
+
+        Mono<Integer> credit = Mono.fromCallable(() -> {
+            throw new AssertionError("Зачисление не должно выполняться");
+        });
+
+        when(accountRepository.findById(1L)).thenReturn(Mono.just(account(1L, "account", "100.00")));
+        when(accountRepository.findByAccountName("destination")).thenReturn(Mono.just(account(2L, "destination", "0.00")));
+        when(passwordEncoder.matches("1234", "hashed_pin")).thenReturn(true);
+        when(accountRepository.debit(1L, 20_000L)).thenReturn(Mono.just(0));
+        when(accountRepository.credit(2L, 20_000L)).thenReturn(credit);
+
+        StepVerifier.create(accountService.transfer(1L, transaction("1234", "200.00", "destination")))
+                .expectError(AccountWithdrawException.class)
+                .verify();
+
+        verify(transactionManager, times(1)).rollback(transaction);
+        verify(transactionManager, never()).commit(any());
+    }
+
+    /**
+     * Проверяет, что перевод на счет, помеченный на удаление после поиска, откатывает уже выполненное списание.
+     */
+    @Test
+    @Tag("transfer")
+    public void testTransfer_DestinationDeleted_RollsBackTransaction() {
+
+        when(accountRepository.findById(1L)).thenReturn(Mono.just(account(1L, "account", "500.00")));
+        when(accountRepository.findByAccountName("destination")).thenReturn(Mono.just(account(2L, "destination", "0.00")));
+        when(passwordEncoder.matches("1234", "hashed_pin")).thenReturn(true);
+        when(accountRepository.debit(1L, 20_000L)).thenReturn(Mono.just(1));
+        when(accountRepository.credit(2L, 20_000L)).thenReturn(Mono.just(0));
+
+        StepVerifier.create(accountService.transfer(1L, transaction("1234", "200.00", "destination")))
+                .expectError(AccountNotFoundException.class)
+                .verify();
+
+        verify(transactionManager, times(1)).rollback(transaction);
+        verify(transactionManager, never()).commit(any());
+    }
+
+    /**
+     * Проверяет, что название счета обновляется отдельным запросом UPDATE без сохранения счета целиком.
+     */
+    @Test
+    @Tag("update-account-name")
+    public void testUpdateAccountName_TargetedUpdate_Success() {
+
+        ReactiveAccount account = account(1L, "account", "500.00");
+        AccountInfoDTO accountInfoDTO = new AccountInfoDTO();
+        AccountUpdateNameDTO accountUpdateNameDTO = new AccountUpdateNameDTO();
+        accountUpdateNameDTO.setPin("1234");
+        accountUpdateNameDTO.setUpdatedAccountName("renamed");
+
+        when(accountRepository.findById(1L)).thenReturn(Mono.just(account));
+        when(passwordEncoder.matches("1234", "hashed_pin")).thenReturn(true);
+        when(accountRepository.existsByAccountName("renamed")).thenReturn(Mono.just(false));
+        when(accountRepository.updateName(1L, "renamed")).thenReturn(Mono.just(1));
+        when(modelMapper.map(account, AccountInfoDTO.class)).thenReturn(accountInfoDTO);
+
+        StepVerifier.create(accountService.updateAccountName(1L, accountUpdateNameDTO))
+                .expectNext(accountInfoDTO)
+                .verifyComplete();
+
+        verify(accountRepository, times(1)).updateName(1L, "renamed");
+        verify(accountRepository, never()).save(any());
+    }
+
+    /**
+     * Проверяет, что счет помечается на удаление отдельным запросом UPDATE без сохранения счета целиком.
+     */
+    @Test
+    @Tag("soft-delete-account")
+    public void testSoftDeleteAccount_TargetedUpdate_Success() {
+
+        when(accountRepository.findById(1L)).thenReturn(Mono.just(account(1L, "account", "500.00")));
+        when(accountRepository.markDeleted(1L)).thenReturn(Mono.just(1));
+
+        StepVerifier.create(accountService.softDeleteAccount(1L))
+                .verifyComplete();
+
+        verify(accountRepository, times(1)).markDeleted(1L);
+        verify(accountRepository, never()).save(any());
+    }
+
+    /**
+     * Проверяет, что счет, помеченный на удаление параллельным запросом, не деактивируется повторно.
+     */
+    @Test
+    @Tag("soft-delete-account")
+    public void testSoftDeleteAccount_AlreadyDeleted_ThrowAccountNotFoundException() {
+
+        when(accountRepository.findById(1L)).thenReturn(Mono.just(account(1L, "account", "500.00")));
+        when(accountRepository.markDeleted(1L)).thenReturn(Mono.just(0));
+
+        StepVerifier.create(accountService.softDeleteAccount(1L))
+                .expectError(AccountNotFoundException.class)
+                .verify();
+    }
+
+    private static ReactiveAccount account(Long id, String name, String balance) {
+        ReactiveAccount account = new ReactiveAccount();
+        account.setId(id);
+        account.setAccountName(name);
+        account.setPin("hashed_pin");
+        account.setAccountBalance(Money.parse(balance));
+        return account;
+    }
+
+    private static AccountTransactionDTO transaction(String pin, String amount, String destination) {
+        AccountTransactionDTO accountTransactionDTO = new AccountTransactionDTO();
+        accountTransactionDTO.setPin(pin);
+        accountTransactionDTO.setTransferAmount(Money.parse(amount));
+        accountTransactionDTO.setSourceAccountName(destination);
+        return accountTransactionDTO;
+    }
+}